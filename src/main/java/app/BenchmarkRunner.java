@@ -0,0 +1,1079 @@
+package app;
+
+import graph.dagsp.CompactWeightedGraph;
+import graph.dagsp.ContractedDag;
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.KLongestPaths;
+import graph.dagsp.ListScheduler;
+import graph.dagsp.MonteCarloCriticalPath;
+import graph.dagsp.NodeWeightedGraph;
+import graph.dagsp.ParallelDAGShortestPath;
+import graph.dagsp.Semiring;
+import graph.relabel.VertexRelabeling;
+import graph.scc.KosarajuSCC;
+import graph.scc.SCCSelector;
+import graph.scc.TarjanSCC;
+import graph.shard.ConeQuery;
+import graph.shard.ShardedPipeline;
+import graph.topo.TopologicalSort;
+import graph.topo.TransitiveReduction;
+import io.CsrGraphBuilder;
+import io.EdgeListParser;
+import io.LongIdMap;
+import io.StringIdMap;
+import model.CompressedGraph;
+import model.CsrGraph;
+import model.NeighborCursor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Micro-benchmarks for the graph engines on synthetic graphs.
+ * Usage: BenchmarkRunner [scenario ...]; every scenario runs when none is given.
+ */
+public class BenchmarkRunner {
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    public static void main(String[] args) {
+        Set<String> selected = new HashSet<>(Arrays.asList(args));
+
+        if (selected.isEmpty() || selected.contains("kpaths")) {
+            benchmarkKLongestPaths();
+        }
+        if (selected.isEmpty() || selected.contains("wavefront")) {
+            benchmarkWavefront();
+        }
+        if (selected.isEmpty() || selected.contains("weights")) {
+            benchmarkWeightEncodings();
+        }
+        if (selected.isEmpty() || selected.contains("nodeweights")) {
+            benchmarkNodeWeights();
+        }
+        if (selected.isEmpty() || selected.contains("montecarlo")) {
+            benchmarkMonteCarlo();
+        }
+        if (selected.isEmpty() || selected.contains("schedule")) {
+            benchmarkListScheduler();
+        }
+        if (selected.isEmpty() || selected.contains("reduction")) {
+            benchmarkTransitiveReduction();
+        }
+        if (selected.isEmpty() || selected.contains("chains")) {
+            benchmarkChainContraction();
+        }
+        if (selected.isEmpty() || selected.contains("semiring")) {
+            benchmarkSemiring();
+        }
+        if (selected.isEmpty() || selected.contains("cones")) {
+            benchmarkCones();
+        }
+        if (selected.isEmpty() || selected.contains("csr")) {
+            benchmarkCsrBuild();
+        }
+        if (selected.isEmpty() || selected.contains("parse")) {
+            benchmarkEdgeListParse();
+        }
+        if (selected.isEmpty() || selected.contains("remap")) {
+            benchmarkIdRemapping();
+        }
+        if (selected.isEmpty() || selected.contains("compressed")) {
+            runWithLargeStack(BenchmarkRunner::benchmarkCompressedAdjacency);
+        }
+        if (selected.isEmpty() || selected.contains("relabel")) {
+            runWithLargeStack(BenchmarkRunner::benchmarkRelabeling);
+        }
+        if (selected.isEmpty() || selected.contains("scc")) {
+            runWithLargeStack(BenchmarkRunner::benchmarkSccEngines);
+        }
+        if (selected.isEmpty() || selected.contains("shards")) {
+            runWithLargeStack(BenchmarkRunner::benchmarkSharding);
+        }
+    }
+
+    /**
+     * K longest paths for K up to 10,000 against the single longest path.
+     */
+    private static void benchmarkKLongestPaths() {
+        int n = 100_000;
+        List<List<double[]>> graph = generateLayeredDag(n, 4, 42);
+        List<Integer> topoOrder = identityOrder(n);
+
+        System.out.println("\n=== K Longest Paths (n=" + n + ", m=" + countEdges(graph) + ") ===");
+        DAGShortestPath dagsp = new DAGShortestPath();
+        long baseline = timeNanos(() -> dagsp.findCriticalPath(graph, topoOrder, 0));
+        System.out.printf("  findCriticalPath:   %10.3f ms%n", baseline / 1_000_000.0);
+
+        KLongestPaths kPaths = new KLongestPaths();
+        for (int k : new int[]{1, 10, 100, 1_000, 10_000}) {
+            long time = timeNanos(() -> kPaths.findKLongestPaths(graph, topoOrder, 0, k));
+            System.out.printf("  K=%-6d            %10.3f ms%n", k, time / 1_000_000.0);
+        }
+    }
+
+    /**
+     * Sequential push sweep against level-parallel pull sweep on wide and deep DAGs.
+     */
+    private static void benchmarkWavefront() {
+        int n = 1_000_000;
+        System.out.println("\n=== Wavefront DAG Paths (n=" + n + ") ===");
+        ParallelDAGShortestPath engine = new ParallelDAGShortestPath();
+        for (int window : new int[]{100_000, 32}) {
+            List<List<double[]>> graph = generateDag(n, 4, window, 42);
+            List<Integer> topoOrder = identityOrder(n);
+            long sequential = timeNanos(() -> engine.shortestPaths(
+                    graph, topoOrder, 0, ParallelDAGShortestPath.Mode.SEQUENTIAL));
+            ParallelDAGShortestPath.Plan plan = ParallelDAGShortestPath.prepare(graph, topoOrder);
+            long parallel = timeNanos(() -> engine.shortestPaths(plan, 0));
+            engine.shortestPaths(graph, topoOrder, 0);
+            String auto = engine.getMetrics().getCounter("parallel_runs") > 0 ? "PARALLEL" : "SEQUENTIAL";
+            System.out.printf("  window=%-7d sequential %9.3f ms, parallel %9.3f ms, auto -> %s%n",
+                    window, sequential / 1_000_000.0, parallel / 1_000_000.0, auto);
+        }
+    }
+
+    /**
+     * Shortest-path sweep over the adjacency list against each compact weight encoding.
+     */
+    private static void benchmarkWeightEncodings() {
+        int n = 2_000_000;
+        List<List<double[]>> graph = generateLayeredDag(n, 4, 42);
+        List<Integer> topoOrder = identityOrder(n);
+        System.out.println("\n=== Weight Encodings (n=" + n + ", m=" + countEdges(graph) + ") ===");
+
+        DAGShortestPath dagsp = new DAGShortestPath();
+        long baseline = timeNanos(() -> dagsp.shortestPaths(graph, topoOrder, 0));
+        double[] reference = dagsp.shortestPaths(graph, topoOrder, 0);
+        System.out.printf("  %-12s %9.3f ms%n", "List<double[]>", baseline / 1_000_000.0);
+
+        List<CompactWeightedGraph> encoded = Arrays.asList(
+                CompactWeightedGraph.from(graph, CompactWeightedGraph.WeightEncoding.DOUBLE),
+                CompactWeightedGraph.from(graph, CompactWeightedGraph.WeightEncoding.FLOAT32),
+                CompactWeightedGraph.fixedPoint(graph, 1000.0),
+                CompactWeightedGraph.from(graph, CompactWeightedGraph.WeightEncoding.UNIT));
+        for (CompactWeightedGraph compact : encoded) {
+            long time = timeNanos(() -> dagsp.shortestPaths(compact, topoOrder, 0));
+            double maxError = 0.0;
+            if (compact.getEncoding() != CompactWeightedGraph.WeightEncoding.UNIT) {
+                double[] dist = dagsp.shortestPaths(compact, topoOrder, 0);
+                for (int v = 0; v < n; v++) {
+                    if (dist[v] != Double.POSITIVE_INFINITY) {
+                        maxError = Math.max(maxError, Math.abs(dist[v] - reference[v]));
+                    }
+                }
+            }
+            System.out.printf("  %-14s %9.3f ms, %5.1f MB edge data, max abs error %.2e%n",
+                    compact.getEncoding(), time / 1_000_000.0,
+                    compact.getEdgeBytes() / 1_048_576.0, maxError);
+        }
+    }
+
+    /**
+     * Task durations stored once per vertex against the same durations copied onto every edge.
+     */
+    private static void benchmarkNodeWeights() {
+        int n = 1_000_000;
+        List<List<double[]>> layered = generateLayeredDag(n, 8, 42);
+        List<Integer> topoOrder = identityOrder(n);
+        Random random = new Random(7);
+        double[] durations = new double[n];
+        for (int v = 0; v < n; v++) {
+            durations[v] = 1 + random.nextInt(10);
+        }
+        List<List<Integer>> structure = new ArrayList<>(n);
+        List<List<double[]>> copied = new ArrayList<>(n);
+        for (List<double[]> edges : layered) {
+            List<Integer> targets = new ArrayList<>(edges.size());
+            List<double[]> weighted = new ArrayList<>(edges.size());
+            for (double[] edge : edges) {
+                int v = (int) edge[0];
+                targets.add(v);
+                weighted.add(new double[]{v, durations[v]});
+            }
+            structure.add(targets);
+            copied.add(weighted);
+        }
+
+        CompactWeightedGraph edgeWeighted = CompactWeightedGraph.from(copied, CompactWeightedGraph.WeightEncoding.DOUBLE);
+        NodeWeightedGraph nodeWeighted = NodeWeightedGraph.from(structure, durations);
+        DAGShortestPath dagsp = new DAGShortestPath();
+        System.out.println("\n=== Node vs Edge Weights (n=" + n + ", m=" + nodeWeighted.getEdgeCount() + ") ===");
+        long edgeTime = timeNanos(() -> dagsp.longestPaths(edgeWeighted, topoOrder, 0));
+        long nodeTime = timeNanos(() -> dagsp.longestPaths(nodeWeighted, topoOrder, 0));
+        System.out.printf("  edge weights %8.1f MB, longest sweep %9.3f ms%n",
+                edgeWeighted.getEdgeBytes() / 1e6, edgeTime / 1_000_000.0);
+        System.out.printf("  node weights %8.1f MB, longest sweep %9.3f ms%n",
+                nodeWeighted.getEdgeBytes() / 1e6, nodeTime / 1_000_000.0);
+    }
+
+    /**
+     * Monte Carlo makespan sampling: one longestPaths run per sample over freshly sampled list
+     * weights, against the batched sample-minor engine.
+     */
+    private static void benchmarkMonteCarlo() {
+        int n = 20_000;
+        int samples = 1_000;
+        List<List<double[]>> graph = generateLayeredDag(n, 4, 42);
+        List<Integer> topoOrder = identityOrder(n);
+        MonteCarloCriticalPath.Durations durations = MonteCarloCriticalPath.Durations.around(graph, 0.8, 1.5);
+        System.out.println("\n=== Monte Carlo Makespan (n=" + n + ", m=" + countEdges(graph)
+                + ", samples=" + samples + ") ===");
+
+        // Per-sample baseline: resample every list weight, then a full longest-path run
+        List<List<double[]>> sampled = new ArrayList<>(n);
+        for (List<double[]> edges : graph) {
+            List<double[]> copy = new ArrayList<>(edges.size());
+            for (double[] edge : edges) {
+                copy.add(edge.clone());
+            }
+            sampled.add(copy);
+        }
+        DAGShortestPath dagsp = new DAGShortestPath();
+        long baseline = timeNanos(() -> {
+            SplittableRandom random = new SplittableRandom(1);
+            double[] makespans = new double[samples];
+            for (int i = 0; i < samples; i++) {
+                for (int u = 0; u < n; u++) {
+                    List<double[]> edges = graph.get(u);
+                    for (int j = 0; j < edges.size(); j++) {
+                        double w = edges.get(j)[1];
+                        double min = w * 0.8;
+                        double max = w * 1.5;
+                        double split = (w - min) / (max - min);
+                        double r = random.nextDouble();
+                        sampled.get(u).get(j)[1] = r < split
+                                ? min + Math.sqrt(r * (max - min) * (w - min))
+                                : max - Math.sqrt((1 - r) * (max - min) * (max - w));
+                    }
+                }
+                double[] dist = dagsp.longestPaths(sampled, topoOrder, 0);
+                for (double d : dist) {
+                    makespans[i] = Math.max(makespans[i], d);
+                }
+            }
+        });
+        MonteCarloCriticalPath engine = new MonteCarloCriticalPath();
+        long batched = timeNanos(() -> engine.simulate(graph, topoOrder, durations, samples, 1));
+        MonteCarloCriticalPath.Result result = engine.simulate(graph, topoOrder, durations, samples, 1);
+        System.out.printf("  per-sample longestPaths %9.3f ms (%6.0f samples/s)%n",
+                baseline / 1_000_000.0, samples / (baseline / 1e9));
+        System.out.printf("  batched engine          %9.3f ms (%6.0f samples/s, batch %d)%n",
+                batched / 1_000_000.0, samples / (batched / 1e9), engine.getMetrics().getCounter("batch_size"));
+        System.out.printf("  makespan P10 %.2f, P50 %.2f, P90 %.2f%n",
+                result.getPercentile(10), result.getPercentile(50), result.getPercentile(90));
+    }
+
+    /**
+     * List scheduling throughput in tasks/sec on 8 to 65,536 crews, against the same
+     * algorithm written with boxed PriorityQueues.
+     */
+    private static void benchmarkListScheduler() {
+        int n = 1_000_000;
+        // Edges reach up to 100,000 ids ahead, so thousands of tasks are ready at once
+        List<List<double[]>> wide = generateDag(n, 4, 100_000, 42);
+        List<Integer> topoOrder = identityOrder(n);
+        Random random = new Random(7);
+        double[] durations = new double[n];
+        for (int v = 0; v < n; v++) {
+            durations[v] = 1 + random.nextInt(10);
+        }
+        List<List<Integer>> structure = new ArrayList<>(n);
+        for (List<double[]> edges : wide) {
+            List<Integer> targets = new ArrayList<>(edges.size());
+            for (double[] edge : edges) {
+                targets.add((int) edge[0]);
+            }
+            structure.add(targets);
+        }
+        NodeWeightedGraph tasks = NodeWeightedGraph.from(structure, durations);
+        System.out.println("\n=== List Scheduling (n=" + n + ", m=" + tasks.getEdgeCount() + ") ===");
+
+        ListScheduler scheduler = new ListScheduler();
+        for (int crews : new int[]{8, 256, 65_536}) {
+            long boxed = timeNanos(() -> boxedListSchedule(structure, durations, topoOrder, crews));
+            long primitive = timeNanos(() -> scheduler.schedule(tasks, topoOrder, crews));
+            ListScheduler.Schedule schedule = scheduler.schedule(tasks, topoOrder, crews);
+            System.out.printf("  P=%-6d boxed %8.1f ms (%5.2f M tasks/s), primitive heaps %8.1f ms (%5.2f M tasks/s), "
+                            + "makespan %.0f, utilization %.2f%n",
+                    crews, boxed / 1e6, n / (boxed / 1e3), primitive / 1e6, n / (primitive / 1e3),
+                    schedule.getMakespan(), schedule.getUtilization());
+        }
+    }
+
+    /**
+     * Reference list scheduler over boxed collections: PriorityQueue of task ids compared through
+     * the bottom-level array, and a PriorityQueue of {finish, task} pairs. Returns the makespan.
+     */
+    private static double boxedListSchedule(List<List<Integer>> graph, double[] durations,
+                                            List<Integer> topoOrder, int crews) {
+        int n = graph.size();
+        double[] bottomLevel = new double[n];
+        int[] waiting = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            int u = topoOrder.get(i);
+            double longest = 0.0;
+            for (int v : graph.get(u)) {
+                longest = Math.max(longest, bottomLevel[v]);
+                waiting[v]++;
+            }
+            bottomLevel[u] = durations[u] + longest;
+        }
+        PriorityQueue<Integer> ready = new PriorityQueue<>(
+                Comparator.comparingDouble((Integer v) -> -bottomLevel[v]).thenComparingInt(v -> v));
+        for (int v = 0; v < n; v++) {
+            if (waiting[v] == 0) {
+                ready.add(v);
+            }
+        }
+        PriorityQueue<double[]> running = new PriorityQueue<>(Comparator.comparingDouble((double[] a) -> a[0]));
+        double time = 0.0;
+        int free = crews;
+        while (!ready.isEmpty() || !running.isEmpty()) {
+            while (free > 0 && !ready.isEmpty()) {
+                int task = ready.poll();
+                running.add(new double[]{time + durations[task], task});
+                free--;
+            }
+            double[] done = running.poll();
+            time = done[0];
+            free++;
+            for (int v : graph.get((int) done[1])) {
+                if (--waiting[v] == 0) {
+                    ready.add(v);
+                }
+            }
+        }
+        return time;
+    }
+
+    /**
+     * Transitive reduction with each encoding, and the time of downstream reachability passes
+     * (Kahn's sort and forward-cone searches from 200 sources) before and after it.
+     */
+    private static void benchmarkTransitiveReduction() {
+        System.out.println("\n=== Transitive Reduction ===");
+        for (int n : new int[]{10_000, 200_000}) {
+            List<List<Integer>> dag = toStructure(generateDag(n, 8, 64, 42));
+            List<Integer> topoOrder = identityOrder(n);
+            TransitiveReduction reduction = new TransitiveReduction();
+            TransitiveReduction.Method[] methods = n <= 16_384
+                    ? new TransitiveReduction.Method[]{TransitiveReduction.Method.BITSET, TransitiveReduction.Method.CHAINS}
+                    : new TransitiveReduction.Method[]{TransitiveReduction.Method.CHAINS};
+            TransitiveReduction.Result result = null;
+            for (TransitiveReduction.Method method : methods) {
+                long time = timeNanos(() -> reduction.reduce(dag, topoOrder, method));
+                result = reduction.reduce(dag, topoOrder, method);
+                System.out.printf("  n=%-7d %-6s %9.3f ms, %d -> %d edges (%.0f%% removed)%n",
+                        n, method, time / 1e6, result.getInputEdgeCount(), result.getEdgeCount(),
+                        100.0 * result.getRemovedEdgeCount() / result.getInputEdgeCount());
+            }
+            List<List<Integer>> reduced = result.getGraph();
+            TopologicalSort topo = new TopologicalSort();
+            long sortBefore = timeNanos(() -> topo.topologicalSort(dag));
+            long sortAfter = timeNanos(() -> topo.topologicalSort(reduced));
+            long conesBefore = timeNanos(() -> forwardCones(dag, 200));
+            long conesAfter = timeNanos(() -> forwardCones(reduced, 200));
+            System.out.printf("  n=%-7d Kahn %8.3f -> %8.3f ms (%.2fx), 200 cones %9.3f -> %9.3f ms (%.2fx)%n",
+                    n, sortBefore / 1e6, sortAfter / 1e6, (double) sortBefore / sortAfter,
+                    conesBefore / 1e6, conesAfter / 1e6, (double) conesBefore / conesAfter);
+        }
+    }
+
+    /**
+     * Total size of the forward cones of evenly spaced sources, by iterative DFS with a
+     * per-search stamp.
+     */
+    private static long forwardCones(List<List<Integer>> graph, int sources) {
+        int n = graph.size();
+        int[] stamp = new int[n];
+        int[] stack = new int[n];
+        long reached = 0;
+        for (int i = 0; i < sources; i++) {
+            int source = (int) ((long) n * i / sources);
+            int top = 0;
+            stack[top++] = source;
+            stamp[source] = i + 1;
+            while (top > 0) {
+                int u = stack[--top];
+                reached++;
+                for (int v : graph.get(u)) {
+                    if (stamp[v] != i + 1) {
+                        stamp[v] = i + 1;
+                        stack[top++] = v;
+                    }
+                }
+            }
+        }
+        return reached;
+    }
+
+    private static List<List<Integer>> toStructure(List<List<double[]>> weighted) {
+        List<List<Integer>> structure = new ArrayList<>(weighted.size());
+        for (List<double[]> edges : weighted) {
+            List<Integer> targets = new ArrayList<>(edges.size());
+            for (double[] edge : edges) {
+                targets.add((int) edge[0]);
+            }
+            structure.add(targets);
+        }
+        return structure;
+    }
+
+    /**
+     * Critical path on a task graph made mostly of series chains: the adjacency-list sweep
+     * against the chain-contracted sweep, with contraction and full back-fill timed apart.
+     */
+    private static void benchmarkChainContraction() {
+        int junctions = 100_000;
+        Random random = new Random(42);
+        List<List<double[]>> graph = new ArrayList<>();
+        for (int u = 0; u < junctions; u++) {
+            graph.add(new ArrayList<>());
+        }
+        // Every junction edge is subdivided into a chain of 0..30 vertices
+        for (int u = 0; u + 1 < junctions; u++) {
+            for (int i = 0; i < 3; i++) {
+                int v = u + 1 + random.nextInt(Math.min(1_000, junctions - u - 1));
+                int previous = u;
+                for (int c = random.nextInt(31); c > 0; c--) {
+                    graph.add(new ArrayList<>());
+                    graph.get(previous).add(new double[]{graph.size() - 1, 1 + random.nextInt(10)});
+                    previous = graph.size() - 1;
+                }
+                graph.get(previous).add(new double[]{v, 1 + random.nextInt(10)});
+            }
+        }
+        int n = graph.size();
+        List<Integer> topoOrder = new TopologicalSort().topologicalSort(toStructure(graph));
+        int source = topoOrder.get(0);
+
+        long contractTime = timeNanos(() -> ContractedDag.from(graph, topoOrder));
+        ContractedDag contracted = ContractedDag.from(graph, topoOrder);
+        System.out.println("\n=== Chain Contraction (n=" + n + ", m=" + contracted.getEdgeCount() + " -> "
+                + contracted.getContractedVertexCount() + " junctions, " + contracted.getContractedEdgeCount()
+                + " edges) ===");
+        DAGShortestPath dagsp = new DAGShortestPath();
+        long listCritical = timeNanos(() -> dagsp.findCriticalPath(graph, topoOrder, source));
+        long contractedCritical = timeNanos(() -> dagsp.findCriticalPath(contracted, source));
+        long listShortest = timeNanos(() -> dagsp.shortestPaths(graph, topoOrder, source));
+        long contractedShortest = timeNanos(() -> dagsp.shortestPaths(contracted, source));
+        long backFill = timeNanos(() -> dagsp.shortestPaths(contracted, source).toArray());
+        System.out.printf("  contraction (once)          %9.3f ms%n", contractTime / 1e6);
+        System.out.printf("  findCriticalPath  list %9.3f ms, contracted %9.3f ms (%.1fx)%n",
+                listCritical / 1e6, contractedCritical / 1e6, (double) listCritical / contractedCritical);
+        System.out.printf("  shortestPaths     list %9.3f ms, contracted %9.3f ms (%.1fx), +toArray %9.3f ms%n",
+                listShortest / 1e6, contractedShortest / 1e6, (double) listShortest / contractedShortest,
+                backFill / 1e6);
+    }
+
+    /**
+     * Specialized semiring kernels against the handwritten loops they replaced, the generic
+     * (virtual-call) semiring loop, and the HashMap-based path reconstruction.
+     */
+    private static void benchmarkSemiring() {
+        int n = 1_000_000;
+        List<List<double[]>> graph = generateDag(n, 4, 100_000, 42);
+        List<Integer> topoOrder = identityOrder(n);
+        System.out.println("\n=== Semiring DAG DP (n=" + n + ", m=" + countEdges(graph) + ") ===");
+
+        double[] dist = new double[n];
+        int[] parent = new int[n];
+        Semiring genericMinPlus = new Semiring("generic MIN_PLUS") {
+            public double zero() {
+                return Double.POSITIVE_INFINITY;
+            }
+
+            public double one() {
+                return 0.0;
+            }
+
+            public double plus(double a, double b) {
+                return Math.min(a, b);
+            }
+
+            public double times(double a, double b) {
+                return a + b;
+            }
+        };
+        long handShortest = timeNanos(() -> handwrittenSweep(graph, topoOrder, 0, dist, null, false));
+        long kernelShortest = timeNanos(() -> Semiring.MIN_PLUS.solve(graph, topoOrder, 0, dist, null));
+        long genericShortest = timeNanos(() -> genericMinPlus.solve(graph, topoOrder, 0, dist, null));
+        long handLongest = timeNanos(() -> handwrittenSweep(graph, topoOrder, 0, dist, parent, true));
+        long kernelLongest = timeNanos(() -> Semiring.MAX_PLUS.solve(graph, topoOrder, 0, dist, parent));
+        System.out.printf("  shortest  handwritten %8.3f ms, kernel %8.3f ms, generic %8.3f ms%n",
+                handShortest / 1e6, kernelShortest / 1e6, genericShortest / 1e6);
+        System.out.printf("  longest   handwritten %8.3f ms, kernel %8.3f ms%n",
+                handLongest / 1e6, kernelLongest / 1e6);
+        for (Semiring semiring : new Semiring[]{Semiring.COUNT, Semiring.BOTTLENECK, Semiring.RELIABILITY}) {
+            long time = timeNanos(() -> semiring.solve(graph, topoOrder, 0, dist, null));
+            System.out.printf("  %-11s kernel %8.3f ms%n", semiring, time / 1e6);
+        }
+
+        DAGShortestPath dagsp = new DAGShortestPath();
+        double[] longest = dagsp.longestPaths(graph, topoOrder, 0);
+        int target = 0;
+        for (int v = 0; v < n; v++) {
+            if (longest[v] > longest[target]) {
+                target = v;
+            }
+        }
+        int sink = target;
+        long mapPath = timeNanos(() -> hashMapReconstruct(graph, topoOrder, 0, sink, true));
+        long arrayPath = timeNanos(() -> dagsp.reconstructPath(graph, topoOrder, 0, sink, longest, true));
+        System.out.printf("  reconstructPath  HashMap %8.3f ms, int[] %8.3f ms (%.1fx)%n",
+                mapPath / 1e6, arrayPath / 1e6, (double) mapPath / arrayPath);
+    }
+
+    // The shortest/longest loop DAGShortestPath had before the semiring kernels
+    private static long handwrittenSweep(List<List<double[]>> graph, List<Integer> topoOrder, int source,
+                                         double[] dist, int[] parent, boolean longest) {
+        Arrays.fill(dist, longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+        if (parent != null) {
+            Arrays.fill(parent, -1);
+        }
+        dist[source] = 0.0;
+        long relaxations = 0;
+        boolean foundSource = false;
+        for (int u : topoOrder) {
+            if (u == source) {
+                foundSource = true;
+            }
+            if (!foundSource) {
+                continue;
+            }
+            if (longest ? dist[u] != Double.NEGATIVE_INFINITY : dist[u] != Double.POSITIVE_INFINITY) {
+                for (double[] edge : graph.get(u)) {
+                    int v = (int) edge[0];
+                    relaxations++;
+                    if (longest ? dist[v] < dist[u] + edge[1] : dist[v] > dist[u] + edge[1]) {
+                        dist[v] = dist[u] + edge[1];
+                        if (parent != null) {
+                            parent[v] = u;
+                        }
+                    }
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    // The reconstructPath DAGShortestPath had before: HashMap parents, branch in the inner loop
+    private static List<Integer> hashMapReconstruct(List<List<double[]>> graph, List<Integer> topoOrder,
+                                                    int source, int target, boolean longest) {
+        Map<Integer, Integer> parent = new HashMap<>();
+        double[] dist = new double[graph.size()];
+        Arrays.fill(dist, longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+        dist[source] = 0.0;
+        boolean foundSource = false;
+        for (int u : topoOrder) {
+            if (u == source) {
+                foundSource = true;
+            }
+            if (!foundSource) {
+                continue;
+            }
+            if (dist[u] != (longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY)) {
+                for (double[] edge : graph.get(u)) {
+                    int v = (int) edge[0];
+                    if (longest) {
+                        if (dist[v] < dist[u] + edge[1]) {
+                            dist[v] = dist[u] + edge[1];
+                            parent.put(v, u);
+                        }
+                    } else if (dist[v] > dist[u] + edge[1]) {
+                        dist[v] = dist[u] + edge[1];
+                        parent.put(v, u);
+                    }
+                }
+            }
+        }
+        List<Integer> path = new ArrayList<>();
+        int current = target;
+        while (current != source && parent.containsKey(current) && path.size() < graph.size()) {
+            path.add(0, current);
+            current = parent.get(current);
+        }
+        path.add(0, source);
+        return path;
+    }
+
+    /**
+     * Cone queries per level strategy against a full shortestPaths sweep filtered to finite
+     * distances, for a large and a small descendant cone and an ancestor cone.
+     */
+    private static void benchmarkCones() {
+        int n = 1_000_000;
+        List<List<double[]>> graph = generateDag(n, 4, 100_000, 42);
+        List<Integer> topoOrder = identityOrder(n);
+        int m = (int) countEdges(graph);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] weights = new double[m];
+        for (int u = 0, e = 0; u < n; u++) {
+            for (double[] edge : graph.get(u)) {
+                from[e] = u;
+                to[e] = (int) edge[0];
+                weights[e++] = edge[1];
+            }
+        }
+        CsrGraph csr = CsrGraphBuilder.build(n, from, to, weights, m);
+        System.out.println("\n=== Cone Queries (n=" + n + ", m=" + m + ", "
+                + Runtime.getRuntime().availableProcessors() + " cores) ===");
+
+        DAGShortestPath dagsp = new DAGShortestPath();
+        ConeQuery query = new ConeQuery();
+        for (int seed : new int[]{1_000, n - 200_000}) {
+            long sweep = timeNanos(() -> {
+                double[] dist = dagsp.shortestPaths(graph, topoOrder, seed);
+                boolean[] inCone = new boolean[n];
+                for (int v = 0; v < n; v++) {
+                    inCone[v] = dist[v] != Double.POSITIVE_INFINITY;
+                }
+            });
+            int size = query.descendants(csr, seed).getSize();
+            System.out.printf("  descendants of %d (%d vertices): shortestPaths+filter %9.3f ms%n",
+                    seed, size, sweep / 1e6);
+            printConeStrategies(query, csr, seed, ConeQuery.Direction.DESCENDANTS);
+        }
+        int sink = n - 1_000;
+        System.out.printf("  ancestors of %d (%d vertices):%n", sink, query.ancestors(csr, sink).getSize());
+        printConeStrategies(query, csr, sink, ConeQuery.Direction.ANCESTORS);
+
+        ConeQuery.Cone cone = query.descendants(csr, n - 200_000);
+        long induce = timeNanos(cone::toSubgraph);
+        System.out.printf("  toSubgraph (%d vertices) %9.3f ms%n", cone.getSize(), induce / 1e6);
+    }
+
+    private static void printConeStrategies(ConeQuery query, CsrGraph csr, int seed, ConeQuery.Direction direction) {
+        for (ConeQuery.Strategy strategy : ConeQuery.Strategy.values()) {
+            long time = timeNanos(() -> query.cone(csr, new int[]{seed}, direction, strategy));
+            System.out.printf("    %-9s %9.3f ms, %,d edges scanned, %d of %d levels bottom-up%n",
+                    strategy, time / 1e6, query.getMetrics().getCounter("edges_scanned"),
+                    query.getMetrics().getCounter("bottom_up_levels"), query.getMetrics().getCounter("levels"));
+        }
+    }
+
+    /**
+     * Parallel CSR build throughput in edges/sec. The edge count defaults to 10^7;
+     * pass -Dcsr.edges=100000000 (with a heap of roughly 6 GB) for the 10^8 run.
+     */
+    private static void benchmarkCsrBuild() {
+        int m = Integer.getInteger("csr.edges", 10_000_000);
+        int n = Math.max(1, m / 10);
+        Random random = new Random(42);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] weights = new double[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = random.nextInt(n);
+            to[i] = random.nextInt(n);
+            weights[i] = random.nextDouble() * 10.0;
+        }
+
+        System.out.println("\n=== CSR Build (n=" + n + ", m=" + m + ") ===");
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads *= 2) {
+            int workers = threads;
+            long time = timeNanos(() -> CsrGraphBuilder.build(n, from, to, weights, m, workers));
+            System.out.printf("  threads=%-3d %9.3f ms, %6.1f M edges/s (forward + reverse)%n",
+                    threads, time / 1_000_000.0, m / (time / 1e9) / 1e6);
+        }
+    }
+
+    /**
+     * Edge-list parse throughput in MB/s against a BufferedReader + String.split baseline.
+     * The edge count defaults to 10^7 (about 200 MB of text); set -Dparse.edges to change it.
+     */
+    private static void benchmarkEdgeListParse() {
+        int m = Integer.getInteger("parse.edges", 10_000_000);
+        int n = Math.max(1, m / 10);
+        Path file;
+        try {
+            file = Files.createTempFile("edges", ".tsv");
+            Random random = new Random(42);
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                for (int i = 0; i < m; i++) {
+                    writer.write(random.nextInt(n) + "\t" + random.nextInt(n) + "\t" + random.nextInt(10_000) / 1000.0 + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            double megabytes = Files.size(file) / 1e6;
+            System.out.printf("%n=== Edge List Parse (m=%d, %.1f MB) ===%n", m, megabytes);
+            long baseline = timeNanos(() -> {
+                try (BufferedReader reader = Files.newBufferedReader(file)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String[] fields = line.split("\t");
+                        Integer.parseInt(fields[0]);
+                        Integer.parseInt(fields[1]);
+                        Double.parseDouble(fields[2]);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            System.out.printf("  readLine+split %9.3f ms, %7.1f MB/s%n",
+                    baseline / 1_000_000.0, megabytes / (baseline / 1e9));
+            int processors = Runtime.getRuntime().availableProcessors();
+            for (int threads = 1; threads <= processors; threads *= 2) {
+                EdgeListParser parser = new EdgeListParser(threads);
+                long time = timeNanos(() -> {
+                    try {
+                        parser.parse(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                System.out.printf("  threads=%-3d    %9.3f ms, %7.1f MB/s%n",
+                        threads, time / 1_000_000.0, megabytes / (time / 1e9));
+            }
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Dense remapping throughput in M ids/s: the primitive maps against HashMap with boxed keys,
+     * on endpoint ids drawn from 10^6 sparse 64-bit ids. String ids are read from one contiguous
+     * buffer of tokens, as the parser reads them.
+     */
+    private static void benchmarkIdRemapping() {
+        int tokens = 10_000_000;
+        int distinct = 1_000_000;
+        Random random = new Random(42);
+        long[] sparse = new long[distinct];
+        for (int i = 0; i < distinct; i++) {
+            sparse[i] = random.nextLong();
+        }
+        long[] keys = new long[tokens];
+        for (int i = 0; i < tokens; i++) {
+            keys[i] = sparse[random.nextInt(distinct)];
+        }
+        StringBuilder text = new StringBuilder();
+        int[] tokenStart = new int[tokens + 1];
+        for (int i = 0; i < tokens; i++) {
+            tokenStart[i] = text.length();
+            text.append("task-").append(Long.toHexString(keys[i]));
+        }
+        tokenStart[tokens] = text.length();
+        byte[] bytes = text.toString().getBytes();
+
+        System.out.println("\n=== Id Remapping (" + tokens + " ids, " + distinct + " distinct) ===");
+        long primitive = timeNanos(() -> {
+            LongIdMap map = new LongIdMap();
+            for (long key : keys) {
+                map.getOrAdd(key);
+            }
+        });
+        long boxed = timeNanos(() -> {
+            Map<Long, Integer> map = new HashMap<>();
+            for (long key : keys) {
+                map.computeIfAbsent(key, k -> map.size());
+            }
+        });
+        long strings = timeNanos(() -> {
+            StringIdMap map = new StringIdMap();
+            for (int i = 0; i < tokens; i++) {
+                map.getOrAdd(bytes, tokenStart[i], tokenStart[i + 1] - tokenStart[i]);
+            }
+        });
+        System.out.printf("  LongIdMap            %9.3f ms, %6.1f M ids/s%n", primitive / 1e6, tokens / (primitive / 1e9) / 1e6);
+        System.out.printf("  HashMap<Long,Int>    %9.3f ms, %6.1f M ids/s%n", boxed / 1e6, tokens / (boxed / 1e9) / 1e6);
+        System.out.printf("  StringIdMap (bytes)  %9.3f ms, %6.1f M ids/s%n", strings / 1e6, tokens / (strings / 1e9) / 1e6);
+    }
+
+    /**
+     * Gap-encoded varint adjacency against the boxed lists GraphLoader builds and a flat CSR
+     * array: bits per edge, full-scan throughput in M edges/s, and Tarjan / Kahn through
+     * neighbor cursors. List sizes are estimated for compressed oops (a 4-byte reference and
+     * a 16-byte Integer per edge, 40 bytes of ArrayList and array headers per vertex).
+     */
+    private static void benchmarkCompressedAdjacency() {
+        int n = 1_000_000;
+        List<List<Integer>> digraph = generateRandomDigraph(n, 4, 42);
+        List<List<Integer>> dag = new ArrayList<>(n);
+        for (List<double[]> edges : generateLayeredDag(n, 4, 42)) {
+            List<Integer> targets = new ArrayList<>(edges.size());
+            for (double[] edge : edges) {
+                targets.add((int) edge[0]);
+            }
+            dag.add(targets);
+        }
+
+        for (List<List<Integer>> graph : Arrays.asList(digraph, dag)) {
+            long m = countEdges(graph);
+            CompressedGraph compressed = CompressedGraph.from(graph);
+            System.out.println("\n=== Compressed Adjacency (" + (graph == dag ? "DAG" : "digraph")
+                    + ", n=" + n + ", m=" + m + ") ===");
+            System.out.printf("  bits/edge: lists ~%.1f, CSR %.1f, compressed %.2f (%.2f with offsets)%n",
+                    (160.0 * m + 320.0 * n) / m, 32.0 + 32.0 * (n + 1) / m,
+                    compressed.getBitsPerEdge(), compressed.getTotalBitsPerEdge());
+
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[(int) m];
+            for (int u = 0; u < n; u++) {
+                int e = offsets[u];
+                for (int v : graph.get(u)) {
+                    targets[e++] = v;
+                }
+                offsets[u + 1] = e;
+            }
+            long[] sink = new long[1];
+            long listScan = timeNanos(() -> {
+                long sum = 0;
+                for (List<Integer> edges : graph) {
+                    for (int v : edges) {
+                        sum += v;
+                    }
+                }
+                sink[0] += sum;
+            });
+            long csrScan = timeNanos(() -> {
+                long sum = 0;
+                for (int e = 0; e < targets.length; e++) {
+                    sum += targets[e];
+                }
+                sink[0] += sum;
+            });
+            long compressedScan = timeNanos(() -> {
+                long sum = 0;
+                NeighborCursor cursor = compressed.newCursor();
+                for (int u = 0; u < n; u++) {
+                    cursor.reset(u);
+                    while (cursor.hasNext()) {
+                        sum += cursor.next();
+                    }
+                }
+                sink[0] += sum;
+            });
+            System.out.printf("  scan:      lists %8.1f, CSR %8.1f, compressed %8.1f M edges/s%n",
+                    m * 1e3 / listScan, m * 1e3 / csrScan, m * 1e3 / compressedScan);
+
+            TarjanSCC tarjan = new TarjanSCC();
+            long tarjanLists = timeNanos(() -> tarjan.findComponents(graph));
+            long tarjanCompressed = timeNanos(() -> tarjan.findComponents(compressed));
+            System.out.printf("  Tarjan:    lists %9.3f ms, compressed %9.3f ms%n",
+                    tarjanLists / 1_000_000.0, tarjanCompressed / 1_000_000.0);
+            if (graph == dag) {
+                TopologicalSort topo = new TopologicalSort();
+                long topoLists = timeNanos(() -> topo.topologicalSort(graph));
+                long topoCompressed = timeNanos(() -> topo.topologicalSort(compressed));
+                System.out.printf("  Kahn:      lists %9.3f ms, compressed %9.3f ms%n",
+                        topoLists / 1_000_000.0, topoCompressed / 1_000_000.0);
+            }
+            if (sink[0] == 42) {
+                System.out.println();
+            }
+        }
+    }
+
+    /**
+     * Algorithms on randomly numbered graphs against the same graphs after a locality relabel.
+     * The JVM exposes no cache-miss counters, so this reports wall time; run under
+     * {@code perf stat -e cache-misses} to see the miss reduction directly.
+     */
+    private static void benchmarkRelabeling() {
+        int n = 1_000_000;
+        System.out.println("\n=== Vertex Relabeling (n=" + n + ") ===");
+
+        // Scramble a DAG whose natural order is topological
+        VertexRelabeling scramble = VertexRelabeling.fromOrder(shuffledOrder(n, 7));
+        List<List<double[]>> dag = scramble.applyWeighted(generateLayeredDag(n, 4, 42));
+        List<Integer> scrambledOrder = scramble.toNew(identityOrder(n));
+        int source = scramble.toNew(0);
+
+        DAGShortestPath dagsp = new DAGShortestPath();
+        long before = timeNanos(() -> dagsp.shortestPaths(dag, scrambledOrder, source));
+        long relabelStart = System.nanoTime();
+        VertexRelabeling topo = VertexRelabeling.fromOrder(scrambledOrder);
+        List<List<double[]>> relabeledDag = topo.applyWeighted(dag);
+        long relabelTime = System.nanoTime() - relabelStart;
+        List<Integer> identity = identityOrder(n);
+        long after = timeNanos(() -> topo.restore(dagsp.shortestPaths(relabeledDag, identity, topo.toNew(source))));
+        System.out.printf("  shortestPaths: scrambled %9.3f ms, topo-relabeled %9.3f ms (relabel %9.3f ms)%n",
+                before / 1_000_000.0, after / 1_000_000.0, relabelTime / 1_000_000.0);
+
+        List<List<Integer>> digraph = scramble.apply(generateRandomDigraph(n, 3, 42));
+        TarjanSCC tarjan = new TarjanSCC();
+        long sccBefore = timeNanos(() -> tarjan.findSCCs(digraph));
+        VertexRelabeling bfs = VertexRelabeling.cuthillMcKee(digraph);
+        List<List<Integer>> relabeledDigraph = bfs.apply(digraph);
+        long sccAfter = timeNanos(() -> bfs.restoreComponents(tarjan.findSCCs(relabeledDigraph)));
+        VertexRelabeling degree = VertexRelabeling.byDegree(digraph);
+        List<List<Integer>> degreeDigraph = degree.apply(digraph);
+        long sccDegree = timeNanos(() -> degree.restoreComponents(tarjan.findSCCs(degreeDigraph)));
+        System.out.printf("  findSCCs:      scrambled %9.3f ms, BFS-relabeled %9.3f ms, degree-relabeled %9.3f ms%n",
+                sccBefore / 1_000_000.0, sccAfter / 1_000_000.0, sccDegree / 1_000_000.0);
+    }
+
+    /**
+     * Every SCC engine against the one the selector picks, on sparse and denser digraphs.
+     */
+    private static void benchmarkSccEngines() {
+        int n = 500_000;
+        SCCSelector selector = new SCCSelector();
+        for (int degree : new int[]{1, 4}) {
+            List<List<Integer>> graph = generateRandomDigraph(n, degree, 42);
+            List<List<Integer>> transpose = KosarajuSCC.transpose(graph);
+            System.out.println("\n=== SCC Engines (n=" + n + ", m=" + countEdges(graph) + ") ===");
+            for (SCCSelector.Engine engine : SCCSelector.Engine.values()) {
+                long time = timeNanos(() -> selector.run(engine, graph, transpose));
+                System.out.printf("  %-9s %10.3f ms%n", engine, time / 1_000_000.0);
+            }
+            System.out.println("  selected: " + selector.select(graph, transpose));
+        }
+    }
+
+    /**
+     * Whole-graph pipeline against the weak-component sharded pipeline on a union of districts.
+     */
+    private static void benchmarkSharding() {
+        int districts = 2_000;
+        int size = 500;
+        int n = districts * size;
+        int m = n * 3;
+        Random random = new Random(42);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] weights = new double[m];
+        for (int e = 0; e < m; e++) {
+            int base = random.nextInt(districts) * size;
+            from[e] = base + random.nextInt(size);
+            to[e] = base + random.nextInt(size);
+            weights[e] = 1 + random.nextInt(10);
+        }
+        CsrGraph csr = CsrGraphBuilder.build(n, from, to, weights, m);
+        List<List<Integer>> graph = csr.toAdjacencyList();
+        List<List<Integer>> transpose = csr.toReverseAdjacencyList();
+
+        System.out.println("\n=== Sharded Pipeline (" + districts + " districts, n=" + n + ", m=" + m + ") ===");
+        long whole = timeNanos(() -> {
+            List<List<Integer>> sccs = new SCCSelector().findSCCs(graph, transpose);
+            List<List<Integer>> condensation = new TarjanSCC().buildCondensationGraph(graph, sccs);
+            new TopologicalSort().topologicalSort(condensation);
+        });
+        ShardedPipeline pipeline = new ShardedPipeline();
+        long sharded = timeNanos(() -> pipeline.run(csr, -1));
+        System.out.printf("  whole graph %10.3f ms%n", whole / 1_000_000.0);
+        System.out.printf("  sharded     %10.3f ms (%d shards)%n",
+                sharded / 1_000_000.0, pipeline.getMetrics().getCounter("shards"));
+    }
+
+    /**
+     * Generate a random DAG whose edges always point to a higher vertex id,
+     * so 0..n-1 is a topological order.
+     *
+     * @param n            number of vertices
+     * @param avgOutDegree average out-degree
+     * @param seed         random seed
+     * @return adjacency list with weights [target, weight]
+     */
+    static List<List<double[]>> generateLayeredDag(int n, int avgOutDegree, long seed) {
+        return generateDag(n, avgOutDegree, Math.max(2, avgOutDegree * 8), seed);
+    }
+
+    /**
+     * Generate a random DAG whose edges jump at most {@code window} ids forward.
+     * Wide windows give shallow, wide DAGs; narrow windows give deep ones.
+     */
+    static List<List<double[]>> generateDag(int n, int avgOutDegree, int window, long seed) {
+        Random random = new Random(seed);
+        List<List<double[]>> graph = new ArrayList<>(n);
+        for (int u = 0; u < n; u++) {
+            List<double[]> edges = new ArrayList<>(avgOutDegree);
+            if (u + 1 < n) {
+                int degree = 1 + random.nextInt(2 * avgOutDegree - 1);
+                for (int i = 0; i < degree; i++) {
+                    int v = Math.min(n - 1, u + 1 + random.nextInt(window));
+                    edges.add(new double[]{v, random.nextDouble() * 10.0 + 1.0});
+                }
+            }
+            graph.add(edges);
+        }
+        return graph;
+    }
+
+    /**
+     * Generate a random directed graph (cycles allowed) where most edges stay local
+     * in id space and a few jump anywhere.
+     */
+    static List<List<Integer>> generateRandomDigraph(int n, int avgOutDegree, long seed) {
+        Random random = new Random(seed);
+        List<List<Integer>> graph = new ArrayList<>(n);
+        for (int u = 0; u < n; u++) {
+            int degree = random.nextInt(2 * avgOutDegree + 1);
+            List<Integer> edges = new ArrayList<>(degree);
+            for (int i = 0; i < degree; i++) {
+                int v = random.nextInt(10) == 0
+                        ? random.nextInt(n)
+                        : Math.floorMod(u + random.nextInt(64) - 16, n);
+                edges.add(v);
+            }
+            graph.add(edges);
+        }
+        return graph;
+    }
+
+    static List<Integer> shuffledOrder(int n, long seed) {
+        List<Integer> order = identityOrder(n);
+        Collections.shuffle(order, new Random(seed));
+        return order;
+    }
+
+    /**
+     * Run a task on a thread with a large stack, for the recursive DFS engines.
+     */
+    static void runWithLargeStack(Runnable task) {
+        Thread thread = new Thread(null, task, "benchmark", 1L << 30);
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static List<Integer> identityOrder(int n) {
+        List<Integer> order = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            order.add(i);
+        }
+        return order;
+    }
+
+    static long countEdges(List<? extends List<?>> graph) {
+        long m = 0;
+        for (List<?> edges : graph) {
+            m += edges.size();
+        }
+        return m;
+    }
+
+    /**
+     * Median wall time of the measured runs after warm-up.
+     */
+    static long timeNanos(Runnable task) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            task.run();
+        }
+        long[] samples = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[MEASURED_RUNS / 2];
+    }
+}
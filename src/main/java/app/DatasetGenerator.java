@@ -46,6 +46,39 @@ public class DatasetGenerator {
         return new GraphData(true, vertices, edges, source, "edge");
     }
 
+    /**
+     * Generate a node-weighted dataset ("weight_model": "node"): the same structures,
+     * with one duration per vertex and zero edge weights.
+     *
+     * @param vertices     number of vertices
+     * @param density      edge density (0.0 to 1.0)
+     * @param cyclic       whether to include cycles
+     * @param multipleSCC whether to include multiple SCCs
+     * @param source       source vertex for pathfinding
+     * @return GraphData object
+     */
+    public static GraphData generateNodeWeightedDataset(
+            int vertices,
+            double density,
+            boolean cyclic,
+            boolean multipleSCC,
+            int source) {
+
+        GraphData graphData = generateDataset(vertices, density, cyclic, multipleSCC, source);
+        List<EdgeData> edges = new ArrayList<>(graphData.getEdges().size());
+        for (EdgeData edge : graphData.getEdges()) {
+            edges.add(new EdgeData(edge.getU(), edge.getV(), 0.0));
+        }
+        double[] nodeWeights = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            nodeWeights[i] = random.nextDouble() * 10.0 + 1.0;
+        }
+        graphData.setEdges(edges);
+        graphData.setWeightModel("node");
+        graphData.setNodeWeights(nodeWeights);
+        return graphData;
+    }
+
     /**
      * Generate a pure DAG.
      */
@@ -1,20 +1,29 @@
 package app;
 
+import cache.AnalysisCache;
 import graph.dagsp.DAGShortestPath;
-import graph.scc.TarjanSCC;
-import graph.topo.TopologicalSort;
+import graph.scc.SCCResult;
+import graph.shard.ShardedPipeline;
 import io.GraphLoader;
+import metrics.Metrics;
+import metrics.PhaseEvent;
+import model.CsrGraph;
 import model.GraphData;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 
 /**
  * Main class to orchestrate the execution of SCC, Topological Sort, and DAG Shortest Path algorithms.
  */
 public class Main {
+    // Results of unchanged datasets are reused across runs; -Dcache.dir= disables the cache
+    private static final String CACHE_DIR = System.getProperty("cache.dir", "cache");
+    private static final long CACHE_MAX_BYTES = Long.getLong("cache.max.bytes", 256L << 20);
+
     public static void main(String[] args) {
         // Create data directory if it doesn't exist
         File dataDir = new File("data");
@@ -41,8 +50,9 @@ public class Main {
                 "large_1", "large_2", "large_3"
         };
 
+        AnalysisCache cache = CACHE_DIR.isEmpty() ? null : new AnalysisCache(Paths.get(CACHE_DIR), CACHE_MAX_BYTES);
         for (String datasetName : datasets) {
-            processDataset(datasetName);
+            processDataset(datasetName, cache);
         }
 
         System.out.println("\nAll datasets processed. Results saved in output/ directory.");
@@ -51,79 +61,109 @@ public class Main {
     /**
      * Process a single dataset: SCC, Topological Sort, and DAG Shortest Paths.
      */
-    private static void processDataset(String datasetName) {
+    private static void processDataset(String datasetName, AnalysisCache cache) {
         System.out.println("\n========================================");
         System.out.println("Processing: " + datasetName);
         System.out.println("========================================");
 
         try {
             // Load graph
+            PhaseEvent loadEvent = PhaseEvent.begin("graphLoad", "GraphLoader");
             GraphData graphData = GraphLoader.loadGraph("data/" + datasetName + ".json");
+            loadEvent.finish(graphData.getN(), graphData.getEdges() != null ? graphData.getEdges().size() : 0, null);
             System.out.println("Loaded graph: " + graphData.getN() + " vertices, " +
                     (graphData.getEdges() != null ? graphData.getEdges().size() : 0) + " edges");
             System.out.println("Source vertex: " + graphData.getSource());
             System.out.println("Weight model: " + graphData.getWeightModel());
 
-            // Convert to adjacency list for algorithms
-            List<List<Integer>> graph = GraphLoader.createAdjacencyList(graphData);
-            List<List<double[]>> weightedGraph = GraphLoader.createAdjacencyListDouble(graphData);
+            // Build the CSR graph once; the pipeline runs per weakly connected shard
+            PhaseEvent buildEvent = PhaseEvent.begin("adjacencyBuild", "GraphLoader");
+            CsrGraph csr = GraphLoader.createCsrGraph(graphData);
+            buildEvent.finish(csr.getVertexCount(), csr.getEdgeCount(), null);
+            int source = graphData.getSource();
+            ShardedPipeline pipeline = new ShardedPipeline();
+            // Node-weighted task graphs carry one duration per vertex instead of per edge
+            double[] nodeWeights = graphData.isNodeWeighted() ? GraphLoader.createNodeWeights(graphData) : null;
+            String cacheKey = cache == null ? null : AnalysisCache.key(csr, source, nodeWeights);
+            ShardedPipeline.Result result = readCache(cache, cacheKey);
+            // On a hit the pipeline never runs, so there are no pipeline metrics to report
+            Metrics pipelineMetrics = null;
+            if (result == null) {
+                result = pipeline.run(csr, source, nodeWeights);
+                pipelineMetrics = pipeline.getMetrics();
+                if (cache != null) {
+                    System.out.println("Analysis cache: miss");
+                    writeCache(cache, cacheKey, result);
+                }
+            } else {
+                System.out.println("Analysis cache: hit (" + cacheKey.substring(0, 12) + ")");
+            }
+            System.out.println("Shards: " + result.getPartition().getShardCount()
+                    + " (largest: " + result.getPartition().getLargestShardSize() + " vertices)");
 
-            // 1. Find SCCs using Tarjan
-            TarjanSCC tarjan = new TarjanSCC();
-            List<List<Integer>> sccs = tarjan.findSCCs(graph);
+            // 1. SCCs (engine picked per shard from its shape)
+            SCCResult sccs = result.getSccs();
             System.out.println("\n--- SCC Results ---");
-            System.out.println("Number of SCCs: " + sccs.size());
-            for (int i = 0; i < sccs.size(); i++) {
-                System.out.println("  SCC " + i + ": " + sccs.get(i) + " (size: " + sccs.get(i).size() + ")");
+            System.out.println("Number of SCCs: " + sccs.getComponentCount());
+            for (int i = 0; i < sccs.getComponentCount(); i++) {
+                System.out.println("  SCC " + i + ": " + labels(graphData, sccs.getComponent(i)) + " (size: " + sccs.getSize(i) + ")");
+            }
+            if (result.getSccMetrics() != null) {
+                System.out.println("SCC Metrics: " + result.getSccMetrics().getSummary());
             }
-            System.out.println("SCC Metrics: " + tarjan.getMetrics().getSummary());
 
-            // 2. Build condensation graph
-            List<List<Integer>> condensation = tarjan.buildCondensationGraph(graph, sccs);
+            // 2. Condensation graph
+            List<List<Integer>> condensation = result.getCondensation();
             System.out.println("\n--- Condensation Graph ---");
             System.out.println("Components: " + condensation.size());
             int condensationEdges = condensation.stream().mapToInt(List::size).sum();
             System.out.println("Edges: " + condensationEdges);
 
-            // 3. Topological sort on condensation graph
-            TopologicalSort topo = new TopologicalSort();
-            List<Integer> topoOrder = topo.topologicalSort(condensation);
-            List<Integer> vertexOrder = null;
+            // 3. Topological order of the condensation
+            List<Integer> topoOrder = result.getComponentOrder();
+            List<Integer> vertexOrder = result.getVertexOrder();
             if (topoOrder != null) {
                 System.out.println("\n--- Topological Order (Components) ---");
                 System.out.println("Order: " + topoOrder);
-                vertexOrder = topo.deriveVertexOrder(topoOrder, sccs);
                 System.out.println("Derived Vertex Order: " + vertexOrder);
-                System.out.println("Topo Metrics: " + topo.getMetrics().getSummary());
+                if (result.getTopoMetrics() != null) {
+                    System.out.println("Topo Metrics: " + result.getTopoMetrics().getSummary());
+                }
             } else {
                 System.out.println("\n--- Topological Sort Failed ---");
                 System.out.println("Graph contains cycles (should not happen for condensation graph)");
             }
 
-            // 4. DAG Shortest/Longest Paths
-            DAGShortestPath dagsp = new DAGShortestPath();
-            if (topoOrder != null && vertexOrder != null) {
-                // Shortest paths from source (from JSON)
-                int source = graphData.getSource();
+            // 4. Shortest paths (DAG DP between components, Dijkstra inside cyclic ones)
+            // and longest path over the derived vertex order if the source's shard is acyclic
+            double[] shortestDist = result.getShortestDistances();
+            if (shortestDist != null) {
                 System.out.println("\n--- DAG Shortest Paths ---");
-                    double[] shortestDist = dagsp.shortestPaths(weightedGraph, vertexOrder, source);
-                    System.out.println("Shortest distances from source " + source + ":");
-                    for (int i = 0; i < Math.min(10, shortestDist.length); i++) {
-                        if (shortestDist[i] != Double.POSITIVE_INFINITY) {
-                            System.out.printf("  %d: %.2f\n", i, shortestDist[i]);
-                        }
+                System.out.println("Shortest distances from source " + graphData.getLabel(source) + ":");
+                for (int i = 0; i < Math.min(10, shortestDist.length); i++) {
+                    if (shortestDist[i] != Double.POSITIVE_INFINITY) {
+                        System.out.printf("  %s: %.2f\n", graphData.getLabel(i), shortestDist[i]);
                     }
-                    System.out.println("Shortest Path Metrics: " + dagsp.getMetrics().getSummary());
+                }
+                if (result.getPathMetrics() != null) {
+                    System.out.println("Shortest Path Metrics: " + result.getPathMetrics().getSummary());
+                }
 
-                // Longest path (critical path)
                 System.out.println("\n--- Critical Path (Longest) ---");
-                DAGShortestPath.CriticalPathResult criticalPath = dagsp.findCriticalPath(weightedGraph, vertexOrder, source);
-                System.out.println("Critical path length: " + criticalPath.getLength());
-                System.out.println("Critical path: " + criticalPath.getPath());
+                DAGShortestPath.CriticalPathResult criticalPath = result.getCriticalPath();
+                if (criticalPath != null) {
+                    System.out.println("Critical path length: " + criticalPath.getLength());
+                    System.out.println("Critical path: " + labels(graphData, criticalPath.getPath()));
+                } else {
+                    System.out.println("Critical path: unavailable (the source's shard has cycles)");
+                }
             }
+            System.out.println("Pipeline Metrics: " + pipelineSummary(pipelineMetrics));
 
             // Write results to output file
-            writeResults(datasetName, graphData, sccs, topoOrder, vertexOrder, weightedGraph, tarjan, topo, dagsp);
+            PhaseEvent writeEvent = PhaseEvent.begin("resultWrite", "Main");
+            writeResults(datasetName, graphData, result, pipelineMetrics);
+            writeEvent.finish(csr.getVertexCount(), csr.getEdgeCount(), null);
 
         } catch (IOException e) {
             System.err.println("Error processing " + datasetName + ": " + e.getMessage());
@@ -137,68 +177,122 @@ public class Main {
     private static void writeResults(
             String datasetName,
             GraphData graphData,
-            List<List<Integer>> sccs,
-            List<Integer> topoOrder,
-            List<Integer> vertexOrder,
-            List<List<double[]>> weightedGraph,
-            TarjanSCC tarjan,
-            TopologicalSort topo,
-            DAGShortestPath dagsp) throws IOException {
+            ShardedPipeline.Result result,
+            Metrics pipelineMetrics) throws IOException {
 
         File outputDir = new File("output");
         if (!outputDir.exists()) {
             outputDir.mkdirs();
         }
 
+        SCCResult sccs = result.getSccs();
+        List<Integer> topoOrder = result.getComponentOrder();
         File outputFile = new File("output/" + datasetName);
         try (FileWriter writer = new FileWriter(outputFile)) {
             writer.write("Dataset: " + datasetName + "\n");
             writer.write("Vertices: " + graphData.getN() + "\n");
             writer.write("Edges: " + (graphData.getEdges() != null ? graphData.getEdges().size() : 0) + "\n");
-            writer.write("Source: " + graphData.getSource() + "\n");
-            writer.write("Weight Model: " + graphData.getWeightModel() + "\n\n");
+            writer.write("Source: " + graphData.getLabel(graphData.getSource()) + "\n");
+            writer.write("Weight Model: " + graphData.getWeightModel() + "\n");
+            writer.write("Shards: " + result.getPartition().getShardCount() + "\n\n");
 
             writer.write("=== SCC Results ===\n");
-            writer.write("Number of SCCs: " + sccs.size() + "\n");
-            for (int i = 0; i < sccs.size(); i++) {
-                writer.write("SCC " + i + ": " + sccs.get(i) + " (size: " + sccs.get(i).size() + ")\n");
+            writer.write("Number of SCCs: " + sccs.getComponentCount() + "\n");
+            for (int i = 0; i < sccs.getComponentCount(); i++) {
+                writer.write("SCC " + i + ": " + labels(graphData, sccs.getComponent(i)) + " (size: " + sccs.getSize(i) + ")\n");
+            }
+            if (result.getSccMetrics() != null) {
+                writer.write("\nSCC Metrics:\n");
+                writer.write(result.getSccMetrics().getSummary());
+                writer.write("\n");
             }
-            writer.write("\nSCC Metrics:\n");
-            writer.write(tarjan.getMetrics().getSummary());
-            writer.write("\n");
 
             if (topoOrder != null) {
                 writer.write("\n=== Topological Order ===\n");
                 writer.write("Component Order: " + topoOrder + "\n");
-                writer.write("\nTopo Metrics:\n");
-                writer.write(topo.getMetrics().getSummary());
-                writer.write("\n");
+                if (result.getTopoMetrics() != null) {
+                    writer.write("\nTopo Metrics:\n");
+                    writer.write(result.getTopoMetrics().getSummary());
+                    writer.write("\n");
+                }
             }
 
             writer.write("\n=== DAG Shortest Path Results ===\n");
-            writer.write("Source: " + graphData.getSource() + "\n");
-            if (topoOrder != null && vertexOrder != null) {
+            writer.write("Source: " + graphData.getLabel(graphData.getSource()) + "\n");
+            double[] shortestDist = result.getShortestDistances();
+            if (shortestDist != null) {
                 int source = graphData.getSource();
-                double[] shortestDist = dagsp.shortestPaths(weightedGraph, vertexOrder, source);
-                writer.write("Shortest distances from source " + source + ":\n");
+                writer.write("Shortest distances from source " + graphData.getLabel(source) + ":\n");
                 int reachableCount = 0;
                 for (int i = 0; i < shortestDist.length; i++) {
                     if (shortestDist[i] != Double.POSITIVE_INFINITY) {
-                        writer.write(String.format("  Vertex %d: %.2f\n", i, shortestDist[i]));
+                        writer.write(String.format("  Vertex %s: %.2f\n", graphData.getLabel(i), shortestDist[i]));
                         reachableCount++;
                     }
                 }
                 writer.write("Reachable vertices: " + reachableCount + "/" + shortestDist.length + "\n");
-                
+
                 // Critical path
-                DAGShortestPath.CriticalPathResult criticalPath = dagsp.findCriticalPath(weightedGraph, vertexOrder, source);
+                DAGShortestPath.CriticalPathResult criticalPath = result.getCriticalPath();
                 writer.write("\nCritical Path (Longest):\n");
-                writer.write("  Length: " + criticalPath.getLength() + "\n");
-                writer.write("  Path: " + criticalPath.getPath() + "\n");
+                if (criticalPath != null) {
+                    writer.write("  Length: " + criticalPath.getLength() + "\n");
+                    writer.write("  Path: " + labels(graphData, criticalPath.getPath()) + "\n");
+                } else {
+                    writer.write("  Unavailable: the source's shard has cycles\n");
+                }
             }
-            writer.write("\n=== DAG Shortest Path Metrics ===\n");
-            writer.write(dagsp.getMetrics().getSummary());
+            if (result.getPathMetrics() != null) {
+                writer.write("\n=== DAG Shortest Path Metrics ===\n");
+                writer.write(result.getPathMetrics().getSummary());
+                writer.write("\n");
+            }
+            writer.write("\n=== Pipeline Metrics ===\n");
+            writer.write(pipelineSummary(pipelineMetrics));
             writer.write("\n");
         }
     }
+
+    /**
+     * Vertices in the original ids of the input, for graphs renumbered from an edge list.
+     */
+    private static List<String> labels(GraphData graphData, List<Integer> vertices) {
+        List<String> labels = new ArrayList<>(vertices.size());
+        for (int v : vertices) {
+            labels.add(graphData.getLabel(v));
+        }
+        return labels;
+    }
+
+    /**
+     * Look up a cached result. A cache that cannot be read is treated as a miss
+     * so the dataset is still analysed.
+     */
+    private static ShardedPipeline.Result readCache(AnalysisCache cache, String key) {
+        if (cache == null) {
+            return null;
+        }
+        try {
+            return cache.get(key);
+        } catch (IOException e) {
+            System.err.println("Analysis cache: read failed, recomputing: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store a result in the cache. A failed write only costs the next run a recompute,
+     * so it is logged and skipped.
+     */
+    private static void writeCache(AnalysisCache cache, String key, ShardedPipeline.Result result) {
+        try {
+            cache.put(key, result);
+        } catch (IOException e) {
+            System.err.println("Analysis cache: write skipped: " + e.getMessage());
+        }
+    }
+
+    private static String pipelineSummary(Metrics pipelineMetrics) {
+        return pipelineMetrics == null ? "cache hit, pipeline not run" : pipelineMetrics.getSummary();
+    }
 }
@@ -0,0 +1,494 @@
+package app;
+
+import graph.dagsp.CompactWeightedGraph;
+import graph.dagsp.CondensationShortestPath;
+import graph.dagsp.CriticalPathMethod;
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.ParallelDAGShortestPath;
+import graph.dagsp.Semiring;
+import graph.scc.KosarajuSCC;
+import graph.scc.ParallelSCC;
+import graph.scc.SCCResult;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Scaling sweep and performance regression gate for the SCC, topological sort and DAG path engines,
+ * including the parallel, condensation, CPM, semiring and compact-weight path kernels.
+ * Each engine runs on graphs of 10^3 .. 10^6 vertices in half-decade steps (average out-degree 4);
+ * every sample records the median wall time, throughput in M elements/s (n + m per second) and
+ * bytes allocated per run.
+ * The scaling exponent k of time ~ (n + m)^k is fitted per engine by least squares in log-log space.
+ * <p>
+ * Results are written to {@code bench/scaling.csv} (the data behind the performance charts) and
+ * compared with the committed {@code bench/baseline.csv}; the process exits with status 1 when an
+ * engine is slower or allocates more than the threshold allows, or its exponent grew.
+ * <p>
+ * Usage: PerformanceGate [--update-baseline] [engine ...]. Properties: gate.sizes (comma-separated
+ * vertex counts), gate.threshold (allowed fractional regression, default 0.3),
+ * gate.exponent.tolerance (allowed exponent increase, default 0.2), gate.baseline and gate.output
+ * (CSV paths). Baselines are machine-specific: refresh them with --update-baseline on the machine
+ * that runs the gate.
+ */
+public class PerformanceGate {
+    static final String HEADER = "engine,n,m,median_ns,throughput_meps,alloc_bytes";
+    // Throughput is only gated, and exponents only fitted, where a run takes at least this long
+    static final long MIN_GATED_NANOS = 10_000_000;
+    // Allocation slack for small runs, where a few buffers dominate
+    static final long ALLOC_SLACK_BYTES = 64 << 10;
+    // Work stealing decides how many tasks the parallel engine forks, so its allocation is reported only
+    static final Set<String> SCHEDULING_DEPENDENT_ALLOCATION = Set.of("parallel_scc", "parallel_dag_shortest");
+
+    private static final int AVERAGE_DEGREE = 4;
+    private static final long WARMUP_NANOS = 500_000_000;
+    private static final long SAMPLE_NANOS = 20_000_000;
+    private static final int SAMPLES = 5;
+    private static final int ALLOCATION_RUNS = 3;
+
+    /**
+     * An engine under test and the package it comes from; tasks run on the shared inputs of one size.
+     */
+    private enum Engine {
+        TARJAN("graph.scc") {
+            @Override
+            Runnable task(Inputs in) {
+                TarjanSCC tarjan = new TarjanSCC();
+                return () -> tarjan.findComponents(in.digraph);
+            }
+        },
+        KOSARAJU("graph.scc") {
+            @Override
+            Runnable task(Inputs in) {
+                KosarajuSCC kosaraju = new KosarajuSCC();
+                return () -> kosaraju.findComponents(in.digraph, in.transpose);
+            }
+        },
+        PARALLEL_SCC("graph.scc") {
+            @Override
+            Runnable task(Inputs in) {
+                ParallelSCC parallel = new ParallelSCC();
+                return () -> parallel.findComponents(in.digraph, in.transpose);
+            }
+        },
+        KAHN("graph.topo") {
+            @Override
+            Runnable task(Inputs in) {
+                TopologicalSort topo = new TopologicalSort();
+                return () -> topo.topologicalSort(in.dag);
+            }
+        },
+        DAG_SHORTEST("graph.dagsp") {
+            @Override
+            Runnable task(Inputs in) {
+                DAGShortestPath dagsp = new DAGShortestPath();
+                return () -> dagsp.shortestPaths(in.weightedDag, in.topoOrder, 0);
+            }
+        },
+        DAG_CRITICAL_PATH("graph.dagsp") {
+            @Override
+            Runnable task(Inputs in) {
+                DAGShortestPath dagsp = new DAGShortestPath();
+                return () -> dagsp.findCriticalPath(in.weightedDag, in.topoOrder, 0);
+            }
+        },
+        PARALLEL_DAG_SHORTEST("graph.dagsp") {
+            @Override
+            Runnable task(Inputs in) {
+                // Forced parallel over a prepared plan: AUTO would fall back to the sequential
+                // sweep on narrow levels
+                ParallelDAGShortestPath parallel = new ParallelDAGShortestPath();
+                ParallelDAGShortestPath.Plan plan = ParallelDAGShortestPath.prepare(in.weightedDag, in.topoOrder);
+                return () -> parallel.shortestPaths(plan, 0);
+            }
+        },
+        CONDENSATION_SHORTEST("graph.dagsp") {
+            @Override
+            Runnable task(Inputs in) {
+                // Runs on the cyclic digraph, so Dijkstra inside components is part of the work
+                CondensationShortestPath condensation = new CondensationShortestPath();
+                return () -> condensation.shortestPaths(in.weightedDigraph, in.sccs, in.componentOrder, 0);
+            }
+
+            @Override
+            boolean usesDag() {
+                return false;
+            }
+        },
+        CRITICAL_PATH_METHOD("graph.dagsp") {
+            @Override
+            Runnable task(Inputs in) {
+                CriticalPathMethod cpm = new CriticalPathMethod();
+                return () -> cpm.analyze(in.weightedDag, in.topoOrder);
+            }
+        },
+        SEMIRING_COUNT("graph.dagsp") {
+            @Override
+            Runnable task(Inputs in) {
+                DAGShortestPath dagsp = new DAGShortestPath();
+                return () -> dagsp.solve(in.weightedDag, in.topoOrder, 0, Semiring.COUNT);
+            }
+        },
+        SEMIRING_BOTTLENECK("graph.dagsp") {
+            @Override
+            Runnable task(Inputs in) {
+                DAGShortestPath dagsp = new DAGShortestPath();
+                return () -> dagsp.solve(in.weightedDag, in.topoOrder, 0, Semiring.BOTTLENECK);
+            }
+        },
+        COMPACT_SHORTEST("graph.dagsp") {
+            @Override
+            Runnable task(Inputs in) {
+                CompactWeightedGraph compact = CompactWeightedGraph.from(in.weightedDag,
+                        CompactWeightedGraph.WeightEncoding.FLOAT32);
+                DAGShortestPath dagsp = new DAGShortestPath();
+                return () -> dagsp.shortestPaths(compact, in.topoOrder, 0);
+            }
+        };
+
+        final String module;
+
+        Engine(String module) {
+            this.module = module;
+        }
+
+        abstract Runnable task(Inputs in);
+
+        boolean usesDag() {
+            return !module.equals("graph.scc");
+        }
+    }
+
+    /**
+     * Graphs of one size, shared by all engines.
+     */
+    private static final class Inputs {
+        final List<List<Integer>> digraph;
+        final List<List<Integer>> transpose;
+        final List<List<double[]>> weightedDigraph;
+        final SCCResult sccs;
+        final List<Integer> componentOrder;
+        final List<List<double[]>> weightedDag;
+        final List<List<Integer>> dag;
+        final List<Integer> topoOrder;
+
+        Inputs(int n) {
+            digraph = BenchmarkRunner.generateRandomDigraph(n, AVERAGE_DEGREE, 42);
+            transpose = KosarajuSCC.transpose(digraph);
+            Random random = new Random(42);
+            weightedDigraph = new ArrayList<>(n);
+            for (List<Integer> targets : digraph) {
+                List<double[]> edges = new ArrayList<>(targets.size());
+                for (int v : targets) {
+                    edges.add(new double[]{v, random.nextDouble() * 10.0 + 1.0});
+                }
+                weightedDigraph.add(edges);
+            }
+            TarjanSCC tarjan = new TarjanSCC();
+            sccs = tarjan.findComponents(digraph);
+            componentOrder = new TopologicalSort().topologicalSort(tarjan.buildCondensationGraph(digraph, sccs));
+            weightedDag = BenchmarkRunner.generateLayeredDag(n, AVERAGE_DEGREE, 42);
+            dag = new ArrayList<>(n);
+            for (List<double[]> edges : weightedDag) {
+                List<Integer> targets = new ArrayList<>(edges.size());
+                for (double[] edge : edges) {
+                    targets.add((int) edge[0]);
+                }
+                dag.add(targets);
+            }
+            topoOrder = BenchmarkRunner.identityOrder(n);
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] status = new int[1];
+        BenchmarkRunner.runWithLargeStack(() -> status[0] = run(args));
+        System.exit(status[0]);
+    }
+
+    private static int run(String[] args) {
+        boolean updateBaseline = false;
+        Set<String> selected = new HashSet<>();
+        for (String arg : args) {
+            if (arg.equals("--update-baseline")) {
+                updateBaseline = true;
+            } else {
+                selected.add(arg.toUpperCase());
+            }
+        }
+        int[] sizes = Arrays.stream(System.getProperty("gate.sizes", "1000,3000,10000,30000,100000,300000,1000000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        double threshold = Double.parseDouble(System.getProperty("gate.threshold", "0.3"));
+        double exponentTolerance = Double.parseDouble(System.getProperty("gate.exponent.tolerance", "0.2"));
+        Path baselinePath = Paths.get(System.getProperty("gate.baseline", "bench/baseline.csv"));
+        Path outputPath = Paths.get(System.getProperty("gate.output", "bench/scaling.csv"));
+
+        List<Sample> samples = new ArrayList<>();
+        for (int n : sizes) {
+            Inputs inputs = new Inputs(n);
+            for (Engine engine : Engine.values()) {
+                if (!selected.isEmpty() && !selected.contains(engine.name())) {
+                    continue;
+                }
+                long m = BenchmarkRunner.countEdges(engine.usesDag() ? inputs.weightedDag : inputs.digraph);
+                Runnable task = engine.task(inputs);
+                long time = measure(task);
+                long allocated = allocatedBytes(task);
+                Sample sample = new Sample(engine.name().toLowerCase(), n, m, time, allocated);
+                samples.add(sample);
+                System.out.printf("  %-22s n=%-8d %10.3f ms %8.2f M elem/s %12d B%n", sample.engine, n,
+                        time / 1_000_000.0, sample.getThroughput(), allocated);
+            }
+        }
+
+        try {
+            write(outputPath, samples);
+            System.out.println("Wrote " + outputPath);
+            Map<String, Double> exponents = fitExponents(samples);
+            for (Map.Entry<String, Double> entry : exponents.entrySet()) {
+                System.out.printf("  %-22s time ~ (n+m)^%.3f%n", entry.getKey(), entry.getValue());
+            }
+            if (updateBaseline) {
+                write(baselinePath, samples);
+                System.out.println("Baseline updated: " + baselinePath);
+                return 0;
+            }
+            if (!Files.exists(baselinePath)) {
+                System.out.println("No baseline at " + baselinePath + "; run with --update-baseline");
+                return 0;
+            }
+            List<String> regressions = compare(read(baselinePath), samples, threshold, exponentTolerance);
+            for (String regression : regressions) {
+                System.out.println("REGRESSION " + regression);
+            }
+            System.out.println(regressions.isEmpty() ? "Performance gate passed" : "Performance gate FAILED");
+            return regressions.isEmpty() ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Error writing benchmark results: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Median time of one run. Unlike {@link BenchmarkRunner#timeNanos}, warm-up lasts until the
+     * JIT has had {@link #WARMUP_NANOS} of work (small graphs need thousands of runs to reach
+     * compiled code), and each sample repeats the task until it spans at least
+     * {@link #SAMPLE_NANOS}, so microsecond runs are not dominated by timer resolution.
+     */
+    private static long measure(Runnable task) {
+        long warmupStart = System.nanoTime();
+        int warmups = 0;
+        long elapsed;
+        do {
+            task.run();
+            warmups++;
+            elapsed = System.nanoTime() - warmupStart;
+        } while (warmups < 3 || (elapsed < WARMUP_NANOS && warmups < 100_000));
+
+        int repetitions = (int) Math.max(1, Math.min(100_000, SAMPLE_NANOS * warmups / Math.max(1, elapsed)));
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            for (int r = 0; r < repetitions; r++) {
+                task.run();
+            }
+            samples[i] = (System.nanoTime() - start) / repetitions;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    /**
+     * Bytes allocated by one run, summed over all live threads so pool workers are included.
+     * The minimum of a few runs is taken, since work stealing makes the parallel engine's
+     * task allocation vary from run to run.
+     */
+    private static long allocatedBytes(Runnable task) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < ALLOCATION_RUNS; i++) {
+            long before = totalAllocated(threads);
+            task.run();
+            min = Math.min(min, totalAllocated(threads) - before);
+        }
+        return min;
+    }
+
+    private static long totalAllocated(com.sun.management.ThreadMXBean threads) {
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Scaling exponent per engine, in first-seen order, fitted over the samples of at least
+     * {@link #MIN_GATED_NANOS}; shorter runs are dominated by timer and JIT noise. Engines with
+     * fewer than two such sizes are left out.
+     */
+    static Map<String, Double> fitExponents(List<Sample> samples) {
+        Map<String, List<Sample>> byEngine = new LinkedHashMap<>();
+        for (Sample sample : samples) {
+            if (sample.medianNanos >= MIN_GATED_NANOS) {
+                byEngine.computeIfAbsent(sample.engine, k -> new ArrayList<>()).add(sample);
+            }
+        }
+        Map<String, Double> exponents = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Sample>> entry : byEngine.entrySet()) {
+            double exponent = fitExponent(entry.getValue());
+            if (!Double.isNaN(exponent)) {
+                exponents.put(entry.getKey(), exponent);
+            }
+        }
+        return exponents;
+    }
+
+    /**
+     * Least-squares slope of log(time) against log(n + m), or NaN for fewer than two sizes.
+     */
+    static double fitExponent(List<Sample> points) {
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+        for (Sample p : points) {
+            double x = Math.log(p.n + p.m);
+            double y = Math.log(Math.max(1, p.medianNanos));
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+        }
+        int k = points.size();
+        double denominator = k * sumXX - sumX * sumX;
+        return k < 2 || denominator <= 0 ? Double.NaN : (k * sumXY - sumX * sumY) / denominator;
+    }
+
+    /**
+     * Regressions of the current samples against the baseline:
+     * <ul>
+     *   <li>throughput below (1 - threshold) of the baseline, where the baseline run took at
+     *       least {@link #MIN_GATED_NANOS};</li>
+     *   <li>allocation above (1 + threshold) of the baseline plus {@link #ALLOC_SLACK_BYTES},
+     *       except for engines whose allocation depends on scheduling;</li>
+     *   <li>a scaling exponent more than the tolerance above the baseline's, both fitted over
+     *       the sizes the baseline gates, so a run near the time cut-off cannot change which
+     *       points are fitted.</li>
+     * </ul>
+     * Samples missing from either side are ignored.
+     *
+     * @return one message per regression; empty if the gate passes
+     */
+    static List<String> compare(List<Sample> baseline, List<Sample> current,
+                                double threshold, double exponentTolerance) {
+        Map<String, Sample> reference = new HashMap<>();
+        for (Sample sample : baseline) {
+            reference.put(sample.engine + "@" + sample.n, sample);
+        }
+        List<String> regressions = new ArrayList<>();
+        Map<String, List<Sample>> gatedBase = new LinkedHashMap<>();
+        Map<String, List<Sample>> gatedCurrent = new LinkedHashMap<>();
+        for (Sample sample : current) {
+            Sample base = reference.get(sample.engine + "@" + sample.n);
+            if (base == null) {
+                continue;
+            }
+            if (base.medianNanos >= MIN_GATED_NANOS) {
+                gatedBase.computeIfAbsent(sample.engine, k -> new ArrayList<>()).add(base);
+                gatedCurrent.computeIfAbsent(sample.engine, k -> new ArrayList<>()).add(sample);
+                if (sample.getThroughput() < base.getThroughput() * (1 - threshold)) {
+                    regressions.add(String.format("%s n=%d throughput %.2f M elem/s < baseline %.2f",
+                            sample.engine, sample.n, sample.getThroughput(), base.getThroughput()));
+                }
+            }
+            if (!SCHEDULING_DEPENDENT_ALLOCATION.contains(sample.engine)
+                    && base.allocatedBytes >= 0 && sample.allocatedBytes >= 0
+                    && sample.allocatedBytes > base.allocatedBytes * (1 + threshold) + ALLOC_SLACK_BYTES) {
+                regressions.add(String.format("%s n=%d allocated %d B > baseline %d B",
+                        sample.engine, sample.n, sample.allocatedBytes, base.allocatedBytes));
+            }
+        }
+        for (Map.Entry<String, List<Sample>> entry : gatedCurrent.entrySet()) {
+            double exponent = fitExponent(entry.getValue());
+            double base = fitExponent(gatedBase.get(entry.getKey()));
+            if (exponent > base + exponentTolerance) {
+                regressions.add(String.format("%s scaling exponent %.3f > baseline %.3f",
+                        entry.getKey(), exponent, base));
+            }
+        }
+        return regressions;
+    }
+
+    static void write(Path path, List<Sample> samples) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Sample s : samples) {
+                writer.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%.3f,%d",
+                        s.engine, s.n, s.m, s.medianNanos, s.getThroughput(), s.allocatedBytes));
+                writer.newLine();
+            }
+        }
+    }
+
+    static List<Sample> read(Path path) throws IOException {
+        List<Sample> samples = new ArrayList<>();
+        List<String> lines = Files.readAllLines(path);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.equals(HEADER)) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 6) {
+                throw new IllegalArgumentException(path + ":" + (i + 1) + ": expected 6 fields, got " + fields.length);
+            }
+            samples.add(new Sample(fields[0], Integer.parseInt(fields[1]), Long.parseLong(fields[2]),
+                    Long.parseLong(fields[3]), Long.parseLong(fields[5])));
+        }
+        return samples;
+    }
+
+    /**
+     * One engine at one size.
+     */
+    static final class Sample {
+        final String engine;
+        final int n;
+        final long m;
+        final long medianNanos;
+        final long allocatedBytes;
+
+        Sample(String engine, int n, long m, long medianNanos, long allocatedBytes) {
+            this.engine = engine;
+            this.n = n;
+            this.m = m;
+            this.medianNanos = medianNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * Million vertices plus edges processed per second.
+         */
+        double getThroughput() {
+            return (n + m) * 1e3 / Math.max(1, medianNanos);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package cache;
+
+import graph.dagsp.DAGShortestPath;
+import graph.scc.SCCResult;
+import graph.shard.ShardedPipeline;
+import graph.shard.WeakComponents;
+import metrics.Metrics;
+import metrics.SimpleMetrics;
+import model.CsrGraph;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * On-disk cache of pipeline results, keyed by the content of the graph.
+ * The key is a SHA-256 over the CSR arrays, the node weights, the source and
+ * {@link #ALGORITHM_VERSION}, so an unchanged graph maps to the same file across runs
+ * and restarts while any edit, a different source or a new algorithm version misses.
+ * <p>
+ * Each entry is one little-endian binary file of length-prefixed int/double arrays
+ * (shard of every vertex, componentOf, SCC offsets/members, condensation CSR, component
+ * and vertex order, distances, critical path if any), read back through a memory mapping with
+ * bulk array copies. Entries are written to a temporary file and moved into place, so a
+ * crashed writer never leaves a partial entry. The file modification time records the
+ * last use: a hit touches it, and after every write the least recently used entries are
+ * deleted until the directory fits the size budget.
+ */
+public class AnalysisCache {
+    /**
+     * Bump whenever an algorithm change alters any cached output.
+     */
+    public static final int ALGORITHM_VERSION = 2;
+
+    private static final int MAGIC = 0x47414331; // "GAC1"
+    private static final String SUFFIX = ".bin";
+
+    private Metrics metrics;
+    private Path directory;
+    private long maxBytes;
+
+    /**
+     * @param directory cache directory (created on first write)
+     * @param maxBytes  total size the entries may occupy
+     */
+    public AnalysisCache(Path directory, long maxBytes) {
+        this.metrics = new SimpleMetrics();
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Content hash identifying a pipeline run.
+     *
+     * @param graph       CSR graph
+     * @param source      source vertex of the path stage
+     * @param nodeWeights per-vertex weights, or null for edge weights
+     * @return 64 hex digits
+     */
+    public static String key(CsrGraph graph, int source, double[] nodeWeights) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(ALGORITHM_VERSION).putInt(graph.getVertexCount()).putInt(source);
+        buffer.putInt(nodeWeights == null ? -1 : nodeWeights.length);
+        for (int value : graph.getOutOffsets()) {
+            buffer = update(digest, buffer, Integer.BYTES).putInt(value);
+        }
+        for (int value : graph.getTargets()) {
+            buffer = update(digest, buffer, Integer.BYTES).putInt(value);
+        }
+        buffer = update(digest, buffer, Integer.BYTES).putInt(graph.hasEdgeWeights() ? 1 : 0);
+        if (graph.hasEdgeWeights()) {
+            for (double value : graph.getWeights()) {
+                buffer = update(digest, buffer, Double.BYTES).putDouble(value);
+            }
+        }
+        if (nodeWeights != null) {
+            for (double value : nodeWeights) {
+                buffer = update(digest, buffer, Double.BYTES).putDouble(value);
+            }
+        }
+        buffer.flip();
+        digest.update(buffer);
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static ByteBuffer update(MessageDigest digest, ByteBuffer buffer, int needed) {
+        if (buffer.remaining() < needed) {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    /**
+     * Load a cached result.
+     *
+     * @param key content hash from {@link #key}
+     * @return the cached result, or null on a miss (an unreadable entry is deleted and counts as a miss)
+     * @throws IOException if the cache directory cannot be read
+     */
+    public ShardedPipeline.Result get(String key) throws IOException {
+        Path file = directory.resolve(key + SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            metrics.incrementCounter("misses");
+            return null;
+        }
+        ShardedPipeline.Result result;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            result = read(mapped.order(ByteOrder.LITTLE_ENDIAN));
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            result = null;
+        }
+        if (result == null) {
+            Files.deleteIfExists(file);
+            metrics.incrementCounter("corrupt");
+            metrics.incrementCounter("misses");
+            return null;
+        }
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        metrics.incrementCounter("hits");
+        return result;
+    }
+
+    /**
+     * Store a result and evict least recently used entries beyond the size budget.
+     *
+     * @param key    content hash from {@link #key}
+     * @param result pipeline result for that graph
+     * @throws IOException if the entry cannot be written
+     */
+    public void put(String key, ShardedPipeline.Result result) throws IOException {
+        Files.createDirectories(directory);
+        ByteBuffer buffer = write(result);
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, directory.resolve(key + SUFFIX), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        metrics.incrementCounter("bytes_written", buffer.limit());
+        evict();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Delete the entries with the oldest use time until the total size fits maxBytes.
+     */
+    private void evict() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path entry : stream) {
+                entries.add(entry);
+                total += Files.size(entry);
+            }
+        }
+        if (total <= maxBytes) {
+            metrics.incrementCounter("cache_bytes", total - metrics.getCounter("cache_bytes"));
+            return;
+        }
+        entries.sort((a, b) -> {
+            try {
+                return Files.getLastModifiedTime(a).compareTo(Files.getLastModifiedTime(b));
+            } catch (IOException e) {
+                return 0;
+            }
+        });
+        for (Path entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            long size = Files.size(entry);
+            Files.deleteIfExists(entry);
+            total -= size;
+            metrics.incrementCounter("evictions");
+        }
+        metrics.incrementCounter("cache_bytes", total - metrics.getCounter("cache_bytes"));
+    }
+
+    private static ByteBuffer write(ShardedPipeline.Result result) {
+        WeakComponents.Partition partition = result.getPartition();
+        SCCResult sccs = result.getSccs();
+        int n = sccs.getVertexCount();
+        List<List<Integer>> condensation = result.getCondensation();
+        List<Integer> componentOrder = result.getComponentOrder();
+        double[] dist = result.getShortestDistances();
+        List<Integer> path = result.getCriticalPath() == null ? null : result.getCriticalPath().getPath();
+
+        int[] shardOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            shardOf[v] = partition.getShardOf(v);
+        }
+        int[] condensationOffsets = new int[condensation.size() + 1];
+        for (int c = 0; c < condensation.size(); c++) {
+            condensationOffsets[c + 1] = condensationOffsets[c] + condensation.get(c).size();
+        }
+
+        long bytes = 4L * Integer.BYTES
+                + arrayBytes(n) * 3 + arrayBytes(sccs.getComponentCount() + 1)
+                + arrayBytes(condensationOffsets.length) + arrayBytes(condensationOffsets[condensation.size()])
+                + (componentOrder == null ? Integer.BYTES : arrayBytes(componentOrder.size()) + arrayBytes(n))
+                + (dist == null ? Integer.BYTES : Integer.BYTES + (long) n * Double.BYTES
+                        + Double.BYTES + (path == null ? Integer.BYTES : arrayBytes(path.size())));
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Result too large to cache: " + bytes + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(ALGORITHM_VERSION).putInt(n).putInt(partition.getShardCount());
+        putArray(buffer, shardOf);
+        putArray(buffer, sccs.getComponentOf());
+        putArray(buffer, sccs.getOffsets());
+        putArray(buffer, sccs.getMembers());
+        putArray(buffer, condensationOffsets);
+        buffer.putInt(condensationOffsets[condensation.size()]);
+        for (List<Integer> edges : condensation) {
+            for (int c : edges) {
+                buffer.putInt(c);
+            }
+        }
+        if (componentOrder == null) {
+            buffer.putInt(-1);
+        } else {
+            putList(buffer, componentOrder);
+            putList(buffer, result.getVertexOrder());
+        }
+        if (dist == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(dist.length);
+            buffer.asDoubleBuffer().put(dist);
+            buffer.position(buffer.position() + dist.length * Double.BYTES);
+            if (path == null) {
+                buffer.putDouble(Double.NaN);
+                buffer.putInt(-1);
+            } else {
+                buffer.putDouble(result.getCriticalPath().getLength());
+                putList(buffer, path);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decode an entry; returns null if the header does not match this format and version.
+     */
+    private static ShardedPipeline.Result read(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != ALGORITHM_VERSION) {
+            return null;
+        }
+        int n = buffer.getInt();
+        int shards = buffer.getInt();
+        int[] shardOf = getArray(buffer);
+        SCCResult sccs = new SCCResult(getArray(buffer), getArray(buffer), getArray(buffer));
+        if (shardOf.length != n || sccs.getVertexCount() != n) {
+            return null;
+        }
+
+        int[] condensationOffsets = getArray(buffer);
+        int[] condensationTargets = getArray(buffer);
+        List<List<Integer>> condensation = new ArrayList<>(condensationOffsets.length - 1);
+        for (int c = 0; c + 1 < condensationOffsets.length; c++) {
+            List<Integer> edges = new ArrayList<>(condensationOffsets[c + 1] - condensationOffsets[c]);
+            for (int e = condensationOffsets[c]; e < condensationOffsets[c + 1]; e++) {
+                edges.add(condensationTargets[e]);
+            }
+            condensation.add(edges);
+        }
+
+        List<Integer> componentOrder = null;
+        List<Integer> vertexOrder = null;
+        int orderLength = buffer.getInt();
+        if (orderLength >= 0) {
+            buffer.position(buffer.position() - Integer.BYTES);
+            componentOrder = toList(getArray(buffer));
+            vertexOrder = toList(getArray(buffer));
+        }
+
+        double[] dist = null;
+        DAGShortestPath.CriticalPathResult criticalPath = null;
+        int distLength = buffer.getInt();
+        if (distLength >= 0) {
+            dist = new double[distLength];
+            buffer.asDoubleBuffer().get(dist);
+            buffer.position(buffer.position() + distLength * Double.BYTES);
+            double length = buffer.getDouble();
+            if (buffer.getInt(buffer.position()) >= 0) {
+                criticalPath = new DAGShortestPath.CriticalPathResult(toList(getArray(buffer)), length);
+            } else {
+                buffer.getInt();
+            }
+        }
+
+        return new ShardedPipeline.Result(new WeakComponents.Partition(shardOf, shards), sccs,
+                condensation, componentOrder, vertexOrder, dist, criticalPath);
+    }
+
+    private static long arrayBytes(int length) {
+        return Integer.BYTES + (long) length * Integer.BYTES;
+    }
+
+    private static void putArray(ByteBuffer buffer, int[] values) {
+        buffer.putInt(values.length);
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+    }
+
+    private static void putList(ByteBuffer buffer, List<Integer> values) {
+        buffer.putInt(values.size());
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+    }
+
+    private static int[] getArray(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || (long) length * Integer.BYTES > buffer.remaining()) {
+            throw new IllegalArgumentException("Bad array length " + length);
+        }
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,182 @@
+package graph.dagsp;
+
+import java.util.List;
+
+/**
+ * Flat (CSR) weighted graph with a selectable weight encoding.
+ * Targets are stored as int and weights in the narrowest encoding the caller
+ * accepts, so DAG sweeps move fewer bytes per edge than the [target, weight]
+ * double pairs of the adjacency list.
+ *
+ * <p>Precision against the double baseline:
+ * <ul>
+ *   <li>{@link WeightEncoding#DOUBLE}: 12 bytes/edge, exact.</li>
+ *   <li>{@link WeightEncoding#FLOAT32}: 8 bytes/edge, each weight rounded to a 24-bit
+ *       mantissa (about 7 significant digits); sums still accumulate in double.</li>
+ *   <li>{@link WeightEncoding#FIXED_POINT}: 8 bytes/edge, each weight rounded to a multiple
+ *       of 1/scale, so a path of k edges is off by at most k / (2 * scale); the additions
+ *       themselves are exact in long.</li>
+ *   <li>{@link WeightEncoding#UNIT}: 4 bytes/edge, weights ignored, distances count hops.</li>
+ * </ul>
+ */
+public class CompactWeightedGraph {
+    /**
+     * How edge weights are stored.
+     */
+    public enum WeightEncoding {
+        DOUBLE,
+        FLOAT32,
+        FIXED_POINT,
+        UNIT
+    }
+
+    private final WeightEncoding encoding;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] doubleWeights;
+    private final float[] floatWeights;
+    private final int[] fixedWeights;
+    private final double scale;
+
+    private CompactWeightedGraph(WeightEncoding encoding, int[] offsets, int[] targets,
+                                 double[] doubleWeights, float[] floatWeights, int[] fixedWeights,
+                                 double scale) {
+        this.encoding = encoding;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.doubleWeights = doubleWeights;
+        this.floatWeights = floatWeights;
+        this.fixedWeights = fixedWeights;
+        this.scale = scale;
+    }
+
+    /**
+     * Encode an adjacency list with DOUBLE, FLOAT32 or UNIT weights.
+     *
+     * @param graph    adjacency list with weights [target, weight]
+     * @param encoding weight encoding (use {@link #fixedPoint} for FIXED_POINT)
+     * @return compact graph
+     */
+    public static CompactWeightedGraph from(List<List<double[]>> graph, WeightEncoding encoding) {
+        if (encoding == WeightEncoding.FIXED_POINT) {
+            throw new IllegalArgumentException("FIXED_POINT needs a scale, use fixedPoint(graph, scale)");
+        }
+        int[] offsets = buildOffsets(graph);
+        int m = offsets[graph.size()];
+        int[] targets = new int[m];
+        double[] doubleWeights = encoding == WeightEncoding.DOUBLE ? new double[m] : null;
+        float[] floatWeights = encoding == WeightEncoding.FLOAT32 ? new float[m] : null;
+
+        int e = 0;
+        for (List<double[]> edges : graph) {
+            for (double[] edge : edges) {
+                targets[e] = (int) edge[0];
+                if (doubleWeights != null) {
+                    doubleWeights[e] = edge[1];
+                } else if (floatWeights != null) {
+                    floatWeights[e] = (float) edge[1];
+                }
+                e++;
+            }
+        }
+        return new CompactWeightedGraph(encoding, offsets, targets, doubleWeights, floatWeights, null, 1.0);
+    }
+
+    /**
+     * Encode an adjacency list with int32 fixed-point weights: weight = round(w * scale).
+     *
+     * @param graph adjacency list with weights [target, weight]
+     * @param scale fixed-point units per 1.0 of weight (e.g. 1000 for three decimals)
+     * @return compact graph
+     * @throws IllegalArgumentException if a scaled weight does not fit in an int
+     */
+    public static CompactWeightedGraph fixedPoint(List<List<double[]>> graph, double scale) {
+        if (!(scale > 0)) {
+            throw new IllegalArgumentException("Scale must be positive: " + scale);
+        }
+        int[] offsets = buildOffsets(graph);
+        int m = offsets[graph.size()];
+        int[] targets = new int[m];
+        int[] fixedWeights = new int[m];
+
+        int e = 0;
+        for (List<double[]> edges : graph) {
+            for (double[] edge : edges) {
+                long scaled = Math.round(edge[1] * scale);
+                if (scaled > Integer.MAX_VALUE || scaled < Integer.MIN_VALUE) {
+                    throw new IllegalArgumentException(
+                            "Weight " + edge[1] + " overflows int32 at scale " + scale);
+                }
+                targets[e] = (int) edge[0];
+                fixedWeights[e] = (int) scaled;
+                e++;
+            }
+        }
+        return new CompactWeightedGraph(WeightEncoding.FIXED_POINT, offsets, targets, null, null, fixedWeights, scale);
+    }
+
+    private static int[] buildOffsets(List<List<double[]>> graph) {
+        int n = graph.size();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.get(u).size();
+        }
+        return offsets;
+    }
+
+    public WeightEncoding getEncoding() {
+        return encoding;
+    }
+
+    public int getVertexCount() {
+        return offsets.length - 1;
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Fixed-point units per 1.0 of weight (1.0 for other encodings).
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * Bytes of targets plus weights touched by one full sweep.
+     */
+    public long getEdgeBytes() {
+        long m = targets.length;
+        switch (encoding) {
+            case DOUBLE:
+                return m * (Integer.BYTES + Double.BYTES);
+            case FLOAT32:
+                return m * (Integer.BYTES + Float.BYTES);
+            case FIXED_POINT:
+                return m * (Integer.BYTES + Integer.BYTES);
+            default:
+                return m * Integer.BYTES;
+        }
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    double[] doubleWeights() {
+        return doubleWeights;
+    }
+
+    float[] floatWeights() {
+        return floatWeights;
+    }
+
+    int[] fixedWeights() {
+        return fixedWeights;
+    }
+}
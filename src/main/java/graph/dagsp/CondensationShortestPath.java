@@ -0,0 +1,238 @@
+package graph.dagsp;
+
+import graph.scc.SCCResult;
+import metrics.Metrics;
+import metrics.PhaseEvent;
+import metrics.SimpleMetrics;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-source shortest paths on graphs that may contain cycles.
+ * Components of the condensation are visited in topological order: singleton
+ * components are relaxed like in a DAG sweep, and non-trivial SCCs run Dijkstra
+ * seeded with the distances that arrived from earlier components.
+ * Edge weights inside an SCC must be non-negative; edges between components may be negative.
+ */
+public class CondensationShortestPath {
+    private Metrics metrics;
+
+    public CondensationShortestPath() {
+        this.metrics = new SimpleMetrics();
+    }
+
+    /**
+     * Compute single-source shortest paths using the SCC condensation.
+     *
+     * @param graph          adjacency list with weights [target, weight]
+     * @param sccs           strongly connected components of the graph
+     * @param componentOrder topological order of the condensation graph
+     * @param source         source vertex
+     * @return array of shortest distances (Double.POSITIVE_INFINITY if unreachable)
+     * @throws IllegalArgumentException if an edge inside an SCC has negative weight
+     */
+    public double[] shortestPaths(
+            List<List<double[]>> graph,
+            List<List<Integer>> sccs,
+            List<Integer> componentOrder,
+            int source) {
+        return shortestPaths(graph, SCCResult.fromLists(sccs, graph.size()), componentOrder, source);
+    }
+
+    /**
+     * Compute single-source shortest paths using a compact SCC result.
+     *
+     * @param graph          adjacency list with weights [target, weight]
+     * @param sccs           strongly connected components of the graph
+     * @param componentOrder topological order of the condensation graph
+     * @param source         source vertex
+     * @return array of shortest distances (Double.POSITIVE_INFINITY if unreachable)
+     * @throws IllegalArgumentException if an edge inside an SCC has negative weight
+     */
+    public double[] shortestPaths(
+            List<List<double[]>> graph,
+            SCCResult sccs,
+            List<Integer> componentOrder,
+            int source) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("shortestPaths", "CondensationShortestPath");
+
+        int n = graph.size();
+        int[] componentOf = sccs.getComponentOf();
+        int[] offsets = sccs.getOffsets();
+        int[] members = sccs.getMembers();
+
+        double[] dist = new double[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0.0;
+
+        HeapQueue heap = new HeapQueue();
+        boolean foundSource = false;
+        for (int c : componentOrder) {
+            if (c == componentOf[source]) {
+                foundSource = true;
+            }
+            if (!foundSource) {
+                continue;
+            }
+
+            if (offsets[c + 1] - offsets[c] == 1) {
+                int u = members[offsets[c]];
+                if (dist[u] != Double.POSITIVE_INFINITY) {
+                    relaxSingleton(graph, u, dist);
+                }
+            } else {
+                runDijkstra(graph, members, offsets[c], offsets[c + 1], c, componentOf, dist, heap);
+            }
+        }
+
+        metrics.stopTimer();
+        event.finish(graph, metrics);
+        return dist;
+    }
+
+    private void relaxSingleton(List<List<double[]>> graph, int u, double[] dist) {
+        double du = dist[u];
+        for (double[] edge : graph.get(u)) {
+            int v = (int) edge[0];
+            double w = edge[1];
+            if (v == u) {
+                checkNonNegative(u, v, w);
+                continue;
+            }
+            metrics.incrementCounter("relaxations");
+            if (dist[v] > du + w) {
+                dist[v] = du + w;
+            }
+        }
+    }
+
+    /**
+     * Dijkstra restricted to one SCC. Edges leaving the component are relaxed
+     * once, when their tail is settled.
+     */
+    private void runDijkstra(List<List<double[]>> graph, int[] members, int from, int to, int component,
+                             int[] componentOf, double[] dist, HeapQueue heap) {
+        heap.clear();
+        for (int i = from; i < to; i++) {
+            int vertex = members[i];
+            if (dist[vertex] != Double.POSITIVE_INFINITY) {
+                heap.push(dist[vertex], vertex);
+            }
+        }
+        if (heap.isEmpty()) {
+            return;
+        }
+        metrics.incrementCounter("dijkstra_components");
+
+        while (!heap.isEmpty()) {
+            double du = heap.topKey();
+            int u = heap.topValue();
+            heap.pop();
+            metrics.incrementCounter("heap_pops");
+            if (du > dist[u]) {
+                continue; // stale entry
+            }
+
+            for (double[] edge : graph.get(u)) {
+                int v = (int) edge[0];
+                double w = edge[1];
+                metrics.incrementCounter("relaxations");
+                if (componentOf[v] == component) {
+                    checkNonNegative(u, v, w);
+                    if (dist[v] > du + w) {
+                        dist[v] = du + w;
+                        heap.push(dist[v], v);
+                    }
+                } else if (dist[v] > du + w) {
+                    dist[v] = du + w;
+                }
+            }
+        }
+    }
+
+    private static void checkNonNegative(int u, int v, double w) {
+        if (w < 0) {
+            throw new IllegalArgumentException(
+                    "Negative weight " + w + " on edge " + u + " -> " + v + " inside a strongly connected component");
+        }
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Binary min-heap of (distance, vertex) pairs in primitive arrays.
+     * Decrease-key is done by pushing a new entry and skipping stale ones.
+     */
+    private static class HeapQueue {
+        private double[] keys = new double[64];
+        private int[] values = new int[64];
+        private int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double topKey() {
+            return keys[0];
+        }
+
+        int topValue() {
+            return values[0];
+        }
+
+        void push(double key, int value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        void pop() {
+            size--;
+            if (size == 0) {
+                return;
+            }
+            double key = keys[size];
+            int value = values[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package graph.dagsp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DAG with every maximal series chain (vertices of in-degree 1 and out-degree 1) contracted
+ * into one super-edge from the vertex before the chain to the vertex after it, weighted by the
+ * chain's total. The remaining "junction" vertices are renumbered by topological rank, so a
+ * sweep runs over ids 0..k-1 in order without a separate order array.
+ *
+ * <p>Internal chain vertices are kept in flat arrays with their prefix weight from the chain
+ * head. A sweep over the contracted graph yields {@link Distances}, which computes an internal
+ * vertex's distance as head distance plus prefix and expands super-edges into their vertices
+ * only when a value or path is requested. Because a chain's weights are summed from its head,
+ * distances can differ from a link-by-link sweep in the last bits.
+ */
+public class ContractedDag {
+    static final int SOURCE_CHAIN = -2;
+
+    private final int vertexCount;
+    private final int edgeCount;
+    // Junctions: compact id (topological rank) <-> original id; compactId is -1 for chain vertices
+    private final int[] junctions;
+    private final int[] compactId;
+    // Contracted CSR over compact ids; edgeChain is -1 for an original edge
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] sources;
+    private final double[] weights;
+    private final int[] edgeChain;
+    // Chains: members of chain c at chainOffsets[c]..chainOffsets[c + 1] - 1, in path order
+    private final int[] chainOffsets;
+    private final int[] chainMembers;
+    private final double[] chainPrefix;
+    private final int[] chainHead;
+    // Slot of the largest prefix in each chain, for critical-path searches
+    private final int[] chainBest;
+    private final int[] chainSlot;
+    private final int[] slotChain;
+
+    private ContractedDag(int vertexCount, int edgeCount, int[] junctions, int[] compactId,
+                          int[] offsets, int[] targets, int[] sources, double[] weights, int[] edgeChain,
+                          int[] chainOffsets, int[] chainMembers, double[] chainPrefix, int[] chainHead,
+                          int[] chainBest, int[] chainSlot, int[] slotChain) {
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.junctions = junctions;
+        this.compactId = compactId;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.sources = sources;
+        this.weights = weights;
+        this.edgeChain = edgeChain;
+        this.chainOffsets = chainOffsets;
+        this.chainMembers = chainMembers;
+        this.chainPrefix = chainPrefix;
+        this.chainHead = chainHead;
+        this.chainBest = chainBest;
+        this.chainSlot = chainSlot;
+        this.slotChain = slotChain;
+    }
+
+    /**
+     * Contract every maximal chain of a DAG.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order containing every vertex exactly once
+     * @return contracted graph
+     * @throws IllegalArgumentException if the order does not match the graph
+     */
+    public static ContractedDag from(List<List<double[]>> graph, List<Integer> topoOrder) {
+        int n = graph.size();
+        if (topoOrder.size() != n) {
+            throw new IllegalArgumentException(
+                    "Topological order has " + topoOrder.size() + " vertices, graph has " + n);
+        }
+        int[] inDegree = new int[n];
+        int m = 0;
+        for (List<double[]> edges : graph) {
+            for (double[] edge : edges) {
+                inDegree[(int) edge[0]]++;
+            }
+            m += edges.size();
+        }
+
+        int[] compactId = new int[n];
+        int[] chainSlot = new int[n];
+        int junctionCount = 0;
+        for (int u : topoOrder) {
+            boolean internal = inDegree[u] == 1 && graph.get(u).size() == 1;
+            compactId[u] = internal ? -1 : junctionCount++;
+            chainSlot[u] = -1;
+        }
+        int[] junctions = new int[junctionCount];
+        for (int v = 0; v < n; v++) {
+            if (compactId[v] >= 0) {
+                junctions[compactId[v]] = v;
+            }
+        }
+
+        // Every chain starts at a junction's out-edge, so scanning junction edges in
+        // topological order visits each chain vertex exactly once
+        int[] offsets = new int[junctionCount + 1];
+        int[] targets = new int[m];
+        int[] sources = new int[m];
+        double[] weights = new double[m];
+        int[] edgeChain = new int[m];
+        int[] chainOffsets = new int[16];
+        int[] chainMembers = new int[n - junctionCount];
+        double[] chainPrefix = new double[n - junctionCount];
+        int[] slotChain = new int[n - junctionCount];
+        int[] chainHead = new int[16];
+        int[] chainBest = new int[16];
+        int chains = 0;
+        int slots = 0;
+        int e = 0;
+        for (int c = 0; c < junctionCount; c++) {
+            for (double[] edge : graph.get(junctions[c])) {
+                int v = (int) edge[0];
+                double total = edge[1];
+                int chain = -1;
+                if (compactId[v] < 0) {
+                    if (chains + 1 >= chainOffsets.length) {
+                        chainOffsets = Arrays.copyOf(chainOffsets, chainOffsets.length * 2);
+                        chainHead = Arrays.copyOf(chainHead, chainHead.length * 2);
+                        chainBest = Arrays.copyOf(chainBest, chainBest.length * 2);
+                    }
+                    chain = chains++;
+                    chainHead[chain] = c;
+                    chainOffsets[chain] = slots;
+                    chainBest[chain] = slots;
+                    while (compactId[v] < 0) {
+                        chainSlot[v] = slots;
+                        chainMembers[slots] = v;
+                        chainPrefix[slots] = total;
+                        if (total > chainPrefix[chainBest[chain]]) {
+                            chainBest[chain] = slots;
+                        }
+                        slotChain[slots++] = chain;
+                        double[] next = graph.get(v).get(0);
+                        v = (int) next[0];
+                        total += next[1];
+                    }
+                    chainOffsets[chain + 1] = slots;
+                }
+                if (compactId[v] <= c) {
+                    throw new IllegalArgumentException("Edge into vertex " + v + " goes against the topological order");
+                }
+                targets[e] = compactId[v];
+                sources[e] = c;
+                weights[e] = total;
+                edgeChain[e] = chain;
+                e++;
+            }
+            offsets[c + 1] = e;
+        }
+        if (slots != chainMembers.length) {
+            // Chain vertices not reachable from any junction can only form a cycle
+            throw new IllegalArgumentException((chainMembers.length - slots) + " vertices lie on a cycle");
+        }
+        return new ContractedDag(n, m, junctions, compactId,
+                offsets, Arrays.copyOf(targets, e), Arrays.copyOf(sources, e),
+                Arrays.copyOf(weights, e), Arrays.copyOf(edgeChain, e),
+                Arrays.copyOf(chainOffsets, chains + 1), chainMembers, chainPrefix,
+                Arrays.copyOf(chainHead, chains), Arrays.copyOf(chainBest, chains), chainSlot, slotChain);
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Vertices left after contraction (junctions).
+     */
+    public int getContractedVertexCount() {
+        return junctions.length;
+    }
+
+    /**
+     * Edges left after contraction: original edges between junctions plus one per chain.
+     */
+    public int getContractedEdgeCount() {
+        return targets.length;
+    }
+
+    public int getChainCount() {
+        return chainHead.length;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    double[] weights() {
+        return weights;
+    }
+
+    /**
+     * Seed a sweep at the source: a junction starts at distance 0; a chain vertex reaches only
+     * the rest of its chain, so the sweep starts at the chain's tail with the remaining weight.
+     *
+     * @return compact id where the sweep starts, with dist and parentEdge seeded
+     */
+    int seed(int source, double[] dist, int[] parentEdge) {
+        if (compactId[source] >= 0) {
+            dist[compactId[source]] = 0.0;
+            return compactId[source];
+        }
+        int slot = chainSlot[source];
+        int chain = slotChain[slot];
+        int tailEdge = edgeOf(chain);
+        dist[targets[tailEdge]] = weights[tailEdge] - chainPrefix[slot];
+        parentEdge[targets[tailEdge]] = SOURCE_CHAIN;
+        return targets[tailEdge];
+    }
+
+    // Super-edge of a chain: the head's out-edge whose chain id matches
+    private int edgeOf(int chain) {
+        int head = chainHead[chain];
+        for (int e = offsets[head]; e < offsets[head + 1]; e++) {
+            if (edgeChain[e] == chain) {
+                return e;
+            }
+        }
+        throw new IllegalStateException("Chain " + chain + " has no super-edge");
+    }
+
+    /**
+     * Distances from one source over a contracted graph. Junction distances come from the
+     * sweep; chain vertices and paths are expanded on request.
+     */
+    public static class Distances {
+        private final ContractedDag graph;
+        private final int source;
+        private final double[] dist;
+        private final int[] parentEdge;
+        private final double unreached;
+
+        Distances(ContractedDag graph, int source, double[] dist, int[] parentEdge, double unreached) {
+            this.graph = graph;
+            this.source = source;
+            this.dist = dist;
+            this.parentEdge = parentEdge;
+            this.unreached = unreached;
+        }
+
+        public int getSource() {
+            return source;
+        }
+
+        /**
+         * Distance of one vertex, or the sweep's unreached value (positive infinity for
+         * shortest paths, negative infinity for longest).
+         */
+        public double get(int v) {
+            ContractedDag g = graph;
+            int id = g.compactId[v];
+            if (id >= 0) {
+                return dist[id];
+            }
+            int slot = g.chainSlot[v];
+            int sourceSlot = g.compactId[source] < 0 ? g.chainSlot[source] : -1;
+            if (sourceSlot >= 0 && g.slotChain[slot] == g.slotChain[sourceSlot]) {
+                // The part of the source's chain before the source is unreachable
+                return slot >= sourceSlot ? g.chainPrefix[slot] - g.chainPrefix[sourceSlot] : unreached;
+            }
+            double head = dist[g.chainHead[g.slotChain[slot]]];
+            return head == unreached ? unreached : head + g.chainPrefix[slot];
+        }
+
+        /**
+         * Materialize every vertex's distance, indexed by original vertex id.
+         */
+        public double[] toArray() {
+            double[] all = new double[graph.vertexCount];
+            for (int v = 0; v < all.length; v++) {
+                all[v] = get(v);
+            }
+            return all;
+        }
+
+        /**
+         * Path from the source to a vertex with every chain vertex expanded; empty if the
+         * vertex is unreachable.
+         */
+        public List<Integer> getPath(int target) {
+            List<Integer> path = new ArrayList<>();
+            if (get(target) == unreached) {
+                return path;
+            }
+            ContractedDag g = graph;
+            int sourceSlot = g.compactId[source] < 0 ? g.chainSlot[source] : -1;
+            int current;
+            if (g.compactId[target] >= 0) {
+                current = g.compactId[target];
+            } else {
+                int slot = g.chainSlot[target];
+                int chain = g.slotChain[slot];
+                int first = sourceSlot >= 0 && g.slotChain[sourceSlot] == chain
+                        ? sourceSlot : g.chainOffsets[chain];
+                for (int s = slot; s >= first; s--) {
+                    path.add(g.chainMembers[s]);
+                }
+                if (first == sourceSlot) {
+                    Collections.reverse(path);
+                    return path;
+                }
+                current = g.chainHead[chain];
+            }
+            while (true) {
+                path.add(g.junctions[current]);
+                if (g.junctions[current] == source) {
+                    break;
+                }
+                int e = parentEdge[current];
+                if (e == -1) {
+                    throw new IllegalStateException("Vertex " + g.junctions[current] + " has no recorded predecessor");
+                }
+                int chain = e == SOURCE_CHAIN ? g.slotChain[sourceSlot] : g.edgeChain[e];
+                if (chain >= 0) {
+                    int first = e == SOURCE_CHAIN ? sourceSlot : g.chainOffsets[chain];
+                    for (int s = g.chainOffsets[chain + 1] - 1; s >= first; s--) {
+                        path.add(g.chainMembers[s]);
+                    }
+                }
+                if (e == SOURCE_CHAIN) {
+                    break;
+                }
+                current = g.sources[e];
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+        /**
+         * Vertex with the largest finite distance: junctions, the largest prefix of every
+         * reached chain, and the reachable part of the source's chain. Ties keep the first found.
+         */
+        int argMax() {
+            ContractedDag g = graph;
+            int best = source;
+            double bestDist = get(source);
+            for (int c = 0; c < dist.length; c++) {
+                if (dist[c] != unreached && dist[c] > bestDist) {
+                    bestDist = dist[c];
+                    best = g.junctions[c];
+                }
+            }
+            for (int chain = 0; chain < g.chainHead.length; chain++) {
+                double head = dist[g.chainHead[chain]];
+                int slot = g.chainBest[chain];
+                if (head != unreached && head + g.chainPrefix[slot] > bestDist) {
+                    bestDist = head + g.chainPrefix[slot];
+                    best = g.chainMembers[slot];
+                }
+            }
+            if (g.compactId[source] < 0) {
+                int sourceSlot = g.chainSlot[source];
+                int end = g.chainOffsets[g.slotChain[sourceSlot] + 1];
+                for (int slot = sourceSlot + 1; slot < end; slot++) {
+                    double d = g.chainPrefix[slot] - g.chainPrefix[sourceSlot];
+                    if (d > bestDist) {
+                        bestDist = d;
+                        best = g.chainMembers[slot];
+                    }
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package graph.dagsp;
+
+import metrics.Metrics;
+import metrics.SimpleMetrics;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Critical Path Method (CPM) over a DAG with edge weights.
+ * Computes earliest start, latest start and slack for every vertex in two
+ * linear sweeps over a topological order, instead of one longest-path run per source.
+ */
+public class CriticalPathMethod {
+    private static final double RELATIVE_EPSILON = 1e-9;
+
+    private Metrics metrics;
+
+    public CriticalPathMethod() {
+        this.metrics = new SimpleMetrics();
+    }
+
+    /**
+     * Run the forward and backward CPM passes.
+     * Every vertex without predecessors may start at time 0, and every vertex
+     * without successors must finish by the makespan.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order containing every vertex exactly once
+     * @return schedule with earliest/latest start, slack and critical edges
+     */
+    public ScheduleResult analyze(List<List<double[]>> graph, List<Integer> topoOrder) {
+        metrics.reset();
+        metrics.startTimer();
+
+        int n = graph.size();
+        if (topoOrder.size() != n) {
+            throw new IllegalArgumentException(
+                    "Topological order has " + topoOrder.size() + " vertices, graph has " + n);
+        }
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = topoOrder.get(i);
+        }
+
+        // Forward pass: earliest start is a max-plus DP in topological order
+        double[] earliest = new double[n];
+        for (int i = 0; i < n; i++) {
+            int u = order[i];
+            double eu = earliest[u];
+            for (double[] edge : graph.get(u)) {
+                int v = (int) edge[0];
+                double candidate = eu + edge[1];
+                metrics.incrementCounter("forward_relaxations");
+                if (candidate > earliest[v]) {
+                    earliest[v] = candidate;
+                }
+            }
+        }
+
+        double makespan = 0.0;
+        for (int v = 0; v < n; v++) {
+            if (earliest[v] > makespan) {
+                makespan = earliest[v];
+            }
+        }
+        double epsilon = RELATIVE_EPSILON * Math.max(1.0, Math.abs(makespan));
+
+        // Backward pass: latest start pulls from successors in reverse topological order,
+        // so the forward lists serve as the transpose and no extra index is needed.
+        // Successors are final when u is reached, so zero-float edges are collected here too.
+        double[] latest = new double[n];
+        Arrays.fill(latest, makespan);
+        int[] criticalFrom = new int[16];
+        int[] criticalTo = new int[16];
+        int criticalCount = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int u = order[i];
+            double lu = makespan;
+            for (double[] edge : graph.get(u)) {
+                int v = (int) edge[0];
+                double candidate = latest[v] - edge[1];
+                metrics.incrementCounter("backward_relaxations");
+                if (candidate < lu) {
+                    lu = candidate;
+                }
+            }
+            latest[u] = lu;
+
+            if (lu - earliest[u] <= epsilon) {
+                for (double[] edge : graph.get(u)) {
+                    int v = (int) edge[0];
+                    if (latest[v] - edge[1] - earliest[u] <= epsilon) {
+                        if (criticalCount == criticalFrom.length) {
+                            criticalFrom = Arrays.copyOf(criticalFrom, criticalCount * 2);
+                            criticalTo = Arrays.copyOf(criticalTo, criticalCount * 2);
+                        }
+                        criticalFrom[criticalCount] = u;
+                        criticalTo[criticalCount] = v;
+                        criticalCount++;
+                    }
+                }
+            }
+        }
+
+        double[] slack = new double[n];
+        for (int v = 0; v < n; v++) {
+            double s = latest[v] - earliest[v];
+            slack[v] = s <= epsilon ? 0.0 : s;
+        }
+
+        metrics.stopTimer();
+        return new ScheduleResult(earliest, latest, slack, makespan,
+                Arrays.copyOf(criticalFrom, criticalCount),
+                Arrays.copyOf(criticalTo, criticalCount));
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Result class for a CPM schedule.
+     */
+    public static class ScheduleResult {
+        private double[] earliestStart;
+        private double[] latestStart;
+        private double[] slack;
+        private double makespan;
+        private int[] criticalEdgeSources;
+        private int[] criticalEdgeTargets;
+
+        public ScheduleResult(double[] earliestStart, double[] latestStart, double[] slack, double makespan,
+                              int[] criticalEdgeSources, int[] criticalEdgeTargets) {
+            this.earliestStart = earliestStart;
+            this.latestStart = latestStart;
+            this.slack = slack;
+            this.makespan = makespan;
+            this.criticalEdgeSources = criticalEdgeSources;
+            this.criticalEdgeTargets = criticalEdgeTargets;
+        }
+
+        public double[] getEarliestStart() {
+            return earliestStart;
+        }
+
+        public double[] getLatestStart() {
+            return latestStart;
+        }
+
+        public double[] getSlack() {
+            return slack;
+        }
+
+        public double getMakespan() {
+            return makespan;
+        }
+
+        /**
+         * Check whether a vertex has zero slack.
+         */
+        public boolean isCritical(int vertex) {
+            return slack[vertex] == 0.0;
+        }
+
+        public int getCriticalEdgeCount() {
+            return criticalEdgeSources.length;
+        }
+
+        /**
+         * Sources of the zero-slack edges, parallel to {@link #getCriticalEdgeTargets()}.
+         */
+        public int[] getCriticalEdgeSources() {
+            return criticalEdgeSources;
+        }
+
+        /**
+         * Targets of the zero-slack edges, parallel to {@link #getCriticalEdgeSources()}.
+         */
+        public int[] getCriticalEdgeTargets() {
+            return criticalEdgeTargets;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package graph.dagsp;
+
+import metrics.Metrics;
+import metrics.SimpleMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point-to-point shortest/longest path queries on a fixed DAG.
+ * A vertex-to-topological-position index lets a query start directly at the
+ * source and stop at the target's position. Distances live in a workspace that
+ * is invalidated by bumping a query stamp, so repeated queries only pay for the
+ * vertices they touch. Optionally, relaxations are pruned to vertices that can
+ * reach the target, using a cached reverse-reachability bitset per target.
+ * Instances are not thread-safe.
+ */
+public class DAGPathQuery {
+    private static final int REACHABILITY_CACHE_SIZE = 16;
+
+    private Metrics metrics;
+    private final List<List<double[]>> graph;
+    private final int[] order;
+    private final int[] position;
+    private ReverseGraph reverse;
+    private final Map<Integer, long[]> reachabilityCache;
+
+    // Sparse-reset workspace: dist[v] and parent[v] are valid only when stamp[v] == currentStamp
+    private final double[] dist;
+    private final int[] parent;
+    private final int[] stamp;
+    private int currentStamp;
+
+    /**
+     * Prepare queries over a DAG.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order containing every vertex
+     */
+    public DAGPathQuery(List<List<double[]>> graph, List<Integer> topoOrder) {
+        int n = graph.size();
+        if (topoOrder.size() != n) {
+            throw new IllegalArgumentException(
+                    "Topological order has " + topoOrder.size() + " vertices, graph has " + n);
+        }
+        this.metrics = new SimpleMetrics();
+        this.graph = graph;
+        this.order = new int[n];
+        this.position = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = topoOrder.get(i);
+            position[order[i]] = i;
+        }
+        this.reachabilityCache = new LinkedHashMap<>(REACHABILITY_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, long[]> eldest) {
+                return size() > REACHABILITY_CACHE_SIZE;
+            }
+        };
+        this.dist = new double[n];
+        this.parent = new int[n];
+        this.stamp = new int[n];
+    }
+
+    /**
+     * Shortest distance from source to target.
+     *
+     * @return distance, or Double.POSITIVE_INFINITY if the target is unreachable
+     */
+    public double shortestDistance(int source, int target) {
+        return shortestDistance(source, target, false);
+    }
+
+    /**
+     * Shortest distance from source to target.
+     *
+     * @param prune relax only vertices that can reach the target
+     * @return distance, or Double.POSITIVE_INFINITY if the target is unreachable
+     */
+    public double shortestDistance(int source, int target, boolean prune) {
+        return query(source, target, false, prune);
+    }
+
+    /**
+     * Longest distance from source to target.
+     *
+     * @return distance, or Double.NEGATIVE_INFINITY if the target is unreachable
+     */
+    public double longestDistance(int source, int target) {
+        return longestDistance(source, target, false);
+    }
+
+    /**
+     * Longest distance from source to target.
+     *
+     * @param prune relax only vertices that can reach the target
+     * @return distance, or Double.NEGATIVE_INFINITY if the target is unreachable
+     */
+    public double longestDistance(int source, int target, boolean prune) {
+        return query(source, target, true, prune);
+    }
+
+    /**
+     * Shortest path from source to target.
+     *
+     * @return path as list of vertex indices (empty if no path exists)
+     */
+    public List<Integer> shortestPath(int source, int target) {
+        query(source, target, false, true);
+        return collectPath(target);
+    }
+
+    /**
+     * Longest path from source to target.
+     *
+     * @return path as list of vertex indices (empty if no path exists)
+     */
+    public List<Integer> longestPath(int source, int target) {
+        query(source, target, true, true);
+        return collectPath(target);
+    }
+
+    private double query(int source, int target, boolean longest, boolean prune) {
+        metrics.reset();
+        metrics.startTimer();
+
+        double unreached = longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        nextStamp();
+        int from = position[source];
+        int to = position[target];
+        if (to < from) {
+            metrics.stopTimer();
+            return unreached;
+        }
+        long[] canReach = prune ? reachabilityOf(target) : null;
+
+        touch(source, 0.0, -1);
+        for (int i = from; i < to; i++) {
+            int u = order[i];
+            if (stamp[u] != currentStamp) {
+                continue;
+            }
+            double du = dist[u];
+            for (double[] edge : graph.get(u)) {
+                int v = (int) edge[0];
+                if (position[v] > to || (canReach != null && (canReach[v >>> 6] & (1L << v)) == 0)) {
+                    continue;
+                }
+                metrics.incrementCounter("relaxations");
+                double candidate = du + edge[1];
+                if (stamp[v] != currentStamp
+                        || (longest ? candidate > dist[v] : candidate < dist[v])) {
+                    touch(v, candidate, u);
+                }
+            }
+        }
+
+        metrics.stopTimer();
+        return stamp[target] == currentStamp ? dist[target] : unreached;
+    }
+
+    private void touch(int v, double distance, int from) {
+        stamp[v] = currentStamp;
+        dist[v] = distance;
+        parent[v] = from;
+    }
+
+    private void nextStamp() {
+        currentStamp++;
+        if (currentStamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            currentStamp = 1;
+        }
+    }
+
+    private List<Integer> collectPath(int target) {
+        List<Integer> path = new ArrayList<>();
+        if (stamp[target] != currentStamp) {
+            return path;
+        }
+        for (int v = target; v != -1; v = parent[v]) {
+            path.add(v);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Bitset of the vertices that can reach the target, from a reverse BFS.
+     */
+    private long[] reachabilityOf(int target) {
+        long[] bits = reachabilityCache.get(target);
+        if (bits != null) {
+            return bits;
+        }
+        if (reverse == null) {
+            reverse = ReverseGraph.build(graph);
+        }
+        int[] offsets = reverse.getOffsets();
+        int[] sources = reverse.getSources();
+
+        bits = new long[(graph.size() + 63) >>> 6];
+        int[] queue = new int[16];
+        int head = 0;
+        int tail = 0;
+        bits[target >>> 6] |= 1L << target;
+        queue[tail++] = target;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int u = sources[e];
+                if ((bits[u >>> 6] & (1L << u)) == 0) {
+                    bits[u >>> 6] |= 1L << u;
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                    }
+                    queue[tail++] = u;
+                }
+            }
+        }
+        metrics.incrementCounter("reachability_builds");
+        reachabilityCache.put(target, bits);
+        return bits;
+    }
+
+    /**
+     * Topological position of a vertex.
+     */
+    public int positionOf(int vertex) {
+        return position[vertex];
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
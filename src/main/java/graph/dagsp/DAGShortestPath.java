@@ -1,13 +1,15 @@
 package graph.dagsp;
 
 import metrics.Metrics;
+import metrics.PhaseEvent;
 import metrics.SimpleMetrics;
 
 import java.util.*;
 
 /**
  * Implementation of shortest and longest path algorithms for DAGs.
- * Uses edge weights from the graph.
+ * Uses edge weights from the graph. The static list-graph entry points write into
+ * caller-supplied arrays and are safe to call concurrently on the same graph.
  */
 public class DAGShortestPath {
     private Metrics metrics;
@@ -27,38 +29,29 @@ public class DAGShortestPath {
     public double[] shortestPaths(List<List<double[]>> graph, List<Integer> topoOrder, int source) {
         metrics.reset();
         metrics.startTimer();
-
-        int n = graph.size();
-        double[] dist = new double[n];
-        Arrays.fill(dist, Double.POSITIVE_INFINITY);
-        dist[source] = 0.0;
-
-        // Process vertices in topological order
-        boolean foundSource = false;
-        for (int u : topoOrder) {
-            if (u == source) {
-                foundSource = true;
-            }
-            if (!foundSource) {
-                continue;
-            }
-
-            if (dist[u] != Double.POSITIVE_INFINITY) {
-                for (double[] edge : graph.get(u)) {
-                    int v = (int) edge[0];
-                    double w = edge[1];
-                    metrics.incrementCounter("relaxations");
-                    if (dist[v] > dist[u] + w) {
-                        dist[v] = dist[u] + w;
-                    }
-                }
-            }
-        }
-
+        PhaseEvent event = PhaseEvent.begin("shortestPaths", "DAGShortestPath");
+        double[] dist = new double[graph.size()];
+        shortestPaths(graph, topoOrder, source, dist, metrics);
         metrics.stopTimer();
+        event.finish(graph, metrics);
         return dist;
     }
 
+    /**
+     * Compute single-source shortest paths into a caller-supplied array. Holds no state,
+     * so any number of threads may call it on the same graph with their own arrays.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @param dist      receives the distances (length at least n; Double.POSITIVE_INFINITY if unreachable)
+     * @param metrics   receives relaxations (e.g. {@link metrics.NoOpMetrics#INSTANCE})
+     */
+    public static void shortestPaths(List<List<double[]>> graph, List<Integer> topoOrder, int source,
+                                     double[] dist, Metrics metrics) {
+        metrics.incrementCounter("relaxations", Semiring.MIN_PLUS.solve(graph, topoOrder, source, dist, null));
+    }
+
     /**
      * Compute longest paths in a DAG (critical path).
      * Uses max-DP over topological order.
@@ -71,36 +64,722 @@ public class DAGShortestPath {
     public double[] longestPaths(List<List<double[]>> graph, List<Integer> topoOrder, int source) {
         metrics.reset();
         metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("longestPaths", "DAGShortestPath");
+        double[] dist = new double[graph.size()];
+        longestPaths(graph, topoOrder, source, dist, null, metrics);
+        metrics.stopTimer();
+        event.finish(graph, metrics);
+        return dist;
+    }
 
-        int n = graph.size();
+    /**
+     * Compute longest paths into caller-supplied arrays. Holds no state, so any number of
+     * threads may call it on the same graph with their own arrays.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex for longest path
+     * @param dist      receives the distances (length at least n; Double.NEGATIVE_INFINITY if unreachable)
+     * @param parent    receives each vertex's predecessor on its longest path, -1 for none (may be null)
+     * @param metrics   receives relaxations (e.g. {@link metrics.NoOpMetrics#INSTANCE})
+     */
+    public static void longestPaths(List<List<double[]>> graph, List<Integer> topoOrder, int source,
+                                    double[] dist, int[] parent, Metrics metrics) {
+        metrics.incrementCounter("relaxations", Semiring.MAX_PLUS.solve(graph, topoOrder, source, dist, parent));
+    }
+
+    /**
+     * Run a semiring DP from a source, e.g. path counts ({@link Semiring#COUNT}), widest paths
+     * ({@link Semiring#BOTTLENECK}) or most reliable paths ({@link Semiring#RELIABILITY}).
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @param semiring  operators of the DP
+     * @return value of every vertex ({@link Semiring#zero()} if unreachable)
+     */
+    public double[] solve(List<List<double[]>> graph, List<Integer> topoOrder, int source, Semiring semiring) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("solve", "DAGShortestPath");
+        double[] value = new double[graph.size()];
+        metrics.incrementCounter("relaxations", semiring.solve(graph, topoOrder, source, value, null));
+        metrics.stopTimer();
+        event.finish(graph, metrics);
+        return value;
+    }
+
+    /**
+     * Compute single-source shortest paths on a compact graph, using the kernel
+     * specialized for its weight encoding.
+     *
+     * @param graph     compact graph
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @return array of shortest distances (Double.POSITIVE_INFINITY if unreachable);
+     *         hop counts for UNIT weights
+     */
+    public double[] shortestPaths(CompactWeightedGraph graph, List<Integer> topoOrder, int source) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("shortestPaths", "DAGShortestPath");
+
+        int[] order = toArray(topoOrder);
+        int start = indexOf(order, source);
+        double[] dist = new double[graph.getVertexCount()];
+        long relaxations;
+        switch (graph.getEncoding()) {
+            case DOUBLE:
+                relaxations = shortestDouble(graph, order, start, dist);
+                break;
+            case FLOAT32:
+                relaxations = shortestFloat(graph, order, start, dist);
+                break;
+            case FIXED_POINT:
+                relaxations = shortestFixed(graph, order, start, dist);
+                break;
+            default:
+                relaxations = shortestUnit(graph, order, start, dist);
+                break;
+        }
+        if (start < 0) {
+            dist[source] = 0.0;
+        }
+        metrics.incrementCounter("relaxations", relaxations);
+
+        metrics.stopTimer();
+        event.finish(graph.getVertexCount(), graph.getEdgeCount(), metrics);
+        return dist;
+    }
+
+    /**
+     * Compute longest paths on a compact graph, using the kernel specialized
+     * for its weight encoding.
+     *
+     * @param graph     compact graph
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @return array of longest distances (Double.NEGATIVE_INFINITY if unreachable);
+     *         hop counts for UNIT weights
+     */
+    public double[] longestPaths(CompactWeightedGraph graph, List<Integer> topoOrder, int source) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("longestPaths", "DAGShortestPath");
+
+        int[] order = toArray(topoOrder);
+        int start = indexOf(order, source);
+        double[] dist = new double[graph.getVertexCount()];
+        long relaxations;
+        switch (graph.getEncoding()) {
+            case DOUBLE:
+                relaxations = longestDouble(graph, order, start, dist);
+                break;
+            case FLOAT32:
+                relaxations = longestFloat(graph, order, start, dist);
+                break;
+            case FIXED_POINT:
+                relaxations = longestFixed(graph, order, start, dist);
+                break;
+            default:
+                relaxations = longestUnit(graph, order, start, dist);
+                break;
+        }
+        if (start < 0) {
+            dist[source] = 0.0;
+        }
+        metrics.incrementCounter("relaxations", relaxations);
+
+        metrics.stopTimer();
+        event.finish(graph.getVertexCount(), graph.getEdgeCount(), metrics);
+        return dist;
+    }
+
+    /**
+     * Compute single-source shortest paths on a node-weighted graph, where entering a
+     * vertex adds its weight and the source's own weight starts the sum.
+     *
+     * @param graph     node-weighted graph
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @return array of shortest distances (Double.POSITIVE_INFINITY if unreachable)
+     */
+    public double[] shortestPaths(NodeWeightedGraph graph, List<Integer> topoOrder, int source) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("shortestPaths", "DAGShortestPath");
+
+        int[] order = toArray(topoOrder);
+        int start = indexOf(order, source);
+        double[] dist = new double[graph.getVertexCount()];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = graph.getNodeWeight(source);
+        long relaxations = start < 0 ? 0 : shortestNode(graph, order, start, dist);
+        metrics.incrementCounter("relaxations", relaxations);
+
+        metrics.stopTimer();
+        event.finish(graph.getVertexCount(), graph.getEdgeCount(), metrics);
+        return dist;
+    }
+
+    /**
+     * Compute longest paths on a node-weighted graph, where entering a vertex adds its
+     * weight and the source's own weight starts the sum.
+     *
+     * @param graph     node-weighted graph
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @return array of longest distances (Double.NEGATIVE_INFINITY if unreachable)
+     */
+    public double[] longestPaths(NodeWeightedGraph graph, List<Integer> topoOrder, int source) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("longestPaths", "DAGShortestPath");
+
+        int[] order = toArray(topoOrder);
+        int start = indexOf(order, source);
+        double[] dist = new double[graph.getVertexCount()];
+        Arrays.fill(dist, Double.NEGATIVE_INFINITY);
+        dist[source] = graph.getNodeWeight(source);
+        long relaxations = start < 0 ? 0 : longestNode(graph, order, start, dist, null);
+        metrics.incrementCounter("relaxations", relaxations);
+
+        metrics.stopTimer();
+        event.finish(graph.getVertexCount(), graph.getEdgeCount(), metrics);
+        return dist;
+    }
+
+    /**
+     * Find the critical path of a node-weighted graph: the heaviest chain of tasks
+     * starting at the source, with its total duration.
+     *
+     * @param graph     node-weighted graph
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @return CriticalPathResult containing path and length
+     * @throws IllegalArgumentException if the order is not topological for the vertices
+     *                                  reached from the source
+     */
+    public CriticalPathResult findCriticalPath(NodeWeightedGraph graph, List<Integer> topoOrder, int source) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("findCriticalPath", "DAGShortestPath");
+
+        int n = graph.getVertexCount();
+        int[] order = toArray(topoOrder);
+        int start = indexOf(order, source);
         double[] dist = new double[n];
+        int[] parent = new int[n];
         Arrays.fill(dist, Double.NEGATIVE_INFINITY);
-        dist[source] = 0.0;
+        Arrays.fill(parent, -1);
+        dist[source] = graph.getNodeWeight(source);
+        long relaxations = start < 0 ? 0 : longestNode(graph, order, start, dist, parent);
+        metrics.incrementCounter("relaxations", relaxations);
+        requireForwardEdges(graph.offsets(), graph.targets(), order, dist, Double.NEGATIVE_INFINITY, new int[n]);
 
-        // Process vertices in topological order
-        boolean foundSource = false;
-        for (int u : topoOrder) {
-            if (u == source) {
-                foundSource = true;
+        int maxVertex = source;
+        for (int i = 0; i < n; i++) {
+            if (dist[i] > dist[maxVertex]) {
+                maxVertex = i;
             }
-            if (!foundSource) {
+        }
+        List<Integer> path = new ArrayList<>();
+        int current = maxVertex;
+        while (current != source && parent[current] != -1) {
+            path.add(current);
+            current = parent[current];
+        }
+        path.add(source);
+        Collections.reverse(path);
+
+        metrics.stopTimer();
+        event.finish(graph.getVertexCount(), graph.getEdgeCount(), metrics);
+        return new CriticalPathResult(path, dist[maxVertex]);
+    }
+
+    private static long shortestNode(NodeWeightedGraph graph, int[] order, int start, double[] dist) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        double[] weights = graph.nodeWeights();
+        long relaxations = 0;
+        for (int i = start; i < order.length; i++) {
+            int u = order[i];
+            double du = dist[u];
+            if (du == Double.POSITIVE_INFINITY) {
                 continue;
             }
+            int end = offsets[u + 1];
+            relaxations += end - offsets[u];
+            for (int e = offsets[u]; e < end; e++) {
+                int v = targets[e];
+                double candidate = du + weights[v];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return relaxations;
+    }
 
-            if (dist[u] != Double.NEGATIVE_INFINITY) {
-                for (double[] edge : graph.get(u)) {
-                    int v = (int) edge[0];
-                    double w = edge[1];
-                    metrics.incrementCounter("relaxations");
-                    if (dist[v] < dist[u] + w) {
-                        dist[v] = dist[u] + w;
+    private static long longestNode(NodeWeightedGraph graph, int[] order, int start, double[] dist, int[] parent) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        double[] weights = graph.nodeWeights();
+        long relaxations = 0;
+        for (int i = start; i < order.length; i++) {
+            int u = order[i];
+            double du = dist[u];
+            if (du == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            int end = offsets[u + 1];
+            relaxations += end - offsets[u];
+            for (int e = offsets[u]; e < end; e++) {
+                int v = targets[e];
+                double candidate = du + weights[v];
+                if (candidate > dist[v]) {
+                    dist[v] = candidate;
+                    if (parent != null) {
+                        parent[v] = u;
                     }
                 }
             }
         }
+        return relaxations;
+    }
+
+    // Specialized kernels: one loop per (objective, encoding), no per-edge branching on either
+
+    private static long shortestDouble(CompactWeightedGraph graph, int[] order, int start, double[] dist) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        double[] weights = graph.doubleWeights();
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        if (start < 0) {
+            return 0;
+        }
+        dist[order[start]] = 0.0;
+        long relaxations = 0;
+        for (int i = start; i < order.length; i++) {
+            int u = order[i];
+            double du = dist[u];
+            if (du == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            int end = offsets[u + 1];
+            relaxations += end - offsets[u];
+            for (int e = offsets[u]; e < end; e++) {
+                int v = targets[e];
+                double candidate = du + weights[e];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    private static long shortestFloat(CompactWeightedGraph graph, int[] order, int start, double[] dist) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        float[] weights = graph.floatWeights();
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        if (start < 0) {
+            return 0;
+        }
+        dist[order[start]] = 0.0;
+        long relaxations = 0;
+        for (int i = start; i < order.length; i++) {
+            int u = order[i];
+            double du = dist[u];
+            if (du == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            int end = offsets[u + 1];
+            relaxations += end - offsets[u];
+            for (int e = offsets[u]; e < end; e++) {
+                int v = targets[e];
+                double candidate = du + weights[e];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    private static long shortestFixed(CompactWeightedGraph graph, int[] order, int start, double[] dist) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.fixedWeights();
+        long[] fixed = new long[dist.length];
+        Arrays.fill(fixed, Long.MAX_VALUE);
+        long relaxations = 0;
+        if (start >= 0) {
+            fixed[order[start]] = 0L;
+            for (int i = start; i < order.length; i++) {
+                int u = order[i];
+                long du = fixed[u];
+                if (du == Long.MAX_VALUE) {
+                    continue;
+                }
+                int end = offsets[u + 1];
+                relaxations += end - offsets[u];
+                for (int e = offsets[u]; e < end; e++) {
+                    int v = targets[e];
+                    long candidate = du + weights[e];
+                    if (candidate < fixed[v]) {
+                        fixed[v] = candidate;
+                    }
+                }
+            }
+        }
+        double scale = graph.getScale();
+        for (int v = 0; v < dist.length; v++) {
+            dist[v] = fixed[v] == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : fixed[v] / scale;
+        }
+        return relaxations;
+    }
+
+    private static long shortestUnit(CompactWeightedGraph graph, int[] order, int start, double[] dist) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] hops = new int[dist.length];
+        Arrays.fill(hops, Integer.MAX_VALUE);
+        long relaxations = 0;
+        if (start >= 0) {
+            hops[order[start]] = 0;
+            for (int i = start; i < order.length; i++) {
+                int u = order[i];
+                int hu = hops[u];
+                if (hu == Integer.MAX_VALUE) {
+                    continue;
+                }
+                int end = offsets[u + 1];
+                relaxations += end - offsets[u];
+                int candidate = hu + 1;
+                for (int e = offsets[u]; e < end; e++) {
+                    int v = targets[e];
+                    if (candidate < hops[v]) {
+                        hops[v] = candidate;
+                    }
+                }
+            }
+        }
+        for (int v = 0; v < dist.length; v++) {
+            dist[v] = hops[v] == Integer.MAX_VALUE ? Double.POSITIVE_INFINITY : hops[v];
+        }
+        return relaxations;
+    }
+
+    private static long longestDouble(CompactWeightedGraph graph, int[] order, int start, double[] dist) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        double[] weights = graph.doubleWeights();
+        Arrays.fill(dist, Double.NEGATIVE_INFINITY);
+        if (start < 0) {
+            return 0;
+        }
+        dist[order[start]] = 0.0;
+        long relaxations = 0;
+        for (int i = start; i < order.length; i++) {
+            int u = order[i];
+            double du = dist[u];
+            if (du == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            int end = offsets[u + 1];
+            relaxations += end - offsets[u];
+            for (int e = offsets[u]; e < end; e++) {
+                int v = targets[e];
+                double candidate = du + weights[e];
+                if (candidate > dist[v]) {
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    private static long longestFloat(CompactWeightedGraph graph, int[] order, int start, double[] dist) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        float[] weights = graph.floatWeights();
+        Arrays.fill(dist, Double.NEGATIVE_INFINITY);
+        if (start < 0) {
+            return 0;
+        }
+        dist[order[start]] = 0.0;
+        long relaxations = 0;
+        for (int i = start; i < order.length; i++) {
+            int u = order[i];
+            double du = dist[u];
+            if (du == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            int end = offsets[u + 1];
+            relaxations += end - offsets[u];
+            for (int e = offsets[u]; e < end; e++) {
+                int v = targets[e];
+                double candidate = du + weights[e];
+                if (candidate > dist[v]) {
+                    dist[v] = candidate;
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    private static long longestFixed(CompactWeightedGraph graph, int[] order, int start, double[] dist) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.fixedWeights();
+        long[] fixed = new long[dist.length];
+        Arrays.fill(fixed, Long.MIN_VALUE);
+        long relaxations = 0;
+        if (start >= 0) {
+            fixed[order[start]] = 0L;
+            for (int i = start; i < order.length; i++) {
+                int u = order[i];
+                long du = fixed[u];
+                if (du == Long.MIN_VALUE) {
+                    continue;
+                }
+                int end = offsets[u + 1];
+                relaxations += end - offsets[u];
+                for (int e = offsets[u]; e < end; e++) {
+                    int v = targets[e];
+                    long candidate = du + weights[e];
+                    if (candidate > fixed[v]) {
+                        fixed[v] = candidate;
+                    }
+                }
+            }
+        }
+        double scale = graph.getScale();
+        for (int v = 0; v < dist.length; v++) {
+            dist[v] = fixed[v] == Long.MIN_VALUE ? Double.NEGATIVE_INFINITY : fixed[v] / scale;
+        }
+        return relaxations;
+    }
+
+    private static long longestUnit(CompactWeightedGraph graph, int[] order, int start, double[] dist) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] hops = new int[dist.length];
+        Arrays.fill(hops, -1);
+        long relaxations = 0;
+        if (start >= 0) {
+            hops[order[start]] = 0;
+            for (int i = start; i < order.length; i++) {
+                int u = order[i];
+                int hu = hops[u];
+                if (hu < 0) {
+                    continue;
+                }
+                int end = offsets[u + 1];
+                relaxations += end - offsets[u];
+                int candidate = hu + 1;
+                for (int e = offsets[u]; e < end; e++) {
+                    int v = targets[e];
+                    if (candidate > hops[v]) {
+                        hops[v] = candidate;
+                    }
+                }
+            }
+        }
+        for (int v = 0; v < dist.length; v++) {
+            dist[v] = hops[v] < 0 ? Double.NEGATIVE_INFINITY : hops[v];
+        }
+        return relaxations;
+    }
+
+    /**
+     * Check that every edge out of a reached vertex points to a later position in the order.
+     * A backward edge (cyclic input, or an order that is not topological) means its target
+     * was updated after the sweep had passed it, so values and predecessors are meaningless.
+     *
+     * @param value    values of the sweep; vertices still at zero were not reached
+     * @param position scratch space of at least n entries
+     * @throws IllegalArgumentException on the first backward edge
+     */
+    private static void requireForwardEdges(List<List<double[]>> graph, List<Integer> topoOrder,
+                                            double[] value, double zero, int[] position) {
+        Arrays.fill(position, 0, graph.size(), -1);
+        int i = 0;
+        for (int u : topoOrder) {
+            position[u] = i++;
+        }
+        for (int u : topoOrder) {
+            if (value[u] == zero) {
+                continue;
+            }
+            for (double[] edge : graph.get(u)) {
+                int v = (int) edge[0];
+                if (position[v] <= position[u]) {
+                    throw new IllegalArgumentException(
+                            "Order is not topological: edge " + u + " -> " + v + " points backwards");
+                }
+            }
+        }
+    }
+
+    private static void requireForwardEdges(int[] offsets, int[] targets, int[] order,
+                                            double[] value, double zero, int[] position) {
+        Arrays.fill(position, -1);
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+        for (int u : order) {
+            if (value[u] == zero) {
+                continue;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (position[targets[e]] <= position[u]) {
+                    throw new IllegalArgumentException(
+                            "Order is not topological: edge " + u + " -> " + targets[e] + " points backwards");
+                }
+            }
+        }
+    }
+
+    private static int[] toArray(List<Integer> topoOrder) {
+        int[] order = new int[topoOrder.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = topoOrder.get(i);
+        }
+        return order;
+    }
+
+    /**
+     * Compute single-source shortest paths on a chain-contracted DAG. The sweep visits only
+     * junction vertices; chain vertices and paths are filled in by the returned distances
+     * when asked for.
+     *
+     * @param graph  contracted graph
+     * @param source source vertex (original id)
+     * @return lazy distances (Double.POSITIVE_INFINITY if unreachable)
+     */
+    public ContractedDag.Distances shortestPaths(ContractedDag graph, int source) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("shortestPaths", "DAGShortestPath");
+
+        int k = graph.getContractedVertexCount();
+        double[] dist = new double[k];
+        int[] parentEdge = new int[k];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(parentEdge, -1);
+        int start = graph.seed(source, dist, parentEdge);
+        metrics.incrementCounter("relaxations", shortestContracted(graph, start, dist, parentEdge));
 
         metrics.stopTimer();
-        return dist;
+        event.finish(k, graph.getContractedEdgeCount(), metrics);
+        return new ContractedDag.Distances(graph, source, dist, parentEdge, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Compute longest paths on a chain-contracted DAG, sweeping only junction vertices.
+     *
+     * @param graph  contracted graph
+     * @param source source vertex (original id)
+     * @return lazy distances (Double.NEGATIVE_INFINITY if unreachable)
+     */
+    public ContractedDag.Distances longestPaths(ContractedDag graph, int source) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("longestPaths", "DAGShortestPath");
+        ContractedDag.Distances distances = longestContracted(graph, source);
+        metrics.stopTimer();
+        event.finish(graph.getContractedVertexCount(), graph.getContractedEdgeCount(), metrics);
+        return distances;
+    }
+
+    /**
+     * Find the critical path of a chain-contracted DAG. The farthest vertex is found from the
+     * junction distances and each chain's largest prefix; only the returned path is expanded.
+     *
+     * @param graph  contracted graph
+     * @param source source vertex (original id)
+     * @return CriticalPathResult containing path and length
+     */
+    public CriticalPathResult findCriticalPath(ContractedDag graph, int source) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("findCriticalPath", "DAGShortestPath");
+
+        ContractedDag.Distances distances = longestContracted(graph, source);
+        int farthest = distances.argMax();
+        CriticalPathResult result = new CriticalPathResult(distances.getPath(farthest), distances.get(farthest));
+
+        metrics.stopTimer();
+        event.finish(graph.getContractedVertexCount(), graph.getContractedEdgeCount(), metrics);
+        return result;
+    }
+
+    private ContractedDag.Distances longestContracted(ContractedDag graph, int source) {
+        int k = graph.getContractedVertexCount();
+        double[] dist = new double[k];
+        int[] parentEdge = new int[k];
+        Arrays.fill(dist, Double.NEGATIVE_INFINITY);
+        Arrays.fill(parentEdge, -1);
+        int start = graph.seed(source, dist, parentEdge);
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        double[] weights = graph.weights();
+        long relaxations = 0;
+        for (int u = start; u < k; u++) {
+            double du = dist[u];
+            if (du == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            int end = offsets[u + 1];
+            relaxations += end - offsets[u];
+            for (int e = offsets[u]; e < end; e++) {
+                int v = targets[e];
+                double candidate = du + weights[e];
+                if (candidate > dist[v]) {
+                    dist[v] = candidate;
+                    parentEdge[v] = e;
+                }
+            }
+        }
+        metrics.incrementCounter("relaxations", relaxations);
+        return new ContractedDag.Distances(graph, source, dist, parentEdge, Double.NEGATIVE_INFINITY);
+    }
+
+    // Junction ids are topological ranks, so the sweep needs no order array
+    private static long shortestContracted(ContractedDag graph, int start, double[] dist, int[] parentEdge) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        double[] weights = graph.weights();
+        long relaxations = 0;
+        for (int u = start; u < dist.length; u++) {
+            double du = dist[u];
+            if (du == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            int end = offsets[u + 1];
+            relaxations += end - offsets[u];
+            for (int e = offsets[u]; e < end; e++) {
+                int v = targets[e];
+                double candidate = du + weights[e];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    parentEdge[v] = e;
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    private static int indexOf(int[] order, int vertex) {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] == vertex) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -110,22 +789,61 @@ public class DAGShortestPath {
      * @param topoOrder topological order
      * @param source    source vertex
      * @return CriticalPathResult containing path and length
+     * @throws IllegalArgumentException if the order is not topological for the vertices
+     *                                  reached from the source
      */
     public CriticalPathResult findCriticalPath(List<List<double[]>> graph, List<Integer> topoOrder, int source) {
-        double[] dist = longestPaths(graph, topoOrder, source);
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("findCriticalPath", "DAGShortestPath");
+        CriticalPathResult result = findCriticalPath(graph, topoOrder, source, Workspace.forCurrentThread(), metrics);
+        metrics.stopTimer();
+        event.finish(graph, metrics);
+        return result;
+    }
+
+    /**
+     * Find the critical path using thread-confined scratch space. Predecessors are recorded
+     * during the longest-path sweep, so no second pass is needed; only the returned path
+     * is allocated.
+     *
+     * @param graph     adjacency list with weights
+     * @param topoOrder topological order
+     * @param source    source vertex
+     * @param workspace scratch arrays, grown to the graph size on demand
+     * @param metrics   receives relaxations (e.g. {@link metrics.NoOpMetrics#INSTANCE})
+     * @return CriticalPathResult containing path and length
+     * @throws IllegalArgumentException if the order is not topological for the vertices
+     *                                  reached from the source
+     */
+    public static CriticalPathResult findCriticalPath(List<List<double[]>> graph, List<Integer> topoOrder,
+                                                      int source, Workspace workspace, Metrics metrics) {
+        int n = graph.size();
+        workspace.ensureCapacity(n);
+        double[] dist = workspace.dist;
+        int[] parent = workspace.parent;
+        longestPaths(graph, topoOrder, source, dist, parent, metrics);
+        requireForwardEdges(graph, topoOrder, dist, Double.NEGATIVE_INFINITY, workspace.position);
 
         // Find vertex with maximum distance
         int maxVertex = source;
         double maxDist = dist[source];
-        for (int i = 0; i < dist.length; i++) {
+        for (int i = 0; i < n; i++) {
             if (dist[i] > maxDist && dist[i] != Double.NEGATIVE_INFINITY) {
                 maxDist = dist[i];
                 maxVertex = i;
             }
         }
 
-        // Reconstruct path from source to maxVertex
-        List<Integer> path = reconstructPath(graph, topoOrder, source, maxVertex, dist, true);
+        // Walk predecessors back to the source; they strictly precede in the checked order
+        List<Integer> path = new ArrayList<>();
+        int current = maxVertex;
+        while (current != source && parent[current] != -1) {
+            path.add(current);
+            current = parent[current];
+        }
+        path.add(source);
+        Collections.reverse(path);
 
         return new CriticalPathResult(path, maxDist);
     }
@@ -148,55 +866,51 @@ public class DAGShortestPath {
             int target,
             double[] dist,
             boolean longest) {
-
         if (longest ? dist[target] == Double.NEGATIVE_INFINITY
                 : dist[target] == Double.POSITIVE_INFINITY) {
             return new ArrayList<>(); // No path exists
         }
+        return reconstructPath(graph, topoOrder, source, target, longest ? Semiring.MAX_PLUS : Semiring.MIN_PLUS);
+    }
 
-        // Build parent map by working forward through topological order
-        Map<Integer, Integer> parent = new HashMap<>();
-        double[] distForward = new double[graph.size()];
-        Arrays.fill(distForward, longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
-        distForward[source] = 0.0;
-
-        boolean foundSource = false;
-        for (int u : topoOrder) {
-            if (u == source) {
-                foundSource = true;
-            }
-            if (!foundSource) {
-                continue;
-            }
-
-            if (distForward[u] != (longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY)) {
-                for (double[] edge : graph.get(u)) {
-                    int v = (int) edge[0];
-                    double w = edge[1];
-                    if (longest) {
-                        if (distForward[v] < distForward[u] + w) {
-                            distForward[v] = distForward[u] + w;
-                            parent.put(v, u);
-                        }
-                    } else {
-                        if (distForward[v] > distForward[u] + w) {
-                            distForward[v] = distForward[u] + w;
-                            parent.put(v, u);
-                        }
-                    }
-                }
-            }
+    /**
+     * Reconstruct the best path from source to target under a selective semiring
+     * (shortest, longest, widest or most reliable). Predecessors are recorded in an int
+     * array during one sweep.
+     *
+     * @param graph     adjacency list
+     * @param topoOrder topological order
+     * @param source    source vertex
+     * @param target    target vertex
+     * @param semiring  selective semiring
+     * @return path as list of vertex indices, empty if the target is unreachable
+     * @throws IllegalArgumentException if the semiring is not selective, or the order is not
+     *                                  topological for the vertices reached from the source
+     */
+    public List<Integer> reconstructPath(List<List<double[]>> graph, List<Integer> topoOrder,
+                                         int source, int target, Semiring semiring) {
+        PhaseEvent event = PhaseEvent.begin("reconstructPath", "DAGShortestPath");
+        int n = graph.size();
+        double[] value = new double[n];
+        int[] parent = new int[n];
+        semiring.solve(graph, topoOrder, source, value, parent);
+        requireForwardEdges(graph, topoOrder, value, semiring.zero(), new int[n]);
+        if (value[target] == semiring.zero()) {
+            event.finish(graph, null);
+            return new ArrayList<>();
         }
 
-        // Reconstruct path backwards
+        // Walk predecessors back; they strictly precede in the checked order
         List<Integer> path = new ArrayList<>();
         int current = target;
-        while (current != source && parent.containsKey(current)) {
-            path.add(0, current);
-            current = parent.get(current);
+        while (current != source && parent[current] != -1) {
+            path.add(current);
+            current = parent[current];
         }
-        path.add(0, source);
+        path.add(source);
+        Collections.reverse(path);
 
+        event.finish(graph, null);
         return path;
     }
 
@@ -204,6 +918,33 @@ public class DAGShortestPath {
         return metrics;
     }
 
+    /**
+     * Thread-confined scratch space for {@link #findCriticalPath(List, List, int, Workspace, Metrics)}.
+     * Arrays only grow, so a workspace sized for the largest graph never reallocates.
+     */
+    public static final class Workspace {
+        private static final ThreadLocal<Workspace> POOL = ThreadLocal.withInitial(Workspace::new);
+
+        private double[] dist = new double[0];
+        private int[] parent = new int[0];
+        private int[] position = new int[0];
+
+        /**
+         * The calling thread's pooled workspace.
+         */
+        public static Workspace forCurrentThread() {
+            return POOL.get();
+        }
+
+        void ensureCapacity(int n) {
+            if (dist.length < n) {
+                dist = new double[n];
+                parent = new int[n];
+                position = new int[n];
+            }
+        }
+    }
+
     /**
      * Result class for critical path.
      */
@@ -0,0 +1,454 @@
+package graph.dagsp;
+
+import metrics.Metrics;
+import metrics.SimpleMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Enumeration of the K longest (most critical) paths in a DAG.
+ * Eppstein-style: every path is the longest-path tree plus a sequence of sidetrack
+ * edges, the sidetracks reachable from each vertex are kept in persistent leftist
+ * heaps, and a best-first search over those heaps yields paths in non-increasing
+ * length. After the O(m log m) heap build each path costs O(log K) to find.
+ * All heaps live in primitive arrays.
+ */
+public class KLongestPaths {
+    private Metrics metrics;
+
+    // CSR copy of the graph
+    private int[] offsets;
+    private int[] edgeSource;
+    private int[] edgeTarget;
+    private double[] edgeWeight;
+
+    // Longest distance to a terminal and the tree edge achieving it
+    private double[] toTerminal;
+    private int[] treeEdge;
+    private boolean[] terminal;
+
+    // Persistent leftist heap pool keyed by sidetrack cost
+    private double[] nodeKey;
+    private int[] nodeEdge;
+    private int[] nodeLeft;
+    private int[] nodeRight;
+    private int[] nodeRank;
+    private int nodeCount;
+
+    public KLongestPaths() {
+        this.metrics = new SimpleMetrics();
+    }
+
+    /**
+     * Find up to k longest paths from the source to any sink (vertex without outgoing edges).
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order containing every vertex
+     * @param source    source vertex
+     * @param k         maximum number of paths to return
+     * @return paths in non-increasing order of length
+     */
+    public PathSet findKLongestPaths(List<List<double[]>> graph, List<Integer> topoOrder, int source, int k) {
+        return enumerate(graph, topoOrder, source, -1, k);
+    }
+
+    /**
+     * Find up to k longest paths from the source to the given target.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order containing every vertex
+     * @param source    source vertex
+     * @param target    target vertex
+     * @param k         maximum number of paths to return
+     * @return paths in non-increasing order of length (empty if target is unreachable)
+     */
+    public PathSet findKLongestPaths(
+            List<List<double[]>> graph, List<Integer> topoOrder, int source, int target, int k) {
+        return enumerate(graph, topoOrder, source, target, k);
+    }
+
+    private PathSet enumerate(List<List<double[]>> graph, List<Integer> topoOrder, int source, int target, int k) {
+        metrics.reset();
+        metrics.startTimer();
+
+        int n = graph.size();
+        buildCsr(graph);
+        computeDistancesToTerminal(n, topoOrder, target);
+
+        if (k <= 0 || toTerminal[source] == Double.NEGATIVE_INFINITY) {
+            metrics.stopTimer();
+            return new PathSet(this, source, new double[0], new int[0], new int[0], 0);
+        }
+
+        int[] heapOf = buildSidetrackHeaps(n, topoOrder, source);
+        double best = toTerminal[source];
+
+        // Emitted paths are stored as (previous path, last sidetrack edge) and expanded lazily
+        int capacity = Math.min(k, 1024);
+        double[] pathLength = new double[capacity];
+        int[] pathPrev = new int[capacity];
+        int[] pathEdge = new int[capacity];
+        pathLength[0] = best;
+        pathPrev[0] = -1;
+        pathEdge[0] = -1;
+        int pathCount = 1;
+        metrics.incrementCounter("paths_emitted");
+
+        // Outer binary heap of candidates (deviation, heap node, prefix path)
+        CandidateHeap candidates = new CandidateHeap();
+        if (heapOf[source] != -1) {
+            candidates.push(nodeKey[heapOf[source]], heapOf[source], 0);
+        }
+
+        while (pathCount < k && !candidates.isEmpty()) {
+            double deviation = candidates.topKey();
+            int node = candidates.topNode();
+            int prefix = candidates.topPath();
+            candidates.pop();
+
+            if (pathCount == pathPrev.length) {
+                pathLength = Arrays.copyOf(pathLength, pathCount * 2);
+                pathPrev = Arrays.copyOf(pathPrev, pathCount * 2);
+                pathEdge = Arrays.copyOf(pathEdge, pathCount * 2);
+            }
+            int path = pathCount++;
+            pathLength[path] = best - deviation;
+            pathPrev[path] = prefix;
+            pathEdge[path] = nodeEdge[node];
+            metrics.incrementCounter("paths_emitted");
+
+            // Replace this sidetrack by the next cheaper alternatives in the same heap
+            int left = nodeLeft[node];
+            int right = nodeRight[node];
+            if (left != -1) {
+                candidates.push(deviation - nodeKey[node] + nodeKey[left], left, prefix);
+            }
+            if (right != -1) {
+                candidates.push(deviation - nodeKey[node] + nodeKey[right], right, prefix);
+            }
+            // Or extend this path with one more sidetrack after the edge just taken
+            int next = heapOf[edgeTarget[nodeEdge[node]]];
+            if (next != -1) {
+                candidates.push(deviation + nodeKey[next], next, path);
+            }
+        }
+
+        // Heap pool is only needed during the search
+        nodeKey = null;
+        nodeEdge = null;
+        nodeLeft = null;
+        nodeRight = null;
+        nodeRank = null;
+
+        metrics.stopTimer();
+        return new PathSet(this, source, pathLength, pathPrev, pathEdge, pathCount);
+    }
+
+    private void buildCsr(List<List<double[]>> graph) {
+        int n = graph.size();
+        offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.get(u).size();
+        }
+        int m = offsets[n];
+        edgeSource = new int[m];
+        edgeTarget = new int[m];
+        edgeWeight = new double[m];
+        for (int u = 0; u < n; u++) {
+            int e = offsets[u];
+            for (double[] edge : graph.get(u)) {
+                edgeSource[e] = u;
+                edgeTarget[e] = (int) edge[0];
+                edgeWeight[e] = edge[1];
+                e++;
+            }
+        }
+    }
+
+    /**
+     * Backward max-plus DP: longest distance from each vertex to a terminal.
+     * Terminals are the target, or every sink when no target is given.
+     */
+    private void computeDistancesToTerminal(int n, List<Integer> topoOrder, int target) {
+        toTerminal = new double[n];
+        treeEdge = new int[n];
+        terminal = new boolean[n];
+        Arrays.fill(toTerminal, Double.NEGATIVE_INFINITY);
+        Arrays.fill(treeEdge, -1);
+
+        for (int i = topoOrder.size() - 1; i >= 0; i--) {
+            int u = topoOrder.get(i);
+            if (target >= 0 ? u == target : offsets[u] == offsets[u + 1]) {
+                terminal[u] = true;
+                toTerminal[u] = 0.0;
+                continue;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                double h = toTerminal[edgeTarget[e]];
+                if (h != Double.NEGATIVE_INFINITY && edgeWeight[e] + h > toTerminal[u]) {
+                    toTerminal[u] = edgeWeight[e] + h;
+                    treeEdge[u] = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the persistent sidetrack heap of every vertex reachable from the source.
+     * H(v) holds the sidetracks out of v merged with H(next tree vertex), so it covers
+     * every sidetrack on v's tree path to a terminal.
+     */
+    private int[] buildSidetrackHeaps(int n, List<Integer> topoOrder, int source) {
+        boolean[] reachable = new boolean[n];
+        reachable[source] = true;
+        boolean foundSource = false;
+        for (int u : topoOrder) {
+            if (u == source) {
+                foundSource = true;
+            }
+            if (!foundSource || !reachable[u] || terminal[u]) {
+                continue;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                reachable[edgeTarget[e]] = true;
+            }
+        }
+
+        int capacity = 16;
+        nodeKey = new double[capacity];
+        nodeEdge = new int[capacity];
+        nodeLeft = new int[capacity];
+        nodeRight = new int[capacity];
+        nodeRank = new int[capacity];
+        nodeCount = 0;
+
+        int[] heapOf = new int[n];
+        Arrays.fill(heapOf, -1);
+        for (int i = topoOrder.size() - 1; i >= 0; i--) {
+            int u = topoOrder.get(i);
+            if (!reachable[u] || terminal[u] || toTerminal[u] == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            int heap = heapOf[edgeTarget[treeEdge[u]]];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                double h = toTerminal[edgeTarget[e]];
+                if (e == treeEdge[u] || h == Double.NEGATIVE_INFINITY) {
+                    continue;
+                }
+                double sidetrack = toTerminal[u] - edgeWeight[e] - h;
+                heap = merge(heap, newNode(sidetrack, e, -1, -1, 1));
+                metrics.incrementCounter("sidetracks");
+            }
+            heapOf[u] = heap;
+        }
+        return heapOf;
+    }
+
+    /**
+     * Persistent merge of two leftist min-heaps; nodes on the right spine are copied.
+     */
+    private int merge(int a, int b) {
+        if (a == -1) {
+            return b;
+        }
+        if (b == -1) {
+            return a;
+        }
+        if (nodeKey[b] < nodeKey[a]) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        int mergedRight = merge(nodeRight[a], b);
+        int left = nodeLeft[a];
+        int leftRank = left == -1 ? 0 : nodeRank[left];
+        int rightRank = nodeRank[mergedRight];
+        if (leftRank < rightRank) {
+            return newNode(nodeKey[a], nodeEdge[a], mergedRight, left, leftRank + 1);
+        }
+        return newNode(nodeKey[a], nodeEdge[a], left, mergedRight, rightRank + 1);
+    }
+
+    private int newNode(double key, int edge, int left, int right, int rank) {
+        if (nodeCount == nodeKey.length) {
+            int capacity = nodeCount * 2;
+            nodeKey = Arrays.copyOf(nodeKey, capacity);
+            nodeEdge = Arrays.copyOf(nodeEdge, capacity);
+            nodeLeft = Arrays.copyOf(nodeLeft, capacity);
+            nodeRight = Arrays.copyOf(nodeRight, capacity);
+            nodeRank = Arrays.copyOf(nodeRank, capacity);
+        }
+        nodeKey[nodeCount] = key;
+        nodeEdge[nodeCount] = edge;
+        nodeLeft[nodeCount] = left;
+        nodeRight[nodeCount] = right;
+        nodeRank[nodeCount] = rank;
+        return nodeCount++;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * The K paths found by one query, in non-increasing order of length.
+     * Vertex lists are expanded on demand from the stored sidetrack sequences,
+     * so enumerating many long paths does not materialize them all.
+     */
+    public static class PathSet {
+        private final int source;
+        private final double[] lengths;
+        private final int[] pathPrev;
+        private final int[] pathEdge;
+        private final int size;
+        private final int[] edgeSource;
+        private final int[] edgeTarget;
+        private final int[] treeEdge;
+        private final boolean[] terminal;
+
+        PathSet(KLongestPaths engine, int source, double[] lengths, int[] pathPrev, int[] pathEdge, int size) {
+            this.source = source;
+            this.lengths = lengths;
+            this.pathPrev = pathPrev;
+            this.pathEdge = pathEdge;
+            this.size = size;
+            this.edgeSource = engine.edgeSource;
+            this.edgeTarget = engine.edgeTarget;
+            this.treeEdge = engine.treeEdge;
+            this.terminal = engine.terminal;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Length of the i-th longest path.
+         */
+        public double getLength(int i) {
+            return lengths[i];
+        }
+
+        /**
+         * Vertices of the i-th longest path, expanded by following longest-path tree
+         * edges between the path's sidetracks.
+         */
+        public List<Integer> getPath(int i) {
+            int sidetrackCount = 0;
+            for (int p = i; p > 0; p = pathPrev[p]) {
+                sidetrackCount++;
+            }
+            int[] sidetracks = new int[sidetrackCount];
+            int idx = sidetrackCount;
+            for (int p = i; p > 0; p = pathPrev[p]) {
+                sidetracks[--idx] = pathEdge[p];
+            }
+
+            List<Integer> vertices = new ArrayList<>();
+            int current = source;
+            idx = 0;
+            while (true) {
+                vertices.add(current);
+                if (idx < sidetrackCount && edgeSource[sidetracks[idx]] == current) {
+                    current = edgeTarget[sidetracks[idx++]];
+                } else if (terminal[current]) {
+                    break;
+                } else {
+                    current = edgeTarget[treeEdge[current]];
+                }
+            }
+            return vertices;
+        }
+
+        /**
+         * Materialize the i-th path as a {@link DAGShortestPath.CriticalPathResult}.
+         */
+        public DAGShortestPath.CriticalPathResult get(int i) {
+            return new DAGShortestPath.CriticalPathResult(getPath(i), lengths[i]);
+        }
+    }
+
+    /**
+     * Binary min-heap of search candidates stored in parallel primitive arrays.
+     */
+    private static class CandidateHeap {
+        private double[] keys = new double[64];
+        private int[] nodes = new int[64];
+        private int[] paths = new int[64];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double topKey() {
+            return keys[0];
+        }
+
+        int topNode() {
+            return nodes[0];
+        }
+
+        int topPath() {
+            return paths[0];
+        }
+
+        void push(double key, int node, int path) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+                paths = Arrays.copyOf(paths, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                nodes[i] = nodes[parent];
+                paths[i] = paths[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+            paths[i] = path;
+        }
+
+        void pop() {
+            size--;
+            if (size == 0) {
+                return;
+            }
+            double key = keys[size];
+            int node = nodes[size];
+            int path = paths[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                nodes[i] = nodes[child];
+                paths[i] = paths[child];
+                i = child;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+            paths[i] = path;
+        }
+    }
+}
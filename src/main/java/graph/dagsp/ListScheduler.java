@@ -0,0 +1,316 @@
+package graph.dagsp;
+
+import metrics.Metrics;
+import metrics.PhaseEvent;
+import metrics.SimpleMetrics;
+
+import java.util.List;
+
+/**
+ * Resource-constrained list scheduling of a task DAG on P identical resources (crews).
+ * Task durations are the vertex weights of a {@link NodeWeightedGraph}, typically the
+ * condensation DAG with one task per component. Priorities are bottom levels: the longest
+ * duration-weighted path from a task to any sink, its own duration included, computed in one
+ * reverse sweep over the topological order. The schedule is built by an event-driven
+ * simulation: whenever a resource is free, the ready task with the highest bottom level starts
+ * (ties go to the lower id); when the earliest running task finishes, its resource is released
+ * and successors whose last predecessor finished become ready.
+ *
+ * <p>Both queues are binary heaps over primitive arrays sized up front (n ready tasks,
+ * P running tasks), so a run is O((n + m) + n log n) with no per-task allocation.
+ */
+public class ListScheduler {
+    private Metrics metrics;
+
+    public ListScheduler() {
+        this.metrics = new SimpleMetrics();
+    }
+
+    /**
+     * Schedule every task on the given number of resources.
+     *
+     * @param graph     task DAG with a non-negative duration per vertex
+     * @param topoOrder topological order containing every vertex exactly once
+     * @param resources number of identical resources (at least 1)
+     * @return start time and resource of every task
+     * @throws IllegalArgumentException if resources is not positive, a duration is negative,
+     *                                  or the graph has a cycle
+     */
+    public Schedule schedule(NodeWeightedGraph graph, List<Integer> topoOrder, int resources) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("schedule", "ListScheduler");
+
+        int n = graph.getVertexCount();
+        if (resources < 1) {
+            throw new IllegalArgumentException("Resource count must be positive: " + resources);
+        }
+        if (topoOrder.size() != n) {
+            throw new IllegalArgumentException(
+                    "Topological order has " + topoOrder.size() + " vertices, graph has " + n);
+        }
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        double[] durations = graph.nodeWeights();
+        for (int v = 0; v < n; v++) {
+            if (!(durations[v] >= 0)) {
+                throw new IllegalArgumentException("Task " + v + " has invalid duration " + durations[v]);
+            }
+        }
+
+        // Bottom levels: successors are final when u is reached in reverse topological order
+        double[] bottomLevel = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            int u = topoOrder.get(i);
+            double longest = 0.0;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                double candidate = bottomLevel[targets[e]];
+                if (candidate > longest) {
+                    longest = candidate;
+                }
+            }
+            bottomLevel[u] = durations[u] + longest;
+        }
+
+        int[] waiting = new int[n];
+        for (int target : targets) {
+            waiting[target]++;
+        }
+        // Ready tasks ordered by descending bottom level: min-heap on the negated key
+        TaskHeap ready = new TaskHeap(n);
+        for (int v = 0; v < n; v++) {
+            if (waiting[v] == 0) {
+                ready.push(-bottomLevel[v], v);
+            }
+        }
+        int running = Math.min(resources, n);
+        TaskHeap finishing = new TaskHeap(running);
+        // Free resources as a stack; resource 0 is handed out first
+        int[] free = new int[running];
+        for (int r = 0; r < running; r++) {
+            free[r] = running - 1 - r;
+        }
+        int freeCount = running;
+
+        double[] start = new double[n];
+        int[] resource = new int[n];
+        double time = 0.0;
+        int started = 0;
+        long events = 0;
+        while (started < n) {
+            while (freeCount > 0 && !ready.isEmpty()) {
+                int task = ready.topValue();
+                ready.pop();
+                int r = free[--freeCount];
+                start[task] = time;
+                resource[task] = r;
+                finishing.push(time + durations[task], task);
+                started++;
+            }
+            if (finishing.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "Graph has a cycle: " + (n - started) + " tasks never become ready");
+            }
+            // Advance to the next completion and release every task finishing at that instant
+            time = finishing.topKey();
+            do {
+                int task = finishing.topValue();
+                finishing.pop();
+                free[freeCount++] = resource[task];
+                for (int e = offsets[task]; e < offsets[task + 1]; e++) {
+                    int v = targets[e];
+                    if (--waiting[v] == 0) {
+                        ready.push(-bottomLevel[v], v);
+                    }
+                }
+                events++;
+            } while (!finishing.isEmpty() && finishing.topKey() == time);
+        }
+        // Tasks still running after the last start end the schedule
+        double makespan = time;
+        while (!finishing.isEmpty()) {
+            makespan = finishing.topKey();
+            finishing.pop();
+            events++;
+        }
+
+        metrics.incrementCounter("tasks", n);
+        metrics.incrementCounter("resources", resources);
+        metrics.incrementCounter("completion_events", events);
+        metrics.incrementCounter("dependencies", targets.length);
+        metrics.stopTimer();
+        event.finish(n, graph.getEdgeCount(), metrics);
+        return new Schedule(start, resource, bottomLevel, durations, makespan, resources);
+    }
+
+    /**
+     * Schedule tasks given as an unweighted adjacency list plus one duration per task.
+     *
+     * @param graph     adjacency list of the task DAG
+     * @param durations non-negative duration of every task
+     * @param topoOrder topological order containing every vertex exactly once
+     * @param resources number of identical resources (at least 1)
+     * @return start time and resource of every task
+     */
+    public Schedule schedule(List<List<Integer>> graph, double[] durations, List<Integer> topoOrder, int resources) {
+        return schedule(NodeWeightedGraph.from(graph, durations), topoOrder, resources);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Result of list scheduling: start time and resource per task.
+     */
+    public static class Schedule {
+        private double[] startTimes;
+        private int[] resources;
+        private double[] bottomLevels;
+        private double[] durations;
+        private double makespan;
+        private int resourceCount;
+
+        public Schedule(double[] startTimes, int[] resources, double[] bottomLevels, double[] durations,
+                        double makespan, int resourceCount) {
+            this.startTimes = startTimes;
+            this.resources = resources;
+            this.bottomLevels = bottomLevels;
+            this.durations = durations;
+            this.makespan = makespan;
+            this.resourceCount = resourceCount;
+        }
+
+        public double[] getStartTimes() {
+            return startTimes;
+        }
+
+        public double getStartTime(int task) {
+            return startTimes[task];
+        }
+
+        public double getFinishTime(int task) {
+            return startTimes[task] + durations[task];
+        }
+
+        /**
+         * Resource (0..P-1) each task runs on.
+         */
+        public int[] getResources() {
+            return resources;
+        }
+
+        /**
+         * Longest duration-weighted path from each task to a sink, the task included.
+         */
+        public double[] getBottomLevels() {
+            return bottomLevels;
+        }
+
+        public double getMakespan() {
+            return makespan;
+        }
+
+        public int getResourceCount() {
+            return resourceCount;
+        }
+
+        /**
+         * Critical path length: no schedule, on any number of resources, is shorter.
+         */
+        public double getCriticalPathLength() {
+            double longest = 0.0;
+            for (double level : bottomLevels) {
+                longest = Math.max(longest, level);
+            }
+            return longest;
+        }
+
+        /**
+         * Fraction of resource time spent on tasks: total work / (P * makespan).
+         */
+        public double getUtilization() {
+            if (makespan == 0.0) {
+                return 1.0;
+            }
+            double work = 0.0;
+            for (double duration : durations) {
+                work += duration;
+            }
+            return work / (resourceCount * makespan);
+        }
+    }
+
+    /**
+     * Binary min-heap of (key, task) pairs in primitive arrays, ordered by key and then by
+     * task id so that schedules are deterministic.
+     */
+    private static class TaskHeap {
+        private final double[] keys;
+        private final int[] values;
+        private int size;
+
+        TaskHeap(int capacity) {
+            keys = new double[Math.max(1, capacity)];
+            values = new int[Math.max(1, capacity)];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double topKey() {
+            return keys[0];
+        }
+
+        int topValue() {
+            return values[0];
+        }
+
+        void push(double key, int value) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(key, value, keys[parent], values[parent])) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        void pop() {
+            size--;
+            if (size == 0) {
+                return;
+            }
+            double key = keys[size];
+            int value = values[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && less(keys[child + 1], values[child + 1], keys[child], values[child])) {
+                    child++;
+                }
+                if (!less(keys[child], values[child], key, value)) {
+                    break;
+                }
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private static boolean less(double key, int value, double otherKey, int otherValue) {
+            return key < otherKey || (key == otherKey && value < otherValue);
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package graph.dagsp;
+
+import metrics.Metrics;
+import metrics.SimpleMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo schedule risk analysis: the Critical Path Method repeated over sampled edge durations.
+ * Every sample draws a duration for each edge from its distribution and computes the makespan
+ * with the same forward pass as {@link CriticalPathMethod} (vertices without predecessors start
+ * at 0). The result holds the makespan distribution and each vertex's and edge's criticality
+ * index: the fraction of samples whose critical path runs through it.
+ *
+ * <p>Samples are evaluated in batches of up to {@value #MAX_BATCH} per sweep. Per-vertex state is
+ * laid out sample-minor (vertex v, sample s at v * batch + s), so one pass over the CSR edges
+ * relaxes every sample of the batch from contiguous memory. Batches run in parallel on a
+ * fork-join pool; batch b draws from the b-th {@link SplittableRandom#split()} of the seed,
+ * so results do not depend on the number of threads.
+ */
+public class MonteCarloCriticalPath {
+    static final int MAX_BATCH = 32;
+    // Per-worker scratch limit; larger graphs get smaller batches
+    private static final long MAX_BATCH_BYTES = 32L << 20;
+
+    private Metrics metrics;
+    private ForkJoinPool pool;
+
+    public MonteCarloCriticalPath() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public MonteCarloCriticalPath(ForkJoinPool pool) {
+        this.metrics = new SimpleMetrics();
+        this.pool = pool;
+    }
+
+    /**
+     * Sample the makespan distribution and criticality indices.
+     *
+     * @param graph     adjacency list with weights [target, weight]; only the structure is used
+     * @param topoOrder topological order containing every vertex exactly once
+     * @param durations one distribution per edge, in adjacency-list order
+     * @param samples   number of samples (at least 1)
+     * @param seed      seed of the root random generator
+     * @return makespan percentiles and criticality indices
+     */
+    public Result simulate(List<List<double[]>> graph, List<Integer> topoOrder, Durations durations,
+                           int samples, long seed) {
+        metrics.reset();
+        metrics.startTimer();
+
+        int n = graph.size();
+        if (topoOrder.size() != n) {
+            throw new IllegalArgumentException(
+                    "Topological order has " + topoOrder.size() + " vertices, graph has " + n);
+        }
+        if (samples < 1) {
+            throw new IllegalArgumentException("Sample count must be positive: " + samples);
+        }
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.get(u).size();
+        }
+        int m = offsets[n];
+        if (durations.getEdgeCount() != m) {
+            throw new IllegalArgumentException(
+                    "Graph has " + m + " edges, durations were given for " + durations.getEdgeCount());
+        }
+        int[] targets = new int[m];
+        int[] sources = new int[m];
+        for (int u = 0, e = 0; u < n; u++) {
+            for (double[] edge : graph.get(u)) {
+                targets[e] = (int) edge[0];
+                sources[e++] = u;
+            }
+        }
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = topoOrder.get(i);
+        }
+
+        // 12 bytes of state per vertex and sample: earliest start (double) and critical in-edge (int)
+        int batch = (int) Math.max(1, Math.min(Math.min(MAX_BATCH, samples), MAX_BATCH_BYTES / (12L * Math.max(1, n))));
+        int batches = (samples + batch - 1) / batch;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[batches];
+        for (int b = 0; b < batches; b++) {
+            randoms[b] = root.split();
+        }
+
+        double[] makespans = new double[samples];
+        int workers = Math.max(1, Math.min(batches, pool.getParallelism()));
+        List<Callable<long[]>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int first = (int) ((long) batches * w / workers);
+            int last = (int) ((long) batches * (w + 1) / workers);
+            tasks.add(() -> {
+                Sweep sweep = new Sweep(offsets, targets, sources, order, durations, batch);
+                for (int b = first; b < last; b++) {
+                    int from = b * batch;
+                    sweep.run(randoms[b], Math.min(batch, samples - from), makespans, from);
+                }
+                return sweep.onCriticalPath;
+            });
+        }
+
+        long[] counts = new long[n + m];
+        for (long[] local : invokeAll(tasks)) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += local[i];
+            }
+        }
+        double[] vertexCriticality = new double[n];
+        double[] edgeCriticality = new double[m];
+        for (int v = 0; v < n; v++) {
+            vertexCriticality[v] = counts[v] / (double) samples;
+        }
+        for (int e = 0; e < m; e++) {
+            edgeCriticality[e] = counts[n + e] / (double) samples;
+        }
+        Arrays.sort(makespans);
+
+        metrics.incrementCounter("samples", samples);
+        metrics.incrementCounter("batches", batches);
+        metrics.incrementCounter("batch_size", batch);
+        metrics.incrementCounter("relaxations", (long) samples * m);
+        metrics.stopTimer();
+        return new Result(makespans, vertexCriticality, edgeCriticality);
+    }
+
+    private List<long[]> invokeAll(List<Callable<long[]>> tasks) {
+        List<long[]> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<long[]> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sampling schedules", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * One worker's scratch space; evaluates a batch of samples per call.
+     */
+    private static final class Sweep {
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] sources;
+        private final int[] order;
+        private final Durations durations;
+        private final int capacity;
+        private final double[] earliest;
+        private final int[] criticalEdge;
+        private final double[] values;
+        // Critical-path counts: vertices at 0..n-1, then edges
+        final long[] onCriticalPath;
+
+        Sweep(int[] offsets, int[] targets, int[] sources, int[] order, Durations durations, int capacity) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.sources = sources;
+            this.order = order;
+            this.durations = durations;
+            this.capacity = capacity;
+            int n = order.length;
+            this.earliest = new double[n * capacity];
+            this.criticalEdge = new int[n * capacity];
+            this.values = new double[capacity];
+            this.onCriticalPath = new long[n + targets.length];
+        }
+
+        void run(SplittableRandom random, int k, double[] makespans, int from) {
+            int n = order.length;
+            int stride = capacity;
+            Arrays.fill(earliest, 0.0);
+            Arrays.fill(criticalEdge, -1);
+
+            for (int i = 0; i < n; i++) {
+                int u = order[i];
+                int ub = u * stride;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int vb = targets[e] * stride;
+                    durations.sample(e, random, values, k);
+                    for (int s = 0; s < k; s++) {
+                        double candidate = earliest[ub + s] + values[s];
+                        if (candidate > earliest[vb + s]) {
+                            earliest[vb + s] = candidate;
+                            criticalEdge[vb + s] = e;
+                        }
+                    }
+                }
+            }
+
+            // The makespan is reached at the latest-finishing vertex; walk its critical in-edges back
+            for (int s = 0; s < k; s++) {
+                int end = 0;
+                for (int v = 1; v < n; v++) {
+                    if (earliest[v * stride + s] > earliest[end * stride + s]) {
+                        end = v;
+                    }
+                }
+                makespans[from + s] = n == 0 ? 0.0 : earliest[end * stride + s];
+                int v = end;
+                for (int steps = 0; n > 0 && steps <= n; steps++) {
+                    onCriticalPath[v]++;
+                    int e = criticalEdge[v * stride + s];
+                    if (e < 0) {
+                        break;
+                    }
+                    onCriticalPath[n + e]++;
+                    v = sources[e];
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-edge duration distributions in adjacency-list edge order, stored as flat arrays.
+     * Triangular durations (minimum, most likely, maximum) are the usual three-point estimate
+     * of schedule risk analysis.
+     */
+    public static final class Durations {
+        private static final byte FIXED = 0;
+        private static final byte UNIFORM = 1;
+        private static final byte TRIANGULAR = 2;
+
+        private final byte[] kinds;
+        private final double[] min;
+        private final double[] mode;
+        private final double[] max;
+
+        private Durations(byte[] kinds, double[] min, double[] mode, double[] max) {
+            this.kinds = kinds;
+            this.min = min;
+            this.mode = mode;
+            this.max = max;
+        }
+
+        /**
+         * Triangular distributions with the given minimum, most likely and maximum duration per edge.
+         *
+         * @throws IllegalArgumentException unless min &lt;= mode &lt;= max for every edge
+         */
+        public static Durations triangular(double[] min, double[] mode, double[] max) {
+            if (min.length != mode.length || min.length != max.length) {
+                throw new IllegalArgumentException("Parameter arrays must have the same length");
+            }
+            byte[] kinds = new byte[min.length];
+            for (int e = 0; e < min.length; e++) {
+                if (!(min[e] <= mode[e] && mode[e] <= max[e])) {
+                    throw new IllegalArgumentException("Edge " + e + ": need min <= mode <= max, got "
+                            + min[e] + ", " + mode[e] + ", " + max[e]);
+                }
+                kinds[e] = min[e] == max[e] ? FIXED : TRIANGULAR;
+            }
+            return new Durations(kinds, min.clone(), mode.clone(), max.clone());
+        }
+
+        /**
+         * Uniform distributions on [min, max) per edge.
+         *
+         * @throws IllegalArgumentException unless min &lt;= max for every edge
+         */
+        public static Durations uniform(double[] min, double[] max) {
+            if (min.length != max.length) {
+                throw new IllegalArgumentException("Parameter arrays must have the same length");
+            }
+            byte[] kinds = new byte[min.length];
+            for (int e = 0; e < min.length; e++) {
+                if (!(min[e] <= max[e])) {
+                    throw new IllegalArgumentException("Edge " + e + ": need min <= max, got " + min[e] + ", " + max[e]);
+                }
+                kinds[e] = min[e] == max[e] ? FIXED : UNIFORM;
+            }
+            return new Durations(kinds, min.clone(), min.clone(), max.clone());
+        }
+
+        /**
+         * Triangular distributions around the graph's own weights: each edge of weight w is most
+         * likely w and ranges over [w * low, w * high].
+         *
+         * @param graph adjacency list with weights [target, weight] (weights must be non-negative)
+         * @param low   optimistic factor, at most 1
+         * @param high  pessimistic factor, at least 1
+         */
+        public static Durations around(List<List<double[]>> graph, double low, double high) {
+            if (!(low <= 1.0 && high >= 1.0)) {
+                throw new IllegalArgumentException("Need low <= 1 <= high, got " + low + ", " + high);
+            }
+            int m = 0;
+            for (List<double[]> edges : graph) {
+                m += edges.size();
+            }
+            double[] min = new double[m];
+            double[] mode = new double[m];
+            double[] max = new double[m];
+            int e = 0;
+            for (List<double[]> edges : graph) {
+                for (double[] edge : edges) {
+                    if (edge[1] < 0) {
+                        throw new IllegalArgumentException("Negative weight " + edge[1] + " on edge " + e);
+                    }
+                    min[e] = edge[1] * low;
+                    mode[e] = edge[1];
+                    max[e] = edge[1] * high;
+                    e++;
+                }
+            }
+            return triangular(min, mode, max);
+        }
+
+        public int getEdgeCount() {
+            return kinds.length;
+        }
+
+        /**
+         * Draw k durations of edge e into values[0..k-1]. The uniforms are drawn in a loop of
+         * their own so the generator's dependency chain does not stall the transform; triangular
+         * draws invert the CDF.
+         */
+        void sample(int e, SplittableRandom random, double[] values, int k) {
+            double a = min[e];
+            if (kinds[e] == FIXED) {
+                Arrays.fill(values, 0, k, a);
+                return;
+            }
+            for (int s = 0; s < k; s++) {
+                values[s] = random.nextDouble();
+            }
+            double b = max[e];
+            double width = b - a;
+            if (kinds[e] == UNIFORM) {
+                for (int s = 0; s < k; s++) {
+                    values[s] = a + values[s] * width;
+                }
+                return;
+            }
+            double left = mode[e] - a;
+            double right = b - mode[e];
+            double split = left / width;
+            for (int s = 0; s < k; s++) {
+                double u = values[s];
+                values[s] = u < split
+                        ? a + Math.sqrt(u * width * left)
+                        : b - Math.sqrt((1 - u) * width * right);
+            }
+        }
+    }
+
+    /**
+     * Result of a simulation: sorted makespans and criticality indices.
+     */
+    public static class Result {
+        private double[] makespans;
+        private double[] vertexCriticality;
+        private double[] edgeCriticality;
+
+        public Result(double[] makespans, double[] vertexCriticality, double[] edgeCriticality) {
+            this.makespans = makespans;
+            this.vertexCriticality = vertexCriticality;
+            this.edgeCriticality = edgeCriticality;
+        }
+
+        public int getSampleCount() {
+            return makespans.length;
+        }
+
+        /**
+         * Sampled makespans in ascending order.
+         */
+        public double[] getMakespans() {
+            return makespans;
+        }
+
+        /**
+         * Makespan percentile with linear interpolation between sorted samples.
+         *
+         * @param percentile between 0 and 100, e.g. 50 for the median or 90 for P90
+         */
+        public double getPercentile(double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Percentile must be in [0, 100]: " + percentile);
+            }
+            double rank = percentile / 100.0 * (makespans.length - 1);
+            int lower = (int) Math.floor(rank);
+            int upper = Math.min(lower + 1, makespans.length - 1);
+            return makespans[lower] + (rank - lower) * (makespans[upper] - makespans[lower]);
+        }
+
+        public double getMean() {
+            double sum = 0;
+            for (double makespan : makespans) {
+                sum += makespan;
+            }
+            return sum / makespans.length;
+        }
+
+        public double getStandardDeviation() {
+            double mean = getMean();
+            double sum = 0;
+            for (double makespan : makespans) {
+                sum += (makespan - mean) * (makespan - mean);
+            }
+            return makespans.length > 1 ? Math.sqrt(sum / (makespans.length - 1)) : 0.0;
+        }
+
+        /**
+         * Fraction of samples whose critical path passes through each vertex.
+         */
+        public double[] getVertexCriticality() {
+            return vertexCriticality;
+        }
+
+        /**
+         * Fraction of samples whose critical path uses each edge, in adjacency-list edge order.
+         */
+        public double[] getEdgeCriticality() {
+            return edgeCriticality;
+        }
+    }
+}
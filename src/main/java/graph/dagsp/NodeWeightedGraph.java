@@ -0,0 +1,100 @@
+package graph.dagsp;
+
+import model.CsrGraph;
+
+import java.util.List;
+
+/**
+ * Flat (CSR) graph whose weights live on the vertices ("weight_model": "node").
+ * A path's length is the sum of the weights of every vertex on it, source included:
+ * entering v costs weight(v). Task durations are stored once per task (n doubles)
+ * instead of being copied onto every outgoing edge (m doubles), and a sweep reads
+ * 4 bytes per edge plus 8 per vertex instead of 12 per edge.
+ */
+public class NodeWeightedGraph {
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] nodeWeights;
+
+    private NodeWeightedGraph(int[] offsets, int[] targets, double[] nodeWeights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.nodeWeights = nodeWeights;
+    }
+
+    /**
+     * Build from an adjacency list and per-vertex weights.
+     *
+     * @param graph       adjacency list representation
+     * @param nodeWeights weight of every vertex (length n; shared, not copied)
+     * @return node-weighted graph
+     * @throws IllegalArgumentException if there is not exactly one weight per vertex
+     */
+    public static NodeWeightedGraph from(List<List<Integer>> graph, double[] nodeWeights) {
+        int n = graph.size();
+        checkWeights(n, nodeWeights);
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.get(u).size();
+        }
+        int[] targets = new int[offsets[n]];
+        int e = 0;
+        for (List<Integer> neighbors : graph) {
+            for (int v : neighbors) {
+                targets[e++] = v;
+            }
+        }
+        return new NodeWeightedGraph(offsets, targets, nodeWeights);
+    }
+
+    /**
+     * Build from a CSR graph, sharing its out-edge arrays; edge weights are ignored.
+     *
+     * @param graph       CSR graph
+     * @param nodeWeights weight of every vertex (length n; shared, not copied)
+     * @return node-weighted graph
+     * @throws IllegalArgumentException if there is not exactly one weight per vertex
+     */
+    public static NodeWeightedGraph from(CsrGraph graph, double[] nodeWeights) {
+        checkWeights(graph.getVertexCount(), nodeWeights);
+        return new NodeWeightedGraph(graph.getOutOffsets(), graph.getTargets(), nodeWeights);
+    }
+
+    private static void checkWeights(int n, double[] nodeWeights) {
+        if (nodeWeights == null || nodeWeights.length != n) {
+            throw new IllegalArgumentException("Expected " + n + " node weights, got "
+                    + (nodeWeights == null ? "none" : String.valueOf(nodeWeights.length)));
+        }
+    }
+
+    public int getVertexCount() {
+        return offsets.length - 1;
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    public double getNodeWeight(int v) {
+        return nodeWeights[v];
+    }
+
+    /**
+     * Bytes of targets plus weights touched by one full sweep.
+     */
+    public long getEdgeBytes() {
+        return (long) targets.length * Integer.BYTES + (long) nodeWeights.length * Double.BYTES;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    double[] nodeWeights() {
+        return nodeWeights;
+    }
+}
@@ -0,0 +1,356 @@
+package graph.dagsp;
+
+import metrics.Metrics;
+import metrics.SimpleMetrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Wavefront-parallel shortest and longest paths in a DAG.
+ * Vertices are grouped by topological level (longest hop distance from a root);
+ * no edge joins two vertices of the same level, so every vertex of a level can
+ * pull its distance from its in-edges independently. Each level is processed on
+ * a fork-join pool and the writes are disjoint, so no atomics are needed.
+ * <p>
+ * The level buckets and in-edge index form a {@link Plan}. Calls that take the adjacency
+ * list build a fresh plan every time; callers that sweep the same graph repeatedly build
+ * one with {@link #prepare} and pass it in.
+ */
+public class ParallelDAGShortestPath {
+    /**
+     * How a call is executed.
+     */
+    public enum Mode {
+        /** Single-threaded push relaxation in topological order. */
+        SEQUENTIAL,
+        /** Level-synchronous pull relaxation on the fork-join pool. */
+        PARALLEL,
+        /** Parallel only for large graphs whose levels are wide enough. */
+        AUTO
+    }
+
+    private static final int MIN_PARALLEL_VERTICES = 50_000;
+    private static final int MIN_AVERAGE_LEVEL_WIDTH = 1_024;
+    private static final int LEVEL_CHUNK = 2_048;
+
+    private Metrics metrics;
+    private ForkJoinPool pool;
+    private DAGShortestPath sequential;
+
+    public ParallelDAGShortestPath() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelDAGShortestPath(ForkJoinPool pool) {
+        this.metrics = new SimpleMetrics();
+        this.pool = pool;
+        this.sequential = new DAGShortestPath();
+    }
+
+    /**
+     * Compute single-source shortest paths, choosing the execution mode automatically.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @return array of shortest distances (Double.POSITIVE_INFINITY if unreachable)
+     */
+    public double[] shortestPaths(List<List<double[]>> graph, List<Integer> topoOrder, int source) {
+        return shortestPaths(graph, topoOrder, source, Mode.AUTO);
+    }
+
+    /**
+     * Compute single-source shortest paths.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @param mode      execution mode
+     * @return array of shortest distances (Double.POSITIVE_INFINITY if unreachable)
+     */
+    public double[] shortestPaths(List<List<double[]>> graph, List<Integer> topoOrder, int source, Mode mode) {
+        return run(graph, topoOrder, source, mode, false);
+    }
+
+    /**
+     * Compute longest paths, choosing the execution mode automatically.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @return array of longest distances (Double.NEGATIVE_INFINITY if unreachable)
+     */
+    public double[] longestPaths(List<List<double[]>> graph, List<Integer> topoOrder, int source) {
+        return longestPaths(graph, topoOrder, source, Mode.AUTO);
+    }
+
+    /**
+     * Compute longest paths.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @param mode      execution mode
+     * @return array of longest distances (Double.NEGATIVE_INFINITY if unreachable)
+     */
+    public double[] longestPaths(List<List<double[]>> graph, List<Integer> topoOrder, int source, Mode mode) {
+        return run(graph, topoOrder, source, mode, true);
+    }
+
+    /**
+     * Compute single-source shortest paths in parallel over a prepared plan.
+     *
+     * @param plan   level plan from {@link #prepare}
+     * @param source source vertex
+     * @return array of shortest distances (Double.POSITIVE_INFINITY if unreachable)
+     */
+    public double[] shortestPaths(Plan plan, int source) {
+        return run(plan, source, false);
+    }
+
+    /**
+     * Compute longest paths in parallel over a prepared plan.
+     *
+     * @param plan   level plan from {@link #prepare}
+     * @param source source vertex
+     * @return array of longest distances (Double.NEGATIVE_INFINITY if unreachable)
+     */
+    public double[] longestPaths(Plan plan, int source) {
+        return run(plan, source, true);
+    }
+
+    private double[] run(Plan plan, int source, boolean longest) {
+        metrics.reset();
+        metrics.startTimer();
+        double[] dist = sweep(plan, source, longest);
+        metrics.stopTimer();
+        return dist;
+    }
+
+    private double[] run(List<List<double[]>> graph, List<Integer> topoOrder, int source, Mode mode,
+                         boolean longest) {
+        metrics.reset();
+        metrics.startTimer();
+        Plan plan = null;
+        if (mode == Mode.AUTO) {
+            plan = planIfParallel(graph, topoOrder);
+            mode = plan != null ? Mode.PARALLEL : Mode.SEQUENTIAL;
+        }
+        if (mode == Mode.SEQUENTIAL) {
+            double[] dist = longest
+                    ? sequential.longestPaths(graph, topoOrder, source)
+                    : sequential.shortestPaths(graph, topoOrder, source);
+            metrics.incrementCounter("sequential_runs");
+            metrics.incrementCounter("relaxations", sequential.getMetrics().getCounter("relaxations"));
+            metrics.stopTimer();
+            return dist;
+        }
+
+        if (plan == null) {
+            plan = prepare(graph, topoOrder);
+        }
+        double[] dist = sweep(plan, source, longest);
+        metrics.stopTimer();
+        return dist;
+    }
+
+    /**
+     * Relax level by level from the source's level; records parallel_runs, levels and relaxations.
+     */
+    private double[] sweep(Plan plan, int source, boolean longest) {
+        int n = plan.getVertexCount();
+        double unreached = longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        double[] dist = new double[n];
+        Arrays.fill(dist, unreached);
+        dist[source] = 0.0;
+
+        // Vertices on or above the source's level cannot be reached from it
+        int levels = plan.getLevelCount();
+        long relaxations = 0;
+        for (int level = plan.levelOf[source] + 1; level < levels; level++) {
+            LevelTask task = new LevelTask(plan, dist, longest,
+                    plan.levelOffsets[level], plan.levelOffsets[level + 1]);
+            relaxations += task.isSmall() ? task.compute() : pool.invoke(task);
+        }
+        metrics.incrementCounter("parallel_runs");
+        metrics.incrementCounter("levels", levels);
+        metrics.incrementCounter("relaxations", relaxations);
+        return dist;
+    }
+
+    /**
+     * Parallel pays off only when levels are wide enough to split across workers.
+     *
+     * @return the plan to run in parallel, or null if the sequential sweep should be used
+     */
+    private Plan planIfParallel(List<List<double[]>> graph, List<Integer> topoOrder) {
+        int n = graph.size();
+        if (n < MIN_PARALLEL_VERTICES || pool.getParallelism() < 2) {
+            return null;
+        }
+        Plan plan = prepare(graph, topoOrder);
+        return n / plan.getLevelCount() >= MIN_AVERAGE_LEVEL_WIDTH ? plan : null;
+    }
+
+    /**
+     * Build the in-edge index and the level buckets of a graph. The plan copies the edge
+     * weights, so it reflects the graph at the time of the call; prepare a new plan after
+     * changing edges or weights.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order of vertices
+     * @return level plan for {@link #shortestPaths(Plan, int)} and {@link #longestPaths(Plan, int)}
+     */
+    public static Plan prepare(List<List<double[]>> graph, List<Integer> topoOrder) {
+        int n = graph.size();
+        ReverseGraph reverse = ReverseGraph.build(graph);
+
+        int[] levelOf = new int[n];
+        int levels = n == 0 ? 0 : 1;
+        for (int u : topoOrder) {
+            int next = levelOf[u] + 1;
+            for (double[] edge : graph.get(u)) {
+                int v = (int) edge[0];
+                if (levelOf[v] < next) {
+                    levelOf[v] = next;
+                    if (next + 1 > levels) {
+                        levels = next + 1;
+                    }
+                }
+            }
+        }
+
+        // Bucket vertices by level, preserving topological order inside a level
+        int[] levelOffsets = new int[levels + 1];
+        for (int v = 0; v < n; v++) {
+            levelOffsets[levelOf[v] + 1]++;
+        }
+        for (int level = 0; level < levels; level++) {
+            levelOffsets[level + 1] += levelOffsets[level];
+        }
+        int[] cursor = Arrays.copyOf(levelOffsets, levels);
+        int[] levelVertices = new int[n];
+        for (int u : topoOrder) {
+            levelVertices[cursor[levelOf[u]]++] = u;
+        }
+        return new Plan(reverse, levelOf, levelOffsets, levelVertices);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * In-edge index and topological levels of one graph and order, built by {@link #prepare}.
+     * Immutable and safe to share between engines and threads.
+     */
+    public static final class Plan {
+        private final ReverseGraph reverse;
+        private final int[] levelOf;
+        private final int[] levelOffsets;
+        private final int[] levelVertices;
+
+        private Plan(ReverseGraph reverse, int[] levelOf, int[] levelOffsets, int[] levelVertices) {
+            this.reverse = reverse;
+            this.levelOf = levelOf;
+            this.levelOffsets = levelOffsets;
+            this.levelVertices = levelVertices;
+        }
+
+        public int getVertexCount() {
+            return levelOf.length;
+        }
+
+        public int getLevelCount() {
+            return levelOffsets.length - 1;
+        }
+    }
+
+    /**
+     * Pull relaxation of a slice of one level; returns the number of relaxations.
+     */
+    private static class LevelTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Plan plan;
+        private final double[] dist;
+        private final boolean longest;
+        private final int from;
+        private final int to;
+
+        LevelTask(Plan plan, double[] dist, boolean longest, int from, int to) {
+            this.plan = plan;
+            this.dist = dist;
+            this.longest = longest;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean isSmall() {
+            return to - from <= LEVEL_CHUNK;
+        }
+
+        @Override
+        protected Long compute() {
+            if (!isSmall()) {
+                int mid = (from + to) >>> 1;
+                LevelTask left = new LevelTask(plan, dist, longest, from, mid);
+                left.fork();
+                long right = new LevelTask(plan, dist, longest, mid, to).compute();
+                return right + left.join();
+            }
+            return longest ? pullLongest() : pullShortest();
+        }
+
+        private long pullShortest() {
+            int[] offsets = plan.reverse.getOffsets();
+            int[] sources = plan.reverse.getSources();
+            double[] weights = plan.reverse.getWeights();
+            int[] levelVertices = plan.levelVertices;
+            long relaxations = 0;
+            for (int i = from; i < to; i++) {
+                int v = levelVertices[i];
+                double best = Double.POSITIVE_INFINITY;
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    double du = dist[sources[e]];
+                    if (du != Double.POSITIVE_INFINITY) {
+                        relaxations++;
+                        double candidate = du + weights[e];
+                        if (candidate < best) {
+                            best = candidate;
+                        }
+                    }
+                }
+                dist[v] = best;
+            }
+            return relaxations;
+        }
+
+        private long pullLongest() {
+            int[] offsets = plan.reverse.getOffsets();
+            int[] sources = plan.reverse.getSources();
+            double[] weights = plan.reverse.getWeights();
+            int[] levelVertices = plan.levelVertices;
+            long relaxations = 0;
+            for (int i = from; i < to; i++) {
+                int v = levelVertices[i];
+                double best = Double.NEGATIVE_INFINITY;
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    double du = dist[sources[e]];
+                    if (du != Double.NEGATIVE_INFINITY) {
+                        relaxations++;
+                        double candidate = du + weights[e];
+                        if (candidate > best) {
+                            best = candidate;
+                        }
+                    }
+                }
+                dist[v] = best;
+            }
+            return relaxations;
+        }
+    }
+}
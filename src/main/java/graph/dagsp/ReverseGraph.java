@@ -0,0 +1,86 @@
+package graph.dagsp;
+
+import java.util.List;
+
+/**
+ * Compressed in-edge index (transpose) of a weighted adjacency list.
+ * In-edges of vertex v occupy positions offsets[v] .. offsets[v + 1] - 1
+ * of the sources and weights arrays. Built once per graph and reused
+ * by pull-based and backward sweeps.
+ */
+public class ReverseGraph {
+    private final int[] offsets;
+    private final int[] sources;
+    private final double[] weights;
+
+    private ReverseGraph(int[] offsets, int[] sources, double[] weights) {
+        this.offsets = offsets;
+        this.sources = sources;
+        this.weights = weights;
+    }
+
+    /**
+     * Build the transpose of a weighted adjacency list with a counting sort.
+     *
+     * @param graph adjacency list with weights [target, weight]
+     * @return in-edge index of the graph
+     */
+    public static ReverseGraph build(List<List<double[]>> graph) {
+        int n = graph.size();
+        int[] offsets = new int[n + 1];
+        for (List<double[]> edges : graph) {
+            for (double[] edge : edges) {
+                offsets[(int) edge[0] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] cursor = new int[n];
+        System.arraycopy(offsets, 0, cursor, 0, n);
+        int[] sources = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            for (double[] edge : graph.get(u)) {
+                int pos = cursor[(int) edge[0]]++;
+                sources[pos] = u;
+                weights[pos] = edge[1];
+            }
+        }
+        return new ReverseGraph(offsets, sources, weights);
+    }
+
+    public int getVertexCount() {
+        return offsets.length - 1;
+    }
+
+    public int getEdgeCount() {
+        return sources.length;
+    }
+
+    public int inDegree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Offsets into the source and weight arrays (length n + 1, shared, not copied).
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Source vertex of every in-edge (shared, not copied).
+     */
+    public int[] getSources() {
+        return sources;
+    }
+
+    /**
+     * Weight of every in-edge (shared, not copied).
+     */
+    public double[] getWeights() {
+        return weights;
+    }
+}
@@ -0,0 +1,412 @@
+package graph.dagsp;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Semiring for single-source DAG dynamic programming. For every vertex v,
+ * value[v] = plus over all paths source -> v of the times-product of the edge values on the
+ * path; the source gets {@link #one()} and unreachable vertices {@link #zero()}.
+ *
+ * <p>The built-in semirings override {@link #sweep} with a loop whose operators are written
+ * out, so each loop is monomorphic and free of per-edge virtual calls or semiring branches.
+ * Other subclasses run the generic loop, which calls {@link #plus} and {@link #times}.
+ */
+public abstract class Semiring {
+    /** Shortest paths: min over paths of the weight sum. */
+    public static final Semiring MIN_PLUS = new MinPlus();
+    /** Longest (critical) paths: max over paths of the weight sum. */
+    public static final Semiring MAX_PLUS = new MaxPlus();
+    /** Number of paths, weights ignored; exact up to 2^53. */
+    public static final Semiring COUNT = new Count();
+    /** Widest (bottleneck) paths: max over paths of the smallest weight. */
+    public static final Semiring BOTTLENECK = new Bottleneck();
+    /** Most reliable paths: max over paths of the weight product, weights in [0, 1]. */
+    public static final Semiring RELIABILITY = new Reliability();
+
+    private final String name;
+
+    protected Semiring(String name) {
+        this.name = name;
+    }
+
+    public abstract double zero();
+
+    public abstract double one();
+
+    public abstract double plus(double a, double b);
+
+    public abstract double times(double a, double b);
+
+    /**
+     * Value of an edge with the given weight; the weight itself unless overridden.
+     */
+    public double edgeValue(double weight) {
+        return weight;
+    }
+
+    /**
+     * Whether plus always returns one of its arguments, so every reached vertex has a best
+     * predecessor and paths can be reconstructed.
+     */
+    public boolean isSelective() {
+        return false;
+    }
+
+    /**
+     * Run the DP from a source over vertices in topological order, starting at the source's
+     * position. Holds no state, so any number of threads may call it with their own arrays.
+     *
+     * @param graph     adjacency list with weights [target, weight]
+     * @param topoOrder topological order of vertices
+     * @param source    source vertex
+     * @param value     receives the values (length at least n)
+     * @param parent    receives each vertex's best predecessor, -1 for none (may be null;
+     *                  only for selective semirings)
+     * @return number of edges relaxed
+     */
+    public final long solve(List<List<double[]>> graph, List<Integer> topoOrder, int source,
+                            double[] value, int[] parent) {
+        if (parent != null && !isSelective()) {
+            throw new IllegalArgumentException(name + " has no best predecessor per vertex");
+        }
+        int n = graph.size();
+        Arrays.fill(value, 0, n, zero());
+        if (parent != null) {
+            Arrays.fill(parent, 0, n, -1);
+        }
+        value[source] = one();
+        return sweep(graph, topoOrder, source, value, parent);
+    }
+
+    /**
+     * Relax every edge out of every reached vertex from the source's position on; a
+     * predecessor is recorded only when it strictly changes the value.
+     */
+    protected long sweep(List<List<double[]>> graph, List<Integer> topoOrder, int source,
+                         double[] value, int[] parent) {
+        double zero = zero();
+        long relaxations = 0;
+        boolean foundSource = false;
+        for (int u : topoOrder) {
+            if (u == source) {
+                foundSource = true;
+            }
+            if (!foundSource || value[u] == zero) {
+                continue;
+            }
+            double vu = value[u];
+            List<double[]> edges = graph.get(u);
+            relaxations += edges.size();
+            for (double[] edge : edges) {
+                int v = (int) edge[0];
+                double next = plus(value[v], times(vu, edgeValue(edge[1])));
+                if (next != value[v]) {
+                    value[v] = next;
+                    if (parent != null) {
+                        parent[v] = u;
+                    }
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static final class MinPlus extends Semiring {
+        MinPlus() {
+            super("MIN_PLUS");
+        }
+
+        @Override
+        public double zero() {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public double one() {
+            return 0.0;
+        }
+
+        @Override
+        public double plus(double a, double b) {
+            return Math.min(a, b);
+        }
+
+        @Override
+        public double times(double a, double b) {
+            return a + b;
+        }
+
+        @Override
+        public boolean isSelective() {
+            return true;
+        }
+
+        @Override
+        protected long sweep(List<List<double[]>> graph, List<Integer> topoOrder, int source,
+                             double[] value, int[] parent) {
+            long relaxations = 0;
+            boolean foundSource = false;
+            for (int u : topoOrder) {
+                if (u == source) {
+                    foundSource = true;
+                }
+                if (!foundSource || value[u] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                double du = value[u];
+                List<double[]> edges = graph.get(u);
+                relaxations += edges.size();
+                for (double[] edge : edges) {
+                    int v = (int) edge[0];
+                    double candidate = du + edge[1];
+                    if (candidate < value[v]) {
+                        value[v] = candidate;
+                        if (parent != null) {
+                            parent[v] = u;
+                        }
+                    }
+                }
+            }
+            return relaxations;
+        }
+    }
+
+    private static final class MaxPlus extends Semiring {
+        MaxPlus() {
+            super("MAX_PLUS");
+        }
+
+        @Override
+        public double zero() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        @Override
+        public double one() {
+            return 0.0;
+        }
+
+        @Override
+        public double plus(double a, double b) {
+            return Math.max(a, b);
+        }
+
+        @Override
+        public double times(double a, double b) {
+            return a + b;
+        }
+
+        @Override
+        public boolean isSelective() {
+            return true;
+        }
+
+        @Override
+        protected long sweep(List<List<double[]>> graph, List<Integer> topoOrder, int source,
+                             double[] value, int[] parent) {
+            long relaxations = 0;
+            boolean foundSource = false;
+            for (int u : topoOrder) {
+                if (u == source) {
+                    foundSource = true;
+                }
+                if (!foundSource || value[u] == Double.NEGATIVE_INFINITY) {
+                    continue;
+                }
+                double du = value[u];
+                List<double[]> edges = graph.get(u);
+                relaxations += edges.size();
+                for (double[] edge : edges) {
+                    int v = (int) edge[0];
+                    double candidate = du + edge[1];
+                    if (candidate > value[v]) {
+                        value[v] = candidate;
+                        if (parent != null) {
+                            parent[v] = u;
+                        }
+                    }
+                }
+            }
+            return relaxations;
+        }
+    }
+
+    private static final class Count extends Semiring {
+        Count() {
+            super("COUNT");
+        }
+
+        @Override
+        public double zero() {
+            return 0.0;
+        }
+
+        @Override
+        public double one() {
+            return 1.0;
+        }
+
+        @Override
+        public double plus(double a, double b) {
+            return a + b;
+        }
+
+        @Override
+        public double times(double a, double b) {
+            return a * b;
+        }
+
+        @Override
+        public double edgeValue(double weight) {
+            return 1.0;
+        }
+
+        @Override
+        protected long sweep(List<List<double[]>> graph, List<Integer> topoOrder, int source,
+                             double[] value, int[] parent) {
+            long relaxations = 0;
+            boolean foundSource = false;
+            for (int u : topoOrder) {
+                if (u == source) {
+                    foundSource = true;
+                }
+                if (!foundSource || value[u] == 0.0) {
+                    continue;
+                }
+                double paths = value[u];
+                List<double[]> edges = graph.get(u);
+                relaxations += edges.size();
+                for (double[] edge : edges) {
+                    value[(int) edge[0]] += paths;
+                }
+            }
+            return relaxations;
+        }
+    }
+
+    private static final class Bottleneck extends Semiring {
+        Bottleneck() {
+            super("BOTTLENECK");
+        }
+
+        @Override
+        public double zero() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        @Override
+        public double one() {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public double plus(double a, double b) {
+            return Math.max(a, b);
+        }
+
+        @Override
+        public double times(double a, double b) {
+            return Math.min(a, b);
+        }
+
+        @Override
+        public boolean isSelective() {
+            return true;
+        }
+
+        @Override
+        protected long sweep(List<List<double[]>> graph, List<Integer> topoOrder, int source,
+                             double[] value, int[] parent) {
+            long relaxations = 0;
+            boolean foundSource = false;
+            for (int u : topoOrder) {
+                if (u == source) {
+                    foundSource = true;
+                }
+                if (!foundSource || value[u] == Double.NEGATIVE_INFINITY) {
+                    continue;
+                }
+                double width = value[u];
+                List<double[]> edges = graph.get(u);
+                relaxations += edges.size();
+                for (double[] edge : edges) {
+                    int v = (int) edge[0];
+                    double candidate = Math.min(width, edge[1]);
+                    if (candidate > value[v]) {
+                        value[v] = candidate;
+                        if (parent != null) {
+                            parent[v] = u;
+                        }
+                    }
+                }
+            }
+            return relaxations;
+        }
+    }
+
+    private static final class Reliability extends Semiring {
+        Reliability() {
+            super("RELIABILITY");
+        }
+
+        @Override
+        public double zero() {
+            return 0.0;
+        }
+
+        @Override
+        public double one() {
+            return 1.0;
+        }
+
+        @Override
+        public double plus(double a, double b) {
+            return Math.max(a, b);
+        }
+
+        @Override
+        public double times(double a, double b) {
+            return a * b;
+        }
+
+        @Override
+        public boolean isSelective() {
+            return true;
+        }
+
+        @Override
+        protected long sweep(List<List<double[]>> graph, List<Integer> topoOrder, int source,
+                             double[] value, int[] parent) {
+            long relaxations = 0;
+            boolean foundSource = false;
+            for (int u : topoOrder) {
+                if (u == source) {
+                    foundSource = true;
+                }
+                if (!foundSource || value[u] == 0.0) {
+                    continue;
+                }
+                double reliability = value[u];
+                List<double[]> edges = graph.get(u);
+                relaxations += edges.size();
+                for (double[] edge : edges) {
+                    int v = (int) edge[0];
+                    double candidate = reliability * edge[1];
+                    if (candidate > value[v]) {
+                        value[v] = candidate;
+                        if (parent != null) {
+                            parent[v] = u;
+                        }
+                    }
+                }
+            }
+            return relaxations;
+        }
+    }
+}
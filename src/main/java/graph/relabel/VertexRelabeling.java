@@ -0,0 +1,253 @@
+package graph.relabel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Permutation of vertex ids used to improve memory locality.
+ * The graph is relabeled once, algorithms run on the relabeled graph,
+ * and their results are mapped back to the original ids.
+ * <ul>
+ *   <li>{@link #fromOrder(List)}: topological relabel, so DAG sweeps walk dist[] sequentially</li>
+ *   <li>{@link #cuthillMcKee(List)}: BFS order with low-degree neighbors first, keeps DFS neighborhoods close</li>
+ *   <li>{@link #byDegree(List)}: hubs first, so their hot index/lowlink entries share cache lines</li>
+ * </ul>
+ */
+public class VertexRelabeling {
+    private final int[] newId;
+    private final int[] oldId;
+
+    private VertexRelabeling(int[] oldId) {
+        this.oldId = oldId;
+        this.newId = new int[oldId.length];
+        for (int i = 0; i < oldId.length; i++) {
+            newId[oldId[i]] = i;
+        }
+    }
+
+    /**
+     * Relabel so that the i-th vertex of the order gets id i.
+     * With a topological order, the identity order 0..n-1 is topological on the relabeled graph.
+     *
+     * @param order permutation of all vertices
+     * @return relabeling following the order
+     */
+    public static VertexRelabeling fromOrder(List<Integer> order) {
+        int[] oldId = new int[order.size()];
+        boolean[] seen = new boolean[order.size()];
+        for (int i = 0; i < oldId.length; i++) {
+            int vertex = order.get(i);
+            if (vertex < 0 || vertex >= oldId.length || seen[vertex]) {
+                throw new IllegalArgumentException("Order is not a permutation of 0.." + (oldId.length - 1));
+            }
+            seen[vertex] = true;
+            oldId[i] = vertex;
+        }
+        return new VertexRelabeling(oldId);
+    }
+
+    /**
+     * Cuthill-McKee style BFS relabel: each BFS starts at the unvisited vertex with the
+     * smallest out-degree and visits neighbors in increasing out-degree.
+     *
+     * @param graph adjacency list
+     * @return BFS relabeling
+     */
+    public static VertexRelabeling cuthillMcKee(List<List<Integer>> graph) {
+        int n = graph.size();
+        int[] byDegree = sortedByDegree(graph, true);
+        boolean[] visited = new boolean[n];
+        int[] oldId = new int[n];
+        int head = 0;
+        int tail = 0;
+        int[] scratch = new int[16];
+
+        for (int start : byDegree) {
+            if (visited[start]) {
+                continue;
+            }
+            visited[start] = true;
+            oldId[tail++] = start;
+            while (head < tail) {
+                int u = oldId[head++];
+                List<Integer> neighbors = graph.get(u);
+                if (scratch.length < neighbors.size()) {
+                    scratch = new int[neighbors.size()];
+                }
+                int count = 0;
+                for (int v : neighbors) {
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        scratch[count++] = v;
+                    }
+                }
+                sortByDegree(scratch, count, graph);
+                System.arraycopy(scratch, 0, oldId, tail, count);
+                tail += count;
+            }
+        }
+        return new VertexRelabeling(oldId);
+    }
+
+    /**
+     * Relabel by decreasing out-degree (ties keep the original order).
+     *
+     * @param graph adjacency list
+     * @return degree-sorted relabeling
+     */
+    public static VertexRelabeling byDegree(List<List<Integer>> graph) {
+        return new VertexRelabeling(sortedByDegree(graph, false));
+    }
+
+    private static int[] sortedByDegree(List<List<Integer>> graph, boolean ascending) {
+        int n = graph.size();
+        int maxDegree = 0;
+        for (List<Integer> neighbors : graph) {
+            maxDegree = Math.max(maxDegree, neighbors.size());
+        }
+        // Counting sort on degree keeps it linear and stable
+        int[] offsets = new int[maxDegree + 2];
+        for (List<Integer> neighbors : graph) {
+            int key = ascending ? neighbors.size() : maxDegree - neighbors.size();
+            offsets[key + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            offsets[d + 1] += offsets[d];
+        }
+        int[] sorted = new int[n];
+        for (int v = 0; v < n; v++) {
+            int degree = graph.get(v).size();
+            int key = ascending ? degree : maxDegree - degree;
+            sorted[offsets[key]++] = v;
+        }
+        return sorted;
+    }
+
+    private static void sortByDegree(int[] vertices, int count, List<List<Integer>> graph) {
+        // Insertion sort: neighbor lists are short in the sparse graphs this targets
+        for (int i = 1; i < count; i++) {
+            int v = vertices[i];
+            int degree = graph.get(v).size();
+            int j = i - 1;
+            while (j >= 0 && graph.get(vertices[j]).size() > degree) {
+                vertices[j + 1] = vertices[j];
+                j--;
+            }
+            vertices[j + 1] = v;
+        }
+    }
+
+    public int size() {
+        return oldId.length;
+    }
+
+    /**
+     * Id of an original vertex in the relabeled graph.
+     */
+    public int toNew(int oldVertex) {
+        return newId[oldVertex];
+    }
+
+    /**
+     * Original id of a relabeled vertex.
+     */
+    public int toOld(int newVertex) {
+        return oldId[newVertex];
+    }
+
+    /**
+     * Permute an adjacency list; neighbor lists keep their relative order.
+     *
+     * @param graph adjacency list over original ids
+     * @return adjacency list over new ids
+     */
+    public List<List<Integer>> apply(List<List<Integer>> graph) {
+        List<List<Integer>> relabeled = new ArrayList<>(graph.size());
+        for (int i = 0; i < oldId.length; i++) {
+            List<Integer> neighbors = graph.get(oldId[i]);
+            List<Integer> mapped = new ArrayList<>(neighbors.size());
+            for (int v : neighbors) {
+                mapped.add(newId[v]);
+            }
+            relabeled.add(mapped);
+        }
+        return relabeled;
+    }
+
+    /**
+     * Permute a weighted adjacency list.
+     *
+     * @param graph adjacency list with [target, weight] pairs over original ids
+     * @return adjacency list with [target, weight] pairs over new ids
+     */
+    public List<List<double[]>> applyWeighted(List<List<double[]>> graph) {
+        List<List<double[]>> relabeled = new ArrayList<>(graph.size());
+        for (int i = 0; i < oldId.length; i++) {
+            List<double[]> edges = graph.get(oldId[i]);
+            List<double[]> mapped = new ArrayList<>(edges.size());
+            for (double[] edge : edges) {
+                mapped.add(new double[]{newId[(int) edge[0]], edge[1]});
+            }
+            relabeled.add(mapped);
+        }
+        return relabeled;
+    }
+
+    /**
+     * Map a list of original vertex ids to new ids.
+     */
+    public List<Integer> toNew(List<Integer> vertices) {
+        List<Integer> mapped = new ArrayList<>(vertices.size());
+        for (int v : vertices) {
+            mapped.add(newId[v]);
+        }
+        return mapped;
+    }
+
+    /**
+     * Map a list of relabeled vertex ids back to original ids.
+     */
+    public List<Integer> toOld(List<Integer> vertices) {
+        List<Integer> mapped = new ArrayList<>(vertices.size());
+        for (int v : vertices) {
+            mapped.add(oldId[v]);
+        }
+        return mapped;
+    }
+
+    /**
+     * Map a per-vertex array computed on the relabeled graph back to original ids.
+     *
+     * @param valuesByNewId values indexed by new id
+     * @return values indexed by original id
+     */
+    public double[] restore(double[] valuesByNewId) {
+        double[] restored = new double[valuesByNewId.length];
+        for (int i = 0; i < valuesByNewId.length; i++) {
+            restored[oldId[i]] = valuesByNewId[i];
+        }
+        return restored;
+    }
+
+    /**
+     * Map components computed on the relabeled graph back to original ids.
+     *
+     * @param components components over new ids
+     * @return components over original ids, in the same order
+     */
+    public List<List<Integer>> restoreComponents(List<List<Integer>> components) {
+        List<List<Integer>> restored = new ArrayList<>(components.size());
+        for (List<Integer> component : components) {
+            restored.add(toOld(component));
+        }
+        return restored;
+    }
+
+    /**
+     * Original id of every relabeled vertex (copy).
+     */
+    public int[] getOldIds() {
+        return Arrays.copyOf(oldId, oldId.length);
+    }
+}
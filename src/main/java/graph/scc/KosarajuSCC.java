@@ -0,0 +1,155 @@
+package graph.scc;
+
+import metrics.Metrics;
+import metrics.PhaseEvent;
+import metrics.SimpleMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implementation of Kosaraju's algorithm for finding Strongly Connected Components (SCC).
+ * Both DFS passes are iterative, so deep graphs do not overflow the call stack.
+ * The second pass runs on the transpose, which callers can pass in when they already have it.
+ * Components are returned in topological order of the condensation.
+ */
+public class KosarajuSCC {
+    private Metrics metrics;
+
+    public KosarajuSCC() {
+        this.metrics = new SimpleMetrics();
+    }
+
+    /**
+     * Find all strongly connected components, building the transpose first.
+     *
+     * @param graph adjacency list representation
+     * @return list of SCCs, where each SCC is a list of vertex indices
+     */
+    public List<List<Integer>> findSCCs(List<List<Integer>> graph) {
+        return findSCCs(graph, transpose(graph));
+    }
+
+    /**
+     * Find all strongly connected components using a precomputed transpose.
+     *
+     * @param graph     adjacency list representation
+     * @param transpose adjacency list of the reversed graph
+     * @return list of SCCs, where each SCC is a list of vertex indices
+     */
+    public List<List<Integer>> findSCCs(List<List<Integer>> graph, List<List<Integer>> transpose) {
+        return findComponents(graph, transpose).toLists();
+    }
+
+    /**
+     * Find all strongly connected components in compact form using a precomputed transpose.
+     *
+     * @param graph     adjacency list representation
+     * @param transpose adjacency list of the reversed graph
+     * @return component ids and members, components in topological order of the condensation
+     */
+    public SCCResult findComponents(List<List<Integer>> graph, List<List<Integer>> transpose) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("findSCCs", "KosarajuSCC");
+
+        int n = graph.size();
+        int[] finishOrder = new int[n];
+        int finished = 0;
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int[] edgePos = new int[n];
+
+        // Pass 1: record vertices by DFS finish time
+        for (int start = 0; start < n; start++) {
+            if (visited[start]) {
+                continue;
+            }
+            metrics.incrementCounter("DFS_visits");
+            int sp = 0;
+            stack[sp] = start;
+            edgePos[sp++] = 0;
+            visited[start] = true;
+            while (sp > 0) {
+                int v = stack[sp - 1];
+                List<Integer> neighbors = graph.get(v);
+                if (edgePos[sp - 1] < neighbors.size()) {
+                    int w = neighbors.get(edgePos[sp - 1]++);
+                    metrics.incrementCounter("edge_explorations");
+                    if (!visited[w]) {
+                        visited[w] = true;
+                        stack[sp] = w;
+                        edgePos[sp++] = 0;
+                    }
+                } else {
+                    finishOrder[finished++] = v;
+                    sp--;
+                }
+            }
+        }
+
+        // Pass 2: flood the transpose in decreasing finish time; each flood is one SCC
+        int[] componentOf = new int[n];
+        Arrays.fill(componentOf, -1);
+        int[] offsets = new int[n + 1];
+        int[] members = new int[n];
+        int count = 0;
+        int position = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int root = finishOrder[i];
+            if (componentOf[root] != -1) {
+                continue;
+            }
+            int sp = 0;
+            stack[sp++] = root;
+            componentOf[root] = count;
+            while (sp > 0) {
+                int v = stack[--sp];
+                members[position++] = v;
+                for (int w : transpose.get(v)) {
+                    metrics.incrementCounter("edge_explorations");
+                    if (componentOf[w] == -1) {
+                        componentOf[w] = count;
+                        stack[sp++] = w;
+                    }
+                }
+            }
+            offsets[++count] = position;
+        }
+
+        metrics.stopTimer();
+        event.finish(graph, metrics);
+        return new SCCResult(componentOf, Arrays.copyOf(offsets, count + 1), members);
+    }
+
+    /**
+     * Build the transpose of an adjacency list.
+     *
+     * @param graph adjacency list representation
+     * @return adjacency list with every edge reversed
+     */
+    public static List<List<Integer>> transpose(List<List<Integer>> graph) {
+        int n = graph.size();
+        int[] inDegree = new int[n];
+        for (List<Integer> neighbors : graph) {
+            for (int v : neighbors) {
+                inDegree[v]++;
+            }
+        }
+        List<List<Integer>> reversed = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            reversed.add(new ArrayList<>(inDegree[v]));
+        }
+        for (int u = 0; u < n; u++) {
+            for (int v : graph.get(u)) {
+                reversed.get(v).add(u);
+            }
+        }
+        return reversed;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,346 @@
+package graph.scc;
+
+import metrics.Metrics;
+import metrics.PhaseEvent;
+import metrics.SimpleMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel Forward-Backward (FW-BW) algorithm for Strongly Connected Components.
+ * Each subproblem first trims vertices with no in- or out-edges inside it (each is
+ * a trivial SCC), then picks a pivot: the vertices reachable both forward and
+ * backward from the pivot form its SCC, and the forward-only, backward-only and
+ * remaining vertex sets are independent subproblems solved in parallel on a
+ * fork-join pool. Small subproblems, and remainders that a pivot shrinks by less than
+ * a tenth, fall back to an iterative Tarjan.
+ * Requires the transpose of the graph.
+ */
+public class ParallelSCC {
+    private static final int SEQUENTIAL_THRESHOLD = 4_096;
+    private static final int STALL_DIVISOR = 10;
+    private static final int DONE = -1;
+
+    private Metrics metrics;
+    private ForkJoinPool pool;
+
+    public ParallelSCC() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelSCC(ForkJoinPool pool) {
+        this.metrics = new SimpleMetrics();
+        this.pool = pool;
+    }
+
+    /**
+     * Find all strongly connected components.
+     *
+     * @param graph     adjacency list representation
+     * @param transpose adjacency list of the reversed graph
+     * @return list of SCCs, where each SCC is a list of vertex indices
+     */
+    public List<List<Integer>> findSCCs(List<List<Integer>> graph, List<List<Integer>> transpose) {
+        return findComponents(graph, transpose).toLists();
+    }
+
+    /**
+     * Find all strongly connected components in compact form.
+     *
+     * @param graph     adjacency list representation
+     * @param transpose adjacency list of the reversed graph
+     * @return component ids and members, members in increasing vertex order
+     */
+    public SCCResult findComponents(List<List<Integer>> graph, List<List<Integer>> transpose) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("findSCCs", "ParallelSCC");
+
+        int n = graph.size();
+        Run run = new Run(graph, transpose);
+        int[] all = new int[n];
+        for (int v = 0; v < n; v++) {
+            all[v] = v;
+        }
+        if (n > 0) {
+            pool.invoke(run.new Task(all, run.nextColor()));
+        }
+
+        // Group vertices by component id with a counting sort
+        SCCResult result = SCCResult.fromComponentIds(run.componentOf, run.componentCount.get());
+
+        metrics.incrementCounter("trimmed", run.trimmed.get());
+        metrics.incrementCounter("pivots", run.pivots.get());
+        metrics.incrementCounter("sequential_subproblems", run.sequentialSubproblems.get());
+        metrics.stopTimer();
+        event.finish(graph, metrics);
+        return result;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Shared state of one run. Every vertex belongs to exactly one subproblem, identified
+     * by its color, so tasks write disjoint entries of the per-vertex arrays. A task may
+     * read the color of a neighbor owned by another task, but colors only ever change to
+     * fresh ids, so such a neighbor never appears to belong to the reading task.
+     */
+    private static class Run {
+        final List<List<Integer>> graph;
+        final List<List<Integer>> transpose;
+        final int[] color;
+        final int[] componentOf;
+        final int[] inDegree;
+        final int[] outDegree;
+        final int[] index;
+        final int[] lowlink;
+        final boolean[] onStack;
+        final AtomicInteger colors = new AtomicInteger();
+        final AtomicInteger componentCount = new AtomicInteger();
+        final AtomicInteger trimmed = new AtomicInteger();
+        final AtomicInteger pivots = new AtomicInteger();
+        final AtomicInteger sequentialSubproblems = new AtomicInteger();
+
+        Run(List<List<Integer>> graph, List<List<Integer>> transpose) {
+            int n = graph.size();
+            this.graph = graph;
+            this.transpose = transpose;
+            this.color = new int[n];
+            this.componentOf = new int[n];
+            this.inDegree = new int[n];
+            this.outDegree = new int[n];
+            this.index = new int[n];
+            this.lowlink = new int[n];
+            this.onStack = new boolean[n];
+        }
+
+        int nextColor() {
+            return colors.getAndIncrement();
+        }
+
+        void assign(int v, int component) {
+            componentOf[v] = component;
+            color[v] = DONE;
+        }
+
+        private class Task extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int[] vertices;
+            private final int myColor;
+
+            Task(int[] vertices, int myColor) {
+                this.vertices = vertices;
+                this.myColor = myColor;
+            }
+
+            @Override
+            protected void compute() {
+                // The forward and backward sets are forked; the remainder is handled in this
+                // loop, so a long run of small pivot SCCs does not nest tasks deeply
+                List<Task> forked = new ArrayList<>();
+                int[] current = vertices;
+                while (true) {
+                    int[] remaining = trim(current);
+                    if (remaining.length == 0) {
+                        break;
+                    }
+                    if (remaining.length <= SEQUENTIAL_THRESHOLD) {
+                        sequentialSubproblems.incrementAndGet();
+                        tarjan(remaining);
+                        break;
+                    }
+
+                    pivots.incrementAndGet();
+                    int pivot = remaining[0];
+                    int forwardColor = nextColor();
+                    int backwardColor = nextColor();
+                    int[] queue = new int[remaining.length];
+
+                    // Forward reachability inside the subproblem
+                    int tail = 0;
+                    color[pivot] = forwardColor;
+                    queue[tail++] = pivot;
+                    for (int head = 0; head < tail; head++) {
+                        for (int w : graph.get(queue[head])) {
+                            if (color[w] == myColor) {
+                                color[w] = forwardColor;
+                                queue[tail++] = w;
+                            }
+                        }
+                    }
+
+                    // Backward reachability: forward-colored vertices found here form the pivot's SCC
+                    int component = componentCount.getAndIncrement();
+                    tail = 0;
+                    assign(pivot, component);
+                    queue[tail++] = pivot;
+                    for (int head = 0; head < tail; head++) {
+                        for (int w : transpose.get(queue[head])) {
+                            if (color[w] == forwardColor) {
+                                assign(w, component);
+                                queue[tail++] = w;
+                            } else if (color[w] == myColor) {
+                                color[w] = backwardColor;
+                                queue[tail++] = w;
+                            }
+                        }
+                    }
+
+                    Task forward = new Task(select(remaining, forwardColor), forwardColor);
+                    Task backward = new Task(select(remaining, backwardColor), backwardColor);
+                    forward.fork();
+                    backward.fork();
+                    forked.add(forward);
+                    forked.add(backward);
+                    current = select(remaining, myColor);
+
+                    // A pivot that barely shrinks the set means many small SCCs; another
+                    // round would rescan nearly everything, so finish it sequentially
+                    if (current.length > remaining.length - remaining.length / STALL_DIVISOR) {
+                        sequentialSubproblems.incrementAndGet();
+                        tarjan(current);
+                        break;
+                    }
+                }
+                for (Task task : forked) {
+                    task.join();
+                }
+            }
+
+            /**
+             * Repeatedly remove vertices without in- or out-edges inside the subproblem.
+             */
+            private int[] trim(int[] vertices) {
+                int[] queue = new int[vertices.length];
+                int tail = 0;
+                for (int v : vertices) {
+                    int in = 0;
+                    for (int u : transpose.get(v)) {
+                        if (color[u] == myColor) {
+                            in++;
+                        }
+                    }
+                    int out = 0;
+                    for (int w : graph.get(v)) {
+                        if (color[w] == myColor) {
+                            out++;
+                        }
+                    }
+                    inDegree[v] = in;
+                    outDegree[v] = out;
+                }
+                for (int v : vertices) {
+                    if (inDegree[v] == 0 || outDegree[v] == 0) {
+                        assign(v, componentCount.getAndIncrement());
+                        queue[tail++] = v;
+                    }
+                }
+                for (int head = 0; head < tail; head++) {
+                    int v = queue[head];
+                    for (int w : graph.get(v)) {
+                        if (color[w] == myColor && --inDegree[w] == 0) {
+                            assign(w, componentCount.getAndIncrement());
+                            queue[tail++] = w;
+                        }
+                    }
+                    for (int u : transpose.get(v)) {
+                        if (color[u] == myColor && --outDegree[u] == 0) {
+                            assign(u, componentCount.getAndIncrement());
+                            queue[tail++] = u;
+                        }
+                    }
+                }
+                trimmed.addAndGet(tail);
+                return tail == 0 ? vertices : select(vertices, myColor);
+            }
+
+            private int[] select(int[] from, int wanted) {
+                int count = 0;
+                for (int v : from) {
+                    if (color[v] == wanted) {
+                        count++;
+                    }
+                }
+                int[] selected = new int[count];
+                int i = 0;
+                for (int v : from) {
+                    if (color[v] == wanted) {
+                        selected[i++] = v;
+                    }
+                }
+                return selected;
+            }
+
+            /**
+             * Iterative Tarjan restricted to the vertices of this subproblem.
+             */
+            private void tarjan(int[] subset) {
+                int size = subset.length;
+                int[] callStack = new int[size];
+                int[] edgePos = new int[size];
+                int[] sccStack = new int[size];
+                int counter = 0;
+                for (int v : subset) {
+                    index[v] = 0;
+                }
+
+                for (int start : subset) {
+                    if (index[start] != 0) {
+                        continue;
+                    }
+                    int sp = 0;
+                    int top = 0;
+                    index[start] = lowlink[start] = ++counter;
+                    callStack[sp] = start;
+                    edgePos[sp++] = 0;
+                    sccStack[top++] = start;
+                    onStack[start] = true;
+
+                    while (sp > 0) {
+                        int v = callStack[sp - 1];
+                        List<Integer> neighbors = graph.get(v);
+                        if (edgePos[sp - 1] < neighbors.size()) {
+                            int w = neighbors.get(edgePos[sp - 1]++);
+                            if (color[w] != myColor) {
+                                continue;
+                            }
+                            if (index[w] == 0) {
+                                index[w] = lowlink[w] = ++counter;
+                                callStack[sp] = w;
+                                edgePos[sp++] = 0;
+                                sccStack[top++] = w;
+                                onStack[w] = true;
+                            } else if (onStack[w]) {
+                                lowlink[v] = Math.min(lowlink[v], index[w]);
+                            }
+                            continue;
+                        }
+
+                        sp--;
+                        if (sp > 0) {
+                            int parent = callStack[sp - 1];
+                            lowlink[parent] = Math.min(lowlink[parent], lowlink[v]);
+                        }
+                        if (lowlink[v] == index[v]) {
+                            // Finished members leave the subproblem, so later edges to them are skipped
+                            int component = componentCount.getAndIncrement();
+                            int w;
+                            do {
+                                w = sccStack[--top];
+                                onStack[w] = false;
+                                assign(w, component);
+                            } while (w != v);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package graph.scc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Strongly connected components in flat arrays: the component id of every vertex,
+ * and the members of component c at positions offsets[c] .. offsets[c + 1] - 1 of
+ * members, in the order the engine emitted them. Holds no boxed integers, so a graph
+ * with millions of vertices costs three int arrays instead of one Integer per vertex.
+ * Arrays are shared, not copied, and must not be modified.
+ */
+public class SCCResult {
+    private final int[] componentOf;
+    private final int[] offsets;
+    private final int[] members;
+
+    public SCCResult(int[] componentOf, int[] offsets, int[] members) {
+        this.componentOf = componentOf;
+        this.offsets = offsets;
+        this.members = members;
+    }
+
+    /**
+     * Build from the list form returned by {@code findSCCs}.
+     *
+     * @param sccs list of SCCs, where each SCC is a list of vertex indices
+     * @param n    number of vertices
+     * @return compact result with the same component ids and member order
+     */
+    public static SCCResult fromLists(List<List<Integer>> sccs, int n) {
+        int[] componentOf = new int[n];
+        int[] offsets = new int[sccs.size() + 1];
+        int[] members = new int[n];
+        int position = 0;
+        for (int c = 0; c < sccs.size(); c++) {
+            for (int v : sccs.get(c)) {
+                componentOf[v] = c;
+                members[position++] = v;
+            }
+            offsets[c + 1] = position;
+        }
+        return new SCCResult(componentOf, offsets, position == n ? members : Arrays.copyOf(members, position));
+    }
+
+    /**
+     * Build from component ids alone; members are grouped with a counting sort,
+     * in increasing vertex order within each component.
+     *
+     * @param componentOf component id of every vertex
+     * @param count       number of components
+     * @return compact result
+     */
+    public static SCCResult fromComponentIds(int[] componentOf, int count) {
+        int n = componentOf.length;
+        int[] offsets = new int[count + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[componentOf[v] + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] cursor = Arrays.copyOf(offsets, count);
+        int[] members = new int[n];
+        for (int v = 0; v < n; v++) {
+            members[cursor[componentOf[v]]++] = v;
+        }
+        return new SCCResult(componentOf, offsets, members);
+    }
+
+    public int getComponentCount() {
+        return offsets.length - 1;
+    }
+
+    public int getVertexCount() {
+        return componentOf.length;
+    }
+
+    public int getComponentOf(int v) {
+        return componentOf[v];
+    }
+
+    public int getSize(int component) {
+        return offsets[component + 1] - offsets[component];
+    }
+
+    /**
+     * The members of one component as a list, for reporting.
+     */
+    public List<Integer> getComponent(int component) {
+        List<Integer> list = new ArrayList<>(getSize(component));
+        for (int i = offsets[component]; i < offsets[component + 1]; i++) {
+            list.add(members[i]);
+        }
+        return list;
+    }
+
+    public int[] getComponentOf() {
+        return componentOf;
+    }
+
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public int[] getMembers() {
+        return members;
+    }
+
+    /**
+     * The list form returned by {@code findSCCs}.
+     *
+     * @return list of SCCs, where each SCC is a list of vertex indices
+     */
+    public List<List<Integer>> toLists() {
+        int count = getComponentCount();
+        List<List<Integer>> sccs = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            sccs.add(getComponent(c));
+        }
+        return sccs;
+    }
+}
@@ -0,0 +1,164 @@
+package graph.scc;
+
+import metrics.Metrics;
+import metrics.SimpleMetrics;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Picks an SCC engine from the measured shape of the graph and runs it.
+ * <ul>
+ *   <li>Tarjan for small graphs: one iterative DFS pass and no transpose, so it is safe
+ *       on deep graphs and pool threads; above the threshold its per-edge list reads lose
+ *       to the engines below.</li>
+ *   <li>Parallel FW-BW with more than one worker on large graphs where trimming removes
+ *       many trivial SCCs or a skewed degree distribution suggests one giant SCC.</li>
+ *   <li>Kosaraju otherwise: iterative, two linear passes over the graph and its transpose.</li>
+ * </ul>
+ * The measured shape, the chosen engine and the timings are recorded as counters
+ * (ratios in parts per thousand).
+ */
+public class SCCSelector {
+    public enum Engine {
+        TARJAN, KOSARAJU, PARALLEL
+    }
+
+    static final int TARJAN_MAX_VERTICES = 10_000;
+    static final int PARALLEL_MIN_VERTICES = 100_000;
+    static final long PARALLEL_MIN_TRIVIAL_PERMILLE = 250;
+    static final long PARALLEL_MIN_SKEW = 32;
+
+    private Metrics metrics;
+    private ForkJoinPool pool;
+    private Metrics engineMetrics;
+
+    public SCCSelector() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SCCSelector(ForkJoinPool pool) {
+        this.metrics = new SimpleMetrics();
+        this.pool = pool;
+    }
+
+    /**
+     * Measure the graph, choose an engine and find all strongly connected components.
+     *
+     * @param graph     adjacency list representation
+     * @param transpose adjacency list of the reversed graph
+     * @return list of SCCs, where each SCC is a list of vertex indices
+     */
+    public List<List<Integer>> findSCCs(List<List<Integer>> graph, List<List<Integer>> transpose) {
+        return findComponents(graph, transpose).toLists();
+    }
+
+    /**
+     * Measure the graph, choose an engine and find all strongly connected components in compact form.
+     *
+     * @param graph     adjacency list representation
+     * @param transpose adjacency list of the reversed graph
+     * @return component ids and members
+     */
+    public SCCResult findComponents(List<List<Integer>> graph, List<List<Integer>> transpose) {
+        metrics.reset();
+        metrics.startTimer();
+
+        long start = System.nanoTime();
+        Engine engine = select(graph, transpose);
+        metrics.incrementCounter("select_time_ns", System.nanoTime() - start);
+        metrics.incrementCounter("engine_" + engine.name().toLowerCase());
+
+        start = System.nanoTime();
+        SCCResult components = runComponents(engine, graph, transpose);
+        metrics.incrementCounter("engine_time_ns", System.nanoTime() - start);
+        metrics.incrementCounter("components", components.getComponentCount());
+
+        metrics.stopTimer();
+        return components;
+    }
+
+    /**
+     * Run a specific engine, bypassing the selection rules.
+     */
+    public List<List<Integer>> run(Engine engine, List<List<Integer>> graph, List<List<Integer>> transpose) {
+        return runComponents(engine, graph, transpose).toLists();
+    }
+
+    /**
+     * Run a specific engine in compact form, bypassing the selection rules.
+     */
+    public SCCResult runComponents(Engine engine, List<List<Integer>> graph, List<List<Integer>> transpose) {
+        switch (engine) {
+            case TARJAN: {
+                TarjanSCC tarjan = new TarjanSCC();
+                SCCResult components = tarjan.findComponents(graph);
+                engineMetrics = tarjan.getMetrics();
+                return components;
+            }
+            case PARALLEL: {
+                ParallelSCC parallel = new ParallelSCC(pool);
+                SCCResult components = parallel.findComponents(graph, transpose);
+                engineMetrics = parallel.getMetrics();
+                return components;
+            }
+            default: {
+                KosarajuSCC kosaraju = new KosarajuSCC();
+                SCCResult components = kosaraju.findComponents(graph, transpose);
+                engineMetrics = kosaraju.getMetrics();
+                return components;
+            }
+        }
+    }
+
+    /**
+     * Choose an engine from n, m, degree skew and the fraction of vertices removed by
+     * one round of trimming (no in-edges or no out-edges, hence trivial SCCs).
+     *
+     * @param graph     adjacency list representation
+     * @param transpose adjacency list of the reversed graph
+     * @return the engine the selection rules pick for this graph
+     */
+    public Engine select(List<List<Integer>> graph, List<List<Integer>> transpose) {
+        int n = graph.size();
+        long m = 0;
+        int maxOutDegree = 0;
+        long trivial = 0;
+        for (int v = 0; v < n; v++) {
+            int outDegree = graph.get(v).size();
+            m += outDegree;
+            maxOutDegree = Math.max(maxOutDegree, outDegree);
+            if (outDegree == 0 || transpose.get(v).isEmpty()) {
+                trivial++;
+            }
+        }
+        long trivialPermille = n == 0 ? 0 : trivial * 1000 / n;
+        long skew = m == 0 ? 0 : (long) maxOutDegree * n / m;
+
+        metrics.incrementCounter("n", n);
+        metrics.incrementCounter("m", m);
+        metrics.incrementCounter("max_out_degree", maxOutDegree);
+        metrics.incrementCounter("degree_skew", skew);
+        metrics.incrementCounter("trivial_permille", trivialPermille);
+
+        if (n <= TARJAN_MAX_VERTICES) {
+            return Engine.TARJAN;
+        }
+        if (pool.getParallelism() >= 2 && n >= PARALLEL_MIN_VERTICES
+                && (trivialPermille >= PARALLEL_MIN_TRIVIAL_PERMILLE || skew >= PARALLEL_MIN_SKEW)) {
+            return Engine.PARALLEL;
+        }
+        return Engine.KOSARAJU;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Metrics of the engine used by the last run.
+     */
+    public Metrics getEngineMetrics() {
+        return engineMetrics;
+    }
+}
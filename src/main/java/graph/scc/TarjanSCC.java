@@ -1,29 +1,28 @@
 package graph.scc;
 
 import metrics.Metrics;
+import metrics.PhaseEvent;
 import metrics.SimpleMetrics;
+import model.AdjacencyGraph;
+import model.NeighborCursor;
 
 import java.util.*;
 
 /**
  * Implementation of Tarjan's algorithm for finding Strongly Connected Components (SCC).
+ * The static entry point keeps all per-call state in a {@link Workspace}, so a single
+ * graph can be searched from many threads at once; each thread reuses its own workspace
+ * and repeated calls only allocate the returned components.
  */
 public class TarjanSCC {
     private Metrics metrics;
-    private List<List<Integer>> graph;
-    private int[] index;
-    private int[] lowlink;
-    private boolean[] onStack;
-    private Stack<Integer> stack;
-    private int currentIndex;
-    private List<List<Integer>> components;
 
     public TarjanSCC() {
         this.metrics = new SimpleMetrics();
     }
 
     /**
-     * Find all strongly connected components in the graph.
+     * Find all strongly connected components in the graph, recording into this engine's metrics.
      *
      * @param graph adjacency list representation
      * @return list of SCCs, where each SCC is a list of vertex indices
@@ -31,59 +30,243 @@ public class TarjanSCC {
     public List<List<Integer>> findSCCs(List<List<Integer>> graph) {
         metrics.reset();
         metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("findSCCs", "TarjanSCC");
+        List<List<Integer>> components = findSCCs(graph, Workspace.forCurrentThread(), metrics);
+        metrics.stopTimer();
+        event.finish(graph, metrics);
+        return components;
+    }
 
-        this.graph = graph;
-        int n = graph.size();
-        this.index = new int[n];
-        this.lowlink = new int[n];
-        this.onStack = new boolean[n];
-        this.stack = new Stack<>();
-        this.currentIndex = 0;
-        this.components = new ArrayList<>();
+    /**
+     * Find all strongly connected components in compact form, recording into this engine's metrics.
+     *
+     * @param graph adjacency list representation
+     * @return component ids and members, in the same order as {@link #findSCCs(List)}
+     */
+    public SCCResult findComponents(List<List<Integer>> graph) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("findSCCs", "TarjanSCC");
+        SCCResult result = findComponents(graph, Workspace.forCurrentThread(), metrics);
+        metrics.stopTimer();
+        event.finish(graph, metrics);
+        return result;
+    }
 
-        Arrays.fill(index, -1);
+    /**
+     * Find all strongly connected components using caller-supplied scratch space.
+     * Thread-safe as long as each thread passes its own workspace and metrics.
+     *
+     * @param graph     adjacency list representation
+     * @param workspace scratch arrays, grown to the graph size on demand
+     * @param metrics   receives DFS_visits and edge_explorations (e.g. {@link metrics.NoOpMetrics#INSTANCE})
+     * @return list of SCCs, where each SCC is a list of vertex indices
+     */
+    public static List<List<Integer>> findSCCs(List<List<Integer>> graph, Workspace workspace, Metrics metrics) {
+        return findComponents(graph, workspace, metrics).toLists();
+    }
+
+    /**
+     * Find all strongly connected components in compact form using caller-supplied scratch
+     * space. Only the three result arrays are allocated. The DFS is iterative, with the
+     * next edge of every open vertex kept in the workspace, so the search depth is bounded
+     * by the graph size rather than by the calling thread's stack.
+     *
+     * @param graph     adjacency list representation
+     * @param workspace scratch arrays, grown to the graph size on demand
+     * @param metrics   receives DFS_visits and edge_explorations (e.g. {@link metrics.NoOpMetrics#INSTANCE})
+     * @return component ids and members in the order components are completed
+     */
+    public static SCCResult findComponents(List<List<Integer>> graph, Workspace workspace, Metrics metrics) {
+        int n = graph.size();
+        workspace.ensureCapacity(n);
+        Arrays.fill(workspace.index, 0, n, -1);
+        workspace.currentIndex = 0;
+        workspace.top = 0;
+        workspace.visits = 0;
+        workspace.edges = 0;
 
+        Output out = new Output(n);
+        int[] callStack = workspace.callStack;
+        int[] nextEdge = workspace.nextEdge;
         for (int i = 0; i < n; i++) {
-            if (index[i] == -1) {
-                metrics.incrementCounter("DFS_visits");
-                strongConnect(i);
+            if (workspace.index[i] != -1) {
+                continue;
+            }
+            workspace.visits++;
+            int depth = 0;
+            enter(i, workspace);
+            callStack[depth] = i;
+            nextEdge[depth++] = 0;
+
+            while (depth > 0) {
+                int v = callStack[depth - 1];
+                List<Integer> neighbors = graph.get(v);
+                if (nextEdge[depth - 1] < neighbors.size()) {
+                    int w = neighbors.get(nextEdge[depth - 1]++);
+                    workspace.edges++;
+                    if (workspace.index[w] == -1) {
+                        enter(w, workspace);
+                        callStack[depth] = w;
+                        nextEdge[depth++] = 0;
+                    } else if (workspace.onStack[w]) {
+                        workspace.lowlink[v] = Math.min(workspace.lowlink[v], workspace.index[w]);
+                    }
+                    continue;
+                }
+
+                if (workspace.lowlink[v] == workspace.index[v]) {
+                    complete(v, workspace, out);
+                }
+                depth--;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    workspace.lowlink[parent] = Math.min(workspace.lowlink[parent], workspace.lowlink[v]);
+                }
             }
         }
 
+        metrics.incrementCounter("DFS_visits", workspace.visits);
+        metrics.incrementCounter("edge_explorations", workspace.edges);
+        return new SCCResult(out.componentOf, Arrays.copyOf(out.offsets, out.count + 1), out.members);
+    }
+
+    /**
+     * Find all strongly connected components of a cursor-backed graph, such as a
+     * {@link model.CompressedGraph}, recording into this engine's metrics.
+     *
+     * @param graph graph read through neighbor cursors
+     * @return component ids and members in the order components are completed
+     */
+    public SCCResult findComponents(AdjacencyGraph graph) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("findSCCs", "TarjanSCC");
+        SCCResult result = findComponents(graph, Workspace.forCurrentThread(), metrics);
         metrics.stopTimer();
-        return components;
+        event.finish(graph.getVertexCount(), metrics.getCounter("edge_explorations"), metrics);
+        return result;
     }
 
     /**
-     * Recursive DFS for Tarjan's algorithm.
+     * Find all strongly connected components of a cursor-backed graph using caller-supplied
+     * scratch space. The DFS is iterative with one cursor per depth, so lists are decoded
+     * lazily and deep graphs need no large thread stack. Cursors are local to the call, so a
+     * pooled workspace never keeps the graph reachable. Components come out in the same
+     * order as the search over lists with the same neighbor order.
+     *
+     * @param graph     graph read through neighbor cursors
+     * @param workspace scratch arrays, grown to the graph size on demand
+     * @param metrics   receives DFS_visits and edge_explorations (e.g. {@link metrics.NoOpMetrics#INSTANCE})
+     * @return component ids and members in the order components are completed
      */
-    private void strongConnect(int v) {
-        index[v] = currentIndex;
-        lowlink[v] = currentIndex;
-        currentIndex++;
-        stack.push(v);
-        onStack[v] = true;
-        metrics.incrementCounter("DFS_visits");
-
-        for (int w : graph.get(v)) {
-            metrics.incrementCounter("edge_explorations");
-            if (index[w] == -1) {
-                strongConnect(w);
-                lowlink[v] = Math.min(lowlink[v], lowlink[w]);
-            } else if (onStack[w]) {
-                lowlink[v] = Math.min(lowlink[v], index[w]);
+    public static SCCResult findComponents(AdjacencyGraph graph, Workspace workspace, Metrics metrics) {
+        int n = graph.getVertexCount();
+        workspace.ensureCapacity(n);
+        Arrays.fill(workspace.index, 0, n, -1);
+        workspace.currentIndex = 0;
+        workspace.top = 0;
+        workspace.visits = 0;
+        workspace.edges = 0;
+        NeighborCursor[] cursors = new NeighborCursor[Math.min(n, 64)];
+
+        Output out = new Output(n);
+        int[] callStack = workspace.callStack;
+        for (int i = 0; i < n; i++) {
+            if (workspace.index[i] != -1) {
+                continue;
             }
+            workspace.visits++;
+            int depth = 0;
+            enter(i, workspace);
+            callStack[depth] = i;
+            cursors = cursorAt(graph, cursors, depth);
+            cursors[depth++].reset(i);
+
+            while (depth > 0) {
+                int v = callStack[depth - 1];
+                NeighborCursor cursor = cursors[depth - 1];
+                if (cursor.hasNext()) {
+                    int w = cursor.next();
+                    workspace.edges++;
+                    if (workspace.index[w] == -1) {
+                        enter(w, workspace);
+                        callStack[depth] = w;
+                        cursors = cursorAt(graph, cursors, depth);
+                        cursors[depth++].reset(w);
+                    } else if (workspace.onStack[w]) {
+                        workspace.lowlink[v] = Math.min(workspace.lowlink[v], workspace.index[w]);
+                    }
+                    continue;
+                }
+
+                if (workspace.lowlink[v] == workspace.index[v]) {
+                    complete(v, workspace, out);
+                }
+                depth--;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    workspace.lowlink[parent] = Math.min(workspace.lowlink[parent], workspace.lowlink[v]);
+                }
+            }
+        }
+
+        metrics.incrementCounter("DFS_visits", workspace.visits);
+        metrics.incrementCounter("edge_explorations", workspace.edges);
+        return new SCCResult(out.componentOf, Arrays.copyOf(out.offsets, out.count + 1), out.members);
+    }
+
+    /**
+     * The cursor array, with a cursor created for the given DFS depth if needed.
+     */
+    private static NeighborCursor[] cursorAt(AdjacencyGraph graph, NeighborCursor[] cursors, int depth) {
+        if (depth >= cursors.length) {
+            cursors = Arrays.copyOf(cursors, Math.max(depth + 1, cursors.length * 2));
+        }
+        if (cursors[depth] == null) {
+            cursors[depth] = graph.newCursor();
         }
+        return cursors;
+    }
+
+    private static void enter(int v, Workspace ws) {
+        ws.index[v] = ws.currentIndex;
+        ws.lowlink[v] = ws.currentIndex;
+        ws.currentIndex++;
+        ws.stack[ws.top++] = v;
+        ws.onStack[v] = true;
+        ws.visits++;
+    }
+
+    /**
+     * Pop the component rooted at v off the Tarjan stack.
+     */
+    private static void complete(int v, Workspace ws, Output out) {
+        int component = out.count++;
+        int position = out.offsets[component];
+        int w;
+        do {
+            w = ws.stack[--ws.top];
+            ws.onStack[w] = false;
+            out.componentOf[w] = component;
+            out.members[position++] = w;
+        } while (w != v);
+        out.offsets[component + 1] = position;
+    }
+
+    /**
+     * Result arrays of one search; components are appended as they complete.
+     */
+    private static class Output {
+        final int[] componentOf;
+        final int[] offsets;
+        final int[] members;
+        int count;
 
-        if (lowlink[v] == index[v]) {
-            List<Integer> component = new ArrayList<>();
-            int w;
-            do {
-                w = stack.pop();
-                onStack[w] = false;
-                component.add(w);
-            } while (w != v);
-            components.add(component);
+        Output(int n) {
+            componentOf = new int[n];
+            offsets = new int[n + 1];
+            members = new int[n];
         }
     }
 
@@ -97,49 +280,93 @@ public class TarjanSCC {
     public List<List<Integer>> buildCondensationGraph(
             List<List<Integer>> originalGraph,
             List<List<Integer>> sccs) {
+        return buildCondensationGraph(originalGraph, SCCResult.fromLists(sccs, originalGraph.size()));
+    }
 
+    /**
+     * Build the condensation graph (DAG of SCCs) from a compact result.
+     * Each component's out-edges are listed in the order they first appear when
+     * scanning vertices by increasing id; duplicates are dropped with a per-target
+     * stamp instead of a set of edge keys.
+     *
+     * @param originalGraph original adjacency list
+     * @param sccs          strongly connected components
+     * @return condensation graph as adjacency list (component indices)
+     */
+    public List<List<Integer>> buildCondensationGraph(List<List<Integer>> originalGraph, SCCResult sccs) {
         metrics.startTimer();
-        int n = sccs.size();
+        PhaseEvent event = PhaseEvent.begin("buildCondensationGraph", "TarjanSCC");
+        int count = sccs.getComponentCount();
+        int[] componentOf = sccs.getComponentOf();
 
-        // Map each vertex to its component index
-        int[] vertexToComponent = new int[originalGraph.size()];
-        for (int i = 0; i < sccs.size(); i++) {
-            for (int vertex : sccs.get(i)) {
-                vertexToComponent[vertex] = i;
-            }
-        }
-
-        // Build condensation graph
-        List<List<Integer>> condensation = new ArrayList<>();
-        Set<String> edgeSet = new HashSet<>();
+        // Members by increasing vertex id, so each component sees its edges in vertex order
+        SCCResult byVertex = SCCResult.fromComponentIds(componentOf, count);
+        int[] offsets = byVertex.getOffsets();
+        int[] members = byVertex.getMembers();
 
-        for (int i = 0; i < n; i++) {
-            condensation.add(new ArrayList<>());
-        }
-
-        for (int i = 0; i < originalGraph.size(); i++) {
-            int fromComponent = vertexToComponent[i];
-            for (int neighbor : originalGraph.get(i)) {
-                int toComponent = vertexToComponent[neighbor];
-                if (fromComponent != toComponent) {
-                    String edgeKey = fromComponent + "," + toComponent;
-                    if (!edgeSet.contains(edgeKey)) {
-                        edgeSet.add(edgeKey);
-                        condensation.get(fromComponent).add(toComponent);
-                        metrics.incrementCounter("condensation_edges");
+        List<List<Integer>> condensation = new ArrayList<>(count);
+        int[] lastSource = new int[count];
+        Arrays.fill(lastSource, -1);
+        long edges = 0;
+        for (int c = 0; c < count; c++) {
+            List<Integer> targets = new ArrayList<>();
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                for (int neighbor : originalGraph.get(members[i])) {
+                    int d = componentOf[neighbor];
+                    if (d != c && lastSource[d] != c) {
+                        lastSource[d] = c;
+                        targets.add(d);
+                        edges++;
                     }
                 }
             }
+            condensation.add(targets);
         }
+        metrics.incrementCounter("condensation_edges", edges);
 
         metrics.stopTimer();
+        event.finish(originalGraph, metrics);
         return condensation;
     }
 
     public Metrics getMetrics() {
         return metrics;
     }
-}
 
+    /**
+     * Thread-confined scratch space for {@link #findSCCs(List, Workspace, Metrics)}.
+     * Arrays only grow, so a workspace sized for the largest graph never reallocates.
+     */
+    public static final class Workspace {
+        private static final ThreadLocal<Workspace> POOL = ThreadLocal.withInitial(Workspace::new);
+
+        private int[] index = new int[0];
+        private int[] lowlink = new int[0];
+        private int[] stack = new int[0];
+        private boolean[] onStack = new boolean[0];
+        private int[] callStack = new int[0];
+        private int[] nextEdge = new int[0];
+        private int currentIndex;
+        private int top;
+        private long visits;
+        private long edges;
 
+        /**
+         * The calling thread's pooled workspace.
+         */
+        public static Workspace forCurrentThread() {
+            return POOL.get();
+        }
 
+        void ensureCapacity(int n) {
+            if (index.length < n) {
+                index = new int[n];
+                lowlink = new int[n];
+                stack = new int[n];
+                onStack = new boolean[n];
+                callStack = new int[n];
+                nextEdge = new int[n];
+            }
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package graph.shard;
+
+import metrics.Metrics;
+import metrics.PhaseEvent;
+import metrics.SimpleMetrics;
+import model.CsrGraph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Ancestor and descendant cones of a vertex set: every vertex reachable from a seed (or that
+ * reaches one), seeds included. Impact analysis ("everything downstream of this delayed task",
+ * "everything that must finish before X") needs only this set, not distances.
+ *
+ * <p>The search is a level-synchronous direction-optimizing BFS over bitset frontiers. A
+ * top-down level scans the edges of frontier vertices and claims unvisited neighbors with a
+ * compare-and-set on the visited bitset. A bottom-up level scans, for every unvisited vertex,
+ * its edges in the opposite direction until one leads into the frontier; each task owns a
+ * range of bitset words, so no atomics are needed beyond publishing the words. The search
+ * switches to bottom-up when the frontier's edges exceed a fraction of the edges still to be
+ * checked, and back once the frontier is small and shrinking. Levels are split into word
+ * ranges run on a fork-join pool.
+ *
+ * <p>The resulting {@link Cone} converts to an induced {@link CsrGraph} in local ids, which
+ * the SCC, topological sort and path engines take directly.
+ */
+public class ConeQuery {
+    /**
+     * Which side of the seeds to collect.
+     */
+    public enum Direction {
+        /** Vertices reachable from a seed along out-edges. */
+        DESCENDANTS,
+        /** Vertices that reach a seed, i.e. reachable along in-edges. */
+        ANCESTORS
+    }
+
+    /**
+     * How each BFS level is expanded.
+     */
+    public enum Strategy {
+        /** Always scan out of the frontier. */
+        TOP_DOWN,
+        /** Always scan into the frontier from unvisited vertices. */
+        BOTTOM_UP,
+        /** Switch per level on frontier and unexplored edge counts. */
+        AUTO
+    }
+
+    // Switch to bottom-up when frontier edges exceed unexplored edges / ALPHA, and back to
+    // top-down when the frontier is below n / BETA vertices and shrinking
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int WORDS_PER_TASK = 256;
+
+    private Metrics metrics;
+    private ForkJoinPool pool;
+
+    public ConeQuery() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ConeQuery(ForkJoinPool pool) {
+        this.metrics = new SimpleMetrics();
+        this.pool = pool;
+    }
+
+    /**
+     * Vertices reachable from any seed, seeds included.
+     *
+     * @param graph CSR graph
+     * @param seeds seed vertices
+     * @return descendant cone
+     */
+    public Cone descendants(CsrGraph graph, int... seeds) {
+        return cone(graph, seeds, Direction.DESCENDANTS, Strategy.AUTO);
+    }
+
+    /**
+     * Vertices from which some seed is reachable, seeds included.
+     *
+     * @param graph CSR graph
+     * @param seeds seed vertices
+     * @return ancestor cone
+     */
+    public Cone ancestors(CsrGraph graph, int... seeds) {
+        return cone(graph, seeds, Direction.ANCESTORS, Strategy.AUTO);
+    }
+
+    /**
+     * Cone of a seed set in the given direction with an explicit level strategy.
+     *
+     * @param graph     CSR graph
+     * @param seeds     seed vertices
+     * @param direction descendants or ancestors
+     * @param strategy  level expansion strategy
+     * @return cone of the seeds
+     * @throws IllegalArgumentException if a seed is not a vertex of the graph
+     */
+    public Cone cone(CsrGraph graph, int[] seeds, Direction direction, Strategy strategy) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("cone", "ConeQuery");
+
+        int n = graph.getVertexCount();
+        boolean forward = direction == Direction.DESCENDANTS;
+        // Top-down follows the scan direction; bottom-up checks the opposite adjacency
+        Search search = new Search(n, !forward,
+                forward ? graph.getOutOffsets() : graph.getInOffsets(),
+                forward ? graph.getTargets() : graph.getSources(),
+                forward ? graph.getInOffsets() : graph.getOutOffsets(),
+                forward ? graph.getSources() : graph.getTargets());
+
+        long frontierSize = 0;
+        long frontierEdges = 0;
+        long unexploredEdges = graph.getEdgeCount();
+        for (int seed : seeds) {
+            if (seed < 0 || seed >= n) {
+                throw new IllegalArgumentException("Seed " + seed + " is not a vertex of a graph with " + n + " vertices");
+            }
+            long word = search.visited.getPlain(seed >>> 6);
+            if ((word & (1L << seed)) == 0) {
+                search.visited.setPlain(seed >>> 6, word | (1L << seed));
+                frontierSize++;
+                frontierEdges += search.degree(seed);
+                unexploredEdges -= search.backDegree(seed);
+            }
+        }
+        long size = frontierSize;
+
+        boolean bottomUp = strategy == Strategy.BOTTOM_UP;
+        long previousSize = 0;
+        int levels = 0;
+        int bottomUpLevels = 0;
+        long scanned = 0;
+        while (frontierSize > 0) {
+            if (strategy == Strategy.AUTO) {
+                if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                    bottomUp = true;
+                } else if (bottomUp && frontierSize < n / BETA && frontierSize < previousSize) {
+                    bottomUp = false;
+                }
+            }
+            if (bottomUp) {
+                run(search.tasks, search::bottomUp);
+                bottomUpLevels++;
+            } else {
+                run(search.tasks, search::topDown);
+            }
+            previousSize = frontierSize;
+            frontierSize = 0;
+            frontierEdges = 0;
+            for (int t = 0; t < search.tasks; t++) {
+                frontierSize += search.found[t];
+                frontierEdges += search.foundEdges[t];
+                unexploredEdges -= search.foundBackEdges[t];
+                scanned += search.scanned[t];
+            }
+            size += frontierSize;
+            levels++;
+        }
+
+        long[] bits = new long[search.words];
+        for (int w = 0; w < search.words; w++) {
+            bits[w] = search.visited.getPlain(w);
+        }
+        Cone cone = new Cone(graph, bits, (int) size);
+
+        metrics.incrementCounter("cone_size", size);
+        metrics.incrementCounter("levels", levels);
+        metrics.incrementCounter("bottom_up_levels", bottomUpLevels);
+        metrics.incrementCounter("edges_scanned", scanned);
+        metrics.stopTimer();
+        event.finish(n, graph.getEdgeCount(), metrics);
+        return cone;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    private void run(int tasks, IntConsumer level) {
+        if (tasks == 1) {
+            level.accept(0);
+            return;
+        }
+        pool.submit(() -> IntStream.range(0, tasks).parallel().forEach(level)).join();
+    }
+
+    /**
+     * Bitsets and per-task counters of one search. Each task owns a range of WORDS_PER_TASK
+     * bitset words: it is the only writer of its words
+     * of expanded and of its counters, and, in bottom-up levels, of its words of visited.
+     * The frontier is not stored: it is the visited vertices not yet expanded. Only
+     * reachability matters, so levels need not be exact: a vertex claimed in a word its owner
+     * has not reached yet is expanded in the same level, otherwise in the next.
+     */
+    private static class Search {
+        final int n;
+        final int words;
+        final int tasks;
+        final boolean descending;
+        final int[] offsets;
+        final int[] adjacent;
+        final int[] backOffsets;
+        final int[] backAdjacent;
+        final AtomicLongArray visited;
+        final long[] expanded;
+        final long[] found;
+        final long[] foundEdges;
+        final long[] foundBackEdges;
+        final long[] scanned;
+
+        Search(int n, boolean descending, int[] offsets, int[] adjacent, int[] backOffsets, int[] backAdjacent) {
+            this.n = n;
+            this.descending = descending;
+            this.words = (n + 63) >>> 6;
+            this.tasks = Math.max(1, (words + WORDS_PER_TASK - 1) / WORDS_PER_TASK);
+            this.offsets = offsets;
+            this.adjacent = adjacent;
+            this.backOffsets = backOffsets;
+            this.backAdjacent = backAdjacent;
+            this.visited = new AtomicLongArray(words);
+            this.expanded = new long[words];
+            this.found = new long[tasks];
+            this.foundEdges = new long[tasks];
+            this.foundBackEdges = new long[tasks];
+            this.scanned = new long[tasks];
+        }
+
+        int degree(int v) {
+            return offsets[v + 1] - offsets[v];
+        }
+
+        int backDegree(int v) {
+            return backOffsets[v + 1] - backOffsets[v];
+        }
+
+        /**
+         * i-th word of a task's range in scan order; tasks also take ranges in that order. Ids often follow a topological order
+         * (see VertexRelabeling), so ancestor searches scan down and descendant searches up:
+         * a vertex claimed ahead of the scan is then expanded in the same level.
+         */
+        int word(int first, int count, int i) {
+            return descending ? first + count - 1 - i : first + i;
+        }
+
+        /**
+         * Expand the unexpanded visited vertices in task t's words; neighbors may lie in any
+         * word, so they are claimed with compare-and-set.
+         */
+        void topDown(int t) {
+            long newVertices = 0;
+            long newEdges = 0;
+            long newBackEdges = 0;
+            long edges = 0;
+            int first = (descending ? tasks - 1 - t : t) * WORDS_PER_TASK;
+            int count = Math.min(words, first + WORDS_PER_TASK) - first;
+            for (int i = 0; i < count; i++) {
+                int w = word(first, count, i);
+                long bits = visited.get(w) & ~expanded[w];
+                expanded[w] |= bits;
+                while (bits != 0) {
+                    int u = (w << 6) | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    edges += offsets[u + 1] - offsets[u];
+                    for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                        int v = adjacent[e];
+                        if (claim(v)) {
+                            newVertices++;
+                            newEdges += degree(v);
+                            newBackEdges += backDegree(v);
+                        }
+                    }
+                }
+            }
+            found[t] = newVertices;
+            foundEdges[t] = newEdges;
+            foundBackEdges[t] = newBackEdges;
+            scanned[t] = edges;
+        }
+
+        /**
+         * Visit the unvisited vertices of task t's words that have an edge from any visited
+         * vertex. Every vertex visited before the level has had all its edges checked by the
+         * end of it, so those vertices count as expanded.
+         */
+        void bottomUp(int t) {
+            long newVertices = 0;
+            long newEdges = 0;
+            long newBackEdges = 0;
+            long edges = 0;
+            int first = (descending ? tasks - 1 - t : t) * WORDS_PER_TASK;
+            int count = Math.min(words, first + WORDS_PER_TASK) - first;
+            for (int i = 0; i < count; i++) {
+                int w = word(first, count, i);
+                long seen = visited.getPlain(w);
+                expanded[w] = seen;
+                long unvisited = ~seen;
+                if (w == words - 1 && (n & 63) != 0) {
+                    unvisited &= (1L << (n & 63)) - 1;
+                }
+                long added = 0;
+                while (unvisited != 0) {
+                    long bit = unvisited & -unvisited;
+                    unvisited ^= bit;
+                    int v = (w << 6) | Long.numberOfTrailingZeros(bit);
+                    for (int e = backOffsets[v]; e < backOffsets[v + 1]; e++) {
+                        edges++;
+                        int u = backAdjacent[e];
+                        if ((visited.getPlain(u >>> 6) & (1L << u)) != 0) {
+                            added |= bit;
+                            newVertices++;
+                            newEdges += degree(v);
+                            newBackEdges += backDegree(v);
+                            break;
+                        }
+                    }
+                }
+                if (added != 0) {
+                    visited.setPlain(w, seen | added);
+                }
+            }
+            found[t] = newVertices;
+            foundEdges[t] = newEdges;
+            foundBackEdges[t] = newBackEdges;
+            scanned[t] = edges;
+        }
+
+        private boolean claim(int v) {
+            int w = v >>> 6;
+            long bit = 1L << v;
+            while (true) {
+                long current = visited.get(w);
+                if ((current & bit) != 0) {
+                    return false;
+                }
+                if (visited.compareAndSet(w, current, current | bit)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * A cone as a bitset over the graph's vertices. Local ids number the members
+     * 0..size-1 in increasing vertex order, as shards do.
+     */
+    public static class Cone {
+        private final CsrGraph graph;
+        private final long[] bits;
+        private final int[] wordRank;
+        private final int size;
+
+        public Cone(CsrGraph graph, long[] bits, int size) {
+            this.graph = graph;
+            this.bits = bits;
+            this.size = size;
+            this.wordRank = new int[bits.length];
+            for (int w = 1; w < bits.length; w++) {
+                wordRank[w] = wordRank[w - 1] + Long.bitCount(bits[w - 1]);
+            }
+        }
+
+        public boolean contains(int v) {
+            return (bits[v >>> 6] & (1L << v)) != 0;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Membership bitset: vertex v is bit v % 64 of word v / 64 (shared, not copied).
+         */
+        public long[] getBits() {
+            return bits;
+        }
+
+        /**
+         * Local id of a member, or -1 if the vertex is outside the cone.
+         */
+        public int getLocalId(int v) {
+            if (!contains(v)) {
+                return -1;
+            }
+            return wordRank[v >>> 6] + Long.bitCount(bits[v >>> 6] & ((1L << v) - 1));
+        }
+
+        /**
+         * Members in increasing vertex order; index i holds the vertex with local id i.
+         */
+        public int[] getMembers() {
+            int[] members = new int[size];
+            int i = 0;
+            for (int w = 0; w < bits.length; w++) {
+                for (long word = bits[w]; word != 0; word &= word - 1) {
+                    members[i++] = (w << 6) | Long.numberOfTrailingZeros(word);
+                }
+            }
+            return members;
+        }
+
+        /**
+         * Subgraph induced by the cone in local ids: edges with both ends in the cone, with
+         * their weights. Out-edges keep their input order; in-edges are ordered by source.
+         *
+         * @return induced CSR graph; use toAdjacencyList and friends for the engines
+         */
+        public CsrGraph toSubgraph() {
+            int[] members = getMembers();
+            int[] outOffsets = new int[size + 1];
+            int[] inOffsets = new int[size + 1];
+            int[] offsets = graph.getOutOffsets();
+            int[] targets = graph.getTargets();
+            for (int i = 0; i < size; i++) {
+                int u = members[i];
+                int count = 0;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (contains(targets[e])) {
+                        count++;
+                        inOffsets[getLocalId(targets[e]) + 1]++;
+                    }
+                }
+                outOffsets[i + 1] = outOffsets[i] + count;
+            }
+            for (int i = 0; i < size; i++) {
+                inOffsets[i + 1] += inOffsets[i];
+            }
+
+            int m = outOffsets[size];
+            int[] localTargets = new int[m];
+            int[] sources = new int[m];
+            double[] graphWeights = graph.getWeights();
+            double[] weights = graphWeights == null ? null : new double[m];
+            double[] inWeights = graphWeights == null ? null : new double[m];
+            int[] cursor = new int[size];
+            System.arraycopy(inOffsets, 0, cursor, 0, size);
+            for (int i = 0, pos = 0; i < size; i++) {
+                int u = members[i];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (contains(targets[e])) {
+                        int j = getLocalId(targets[e]);
+                        if (graphWeights != null) {
+                            weights[pos] = graphWeights[e];
+                            inWeights[cursor[j]] = graphWeights[e];
+                        }
+                        localTargets[pos++] = j;
+                        sources[cursor[j]++] = i;
+                    }
+                }
+            }
+            return new CsrGraph(size, outOffsets, localTargets, weights, inOffsets, sources, inWeights);
+        }
+    }
+}
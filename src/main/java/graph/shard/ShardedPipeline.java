@@ -0,0 +1,440 @@
+package graph.shard;
+
+import graph.dagsp.CondensationShortestPath;
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.NodeWeightedGraph;
+import graph.scc.SCCResult;
+import graph.scc.SCCSelector;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import metrics.Metrics;
+import metrics.PhaseEvent;
+import metrics.SimpleMetrics;
+import model.CsrGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the SCC, condensation, topological sort and path stages independently on every
+ * weakly connected component of the graph. No edge crosses two shards, so each shard is
+ * solved on its own local copy without synchronization, the shards run concurrently on
+ * a fork-join pool, and the per-shard results are merged into global ids at the end.
+ * Shard components keep their shard's order, so concatenating the per-shard topological
+ * orders yields a valid order of the whole condensation. Paths are only computed for the
+ * shard holding the source; every other vertex is unreachable from it. The critical path
+ * is only computed when that shard is acyclic: inside a cyclic component the derived vertex
+ * order is not topological, so a longest-path sweep over it has no meaning.
+ */
+public class ShardedPipeline {
+    private Metrics metrics;
+    private ForkJoinPool pool;
+
+    public ShardedPipeline() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ShardedPipeline(ForkJoinPool pool) {
+        this.metrics = new SimpleMetrics();
+        this.pool = pool;
+    }
+
+    /**
+     * Shard the graph by weak connectivity and run the full pipeline on every shard.
+     *
+     * @param graph  CSR graph with weights
+     * @param source source vertex for the path stage (ignored if outside 0..n-1)
+     * @return merged result in global vertex and component ids
+     */
+    public Result run(CsrGraph graph, int source) {
+        return run(graph, source, null);
+    }
+
+    /**
+     * Shard the graph by weak connectivity and run the full pipeline on every shard.
+     * With node weights, path lengths sum the weights of the vertices on the path
+     * (source included) and edge weights are ignored.
+     *
+     * @param graph       CSR graph
+     * @param source      source vertex for the path stage (ignored if outside 0..n-1)
+     * @param nodeWeights per-vertex weights, or null to use the edge weights
+     * @return merged result in global vertex and component ids
+     */
+    public Result run(CsrGraph graph, int source, double[] nodeWeights) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("pipeline", "ShardedPipeline");
+
+        WeakComponents.Partition partition = new WeakComponents(pool).partition(graph);
+        int shards = partition.getShardCount();
+        int sourceShard = source >= 0 && source < graph.getVertexCount() ? partition.getShardOf(source) : -1;
+
+        List<Callable<ShardResult>> tasks = new ArrayList<>(shards);
+        for (int s = 0; s < shards; s++) {
+            int shard = s;
+            tasks.add(() -> runShard(graph, nodeWeights, partition, shard,
+                    shard == sourceShard ? partition.getLocalId(source) : -1));
+        }
+        ShardResult[] results = new ShardResult[shards];
+        List<Future<ShardResult>> futures = pool.invokeAll(tasks);
+        try {
+            for (int s = 0; s < shards; s++) {
+                results[s] = futures.get(s).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while processing shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        Result result = merge(graph.getVertexCount(), partition, results, sourceShard);
+        metrics.incrementCounter("shards", shards);
+        metrics.incrementCounter("largest_shard", partition.getLargestShardSize());
+        for (ShardResult shardResult : results) {
+            metrics.incrementCounter("scc_time_ns", shardResult.sccTime);
+            metrics.incrementCounter("condensation_time_ns", shardResult.condensationTime);
+            metrics.incrementCounter("topo_time_ns", shardResult.topoTime);
+            metrics.incrementCounter("paths_time_ns", shardResult.pathsTime);
+        }
+        metrics.stopTimer();
+        event.finish(graph.getVertexCount(), graph.getEdgeCount(), metrics);
+        return result;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * SCC -> condensation -> topological sort -> paths on one shard, in local ids.
+     */
+    private static ShardResult runShard(CsrGraph graph, double[] nodeWeights,
+                                        WeakComponents.Partition partition, int shard, int localSource) {
+        int size = partition.getShardSize(shard);
+        int[] offsets = graph.getOutOffsets();
+        int[] targets = graph.getTargets();
+        double[] weights = graph.getWeights();
+
+        List<List<Integer>> local = new ArrayList<>(size);
+        List<List<Integer>> reverse = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int u = partition.getGlobalId(shard, i);
+            local.add(new ArrayList<>(graph.outDegree(u)));
+            reverse.add(new ArrayList<>(graph.inDegree(u)));
+        }
+        for (int i = 0; i < size; i++) {
+            int u = partition.getGlobalId(shard, i);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int j = partition.getLocalId(targets[e]);
+                local.get(i).add(j);
+                reverse.get(j).add(i);
+            }
+        }
+
+        ShardResult result = new ShardResult();
+        long start = System.nanoTime();
+        SCCSelector selector = new SCCSelector();
+        result.sccs = selector.findComponents(local, reverse);
+        result.sccTime = System.nanoTime() - start;
+        result.sccMetrics = selector.getEngineMetrics();
+        result.selectorMetrics = selector.getMetrics();
+
+        start = System.nanoTime();
+        result.condensation = new TarjanSCC().buildCondensationGraph(local, result.sccs);
+        result.condensationTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        TopologicalSort topo = new TopologicalSort();
+        result.componentOrder = topo.topologicalSort(result.condensation);
+        if (result.componentOrder != null) {
+            result.vertexOrder = topo.deriveVertexOrder(result.componentOrder, result.sccs);
+        }
+        result.topoTime = System.nanoTime() - start;
+        result.topoMetrics = topo.getMetrics();
+
+        if (localSource >= 0 && result.componentOrder != null) {
+            start = System.nanoTime();
+            boolean acyclic = result.sccs.getComponentCount() == size;
+            CondensationShortestPath shortest = new CondensationShortestPath();
+            DAGShortestPath longest = new DAGShortestPath();
+            if (nodeWeights == null) {
+                List<List<double[]>> weighted = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    int u = partition.getGlobalId(shard, i);
+                    List<double[]> edges = new ArrayList<>(graph.outDegree(u));
+                    for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                        edges.add(new double[]{partition.getLocalId(targets[e]), weights == null ? 0.0 : weights[e]});
+                    }
+                    weighted.add(edges);
+                }
+                result.shortestDistances = shortest
+                        .shortestPaths(weighted, result.sccs, result.componentOrder, localSource);
+                if (acyclic) {
+                    result.criticalPath = longest.findCriticalPath(weighted, result.vertexOrder, localSource);
+                }
+            } else {
+                double[] localWeights = new double[size];
+                for (int i = 0; i < size; i++) {
+                    localWeights[i] = nodeWeights[partition.getGlobalId(shard, i)];
+                }
+                result.shortestDistances = nodeShortestPaths(shortest, local, localWeights, result, localSource);
+                if (acyclic) {
+                    result.criticalPath = longest.findCriticalPath(
+                            NodeWeightedGraph.from(local, localWeights), result.vertexOrder, localSource);
+                }
+            }
+            result.pathMetrics = new SimpleMetrics();
+            result.pathMetrics.add(shortest.getMetrics());
+            if (acyclic) {
+                result.pathMetrics.add(longest.getMetrics());
+            }
+            result.pathsTime = System.nanoTime() - start;
+        }
+        return result;
+    }
+
+    /**
+     * Node-weighted shortest paths through cyclic components. Entering v costs weight(v),
+     * which is the edge-weighted problem with every edge u -> v weighted weight(v); the
+     * condensation-aware engine solves that and the source's own weight is added back.
+     * The per-edge copy is built only for the source's shard and only for this stage.
+     */
+    private static double[] nodeShortestPaths(CondensationShortestPath engine, List<List<Integer>> local,
+                                              double[] localWeights, ShardResult result, int localSource) {
+        List<List<double[]>> entryWeighted = new ArrayList<>(local.size());
+        for (List<Integer> neighbors : local) {
+            List<double[]> edges = new ArrayList<>(neighbors.size());
+            for (int v : neighbors) {
+                edges.add(new double[]{v, localWeights[v]});
+            }
+            entryWeighted.add(edges);
+        }
+        double[] dist = engine
+                .shortestPaths(entryWeighted, result.sccs, result.componentOrder, localSource);
+        for (int i = 0; i < dist.length; i++) {
+            if (dist[i] != Double.POSITIVE_INFINITY) {
+                dist[i] += localWeights[localSource];
+            }
+        }
+        return dist;
+    }
+
+    private static Result merge(int n, WeakComponents.Partition partition,
+                                ShardResult[] results, int sourceShard) {
+        int components = 0;
+        for (ShardResult shard : results) {
+            components += shard.sccs.getComponentCount();
+        }
+        int[] componentOf = new int[n];
+        int[] componentOffsets = new int[components + 1];
+        int[] members = new int[n];
+        List<List<Integer>> condensation = new ArrayList<>();
+        List<Integer> componentOrder = new ArrayList<>();
+        List<Integer> vertexOrder = new ArrayList<>(n);
+        boolean ordered = true;
+
+        for (int s = 0; s < results.length; s++) {
+            ShardResult shard = results[s];
+            int base = condensation.size();
+            int position = componentOffsets[base];
+            int[] localOffsets = shard.sccs.getOffsets();
+            int[] localMembers = shard.sccs.getMembers();
+            for (int c = 0; c < shard.sccs.getComponentCount(); c++) {
+                for (int i = localOffsets[c]; i < localOffsets[c + 1]; i++) {
+                    int v = partition.getGlobalId(s, localMembers[i]);
+                    componentOf[v] = base + c;
+                    members[position++] = v;
+                }
+                componentOffsets[base + c + 1] = position;
+            }
+            for (List<Integer> edges : shard.condensation) {
+                List<Integer> global = new ArrayList<>(edges.size());
+                for (int c : edges) {
+                    global.add(base + c);
+                }
+                condensation.add(global);
+            }
+            if (shard.componentOrder == null) {
+                ordered = false;
+                continue;
+            }
+            for (int c : shard.componentOrder) {
+                componentOrder.add(base + c);
+            }
+            for (int v : shard.vertexOrder) {
+                vertexOrder.add(partition.getGlobalId(s, v));
+            }
+        }
+
+        double[] shortestDistances = null;
+        DAGShortestPath.CriticalPathResult criticalPath = null;
+        if (sourceShard >= 0 && results[sourceShard].shortestDistances != null) {
+            ShardResult shard = results[sourceShard];
+            shortestDistances = new double[n];
+            Arrays.fill(shortestDistances, Double.POSITIVE_INFINITY);
+            for (int i = 0; i < shard.shortestDistances.length; i++) {
+                shortestDistances[partition.getGlobalId(sourceShard, i)] = shard.shortestDistances[i];
+            }
+            if (shard.criticalPath != null) {
+                List<Integer> path = new ArrayList<>(shard.criticalPath.getPath().size());
+                for (int v : shard.criticalPath.getPath()) {
+                    path.add(partition.getGlobalId(sourceShard, v));
+                }
+                criticalPath = new DAGShortestPath.CriticalPathResult(path, shard.criticalPath.getLength());
+            }
+        }
+
+        // Engine metrics summed over shards; times are per-shard times added up
+        SimpleMetrics sccMetrics = new SimpleMetrics();
+        SimpleMetrics topoMetrics = new SimpleMetrics();
+        for (ShardResult shard : results) {
+            sccMetrics.add(shard.sccMetrics);
+            // Which engine the selector picked, per shard
+            for (Map.Entry<String, Long> counter : shard.selectorMetrics.getCounters().entrySet()) {
+                if (counter.getKey().startsWith("engine_")) {
+                    sccMetrics.incrementCounter(counter.getKey(), counter.getValue());
+                }
+            }
+            topoMetrics.add(shard.topoMetrics);
+        }
+        Metrics pathMetrics = sourceShard >= 0 ? results[sourceShard].pathMetrics : null;
+
+        return new Result(partition, new SCCResult(componentOf, componentOffsets, members), condensation,
+                ordered ? componentOrder : null, ordered ? vertexOrder : null,
+                shortestDistances, criticalPath, sccMetrics, topoMetrics, pathMetrics);
+    }
+
+    /**
+     * Per-shard output in local ids.
+     */
+    private static class ShardResult {
+        SCCResult sccs;
+        List<List<Integer>> condensation;
+        List<Integer> componentOrder;
+        List<Integer> vertexOrder;
+        double[] shortestDistances;
+        DAGShortestPath.CriticalPathResult criticalPath;
+        Metrics sccMetrics;
+        Metrics selectorMetrics;
+        Metrics topoMetrics;
+        SimpleMetrics pathMetrics;
+        long sccTime;
+        long condensationTime;
+        long topoTime;
+        long pathsTime;
+    }
+
+    /**
+     * Merged pipeline output in global vertex and component ids.
+     */
+    public static class Result {
+        private final WeakComponents.Partition partition;
+        private final SCCResult sccs;
+        private final List<List<Integer>> condensation;
+        private final List<Integer> componentOrder;
+        private final List<Integer> vertexOrder;
+        private final double[] shortestDistances;
+        private final DAGShortestPath.CriticalPathResult criticalPath;
+        private final Metrics sccMetrics;
+        private final Metrics topoMetrics;
+        private final Metrics pathMetrics;
+
+        /**
+         * Result without engine metrics, e.g. one read back from the analysis cache.
+         */
+        public Result(WeakComponents.Partition partition, SCCResult sccs,
+               List<List<Integer>> condensation, List<Integer> componentOrder,
+               List<Integer> vertexOrder, double[] shortestDistances,
+               DAGShortestPath.CriticalPathResult criticalPath) {
+            this(partition, sccs, condensation, componentOrder, vertexOrder, shortestDistances, criticalPath,
+                    null, null, null);
+        }
+
+        public Result(WeakComponents.Partition partition, SCCResult sccs,
+               List<List<Integer>> condensation, List<Integer> componentOrder,
+               List<Integer> vertexOrder, double[] shortestDistances,
+               DAGShortestPath.CriticalPathResult criticalPath,
+               Metrics sccMetrics, Metrics topoMetrics, Metrics pathMetrics) {
+            this.partition = partition;
+            this.sccs = sccs;
+            this.condensation = condensation;
+            this.componentOrder = componentOrder;
+            this.vertexOrder = vertexOrder;
+            this.shortestDistances = shortestDistances;
+            this.criticalPath = criticalPath;
+            this.sccMetrics = sccMetrics;
+            this.topoMetrics = topoMetrics;
+            this.pathMetrics = pathMetrics;
+        }
+
+        public WeakComponents.Partition getPartition() {
+            return partition;
+        }
+
+        public SCCResult getSccs() {
+            return sccs;
+        }
+
+        public List<List<Integer>> getCondensation() {
+            return condensation;
+        }
+
+        /**
+         * Topological order of the components, or null if a shard's condensation was cyclic.
+         */
+        public List<Integer> getComponentOrder() {
+            return componentOrder;
+        }
+
+        public List<Integer> getVertexOrder() {
+            return vertexOrder;
+        }
+
+        /**
+         * Shortest distances from the source (infinite outside its shard), or null without a source.
+         */
+        public double[] getShortestDistances() {
+            return shortestDistances;
+        }
+
+        /**
+         * Longest path from the source, or null without a source or when the source's shard
+         * has a cycle (a longest path over a cyclic component is not defined).
+         */
+        public DAGShortestPath.CriticalPathResult getCriticalPath() {
+            return criticalPath;
+        }
+
+        /**
+         * SCC engine counters summed over shards, or null if the engines did not run.
+         */
+        public Metrics getSccMetrics() {
+            return sccMetrics;
+        }
+
+        /**
+         * Topological sort counters summed over shards, or null if the engines did not run.
+         */
+        public Metrics getTopoMetrics() {
+            return topoMetrics;
+        }
+
+        /**
+         * Shortest and critical path counters of the source's shard, or null without a source
+         * or if the engines did not run.
+         */
+        public Metrics getPathMetrics() {
+            return pathMetrics;
+        }
+    }
+}
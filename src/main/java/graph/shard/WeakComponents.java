@@ -0,0 +1,183 @@
+package graph.shard;
+
+import metrics.Metrics;
+import metrics.SimpleMetrics;
+import model.CsrGraph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a directed graph into weakly connected components with a concurrent union-find.
+ * Edge ranges are united in parallel: roots are linked with compare-and-set, always
+ * from the larger root id to the smaller one, so the forest stays acyclic and every
+ * root is the smallest vertex of its set. Finds compress paths by halving.
+ * Shards are numbered in order of their smallest vertex.
+ */
+public class WeakComponents {
+    private static final int EDGES_PER_TASK = 1 << 14;
+
+    private Metrics metrics;
+    private ForkJoinPool pool;
+
+    public WeakComponents() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public WeakComponents(ForkJoinPool pool) {
+        this.metrics = new SimpleMetrics();
+        this.pool = pool;
+    }
+
+    /**
+     * Partition the vertices of a CSR graph into weakly connected components.
+     *
+     * @param graph CSR graph
+     * @return shard assignment of every vertex
+     */
+    public Partition partition(CsrGraph graph) {
+        metrics.reset();
+        metrics.startTimer();
+
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOutOffsets();
+        int[] targets = graph.getTargets();
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) {
+            parent.set(v, v);
+        }
+
+        // Unite edge ranges in parallel; a range is a block of source vertices
+        int m = targets.length;
+        int tasks = Math.max(1, m / EDGES_PER_TASK);
+        int[] blockStart = new int[tasks + 1];
+        for (int t = 0, u = 0; t <= tasks; t++) {
+            long edgeTarget = (long) m * t / tasks;
+            while (u < n && offsets[u] < edgeTarget) {
+                u++;
+            }
+            blockStart[t] = t == tasks ? n : u;
+        }
+        pool.submit(() -> IntStream.range(0, tasks).parallel().forEach(t -> {
+            for (int u = blockStart[t]; u < blockStart[t + 1]; u++) {
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    union(parent, u, targets[e]);
+                }
+            }
+        })).join();
+
+        // Dense shard ids: a root is the smallest vertex of its set, so it is seen first
+        int[] shardOf = new int[n];
+        int shards = 0;
+        for (int v = 0; v < n; v++) {
+            int root = find(parent, v);
+            shardOf[v] = root == v ? shards++ : shardOf[root];
+        }
+
+        Partition partition = new Partition(shardOf, shards);
+        metrics.incrementCounter("shards", shards);
+        metrics.incrementCounter("largest_shard", partition.getLargestShardSize());
+        metrics.stopTimer();
+        return partition;
+    }
+
+    private static int find(AtomicIntegerArray parent, int v) {
+        while (true) {
+            int p = parent.get(v);
+            if (p == v) {
+                return v;
+            }
+            int grandparent = parent.get(p);
+            if (p != grandparent) {
+                parent.compareAndSet(v, p, grandparent);
+            }
+            v = grandparent;
+        }
+    }
+
+    private static void union(AtomicIntegerArray parent, int u, int v) {
+        while (true) {
+            int ru = find(parent, u);
+            int rv = find(parent, v);
+            if (ru == rv) {
+                return;
+            }
+            int high = Math.max(ru, rv);
+            int low = Math.min(ru, rv);
+            if (parent.compareAndSet(high, high, low)) {
+                return;
+            }
+        }
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Shard assignment with each shard's members in increasing vertex order.
+     * Local ids number the vertices of a shard 0..size-1 in that order.
+     */
+    public static class Partition {
+        private final int[] shardOf;
+        private final int[] localId;
+        private final int[] offsets;
+        private final int[] members;
+
+        /**
+         * @param shardOf shard of every vertex, numbered 0..shards-1 in order of smallest vertex
+         * @param shards  number of shards
+         */
+        public Partition(int[] shardOf, int shards) {
+            int n = shardOf.length;
+            this.shardOf = shardOf;
+            this.localId = new int[n];
+            this.offsets = new int[shards + 1];
+            this.members = new int[n];
+            for (int v = 0; v < n; v++) {
+                offsets[shardOf[v] + 1]++;
+            }
+            for (int s = 0; s < shards; s++) {
+                offsets[s + 1] += offsets[s];
+            }
+            int[] cursor = new int[shards];
+            for (int v = 0; v < n; v++) {
+                int s = shardOf[v];
+                localId[v] = cursor[s]++;
+                members[offsets[s] + localId[v]] = v;
+            }
+        }
+
+        public int getShardCount() {
+            return offsets.length - 1;
+        }
+
+        public int getShardOf(int v) {
+            return shardOf[v];
+        }
+
+        public int getLocalId(int v) {
+            return localId[v];
+        }
+
+        public int getShardSize(int shard) {
+            return offsets[shard + 1] - offsets[shard];
+        }
+
+        /**
+         * Global id of the vertex with the given local id in a shard.
+         */
+        public int getGlobalId(int shard, int local) {
+            return members[offsets[shard] + local];
+        }
+
+        public int getLargestShardSize() {
+            int largest = 0;
+            for (int s = 0; s < getShardCount(); s++) {
+                largest = Math.max(largest, getShardSize(s));
+            }
+            return largest;
+        }
+    }
+}
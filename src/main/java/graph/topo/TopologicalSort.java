@@ -1,12 +1,18 @@
 package graph.topo;
 
+import graph.scc.SCCResult;
 import metrics.Metrics;
+import metrics.PhaseEvent;
 import metrics.SimpleMetrics;
+import model.AdjacencyGraph;
+import model.NeighborCursor;
 
 import java.util.*;
 
 /**
  * Implementation of Kahn's algorithm for topological sorting.
+ * The static entry point writes into a caller-supplied array and keeps its scratch
+ * in a thread-confined {@link Workspace}, so many threads can sort the same graph.
  */
 public class TopologicalSort {
     private Metrics metrics;
@@ -24,9 +30,13 @@ public class TopologicalSort {
     public List<Integer> topologicalSort(List<List<Integer>> graph) {
         metrics.reset();
         metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("topologicalSort", "TopologicalSort");
 
         int n = graph.size();
-        int[] inDegree = new int[n];
+        Workspace workspace = Workspace.forCurrentThread();
+        workspace.ensureCapacity(n);
+        int[] inDegree = workspace.inDegree;
+        Arrays.fill(inDegree, 0, n, 0);
 
         // Calculate in-degrees
         for (int i = 0; i < n; i++) {
@@ -35,39 +45,173 @@ public class TopologicalSort {
             }
         }
 
-        // Queue for vertices with no incoming edges
-        Queue<Integer> queue = new LinkedList<>();
+        return kahn(graph, inDegree, event);
+    }
+
+    /**
+     * Perform topological sort using Kahn's algorithm, reading in-degrees from the
+     * transpose instead of scanning every edge.
+     *
+     * @param graph     adjacency list representation
+     * @param transpose adjacency list of the reversed graph
+     * @return topological order, or null if graph contains cycles
+     */
+    public List<Integer> topologicalSort(List<List<Integer>> graph, List<List<Integer>> transpose) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("topologicalSort", "TopologicalSort");
+
+        int n = graph.size();
+        Workspace workspace = Workspace.forCurrentThread();
+        workspace.ensureCapacity(n);
+        int[] inDegree = workspace.inDegree;
+        for (int i = 0; i < n; i++) {
+            inDegree[i] = transpose.get(i).size();
+        }
+
+        return kahn(graph, inDegree, event);
+    }
+
+    private List<Integer> kahn(List<List<Integer>> graph, int[] inDegree, PhaseEvent event) {
+        int n = graph.size();
+        int[] order = new int[n];
+        int count = kahn(graph, inDegree, order, metrics);
+        metrics.stopTimer();
+        event.finish(graph, metrics);
+        if (count != n) {
+            return null; // Cycle detected
+        }
+        List<Integer> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(order[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Kahn's algorithm into a caller-supplied array using thread-confined scratch space.
+     * Thread-safe as long as each thread passes its own order array, workspace and metrics;
+     * repeated calls allocate nothing.
+     *
+     * @param graph     adjacency list representation
+     * @param order     receives the topological order (length at least n)
+     * @param workspace scratch arrays, grown to the graph size on demand
+     * @param metrics   receives pushes and pops (e.g. {@link metrics.NoOpMetrics#INSTANCE})
+     * @return number of vertices ordered; less than n if the graph contains cycles
+     */
+    public static int topologicalSort(List<List<Integer>> graph, int[] order, Workspace workspace, Metrics metrics) {
+        int n = graph.size();
+        workspace.ensureCapacity(n);
+        int[] inDegree = workspace.inDegree;
+        Arrays.fill(inDegree, 0, n, 0);
+        for (int i = 0; i < n; i++) {
+            for (int neighbor : graph.get(i)) {
+                inDegree[neighbor]++;
+            }
+        }
+        return kahn(graph, inDegree, order, metrics);
+    }
+
+    /**
+     * Perform topological sort of a cursor-backed graph, such as a {@link model.CompressedGraph}.
+     *
+     * @param graph graph read through neighbor cursors
+     * @return topological order, or null if graph contains cycles
+     */
+    public List<Integer> topologicalSort(AdjacencyGraph graph) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("topologicalSort", "TopologicalSort");
+        int n = graph.getVertexCount();
+        int[] order = new int[n];
+        int count = topologicalSort(graph, order, Workspace.forCurrentThread(), metrics);
+        metrics.stopTimer();
+        event.finish(graph.getVertexCount(), metrics.getCounter("edges"), metrics);
+        if (count != n) {
+            return null; // Cycle detected
+        }
+        List<Integer> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(order[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Kahn's algorithm over a cursor-backed graph into a caller-supplied array. Each list
+     * is decoded twice, once for in-degrees and once when its vertex is dequeued, through a
+     * single reused cursor.
+     *
+     * @param graph     graph read through neighbor cursors
+     * @param order     receives the topological order (length at least n)
+     * @param workspace scratch arrays, grown to the graph size on demand
+     * @param metrics   receives edges, pushes and pops (e.g. {@link metrics.NoOpMetrics#INSTANCE})
+     * @return number of vertices ordered; less than n if the graph contains cycles
+     */
+    public static int topologicalSort(AdjacencyGraph graph, int[] order, Workspace workspace, Metrics metrics) {
+        int n = graph.getVertexCount();
+        workspace.ensureCapacity(n);
+        int[] inDegree = workspace.inDegree;
+        Arrays.fill(inDegree, 0, n, 0);
+        NeighborCursor cursor = graph.newCursor();
+        long edges = 0;
+        for (int i = 0; i < n; i++) {
+            cursor.reset(i);
+            while (cursor.hasNext()) {
+                inDegree[cursor.next()]++;
+                edges++;
+            }
+        }
+
+        int tail = 0;
         for (int i = 0; i < n; i++) {
             if (inDegree[i] == 0) {
-                queue.offer(i);
-                metrics.incrementCounter("pushes");
+                order[tail++] = i;
             }
         }
 
-        List<Integer> result = new ArrayList<>();
+        int head = 0;
+        while (head < tail) {
+            cursor.reset(order[head++]);
+            while (cursor.hasNext()) {
+                int v = cursor.next();
+                if (--inDegree[v] == 0) {
+                    order[tail++] = v;
+                }
+            }
+        }
 
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
-            metrics.incrementCounter("pops");
-            result.add(u);
+        metrics.incrementCounter("edges", edges);
+        metrics.incrementCounter("pushes", tail);
+        metrics.incrementCounter("pops", head);
+        return head;
+    }
+
+    private static int kahn(List<List<Integer>> graph, int[] inDegree, int[] order, Metrics metrics) {
+        int n = graph.size();
 
+        // The output array doubles as the FIFO queue: vertices are emitted in dequeue order
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            if (inDegree[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+
+        int head = 0;
+        while (head < tail) {
+            int u = order[head++];
             for (int v : graph.get(u)) {
                 inDegree[v]--;
                 if (inDegree[v] == 0) {
-                    queue.offer(v);
-                    metrics.incrementCounter("pushes");
+                    order[tail++] = v;
                 }
             }
         }
 
-        // Check if all vertices were processed (no cycles)
-        if (result.size() != n) {
-            metrics.stopTimer();
-            return null; // Cycle detected
-        }
-
-        metrics.stopTimer();
-        return result;
+        metrics.incrementCounter("pushes", tail);
+        metrics.incrementCounter("pops", head);
+        return head;
     }
 
     /**
@@ -85,8 +229,51 @@ public class TopologicalSort {
         return vertexOrder;
     }
 
+    /**
+     * Get topological order of original vertices from a compact SCC result,
+     * reading member ranges directly instead of concatenating per-component lists.
+     *
+     * @param componentOrder topological order of components
+     * @param sccs           strongly connected components
+     * @return topological order of original vertices
+     */
+    public List<Integer> deriveVertexOrder(List<Integer> componentOrder, SCCResult sccs) {
+        int[] offsets = sccs.getOffsets();
+        int[] members = sccs.getMembers();
+        List<Integer> vertexOrder = new ArrayList<>(members.length);
+        for (int compIdx : componentOrder) {
+            for (int i = offsets[compIdx]; i < offsets[compIdx + 1]; i++) {
+                vertexOrder.add(members[i]);
+            }
+        }
+        return vertexOrder;
+    }
+
     public Metrics getMetrics() {
         return metrics;
     }
+
+    /**
+     * Thread-confined scratch space for {@link #topologicalSort(List, int[], Workspace, Metrics)}.
+     * The in-degree array only grows, so a workspace sized for the largest graph never reallocates.
+     */
+    public static final class Workspace {
+        private static final ThreadLocal<Workspace> POOL = ThreadLocal.withInitial(Workspace::new);
+
+        private int[] inDegree = new int[0];
+
+        /**
+         * The calling thread's pooled workspace.
+         */
+        public static Workspace forCurrentThread() {
+            return POOL.get();
+        }
+
+        void ensureCapacity(int n) {
+            if (inDegree.length < n) {
+                inDegree = new int[n];
+            }
+        }
+    }
 }
 
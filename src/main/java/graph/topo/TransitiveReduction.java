@@ -0,0 +1,426 @@
+package graph.topo;
+
+import metrics.Metrics;
+import metrics.PhaseEvent;
+import metrics.SimpleMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Transitive reduction of a DAG: the unique subgraph with the fewest edges and the same
+ * reachability. An edge u -> v is dropped when v is also reachable through another successor
+ * of u. The reduced graph is for reachability and ordering only (topological sort, cone
+ * queries); weighted path stages still need every edge of the condensation.
+ *
+ * <p>Vertices are renumbered by topological position and each successor list is scanned in
+ * increasing position, so every successor that could reach v has been seen before v is
+ * tested. Two reachability encodings are available:
+ * <ul>
+ *   <li>{@link Method#BITSET}: one bitset of reachable positions per vertex, n^2 / 8 bytes;
+ *       a kept edge ORs in the successor's bitset from its own word onwards.</li>
+ *   <li>{@link Method#CHAINS}: the DAG is covered by k vertex-disjoint paths ("chains"), and every
+ *       vertex stores the earliest index it reaches on each chain. Reaching index i of a chain
+ *       implies reaching all later indices, so a kept edge costs O(k). Only rows still needed
+ *       by an unprocessed predecessor are kept, and when those do not fit the block budget,
+ *       chains are processed a block at a time.</li>
+ * </ul>
+ */
+public class TransitiveReduction {
+    static final int BITSET_MAX_VERTICES = 1 << 14;
+    private static final long DEFAULT_CHAIN_BLOCK_BYTES = 64L << 20;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    private static final int MAX_AUGMENT_PHASES = 64;
+
+    public enum Method {
+        /** BITSET up to {@value #BITSET_MAX_VERTICES} vertices, CHAINS above. */
+        AUTO,
+        BITSET,
+        CHAINS
+    }
+
+    private Metrics metrics;
+    private final long chainBlockBytes;
+
+    public TransitiveReduction() {
+        this(DEFAULT_CHAIN_BLOCK_BYTES);
+    }
+
+    TransitiveReduction(long chainBlockBytes) {
+        this.metrics = new SimpleMetrics();
+        this.chainBlockBytes = chainBlockBytes;
+    }
+
+    /**
+     * Reduce a DAG, computing its topological order first.
+     *
+     * @param dag adjacency list of a DAG, e.g. a condensation graph
+     * @return reduced graph and edge counts
+     * @throws IllegalArgumentException if the graph has a cycle
+     */
+    public Result reduce(List<List<Integer>> dag) {
+        List<Integer> order = new TopologicalSort().topologicalSort(dag);
+        if (order == null) {
+            throw new IllegalArgumentException("Transitive reduction requires a DAG; the graph has a cycle");
+        }
+        return reduce(dag, order, Method.AUTO);
+    }
+
+    /**
+     * Reduce a DAG with a known topological order.
+     *
+     * @param dag       adjacency list of a DAG
+     * @param topoOrder topological order containing every vertex exactly once
+     * @param method    reachability encoding, or AUTO to choose by size
+     * @return reduced graph (successors in topological order) and edge counts
+     * @throws IllegalArgumentException if topoOrder is not a topological order of dag
+     */
+    public Result reduce(List<List<Integer>> dag, List<Integer> topoOrder, Method method) {
+        metrics.reset();
+        metrics.startTimer();
+        PhaseEvent event = PhaseEvent.begin("transitiveReduction", "TransitiveReduction");
+
+        int n = dag.size();
+        if (topoOrder.size() != n) {
+            throw new IllegalArgumentException(
+                    "Topological order has " + topoOrder.size() + " vertices, graph has " + n);
+        }
+        int[] order = new int[n];
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = topoOrder.get(i);
+            position[order[i]] = i;
+        }
+
+        // Successors of every position as positions, ascending
+        int[] offsets = new int[n + 1];
+        for (int p = 0; p < n; p++) {
+            offsets[p + 1] = offsets[p] + dag.get(order[p]).size();
+        }
+        int m = offsets[n];
+        int[] successors = new int[m];
+        for (int p = 0; p < n; p++) {
+            int e = offsets[p];
+            for (int v : dag.get(order[p])) {
+                int q = position[v];
+                if (q <= p) {
+                    throw new IllegalArgumentException("Edge " + order[p] + " -> " + v
+                            + " goes against the topological order");
+                }
+                successors[e++] = q;
+            }
+            Arrays.sort(successors, offsets[p], offsets[p + 1]);
+        }
+
+        Method used = method != Method.AUTO ? method
+                : n <= BITSET_MAX_VERTICES ? Method.BITSET : Method.CHAINS;
+        boolean[] removed = new boolean[m];
+        markDuplicates(offsets, successors, removed);
+        if (used == Method.BITSET) {
+            reduceWithBitsets(offsets, successors, removed);
+        } else {
+            reduceWithChains(offsets, successors, removed);
+        }
+
+        List<List<Integer>> reduced = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            reduced.add(null);
+        }
+        int kept = 0;
+        for (int p = 0; p < n; p++) {
+            List<Integer> targets = new ArrayList<>();
+            for (int e = offsets[p]; e < offsets[p + 1]; e++) {
+                if (!removed[e]) {
+                    targets.add(order[successors[e]]);
+                }
+            }
+            kept += targets.size();
+            reduced.set(order[p], targets);
+        }
+
+        metrics.incrementCounter("input_edges", m);
+        metrics.incrementCounter("edges_removed", m - kept);
+        metrics.stopTimer();
+        event.finish(n, m, metrics);
+        return new Result(reduced, m, kept, used);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    private static void markDuplicates(int[] offsets, int[] successors, boolean[] removed) {
+        for (int p = 0; p + 1 < offsets.length; p++) {
+            for (int e = offsets[p] + 1; e < offsets[p + 1]; e++) {
+                if (successors[e] == successors[e - 1]) {
+                    removed[e] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reachable positions of p as bits of row p. Every bit of row q is above q, so merging
+     * starts at q's word.
+     */
+    private void reduceWithBitsets(int[] offsets, int[] successors, boolean[] removed) {
+        int n = offsets.length - 1;
+        int words = (n + 63) >>> 6;
+        if ((long) n * words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Bitset reachability for " + n + " vertices needs "
+                    + ((long) n * words * Long.BYTES >> 20) + " MB; use CHAINS");
+        }
+        long[] reach = new long[n * words];
+        long merged = 0;
+        for (int p = n - 1; p >= 0; p--) {
+            int row = p * words;
+            for (int e = offsets[p]; e < offsets[p + 1]; e++) {
+                if (removed[e]) {
+                    continue;
+                }
+                int q = successors[e];
+                if ((reach[row + (q >>> 6)] & (1L << q)) != 0) {
+                    removed[e] = true;
+                    continue;
+                }
+                reach[row + (q >>> 6)] |= 1L << q;
+                int from = q * words;
+                for (int w = q >>> 6; w < words; w++) {
+                    reach[row + w] |= reach[from + w];
+                }
+                merged += words - (q >>> 6);
+            }
+        }
+        metrics.incrementCounter("bitset_words", words);
+        metrics.incrementCounter("merged_words", merged);
+    }
+
+    /**
+     * Chain-index reachability. The row of p holds, per chain of the current block, the
+     * earliest chain index reachable from p (p included once its successors are merged).
+     * A row is only read by p's predecessors, so it is live from p down to p's first
+     * predecessor and its slot is recycled after that; the table holds the peak number of
+     * live rows instead of n.
+     */
+    private void reduceWithChains(int[] offsets, int[] successors, boolean[] removed) {
+        int n = offsets.length - 1;
+        int[] chainOf = new int[n];
+        int[] indexInChain = new int[n];
+        int chains = coverWithChains(offsets, successors, chainOf, indexInChain);
+
+        // Row of q is live on [firstPredecessor(q), q]; peak overlap sizes the table
+        int[] firstPredecessor = new int[n];
+        for (int q = 0; q < n; q++) {
+            firstPredecessor[q] = q;
+        }
+        for (int p = n - 1; p >= 0; p--) {
+            for (int e = offsets[p]; e < offsets[p + 1]; e++) {
+                firstPredecessor[successors[e]] = p;
+            }
+        }
+        int[] coverage = new int[n + 1];
+        for (int q = 0; q < n; q++) {
+            coverage[firstPredecessor[q]]++;
+            coverage[q + 1]--;
+        }
+        int slots = 0;
+        for (int p = 0, live = 0; p < n; p++) {
+            live += coverage[p];
+            slots = Math.max(slots, live);
+        }
+
+        int block = (int) Math.max(1, Math.min(chains, chainBlockBytes / (Integer.BYTES * Math.max(1L, slots))));
+        int[] reach = new int[slots * block];
+        int[] slotOf = new int[n];
+        int[] freeSlots = new int[slots];
+        long merged = 0;
+        int blocks = 0;
+        for (int first = 0; first < chains; first += block) {
+            int last = Math.min(chains, first + block);
+            int width = last - first;
+            for (int i = 0; i < slots; i++) {
+                freeSlots[i] = i;
+            }
+            int freeCount = slots;
+            for (int p = n - 1; p >= 0; p--) {
+                int slot = freeSlots[--freeCount];
+                slotOf[p] = slot;
+                int row = slot * block;
+                Arrays.fill(reach, row, row + width, UNREACHED);
+                for (int e = offsets[p]; e < offsets[p + 1]; e++) {
+                    if (removed[e]) {
+                        continue;
+                    }
+                    int q = successors[e];
+                    int c = chainOf[q] - first;
+                    if (c >= 0 && c < width && reach[row + c] <= indexInChain[q]) {
+                        removed[e] = true;
+                        continue;
+                    }
+                    // Edges into other blocks are still undecided and merged as if kept
+                    int from = slotOf[q] * block;
+                    for (int j = 0; j < width; j++) {
+                        if (reach[from + j] < reach[row + j]) {
+                            reach[row + j] = reach[from + j];
+                        }
+                    }
+                    merged += width;
+                }
+                int own = chainOf[p] - first;
+                if (own >= 0 && own < width) {
+                    reach[row + own] = indexInChain[p];
+                }
+                // p was the last reader of successors whose first predecessor it is
+                for (int e = offsets[p]; e < offsets[p + 1]; e++) {
+                    int q = successors[e];
+                    if (firstPredecessor[q] == p && slotOf[q] >= 0) {
+                        freeSlots[freeCount++] = slotOf[q];
+                        slotOf[q] = -1;
+                    }
+                }
+                if (firstPredecessor[p] == p) {
+                    freeSlots[freeCount++] = slot;
+                    slotOf[p] = -1;
+                }
+            }
+            blocks++;
+        }
+        metrics.incrementCounter("chains", chains);
+        metrics.incrementCounter("chain_blocks", blocks);
+        metrics.incrementCounter("live_rows", slots);
+        metrics.incrementCounter("merged_words", merged);
+    }
+
+    /**
+     * Vertex-disjoint path cover from a matching of every vertex to at most one successor
+     * (its next chain member): chains = n - matching size. A greedy matching in topological
+     * order is enlarged by augmenting paths in phases, as in Hopcroft-Karp: within a phase a
+     * vertex is entered at most once and an edge scanned at most once, so a phase is O(n + m),
+     * and phases repeat while they find a path (at most {@value #MAX_AUGMENT_PHASES}).
+     * Consecutive chain members are joined by an edge, so a chain is ordered by reachability.
+     */
+    private int coverWithChains(int[] offsets, int[] successors, int[] chainOf, int[] indexInChain) {
+        int n = offsets.length - 1;
+        int[] next = new int[n];
+        int[] previous = new int[n];
+        Arrays.fill(next, -1);
+        Arrays.fill(previous, -1);
+        for (int p = 0; p < n; p++) {
+            for (int e = offsets[p]; e < offsets[p + 1]; e++) {
+                int q = successors[e];
+                if (previous[q] < 0) {
+                    next[p] = q;
+                    previous[q] = p;
+                    break;
+                }
+            }
+        }
+
+        int[] visited = new int[n];
+        int[] cursorPhase = new int[n];
+        int[] cursor = new int[n];
+        int[] stack = new int[n];
+        int[] via = new int[n];
+        int phases = 0;
+        boolean augmented = true;
+        while (augmented && phases < MAX_AUGMENT_PHASES) {
+            phases++;
+            augmented = false;
+            for (int p = 0; p < n; p++) {
+                if (next[p] >= 0 || offsets[p] == offsets[p + 1]) {
+                    continue;
+                }
+                // Iterative DFS over alternating paths: edge p -> q, then q's matched predecessor
+                int top = 0;
+                stack[top++] = p;
+                while (top > 0) {
+                    int u = stack[top - 1];
+                    if (cursorPhase[u] != phases) {
+                        cursorPhase[u] = phases;
+                        cursor[u] = offsets[u];
+                    }
+                    if (cursor[u] == offsets[u + 1]) {
+                        top--;
+                        continue;
+                    }
+                    int q = successors[cursor[u]++];
+                    if (visited[q] == phases) {
+                        continue;
+                    }
+                    visited[q] = phases;
+                    via[top - 1] = q;
+                    if (previous[q] >= 0) {
+                        stack[top++] = previous[q];
+                        continue;
+                    }
+                    // Free vertex reached: shift every matched edge on the path by one
+                    for (int i = top - 1; i >= 0; i--) {
+                        next[stack[i]] = via[i];
+                        previous[via[i]] = stack[i];
+                    }
+                    augmented = true;
+                    break;
+                }
+            }
+        }
+        metrics.incrementCounter("matching_phases", phases);
+
+        int chains = 0;
+        for (int p = 0; p < n; p++) {
+            if (previous[p] >= 0) {
+                continue;
+            }
+            int length = 0;
+            for (int current = p; current >= 0; current = next[current]) {
+                chainOf[current] = chains;
+                indexInChain[current] = length++;
+            }
+            chains++;
+        }
+        return chains;
+    }
+
+    /**
+     * Result of a transitive reduction.
+     */
+    public static class Result {
+        private List<List<Integer>> graph;
+        private int inputEdgeCount;
+        private int edgeCount;
+        private Method method;
+
+        public Result(List<List<Integer>> graph, int inputEdgeCount, int edgeCount, Method method) {
+            this.graph = graph;
+            this.inputEdgeCount = inputEdgeCount;
+            this.edgeCount = edgeCount;
+            this.method = method;
+        }
+
+        /**
+         * Reduced DAG in the input's vertex ids; each successor list is in topological order.
+         */
+        public List<List<Integer>> getGraph() {
+            return graph;
+        }
+
+        public int getInputEdgeCount() {
+            return inputEdgeCount;
+        }
+
+        public int getEdgeCount() {
+            return edgeCount;
+        }
+
+        public int getRemovedEdgeCount() {
+            return inputEdgeCount - edgeCount;
+        }
+
+        /**
+         * Encoding that was used; never AUTO.
+         */
+        public Method getMethod() {
+            return method;
+        }
+    }
+}
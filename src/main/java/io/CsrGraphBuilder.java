@@ -0,0 +1,186 @@
+package io;
+
+import model.CsrGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Parallel construction of a {@link CsrGraph} from flat edge arrays.
+ * The edge list is split into one contiguous chunk per thread. Each chunk counts its
+ * out- and in-degrees into a private histogram, a prefix sum over (vertex, chunk)
+ * turns the histograms into write cursors, and every chunk then scatters its edges
+ * into the forward and reverse arrays in the same pass. Because chunk t writes after
+ * chunks 0..t-1 for every vertex, edge order inside a vertex matches the input order,
+ * exactly as the sequential {@link GraphLoader#createAdjacencyList} produces it.
+ * The histograms cost 2 * threads * n ints of temporary memory.
+ */
+public class CsrGraphBuilder {
+    private static final int MIN_EDGES_PER_THREAD = 1 << 16;
+
+    /**
+     * Build with one thread per available processor.
+     */
+    public static CsrGraph build(int n, int[] from, int[] to, double[] weights, int edgeCount) {
+        return build(n, from, to, weights, edgeCount, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Build forward and reverse CSR arrays from parallel edge arrays.
+     *
+     * @param n         number of vertices
+     * @param from      edge sources
+     * @param to        edge targets
+     * @param weights   edge weights (may be null for unweighted graphs, which then get no weight arrays)
+     * @param edgeCount number of edges used from the arrays
+     * @param threads   maximum number of worker threads
+     * @return CSR graph with in-edge index
+     * @throws IllegalArgumentException if an endpoint is outside 0..n-1
+     */
+    public static CsrGraph build(int n, int[] from, int[] to, double[] weights, int edgeCount, int threads) {
+        int chunks = Math.max(1, Math.min(threads, edgeCount / MIN_EDGES_PER_THREAD));
+        int[] chunkStart = new int[chunks + 1];
+        for (int t = 0; t <= chunks; t++) {
+            chunkStart[t] = (int) ((long) edgeCount * t / chunks);
+        }
+
+        ExecutorService executor = chunks > 1 ? Executors.newFixedThreadPool(chunks) : null;
+        try {
+            // 1. Per-chunk degree histograms
+            int[][] outCursor = new int[chunks][];
+            int[][] inCursor = new int[chunks][];
+            runParallel(executor, chunks, t -> {
+                int[] out = new int[n];
+                int[] in = new int[n];
+                for (int e = chunkStart[t]; e < chunkStart[t + 1]; e++) {
+                    int u = from[e];
+                    int v = to[e];
+                    if (u < 0 || u >= n || v < 0 || v >= n) {
+                        throw new IllegalArgumentException(
+                                "Edge " + u + " -> " + v + " has an endpoint outside 0.." + (n - 1));
+                    }
+                    out[u]++;
+                    in[v]++;
+                }
+                outCursor[t] = out;
+                inCursor[t] = in;
+            });
+
+            // 2. Prefix sums: vertex-major, chunk-minor, turning counts into write cursors
+            int[] outOffsets = prefixSum(executor, chunks, outCursor, n);
+            int[] inOffsets = prefixSum(executor, chunks, inCursor, n);
+
+            // 3. Scatter forward and reverse edges in one pass over each chunk
+            int[] targets = new int[edgeCount];
+            int[] sources = new int[edgeCount];
+            double[] outWeights = weights == null ? null : new double[edgeCount];
+            double[] inWeights = weights == null ? null : new double[edgeCount];
+            runParallel(executor, chunks, t -> {
+                int[] out = outCursor[t];
+                int[] in = inCursor[t];
+                for (int e = chunkStart[t]; e < chunkStart[t + 1]; e++) {
+                    int u = from[e];
+                    int v = to[e];
+                    int outPos = out[u]++;
+                    targets[outPos] = v;
+                    int inPos = in[v]++;
+                    sources[inPos] = u;
+                    if (weights != null) {
+                        outWeights[outPos] = weights[e];
+                        inWeights[inPos] = weights[e];
+                    }
+                }
+            });
+
+            return new CsrGraph(n, outOffsets, targets, outWeights, inOffsets, sources, inWeights);
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Exclusive prefix sum over (vertex, chunk). Replaces each chunk's counts with its
+     * first write position per vertex and returns the per-vertex offsets (length n + 1).
+     * Vertex ranges are summed in parallel, then shifted by the running totals of earlier ranges.
+     */
+    private static int[] prefixSum(ExecutorService executor, int chunks, int[][] counts, int n) {
+        int blocks = chunks;
+        int[] blockStart = new int[blocks + 1];
+        for (int b = 0; b <= blocks; b++) {
+            blockStart[b] = (int) ((long) n * b / blocks);
+        }
+
+        long[] blockTotal = new long[blocks];
+        runParallel(executor, blocks, b -> {
+            long total = 0;
+            for (int v = blockStart[b]; v < blockStart[b + 1]; v++) {
+                for (int t = 0; t < chunks; t++) {
+                    total += counts[t][v];
+                }
+            }
+            blockTotal[b] = total;
+        });
+
+        long[] blockBase = new long[blocks];
+        long running = 0;
+        for (int b = 0; b < blocks; b++) {
+            blockBase[b] = running;
+            running += blockTotal[b];
+        }
+        if (running > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many edges for int offsets: " + running);
+        }
+
+        int[] offsets = new int[n + 1];
+        offsets[n] = (int) running;
+        runParallel(executor, blocks, b -> {
+            int position = (int) blockBase[b];
+            for (int v = blockStart[b]; v < blockStart[b + 1]; v++) {
+                offsets[v] = position;
+                for (int t = 0; t < chunks; t++) {
+                    int count = counts[t][v];
+                    counts[t][v] = position;
+                    position += count;
+                }
+            }
+        });
+        return offsets;
+    }
+
+    /**
+     * Run tasks 0..tasks-1 on the executor, or inline when it is null; rethrows the first failure.
+     */
+    static void runParallel(ExecutorService executor, int tasks, IntConsumer body) {
+        if (executor == null) {
+            for (int t = 0; t < tasks; t++) {
+                body.accept(t);
+            }
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            int task = t;
+            futures.add(executor.submit(() -> body.accept(task)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running parallel tasks", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
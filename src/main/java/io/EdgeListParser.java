@@ -0,0 +1,795 @@
+package io;
+
+import metrics.Metrics;
+import metrics.SimpleMetrics;
+import model.CsrGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Parallel parser for plain-text edge lists, one edge per line.
+ * <ul>
+ *   <li>CSV: {@code u,v[,w]}</li>
+ *   <li>TSV: {@code u v [w]} separated by tabs or spaces</li>
+ *   <li>NDJSON: {@code {"u": 0, "v": 1, "w": 2.5}} (also from/to/weight, source/target)</li>
+ * </ul>
+ * The file is split into byte ranges whose boundaries are moved forward to the next line
+ * start, every range is memory-mapped and parsed on its own thread straight from the
+ * mapped bytes (numbers are decoded digit by digit, no String per token), and the
+ * per-range edge arrays are concatenated in file order. Workers copy their mapping into
+ * a private 1 MB window in bulk and scan that array, which is several times faster than
+ * reading the mapping byte by byte; lines may be up to 64 KB long. Blank lines and lines starting
+ * with '#' or '%' are skipped, as is a CSV/TSV header line at the start of the file.
+ * Columns after the weight and unknown NDJSON keys are ignored.
+ * <p>
+ * With {@link IdType#DENSE} vertex ids must be non-negative integers and the vertex count
+ * is the largest id plus one. With {@link IdType#LONG} or {@link IdType#STRING} ids are
+ * arbitrary 64-bit integers or strings (quoted strings in NDJSON; unquoted tokens may not
+ * contain separators) and are remapped to dense ids 0..n-1 in order of first appearance,
+ * so downstream arrays are sized by the number of distinct vertices. Each worker resolves
+ * tokens against a private primitive hash map; the chunk maps are then merged in file order
+ * and the chunk edges rewritten to global ids in parallel. The reverse mapping is returned
+ * as {@link EdgeList#getIds()}.
+ */
+public class EdgeListParser {
+    public enum Format {
+        CSV, TSV, NDJSON;
+
+        /**
+         * Format implied by a file extension: .csv, .ndjson/.jsonl, anything else TSV.
+         */
+        public static Format fromFileName(String fileName) {
+            String name = fileName.toLowerCase();
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+                return NDJSON;
+            }
+            return TSV;
+        }
+    }
+
+    public enum IdType {
+        /** Ids are already 0..n-1 and used as they are. */
+        DENSE,
+        /** Ids are 64-bit integers, remapped to dense ids. */
+        LONG,
+        /** Ids are strings, remapped to dense ids. */
+        STRING
+    }
+
+    private static final long MIN_BYTES_PER_CHUNK = 1 << 22;
+    private static final long MAX_BYTES_PER_CHUNK = 1 << 30;
+    private static final int WINDOW_BYTES = 1 << 20;
+    private static final int MAX_LINE_BYTES = 1 << 16;
+    private static final long EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private Metrics metrics;
+    private int threads;
+    private long minBytesPerChunk;
+
+    public EdgeListParser() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public EdgeListParser(int threads) {
+        this(threads, MIN_BYTES_PER_CHUNK);
+    }
+
+    EdgeListParser(int threads, long minBytesPerChunk) {
+        this.metrics = new SimpleMetrics();
+        this.threads = Math.max(1, threads);
+        this.minBytesPerChunk = Math.max(1, minBytesPerChunk);
+    }
+
+    /**
+     * Parse an edge-list file, taking the format from its extension.
+     */
+    public EdgeList parse(Path path) throws IOException {
+        return parse(path, Format.fromFileName(path.getFileName().toString()));
+    }
+
+    /**
+     * Parse an edge-list file whose ids are already dense.
+     */
+    public EdgeList parse(Path path, Format format) throws IOException {
+        return parse(path, format, IdType.DENSE);
+    }
+
+    /**
+     * Parse an edge-list file.
+     *
+     * @param path   file to read
+     * @param format line format
+     * @param ids    how vertex ids are written and whether they are remapped
+     * @return edges in file order, in dense ids
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a line is malformed (the message gives its byte offset)
+     */
+    public EdgeList parse(Path path, Format format, IdType ids) throws IOException {
+        metrics.reset();
+        metrics.startTimer();
+
+        ChunkParser[] parsers;
+        VertexIds vertexIds = null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long wanted = Math.min(threads, size / minBytesPerChunk);
+            int chunks = (int) Math.max(1, Math.max(wanted, (size + MAX_BYTES_PER_CHUNK - 1) / MAX_BYTES_PER_CHUNK));
+            long[] chunkStart = lineAlignedBoundaries(channel, size, chunks);
+
+            // Mapping is cheap and may throw IOException, so it happens here rather than in the workers
+            parsers = new ChunkParser[chunks];
+            for (int t = 0; t < chunks; t++) {
+                long length = chunkStart[t + 1] - chunkStart[t];
+                if (length > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("No line break within 2 GB after byte " + chunkStart[t]);
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart[t], length);
+                parsers[t] = new ChunkParser(buffer, chunkStart[t], format, ids);
+            }
+
+            ExecutorService executor = chunks > 1 ? Executors.newFixedThreadPool(Math.min(chunks, threads)) : null;
+            try {
+                CsrGraphBuilder.runParallel(executor, chunks, t -> parsers[t].run());
+                if (ids != IdType.DENSE) {
+                    long start = System.nanoTime();
+                    vertexIds = remap(executor, parsers, ids);
+                    metrics.incrementCounter("remap_time_ns", System.nanoTime() - start);
+                    metrics.incrementCounter("distinct_ids", vertexIds.size());
+                }
+            } finally {
+                if (executor != null) {
+                    executor.shutdown();
+                }
+            }
+            metrics.incrementCounter("bytes", size);
+            metrics.incrementCounter("chunks", chunks);
+        }
+
+        EdgeList edges = merge(parsers, vertexIds);
+        for (ChunkParser parser : parsers) {
+            metrics.incrementCounter("skipped_lines", parser.skipped);
+        }
+        metrics.incrementCounter("edges", edges.getEdgeCount());
+        metrics.stopTimer();
+        return edges;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Split positions size * t / chunks, each moved forward to just after the next newline.
+     */
+    private static long[] lineAlignedBoundaries(FileChannel channel, long size, int chunks) throws IOException {
+        long[] boundaries = new long[chunks + 1];
+        boundaries[chunks] = size;
+        ByteBuffer window = ByteBuffer.allocate(1 << 12);
+        for (int t = 1; t < chunks; t++) {
+            long position = Math.max(boundaries[t - 1], size / chunks * t - 1);
+            long lineStart = size;
+            while (position < size && lineStart == size) {
+                window.clear();
+                int read = channel.read(window, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (window.get(i) == '\n') {
+                        lineStart = position + i + 1;
+                        break;
+                    }
+                }
+                position += read;
+            }
+            boundaries[t] = Math.max(boundaries[t - 1], lineStart);
+        }
+        return boundaries;
+    }
+
+    /**
+     * Merge the chunk-local id maps into one global map, chunk by chunk in file order,
+     * then rewrite every chunk's edges from local to global ids in parallel. Only distinct
+     * ids per chunk go through the global map; the per-edge rewrite is an array lookup.
+     */
+    private static VertexIds remap(ExecutorService executor, ChunkParser[] parsers, IdType ids) {
+        int expected = 0;
+        for (ChunkParser parser : parsers) {
+            expected = Math.max(expected, parser.localIdCount());
+        }
+        LongIdMap longIds = ids == IdType.LONG ? new LongIdMap(expected) : null;
+        StringIdMap stringIds = ids == IdType.STRING ? new StringIdMap(expected) : null;
+        int[][] toGlobal = new int[parsers.length][];
+        for (int t = 0; t < parsers.length; t++) {
+            ChunkParser parser = parsers[t];
+            int[] mapping = new int[parser.localIdCount()];
+            for (int local = 0; local < mapping.length; local++) {
+                mapping[local] = longIds != null
+                        ? longIds.getOrAdd(parser.localLongs.getKey(local))
+                        : stringIds.getOrAdd(parser.localStrings, local);
+            }
+            toGlobal[t] = mapping;
+        }
+        CsrGraphBuilder.runParallel(executor, parsers.length, t -> parsers[t].translate(toGlobal[t]));
+        return new VertexIds(longIds, stringIds);
+    }
+
+    private static EdgeList merge(ChunkParser[] parsers, VertexIds ids) {
+        long total = 0;
+        int maxVertex = -1;
+        boolean weighted = false;
+        for (ChunkParser parser : parsers) {
+            total += parser.count;
+            maxVertex = Math.max(maxVertex, parser.maxVertex);
+            weighted |= parser.weighted;
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many edges for int arrays: " + total);
+        }
+        int n = ids != null ? ids.size() : maxVertex + 1;
+        if (parsers.length == 1) {
+            ChunkParser only = parsers[0];
+            return new EdgeList(n, only.count, Arrays.copyOf(only.from, only.count),
+                    Arrays.copyOf(only.to, only.count), weighted ? Arrays.copyOf(only.weights, only.count) : null, ids);
+        }
+        int m = (int) total;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] weights = weighted ? new double[m] : null;
+        int position = 0;
+        for (ChunkParser parser : parsers) {
+            System.arraycopy(parser.from, 0, from, position, parser.count);
+            System.arraycopy(parser.to, 0, to, position, parser.count);
+            if (weighted) {
+                System.arraycopy(parser.weights, 0, weights, position, parser.count);
+            }
+            position += parser.count;
+            parser.release();
+        }
+        return new EdgeList(n, m, from, to, weights, ids);
+    }
+
+    /**
+     * Parses one line-aligned byte range into growable edge arrays.
+     */
+    private static final class ChunkParser {
+        private final ByteBuffer buffer;
+        private final long base;
+        private final Format format;
+        private final IdType ids;
+        private final byte[] data = new byte[WINDOW_BYTES];
+        private long windowStart;
+        private int limit;
+        private int pos;
+
+        int[] from = new int[1 << 10];
+        int[] to = new int[1 << 10];
+        double[] weights = new double[1 << 10];
+        int count;
+        int maxVertex = -1;
+        boolean weighted;
+        long skipped;
+        LongIdMap localLongs;
+        StringIdMap localStrings;
+
+        ChunkParser(ByteBuffer buffer, long base, Format format, IdType ids) {
+            this.buffer = buffer;
+            this.base = base;
+            this.format = format;
+            this.ids = ids;
+            if (ids == IdType.LONG) {
+                localLongs = new LongIdMap(1 << 10);
+            } else if (ids == IdType.STRING) {
+                localStrings = new StringIdMap(1 << 10);
+            }
+        }
+
+        int localIdCount() {
+            return localLongs != null ? localLongs.size() : localStrings != null ? localStrings.size() : 0;
+        }
+
+        void translate(int[] toGlobal) {
+            for (int e = 0; e < count; e++) {
+                from[e] = toGlobal[from[e]];
+                to[e] = toGlobal[to[e]];
+            }
+            localLongs = null;
+            localStrings = null;
+        }
+
+        void run() {
+            boolean firstLine = base == 0;
+            while (true) {
+                refill();
+                if (pos >= limit) {
+                    break;
+                }
+                skipBlanks();
+                if (pos >= limit) {
+                    break;
+                }
+                byte c = data[pos];
+                boolean header = firstLine && format != Format.NDJSON && isHeader(c);
+                if (c == '\n' || c == '\r' || c == '#' || c == '%' || header) {
+                    skipped++;
+                    skipLine();
+                } else if (format == Format.NDJSON) {
+                    parseJsonLine();
+                } else {
+                    parseDelimitedLine();
+                }
+                firstLine = false;
+            }
+        }
+
+        /**
+         * A first line is a header if it cannot start an edge: for numeric ids anything but
+         * a digit (or a sign for 64-bit ids), for string ids one of the usual column names.
+         */
+        private boolean isHeader(byte c) {
+            switch (ids) {
+                case STRING:
+                    return startsWithWord("u") || startsWithWord("source") || startsWithWord("from")
+                            || startsWithWord("src");
+                case LONG:
+                    return !isDigit(c) && c != '-' && c != '+';
+                default:
+                    return !isDigit(c);
+            }
+        }
+
+        private boolean startsWithWord(String word) {
+            int start = pos < limit && data[pos] == '"' ? pos + 1 : pos;
+            if (start + word.length() > limit) {
+                return false;
+            }
+            for (int i = 0; i < word.length(); i++) {
+                if (Character.toLowerCase(data[start + i]) != word.charAt(i)) {
+                    return false;
+                }
+            }
+            return start + word.length() == limit || isTokenEnd(data[start + word.length()]);
+        }
+
+        private void parseDelimitedLine() {
+            int u = readVertex();
+            skipSeparator();
+            int v = readVertex();
+            double w = 0.0;
+            boolean hasWeight = false;
+            if (skipSeparator()) {
+                w = parseDouble();
+                hasWeight = true;
+            }
+            add(u, v, w, hasWeight);
+            skipLine();
+        }
+
+        private void parseJsonLine() {
+            expect('{');
+            int u = -1;
+            int v = -1;
+            double w = 0.0;
+            boolean hasWeight = false;
+            while (true) {
+                skipBlanks();
+                if (peek() == '}') {
+                    pos++;
+                    break;
+                }
+                expect('"');
+                int key = parseKey();
+                skipBlanks();
+                expect(':');
+                skipBlanks();
+                if (key == 0) {
+                    u = readVertex();
+                } else if (key == 1) {
+                    v = readVertex();
+                } else if (key == 2) {
+                    w = parseDouble();
+                    hasWeight = true;
+                } else {
+                    skipJsonValue();
+                }
+                skipBlanks();
+                if (peek() == ',') {
+                    pos++;
+                } else if (peek() != '}') {
+                    throw malformed("expected ',' or '}'");
+                }
+            }
+            if (u < 0 || v < 0) {
+                throw malformed("edge object needs both endpoints");
+            }
+            add(u, v, w, hasWeight);
+            skipLine();
+        }
+
+        /**
+         * Reads a key after its opening quote: 0 source, 1 target, 2 weight, -1 anything else.
+         */
+        private int parseKey() {
+            int start = pos;
+            while (pos < limit && data[pos] != '"') {
+                pos++;
+            }
+            if (pos >= limit) {
+                throw malformed("unterminated key");
+            }
+            int length = pos - start;
+            pos++;
+            if (keyEquals(start, length, "u") || keyEquals(start, length, "from") || keyEquals(start, length, "source")) {
+                return 0;
+            }
+            if (keyEquals(start, length, "v") || keyEquals(start, length, "to") || keyEquals(start, length, "target")) {
+                return 1;
+            }
+            if (keyEquals(start, length, "w") || keyEquals(start, length, "weight")) {
+                return 2;
+            }
+            return -1;
+        }
+
+        private boolean keyEquals(int start, int length, String key) {
+            if (length != key.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (data[start + i] != key.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Skips a scalar value: a string, number, true, false or null.
+         */
+        private void skipJsonValue() {
+            if (peek() == '"') {
+                pos++;
+                while (pos < limit && data[pos] != '"') {
+                    pos += data[pos] == '\\' ? 2 : 1;
+                }
+                pos++;
+                return;
+            }
+            while (pos < limit) {
+                byte c = data[pos];
+                if (c == ',' || c == '}' || c == '\n' || c == ' ' || c == '\t' || c == '\r') {
+                    break;
+                }
+                if (c == '{' || c == '[') {
+                    throw malformed("nested values are not supported");
+                }
+                pos++;
+            }
+        }
+
+        /**
+         * Reads one vertex id and returns it as a dense id, local to this chunk when remapping.
+         */
+        private int readVertex() {
+            switch (ids) {
+                case LONG:
+                    return localLongs.getOrAdd(parseLong());
+                case STRING:
+                    return readLabel();
+                default:
+                    return parseVertex();
+            }
+        }
+
+        private long parseLong() {
+            int start = pos;
+            boolean negative = false;
+            if (peek() == '-' || peek() == '+') {
+                negative = data[pos] == '-';
+                pos++;
+            }
+            int digitsStart = pos;
+            long value = 0;
+            while (pos < limit && isDigit(data[pos])) {
+                int digit = data[pos] - '0';
+                if (value > (Long.MAX_VALUE - digit) / 10) {
+                    pos = start;
+                    throw malformed("vertex id out of long range");
+                }
+                value = value * 10 + digit;
+                pos++;
+            }
+            if (pos == digitsStart) {
+                throw malformed("expected an integer vertex id");
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * A quoted string (escapes are kept as written) or a bare token up to the next separator.
+         */
+        private int readLabel() {
+            int start;
+            int end;
+            if (peek() == '"') {
+                start = ++pos;
+                while (pos < limit && data[pos] != '"' && data[pos] != '\n') {
+                    pos += data[pos] == '\\' ? 2 : 1;
+                }
+                if (peek() != '"') {
+                    throw malformed("unterminated string id");
+                }
+                end = pos++;
+            } else {
+                start = pos;
+                while (pos < limit && !isTokenEnd(data[pos])) {
+                    pos++;
+                }
+                end = pos;
+            }
+            if (end == start) {
+                throw malformed("expected a vertex id");
+            }
+            return localStrings.getOrAdd(data, start, end - start);
+        }
+
+        private boolean isTokenEnd(byte c) {
+            return c == ' ' || c == '\t' || c == '\r' || c == '\n'
+                    || (c == ',' && format != Format.TSV) || (c == '}' && format == Format.NDJSON);
+        }
+
+        private int parseVertex() {
+            int start = pos;
+            long value = 0;
+            while (pos < limit && isDigit(data[pos])) {
+                value = value * 10 + (data[pos] - '0');
+                if (value > Integer.MAX_VALUE) {
+                    throw malformed("vertex id out of int range");
+                }
+                pos++;
+            }
+            if (pos == start) {
+                throw malformed("expected a non-negative vertex id");
+            }
+            return (int) value;
+        }
+
+        /**
+         * Decimal with optional sign, fraction and exponent. A mantissa below 2^53 with a power of
+         * ten up to 22 is exact in double arithmetic (one correctly rounded multiply or divide);
+         * longer literals fall back to Double.parseDouble on the token's bytes.
+         */
+        private double parseDouble() {
+            int start = pos;
+            boolean negative = false;
+            if (peek() == '-' || peek() == '+') {
+                negative = data[pos] == '-';
+                pos++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean any = false;
+            while (pos < limit && isDigit(data[pos])) {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (data[pos] - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                } else {
+                    exponent++;
+                    digits++;
+                }
+                pos++;
+                any = true;
+            }
+            if (pos < limit && data[pos] == '.') {
+                pos++;
+                while (pos < limit && isDigit(data[pos])) {
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + (data[pos] - '0');
+                        exponent--;
+                        if (mantissa != 0) {
+                            digits++;
+                        }
+                    } else {
+                        digits++;
+                    }
+                    pos++;
+                    any = true;
+                }
+            }
+            if (!any) {
+                throw malformed("expected a number");
+            }
+            if (pos < limit && (data[pos] == 'e' || data[pos] == 'E')) {
+                pos++;
+                boolean negativeExponent = false;
+                if (peek() == '-' || peek() == '+') {
+                    negativeExponent = data[pos] == '-';
+                    pos++;
+                }
+                int value = 0;
+                int exponentStart = pos;
+                while (pos < limit && isDigit(data[pos])) {
+                    value = Math.min(100_000, value * 10 + (data[pos] - '0'));
+                    pos++;
+                }
+                if (pos == exponentStart) {
+                    throw malformed("expected exponent digits");
+                }
+                exponent += negativeExponent ? -value : value;
+            }
+
+            if (digits <= 18 && mantissa <= EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+                double value = exponent < 0
+                        ? mantissa / POWERS_OF_TEN[-exponent]
+                        : mantissa * POWERS_OF_TEN[exponent];
+                return negative ? -value : value;
+            }
+            return Double.parseDouble(new String(data, start, pos - start, StandardCharsets.US_ASCII));
+        }
+
+        private void add(int u, int v, double w, boolean hasWeight) {
+            if (count == from.length) {
+                int capacity = count + (count >> 1);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            from[count] = u;
+            to[count] = v;
+            weights[count] = w;
+            count++;
+            maxVertex = Math.max(maxVertex, Math.max(u, v));
+            weighted |= hasWeight;
+        }
+
+        /**
+         * Skips a field separator; returns false at end of line.
+         */
+        private boolean skipSeparator() {
+            skipBlanks();
+            if (format == Format.CSV && peek() == ',') {
+                pos++;
+                skipBlanks();
+            }
+            byte c = peek();
+            return c != '\n' && c != '\r' && c != 0;
+        }
+
+        private void skipBlanks() {
+            while (pos < limit && (data[pos] == ' ' || data[pos] == '\t')) {
+                pos++;
+            }
+        }
+
+        /**
+         * Moves the unread tail to the front of the window and tops it up from the mapping
+         * once fewer than MAX_LINE_BYTES remain, so a whole line is always in the window.
+         */
+        private void refill() {
+            int end = buffer.limit();
+            if (limit - pos >= MAX_LINE_BYTES || windowStart + limit >= end) {
+                return;
+            }
+            int keep = limit - pos;
+            System.arraycopy(data, pos, data, 0, keep);
+            windowStart += pos;
+            int read = (int) Math.min(data.length - keep, end - (windowStart + keep));
+            buffer.position((int) (windowStart + keep));
+            buffer.get(data, keep, read);
+            limit = keep + read;
+            pos = 0;
+        }
+
+        private void skipLine() {
+            while (pos < limit && data[pos] != '\n') {
+                pos++;
+            }
+            if (pos >= limit && windowStart + limit < buffer.limit()) {
+                throw malformed("line longer than " + MAX_LINE_BYTES + " bytes");
+            }
+            pos++;
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw malformed("expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private byte peek() {
+            return pos < limit ? data[pos] : 0;
+        }
+
+        private static boolean isDigit(byte c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private IllegalArgumentException malformed(String reason) {
+            return new IllegalArgumentException("Malformed edge list at byte " + (base + windowStart + pos) + ": " + reason);
+        }
+
+        void release() {
+            from = null;
+            to = null;
+            weights = null;
+        }
+    }
+
+    /**
+     * Parsed edges as parallel arrays, ready for {@link CsrGraphBuilder}.
+     */
+    public static class EdgeList {
+        private final int vertexCount;
+        private final int edgeCount;
+        private final int[] from;
+        private final int[] to;
+        private final double[] weights;
+        private final VertexIds ids;
+
+        EdgeList(int vertexCount, int edgeCount, int[] from, int[] to, double[] weights, VertexIds ids) {
+            this.ids = ids;
+            this.vertexCount = vertexCount;
+            this.edgeCount = edgeCount;
+            this.from = from;
+            this.to = to;
+            this.weights = weights;
+        }
+
+        public int getVertexCount() {
+            return vertexCount;
+        }
+
+        public int getEdgeCount() {
+            return edgeCount;
+        }
+
+        public int[] getFrom() {
+            return from;
+        }
+
+        public int[] getTo() {
+            return to;
+        }
+
+        /**
+         * Edge weights, or null if no line carried one.
+         */
+        public double[] getWeights() {
+            return weights;
+        }
+
+        /**
+         * Original ids of the dense vertices, or null if the input ids were used as they are.
+         */
+        public VertexIds getIds() {
+            return ids;
+        }
+
+        /**
+         * Build forward and reverse CSR arrays from these edges.
+         */
+        public CsrGraph toCsrGraph() {
+            return CsrGraphBuilder.build(vertexCount, from, to, weights, edgeCount);
+        }
+    }
+}
@@ -10,6 +10,9 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -62,6 +65,65 @@ public class GraphConverter {
         }
     }
 
+    /**
+     * Convert a plain-text edge list (CSV, TSV or NDJSON, see {@link EdgeListParser}) whose
+     * vertex ids are already 0..n-1 to the new format.
+     *
+     * @param inputFilePath  path to the edge-list file (format taken from its extension)
+     * @param outputFilePath path to output file (new format)
+     * @param source         source vertex for pathfinding
+     * @throws IOException if file operations fail
+     */
+    public static void convertEdgeListToNew(String inputFilePath, String outputFilePath, int source) throws IOException {
+        convertEdgeListToNew(inputFilePath, outputFilePath, Integer.toString(source), EdgeListParser.IdType.DENSE);
+    }
+
+    /**
+     * Convert a plain-text edge list (CSV, TSV or NDJSON, see {@link EdgeListParser}) to the new format.
+     * The edge list is parsed in parallel; only the JSON output goes through Gson. Sparse or
+     * string ids are renumbered 0..n-1 and the original ids are written as the graph's labels,
+     * so results can be reported in them.
+     *
+     * @param inputFilePath  path to the edge-list file (format taken from its extension)
+     * @param outputFilePath path to output file (new format)
+     * @param source         source vertex for pathfinding, in the ids of the input file
+     * @param idType         how vertex ids are written in the input file
+     * @throws IOException              if file operations fail
+     * @throws IllegalArgumentException if the file has no edges or the source does not occur in it
+     */
+    public static void convertEdgeListToNew(String inputFilePath, String outputFilePath, String source,
+                                            EdgeListParser.IdType idType) throws IOException {
+        Path path = Paths.get(inputFilePath);
+        EdgeListParser.EdgeList edges = new EdgeListParser()
+                .parse(path, EdgeListParser.Format.fromFileName(path.getFileName().toString()), idType);
+        if (edges.getEdgeCount() == 0) {
+            throw new IllegalArgumentException("Input file is empty or invalid");
+        }
+        VertexIds ids = edges.getIds();
+        int sourceId = ids != null ? ids.indexOf(source) : Integer.parseInt(source.trim());
+        if (sourceId < 0 || sourceId >= edges.getVertexCount()) {
+            throw new IllegalArgumentException("Source " + source + " does not occur in " + inputFilePath);
+        }
+
+        List<EdgeData> edgeData = new ArrayList<>(edges.getEdgeCount());
+        double[] weights = edges.getWeights();
+        for (int e = 0; e < edges.getEdgeCount(); e++) {
+            edgeData.add(new EdgeData(edges.getFrom()[e], edges.getTo()[e], weights == null ? 0.0 : weights[e]));
+        }
+        GraphData graphNew = new GraphData(true, edges.getVertexCount(), edgeData, sourceId, "edge");
+        if (ids != null) {
+            String[] labels = new String[edges.getVertexCount()];
+            for (int v = 0; v < labels.length; v++) {
+                labels[v] = ids.getLabel(v);
+            }
+            graphNew.setLabels(labels);
+        }
+
+        try (FileWriter writer = new FileWriter(outputFilePath)) {
+            gson.toJson(graphNew, writer);
+        }
+    }
+
     /**
      * Convert from old GraphData format to new format.
      *
@@ -2,6 +2,7 @@ package io;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import model.CsrGraph;
 import model.EdgeData;
 import model.GraphData;
 
@@ -66,6 +67,28 @@ public class GraphLoader {
         return adj;
     }
 
+    /**
+     * Create the transpose adjacency list (in-neighbors of each vertex), in edge input order.
+     *
+     * @param graphData the graph data
+     * @return adjacency list of the reversed graph
+     */
+    public static List<List<Integer>> createReverseAdjacencyList(GraphData graphData) {
+        int n = graphData.getN();
+        List<List<Integer>> reverse = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            reverse.add(new ArrayList<>());
+        }
+
+        if (graphData.getEdges() != null) {
+            for (EdgeData edge : graphData.getEdges()) {
+                reverse.get(edge.getV()).add(edge.getU());
+            }
+        }
+
+        return reverse;
+    }
+
     /**
      * Create an adjacency list with edge weights as doubles.
      *
@@ -87,4 +110,48 @@ public class GraphLoader {
 
         return adj;
     }
+
+    /**
+     * Get the per-vertex weights of a node-weighted graph.
+     *
+     * @param graphData the graph data
+     * @return node weights (length n)
+     * @throws IllegalArgumentException if the weight model is not "node" or the weights do not cover every vertex
+     */
+    public static double[] createNodeWeights(GraphData graphData) {
+        if (!graphData.isNodeWeighted()) {
+            throw new IllegalArgumentException("Weight model is " + graphData.getWeightModel() + ", not node");
+        }
+        double[] nodeWeights = graphData.getNodeWeights();
+        if (nodeWeights == null || nodeWeights.length != graphData.getN()) {
+            throw new IllegalArgumentException("Expected " + graphData.getN() + " node_weights, got "
+                    + (nodeWeights == null ? "none" : String.valueOf(nodeWeights.length)));
+        }
+        return nodeWeights;
+    }
+
+    /**
+     * Create a flat CSR graph with out-edges, weights and the in-edge index in one
+     * parallel build (see {@link CsrGraphBuilder}). Node-weighted graphs get no
+     * edge weight arrays, since their durations live on the vertices.
+     *
+     * @param graphData the graph data
+     * @return CSR graph
+     */
+    public static CsrGraph createCsrGraph(GraphData graphData) {
+        List<EdgeData> edges = graphData.getEdges();
+        int m = edges != null ? edges.size() : 0;
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] weights = graphData.isNodeWeighted() ? null : new double[m];
+        for (int i = 0; i < m; i++) {
+            EdgeData edge = edges.get(i);
+            from[i] = edge.getU();
+            to[i] = edge.getV();
+            if (weights != null) {
+                weights[i] = edge.getW();
+            }
+        }
+        return CsrGraphBuilder.build(graphData.getN(), from, to, weights, m);
+    }
 }
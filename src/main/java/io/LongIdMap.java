@@ -0,0 +1,114 @@
+package io;
+
+import java.util.Arrays;
+
+/**
+ * Assigns dense ids 0..size-1 to arbitrary long keys in order of first appearance.
+ * Open addressing with linear probing over one primitive array holding each slot's key
+ * next to its id, so neither is boxed and a probe costs one cache line; the table
+ * doubles when it is two-thirds full. Keys are also kept
+ * by id, which is the reverse mapping used to report results in the original ids.
+ */
+public class LongIdMap {
+    private long[] table;
+    private long[] keys;
+    private int size;
+
+    public LongIdMap() {
+        this(16);
+    }
+
+    /**
+     * @param expected number of distinct keys to size the table for
+     */
+    public LongIdMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected + expected / 2) - 1) << 1;
+        this.table = new long[capacity * 2];
+        this.keys = new long[Math.max(4, expected)];
+    }
+
+    /**
+     * Dense id of a key, assigning the next free id if the key is new.
+     */
+    public int getOrAdd(long key) {
+        int mask = (table.length >> 1) - 1;
+        int slot = hash(key) & mask;
+        while (true) {
+            // Slot s holds the key at 2s and id + 1 at 2s + 1 (0 means empty)
+            int stored = (int) table[(slot << 1) + 1];
+            if (stored == 0) {
+                int id = size;
+                if (id == keys.length) {
+                    keys = Arrays.copyOf(keys, id + (id >> 1));
+                }
+                keys[id] = key;
+                table[slot << 1] = key;
+                table[(slot << 1) + 1] = id + 1;
+                size++;
+                if (size * 3L >= table.length) {
+                    rehash(table.length);
+                }
+                return id;
+            }
+            if (table[slot << 1] == key) {
+                return stored - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Dense id of a key, or -1 if it was never added.
+     */
+    public int get(long key) {
+        int mask = (table.length >> 1) - 1;
+        int slot = hash(key) & mask;
+        while (true) {
+            int stored = (int) table[(slot << 1) + 1];
+            if (stored == 0) {
+                return -1;
+            }
+            if (table[slot << 1] == key) {
+                return stored - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * The key that was given the dense id.
+     */
+    public long getKey(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown id " + id);
+        }
+        return keys[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        long[] newTable = new long[capacity * 2];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hash(keys[id]) & mask;
+            while (newTable[(slot << 1) + 1] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot << 1] = keys[id];
+            newTable[(slot << 1) + 1] = id + 1;
+        }
+        table = newTable;
+    }
+
+    /**
+     * Fibonacci hashing: multiply by 2^64 / phi and fold the high bits down,
+     * so sequential and strided ids spread over the table.
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
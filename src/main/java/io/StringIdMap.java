@@ -0,0 +1,174 @@
+package io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Assigns dense ids 0..size-1 to string keys in order of first appearance.
+ * Keys are stored as UTF-8 bytes back to back in one pool and looked up straight from
+ * a byte range, so a parser can resolve a token without creating a String for it; only
+ * {@link #getKey(int)} decodes one. Open addressing with linear probing; every slot keeps
+ * the key's id, hash, pool offset and length together in one int array, so a probe costs
+ * one cache line and a hit touches the pool once to confirm the bytes.
+ */
+public class StringIdMap {
+    private static final int SLOT = 4;
+
+    private int[] table;
+    private byte[] pool;
+    private int[] offsets;
+    private int size;
+
+    public StringIdMap() {
+        this(16);
+    }
+
+    /**
+     * @param expected number of distinct keys to size the table for
+     */
+    public StringIdMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected + expected / 2) - 1) << 1;
+        this.table = new int[capacity * SLOT];
+        this.pool = new byte[Math.max(16, expected * 8)];
+        this.offsets = new int[Math.max(4, expected) + 1];
+    }
+
+    /**
+     * Dense id of the key in bytes[from .. from + length - 1], assigning the next free id if it is new.
+     */
+    public int getOrAdd(byte[] bytes, int from, int length) {
+        int hash = hash(bytes, from, length);
+        int mask = table.length / SLOT - 1;
+        int slot = hash & mask;
+        while (true) {
+            // Slot s holds id + 1 (0 means empty), hash, pool offset and length at 4s .. 4s + 3
+            int base = slot * SLOT;
+            int stored = table[base];
+            if (stored == 0) {
+                int id = append(bytes, from, length);
+                fill(table, base, id, hash);
+                if (size * 3L * SLOT >= table.length * 2L) {
+                    rehash(table.length / SLOT * 2);
+                }
+                return id;
+            }
+            if (table[base + 1] == hash && matches(base, bytes, from, length)) {
+                return stored - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int getOrAdd(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        return getOrAdd(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Dense id in this map of the key another map gave the id {@code otherId}.
+     */
+    public int getOrAdd(StringIdMap other, int otherId) {
+        int from = other.offsets[otherId];
+        return getOrAdd(other.pool, from, other.offsets[otherId + 1] - from);
+    }
+
+    /**
+     * Dense id of a key, or -1 if it was never added.
+     */
+    public int get(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes, 0, bytes.length);
+        int mask = table.length / SLOT - 1;
+        int slot = hash & mask;
+        while (true) {
+            int base = slot * SLOT;
+            int stored = table[base];
+            if (stored == 0) {
+                return -1;
+            }
+            if (table[base + 1] == hash && matches(base, bytes, 0, bytes.length)) {
+                return stored - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * The key that was given the dense id.
+     */
+    public String getKey(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown id " + id);
+        }
+        return new String(pool, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int append(byte[] bytes, int from, int length) {
+        int id = size;
+        if (id + 1 == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length + (offsets.length >> 1));
+        }
+        int start = offsets[id];
+        if (start + length > pool.length) {
+            pool = Arrays.copyOf(pool, Math.max(start + length, pool.length + (pool.length >> 1)));
+        }
+        System.arraycopy(bytes, from, pool, start, length);
+        offsets[id + 1] = start + length;
+        size++;
+        return id;
+    }
+
+    private void fill(int[] target, int base, int id, int hash) {
+        target[base] = id + 1;
+        target[base + 1] = hash;
+        target[base + 2] = offsets[id];
+        target[base + 3] = offsets[id + 1] - offsets[id];
+    }
+
+    private boolean matches(int base, byte[] bytes, int from, int length) {
+        if (table[base + 3] != length) {
+            return false;
+        }
+        int start = table[base + 2];
+        for (int i = 0; i < length; i++) {
+            if (pool[start + i] != bytes[from + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        int[] newTable = new int[capacity * SLOT];
+        int mask = capacity - 1;
+        for (int base = 0; base < table.length; base += SLOT) {
+            if (table[base] == 0) {
+                continue;
+            }
+            int slot = table[base + 1] & mask;
+            while (newTable[slot * SLOT] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            System.arraycopy(table, base, newTable, slot * SLOT, SLOT);
+        }
+        table = newTable;
+    }
+
+    /**
+     * FNV-1a over the bytes with a final avalanche, so short keys differing in
+     * their last byte still land in different slots.
+     */
+    private static int hash(byte[] bytes, int from, int length) {
+        int h = 0x811C9DC5;
+        for (int i = from; i < from + length; i++) {
+            h = (h ^ bytes[i]) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 13);
+    }
+}
@@ -0,0 +1,72 @@
+package io;
+
+/**
+ * Reverse mapping from dense vertex ids back to the ids of the input file,
+ * which are either 64-bit integers or strings. Algorithms run on the dense ids
+ * 0..n-1; results are translated back with {@link #getLabel(int)} for output.
+ */
+public class VertexIds {
+    private final LongIdMap longIds;
+    private final StringIdMap stringIds;
+
+    VertexIds(LongIdMap longIds, StringIdMap stringIds) {
+        this.longIds = longIds;
+        this.stringIds = stringIds;
+    }
+
+    public static VertexIds of(LongIdMap ids) {
+        return new VertexIds(ids, null);
+    }
+
+    public static VertexIds of(StringIdMap ids) {
+        return new VertexIds(null, ids);
+    }
+
+    public int size() {
+        return longIds != null ? longIds.size() : stringIds.size();
+    }
+
+    public boolean isNumeric() {
+        return longIds != null;
+    }
+
+    /**
+     * Original id of a dense vertex, as text.
+     */
+    public String getLabel(int vertex) {
+        return longIds != null ? Long.toString(longIds.getKey(vertex)) : stringIds.getKey(vertex);
+    }
+
+    /**
+     * Original 64-bit id of a dense vertex.
+     *
+     * @throws IllegalStateException if the input used string ids
+     */
+    public long getLongId(int vertex) {
+        if (longIds == null) {
+            throw new IllegalStateException("Vertex ids are strings");
+        }
+        return longIds.getKey(vertex);
+    }
+
+    /**
+     * Dense id of an original id given as text, or -1 if it does not occur in the input.
+     */
+    public int indexOf(String label) {
+        if (longIds == null) {
+            return stringIds.get(label);
+        }
+        try {
+            return longIds.get(Long.parseLong(label.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Dense id of an original 64-bit id, or -1 if it does not occur in the input.
+     */
+    public int indexOf(long id) {
+        return longIds != null ? longIds.get(id) : stringIds.get(Long.toString(id));
+    }
+}
@@ -1,5 +1,7 @@
 package metrics;
 
+import java.util.Map;
+
 /**
  * Interface for collecting metrics during algorithm execution.
  */
@@ -24,11 +26,21 @@ public interface Metrics {
      */
     void incrementCounter(String counterName);
 
+    /**
+     * Increment a counter by the given amount.
+     */
+    void incrementCounter(String counterName, long delta);
+
     /**
      * Get the value of a counter.
      */
     long getCounter(String counterName);
 
+    /**
+     * All counters by name; a read-only view.
+     */
+    Map<String, Long> getCounters();
+
     /**
      * Reset all metrics.
      */
@@ -0,0 +1,55 @@
+package metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Metrics that record nothing. Shared by callers of the stateless engine entry points
+ * that do not need counters; safe to use from any number of threads.
+ */
+public final class NoOpMetrics implements Metrics {
+    public static final NoOpMetrics INSTANCE = new NoOpMetrics();
+
+    private NoOpMetrics() {
+    }
+
+    @Override
+    public void startTimer() {
+    }
+
+    @Override
+    public void stopTimer() {
+    }
+
+    @Override
+    public long getElapsedTime() {
+        return 0;
+    }
+
+    @Override
+    public void incrementCounter(String counterName) {
+    }
+
+    @Override
+    public void incrementCounter(String counterName, long delta) {
+    }
+
+    @Override
+    public long getCounter(String counterName) {
+        return 0;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public String getSummary() {
+        return "Time: 0.000 ms\nCounters:\n";
+    }
+}
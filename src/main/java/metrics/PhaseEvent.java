@@ -0,0 +1,103 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Java Flight Recorder event for one algorithm or I/O phase, carrying the input size
+ * and the counters the engine recorded. It is enabled in any recording, e.g.
+ * {@code -XX:StartFlightRecording:filename=run.jfr,settings=profile}, and shows up next to
+ * GC and allocation events in JDK Mission Control or {@code jfr print --events graph.Phase}.
+ * When recording is off, {@link #begin} and {@link #finish} are a few field stores and a
+ * {@link #shouldCommit()} check; sizes are counted and counters formatted only for events
+ * that will be written.
+ */
+@Name(PhaseEvent.NAME)
+@Label("Graph Phase")
+@Category({"Graph Algorithms"})
+@Description("One pipeline phase with its input size and recorded counters")
+@StackTrace(false)
+public final class PhaseEvent extends Event {
+    public static final String NAME = "graph.Phase";
+
+    @Label("Phase")
+    private String phase;
+
+    @Label("Engine")
+    private String engine;
+
+    @Label("Vertices")
+    private long vertices;
+
+    @Label("Edges")
+    private long edges;
+
+    @Label("Counters")
+    @Description("Engine counters as name=value pairs")
+    private String counters;
+
+    /**
+     * Start timing a phase.
+     *
+     * @param phase  phase name, e.g. findSCCs or topologicalSort
+     * @param engine class or component running the phase
+     */
+    public static PhaseEvent begin(String phase, String engine) {
+        PhaseEvent event = new PhaseEvent();
+        event.phase = phase;
+        event.engine = engine;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the phase and commit it with the size of an adjacency-list input; edges are
+     * counted after the clock stops and only when the event is recorded.
+     */
+    public void finish(List<? extends List<?>> graph, Metrics metrics) {
+        end();
+        if (shouldCommit()) {
+            long m = 0;
+            for (List<?> neighbors : graph) {
+                m += neighbors.size();
+            }
+            write(graph.size(), m, metrics);
+        }
+    }
+
+    /**
+     * End the phase and commit it with an explicit input size.
+     *
+     * @param metrics counters to attach, or null for none
+     */
+    public void finish(long vertices, long edges, Metrics metrics) {
+        end();
+        if (shouldCommit()) {
+            write(vertices, edges, metrics);
+        }
+    }
+
+    private void write(long vertices, long edges, Metrics metrics) {
+        this.vertices = vertices;
+        this.edges = edges;
+        if (metrics != null) {
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, Long> entry : new TreeMap<>(metrics.getCounters()).entrySet()) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(entry.getKey()).append('=').append(entry.getValue());
+            }
+            this.counters = sb.toString();
+        }
+        commit();
+    }
+}
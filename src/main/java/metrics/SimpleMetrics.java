@@ -1,5 +1,6 @@
 package metrics;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,11 +37,32 @@ public class SimpleMetrics implements Metrics {
         counters.put(counterName, counters.getOrDefault(counterName, 0L) + 1);
     }
 
+    @Override
+    public void incrementCounter(String counterName, long delta) {
+        counters.put(counterName, counters.getOrDefault(counterName, 0L) + delta);
+    }
+
     @Override
     public long getCounter(String counterName) {
         return counters.getOrDefault(counterName, 0L);
     }
 
+    @Override
+    public Map<String, Long> getCounters() {
+        return Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * Add another run's elapsed time and counters to this one, e.g. to total one engine's
+     * work over several shards. Start from a reset instance.
+     */
+    public void add(Metrics other) {
+        endTime += other.getElapsedTime();
+        for (Map.Entry<String, Long> entry : other.getCounters().entrySet()) {
+            incrementCounter(entry.getKey(), entry.getValue());
+        }
+    }
+
     @Override
     public void reset() {
         startTime = 0;
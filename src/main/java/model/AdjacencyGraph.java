@@ -0,0 +1,52 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Read-only directed graph whose out-neighbors are read through {@link NeighborCursor}s,
+ * so algorithms can run on compressed or otherwise non-list storage.
+ */
+public interface AdjacencyGraph {
+    int getVertexCount();
+
+    /**
+     * A fresh cursor; each concurrently iterated list needs its own.
+     */
+    NeighborCursor newCursor();
+
+    /**
+     * View an adjacency list as an {@link AdjacencyGraph}, without copying it.
+     */
+    static AdjacencyGraph of(List<List<Integer>> graph) {
+        return new AdjacencyGraph() {
+            @Override
+            public int getVertexCount() {
+                return graph.size();
+            }
+
+            @Override
+            public NeighborCursor newCursor() {
+                return new NeighborCursor() {
+                    private List<Integer> neighbors = List.of();
+                    private int position;
+
+                    @Override
+                    public void reset(int vertex) {
+                        neighbors = graph.get(vertex);
+                        position = 0;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return position < neighbors.size();
+                    }
+
+                    @Override
+                    public int next() {
+                        return neighbors.get(position++);
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,205 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Out-adjacency stored as gap-encoded varints in one byte array.
+ * Each vertex's neighbors are sorted; the first is written as the zigzag-encoded
+ * difference from the vertex itself (neighbors tend to have nearby ids) and every
+ * later one as the non-negative gap from its predecessor, all as little-endian base-128
+ * varints (7 payload bits per byte, high bit set on all but the last byte). The bytes of
+ * vertex u occupy offsets[u] .. offsets[u + 1] - 1, so no degree is stored.
+ * Lists are decoded one neighbor at a time by a {@link NeighborCursor}. Neighbor order
+ * differs from the source lists whenever those were unsorted; parallel edges are kept.
+ */
+public class CompressedGraph implements AdjacencyGraph {
+    private final int n;
+    private final int[] offsets;
+    private final byte[] data;
+    private final long edgeCount;
+
+    private CompressedGraph(int n, int[] offsets, byte[] data, long edgeCount) {
+        this.n = n;
+        this.offsets = offsets;
+        this.data = data;
+        this.edgeCount = edgeCount;
+    }
+
+    /**
+     * Compress an adjacency list.
+     *
+     * @param graph adjacency list representation
+     * @return compressed copy of the out-edges
+     */
+    public static CompressedGraph from(List<List<Integer>> graph) {
+        int n = graph.size();
+        Encoder encoder = new Encoder(n);
+        int[] scratch = new int[16];
+        for (int u = 0; u < n; u++) {
+            List<Integer> neighbors = graph.get(u);
+            int degree = neighbors.size();
+            if (scratch.length < degree) {
+                scratch = new int[Math.max(degree, scratch.length * 2)];
+            }
+            for (int i = 0; i < degree; i++) {
+                int v = neighbors.get(i);
+                if (v < 0 || v >= n) {
+                    throw new IllegalArgumentException("Edge " + u + " -> " + v + " is out of range for " + n + " vertices");
+                }
+                scratch[i] = v;
+            }
+            encoder.add(u, scratch, 0, degree);
+        }
+        return encoder.finish();
+    }
+
+    /**
+     * Compress the out-edges of a CSR graph; weights and in-edges are dropped.
+     *
+     * @param graph CSR graph
+     * @return compressed copy of the out-edges
+     */
+    public static CompressedGraph from(CsrGraph graph) {
+        int n = graph.getVertexCount();
+        int[] outOffsets = graph.getOutOffsets();
+        int[] targets = graph.getTargets();
+        Encoder encoder = new Encoder(n);
+        int[] scratch = new int[16];
+        for (int u = 0; u < n; u++) {
+            int degree = graph.outDegree(u);
+            if (scratch.length < degree) {
+                scratch = new int[Math.max(degree, scratch.length * 2)];
+            }
+            System.arraycopy(targets, outOffsets[u], scratch, 0, degree);
+            encoder.add(u, scratch, 0, degree);
+        }
+        return encoder.finish();
+    }
+
+    @Override
+    public int getVertexCount() {
+        return n;
+    }
+
+    public long getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Size of the encoded neighbor bytes, excluding the per-vertex offsets.
+     */
+    public int getByteCount() {
+        return data.length;
+    }
+
+    /**
+     * Encoded neighbor bits per edge, excluding the per-vertex offsets.
+     */
+    public double getBitsPerEdge() {
+        return edgeCount == 0 ? 0 : 8.0 * data.length / edgeCount;
+    }
+
+    /**
+     * Bits per edge including the 32-bit offset stored for every vertex.
+     */
+    public double getTotalBitsPerEdge() {
+        return edgeCount == 0 ? 0 : (8.0 * data.length + 32.0 * offsets.length) / edgeCount;
+    }
+
+    @Override
+    public NeighborCursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Decodes one vertex's list in place; holds only a position and the last neighbor.
+     */
+    private final class Cursor implements NeighborCursor {
+        private int position;
+        private int end;
+        private int previous;
+        private boolean first;
+
+        @Override
+        public void reset(int vertex) {
+            position = offsets[vertex];
+            end = offsets[vertex + 1];
+            previous = vertex;
+            first = true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < end;
+        }
+
+        @Override
+        public int next() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            if (first) {
+                first = false;
+                previous += (value >>> 1) ^ -(value & 1);
+            } else {
+                previous += value;
+            }
+            return previous;
+        }
+    }
+
+    /**
+     * Appends vertices in id order into a growing byte buffer.
+     */
+    private static final class Encoder {
+        private final int n;
+        private final int[] offsets;
+        private byte[] data;
+        private int size;
+        private long edges;
+
+        Encoder(int n) {
+            this.n = n;
+            this.offsets = new int[n + 1];
+            this.data = new byte[Math.max(16, n * 2)];
+        }
+
+        void add(int u, int[] neighbors, int from, int to) {
+            Arrays.sort(neighbors, from, to);
+            int previous = u;
+            for (int i = from; i < to; i++) {
+                int v = neighbors[i];
+                if (i == from) {
+                    int delta = v - u;
+                    writeVarint((delta << 1) ^ (delta >> 31));
+                } else {
+                    writeVarint(v - previous);
+                }
+                previous = v;
+            }
+            edges += to - from;
+            offsets[u + 1] = size;
+        }
+
+        private void writeVarint(int value) {
+            if (size + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(size + 5, data.length * 2));
+            }
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        CompressedGraph finish() {
+            return new CompressedGraph(n, offsets, Arrays.copyOf(data, size), edges);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flat compressed-sparse-row graph with both out-edges and in-edges.
+ * Out-edges of u occupy positions outOffsets[u] .. outOffsets[u + 1] - 1 of
+ * targets/weights; in-edges of v occupy inOffsets[v] .. inOffsets[v + 1] - 1 of
+ * sources/inWeights. Within a vertex, edges keep their input order.
+ * Graphs without edge weights, such as node-weighted task graphs, have null
+ * weights/inWeights and every edge weighs 0.
+ * Arrays are shared, not copied, and must not be modified.
+ */
+public class CsrGraph {
+    private final int n;
+    private final int[] outOffsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] inOffsets;
+    private final int[] sources;
+    private final double[] inWeights;
+
+    public CsrGraph(int n, int[] outOffsets, int[] targets, double[] weights,
+                    int[] inOffsets, int[] sources, double[] inWeights) {
+        this.n = n;
+        this.outOffsets = outOffsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.inOffsets = inOffsets;
+        this.sources = sources;
+        this.inWeights = inWeights;
+    }
+
+    public int getVertexCount() {
+        return n;
+    }
+
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    public int outDegree(int u) {
+        return outOffsets[u + 1] - outOffsets[u];
+    }
+
+    public int inDegree(int v) {
+        return inOffsets[v + 1] - inOffsets[v];
+    }
+
+    public int[] getOutOffsets() {
+        return outOffsets;
+    }
+
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Out-edge weights, or null if the graph has no edge weights.
+     */
+    public double[] getWeights() {
+        return weights;
+    }
+
+    public boolean hasEdgeWeights() {
+        return weights != null;
+    }
+
+    public int[] getInOffsets() {
+        return inOffsets;
+    }
+
+    public int[] getSources() {
+        return sources;
+    }
+
+    /**
+     * In-edge weights, or null if the graph has no edge weights.
+     */
+    public double[] getInWeights() {
+        return inWeights;
+    }
+
+    /**
+     * Out-neighbor lists in the form used by the SCC and topological sort engines.
+     *
+     * @return adjacency list (list of neighbor vertices)
+     */
+    public List<List<Integer>> toAdjacencyList() {
+        return toLists(outOffsets, targets);
+    }
+
+    /**
+     * In-neighbor lists (the transpose) in the form used by the SCC engines.
+     *
+     * @return adjacency list of the reversed graph
+     */
+    public List<List<Integer>> toReverseAdjacencyList() {
+        return toLists(inOffsets, sources);
+    }
+
+    /**
+     * Weighted out-edge lists in the form used by the DAG path engines.
+     *
+     * @return adjacency list with [target, weight] pairs
+     */
+    public List<List<double[]>> toWeightedAdjacencyList() {
+        List<List<double[]>> adj = new ArrayList<>(n);
+        for (int u = 0; u < n; u++) {
+            List<double[]> edges = new ArrayList<>(outDegree(u));
+            for (int e = outOffsets[u]; e < outOffsets[u + 1]; e++) {
+                edges.add(new double[]{targets[e], weights == null ? 0.0 : weights[e]});
+            }
+            adj.add(edges);
+        }
+        return adj;
+    }
+
+    private List<List<Integer>> toLists(int[] offsets, int[] neighbors) {
+        List<List<Integer>> adj = new ArrayList<>(n);
+        for (int u = 0; u < n; u++) {
+            List<Integer> list = new ArrayList<>(offsets[u + 1] - offsets[u]);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                list.add(neighbors[e]);
+            }
+            adj.add(list);
+        }
+        return adj;
+    }
+}
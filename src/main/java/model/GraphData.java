@@ -5,7 +5,9 @@ import java.util.List;
 
 /**
  * Represents the complete graph structure loaded from JSON.
- * Supports the assignment format with directed, n, edges, source, weight_model fields.
+ * Supports the assignment format with directed, n, edges, source, weight_model fields,
+ * plus node_weights when weight_model is "node" and labels when the vertices were
+ * renumbered from the ids of an edge-list file.
  */
 public class GraphData {
     @SerializedName("directed")
@@ -23,6 +25,12 @@ public class GraphData {
     @SerializedName("weight_model")
     private String weightModel;
 
+    @SerializedName("node_weights")
+    private double[] nodeWeights;
+
+    @SerializedName("labels")
+    private String[] labels;
+
     public GraphData() {
     }
 
@@ -74,6 +82,39 @@ public class GraphData {
         this.weightModel = weightModel;
     }
 
+    /**
+     * Per-vertex weights, used when the weight model is "node" (edge weights are then ignored).
+     */
+    public double[] getNodeWeights() {
+        return nodeWeights;
+    }
+
+    public void setNodeWeights(double[] nodeWeights) {
+        this.nodeWeights = nodeWeights;
+    }
+
+    public boolean isNodeWeighted() {
+        return "node".equals(weightModel);
+    }
+
+    /**
+     * Original ids of the vertices, or null if the vertex numbers are the original ids.
+     */
+    public String[] getLabels() {
+        return labels;
+    }
+
+    public void setLabels(String[] labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * Original id of a vertex, as text.
+     */
+    public String getLabel(int vertex) {
+        return labels != null ? labels[vertex] : Integer.toString(vertex);
+    }
+
     // Legacy getters/setters for backward compatibility (vertices)
     public int getVertices() {
         return n;
@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Reusable iterator over the out-neighbors of one vertex at a time, without boxing.
+ * A cursor is positioned with {@link #reset(int)} and then drained with
+ * {@link #hasNext()} / {@link #next()}; backends may decode neighbors lazily,
+ * so a list is never materialized as a whole. Cursors are not thread-safe.
+ */
+public interface NeighborCursor {
+    /**
+     * Position the cursor on the first out-neighbor of a vertex.
+     */
+    void reset(int vertex);
+
+    boolean hasNext();
+
+    /**
+     * The next out-neighbor; only valid while {@link #hasNext()} is true.
+     */
+    int next();
+}
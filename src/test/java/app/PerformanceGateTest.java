@@ -0,0 +1,104 @@
+package app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the scaling fit and regression rules of the performance gate.
+ */
+public class PerformanceGateTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testFitsLinearAndQuadraticScaling() {
+        // time = 10 ns * (n + m) and time = 1 ns * (n + m)^2, with m = 4n
+        List<PerformanceGate.Sample> linear = new ArrayList<>();
+        List<PerformanceGate.Sample> quadratic = new ArrayList<>();
+        for (int n : new int[]{100_000, 1_000_000, 10_000_000}) {
+            long size = 5L * n;
+            linear.add(new PerformanceGate.Sample("a", n, 4L * n, 10 * size, 0));
+            quadratic.add(new PerformanceGate.Sample("b", n, 4L * n, size * size, 0));
+        }
+
+        assertEquals(1.0, PerformanceGate.fitExponent(linear), 0.001);
+        assertEquals(2.0, PerformanceGate.fitExponent(quadratic), 0.001);
+        assertTrue(Double.isNaN(PerformanceGate.fitExponent(linear.subList(0, 1))));
+    }
+
+    @Test
+    public void testSlowerRunFailsAndFasterRunPasses() {
+        List<PerformanceGate.Sample> baseline = List.of(
+                sample("tarjan", 100_000, 50_000_000, 1_000_000),
+                sample("tarjan", 1_000_000, 500_000_000, 10_000_000));
+
+        List<PerformanceGate.Sample> faster = List.of(
+                sample("tarjan", 100_000, 40_000_000, 1_000_000),
+                sample("tarjan", 1_000_000, 400_000_000, 10_000_000));
+        assertEquals(List.of(), PerformanceGate.compare(baseline, faster, 0.3, 0.2));
+
+        List<PerformanceGate.Sample> slower = List.of(
+                sample("tarjan", 100_000, 50_000_000, 1_000_000),
+                sample("tarjan", 1_000_000, 1_000_000_000, 10_000_000));
+        List<String> regressions = PerformanceGate.compare(baseline, slower, 0.3, 0.2);
+        assertEquals(2, regressions.size());
+        assertTrue(regressions.get(0).contains("throughput"));
+        assertTrue(regressions.get(1).contains("scaling exponent"));
+    }
+
+    @Test
+    public void testShortRunsAreNotTimed() {
+        // 0.5 ms baseline is below the gated minimum, so a 4x slowdown is noise
+        List<PerformanceGate.Sample> baseline = List.of(sample("kahn", 1_000, 500_000, 10_000));
+        List<PerformanceGate.Sample> current = List.of(sample("kahn", 1_000, 2_000_000, 10_000));
+
+        assertEquals(List.of(), PerformanceGate.compare(baseline, current, 0.3, 0.2));
+    }
+
+    @Test
+    public void testAllocationGrowthFails() {
+        List<PerformanceGate.Sample> baseline = List.of(
+                sample("kahn", 1_000_000, 100_000_000, 24_000_000),
+                sample("parallel_scc", 1_000_000, 100_000_000, 24_000_000));
+        List<PerformanceGate.Sample> current = List.of(
+                sample("kahn", 1_000_000, 100_000_000, 48_000_000),
+                sample("parallel_scc", 1_000_000, 100_000_000, 48_000_000));
+
+        List<String> regressions = PerformanceGate.compare(baseline, current, 0.3, 0.2);
+
+        // The parallel engine's allocation depends on work stealing and is not gated
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).startsWith("kahn n=1000000 allocated"));
+    }
+
+    @Test
+    public void testCsvRoundTrip() throws IOException {
+        Path file = dir.resolve("bench/baseline.csv");
+        List<PerformanceGate.Sample> samples = List.of(
+                sample("tarjan", 1_000, 250_000, 13_040),
+                sample("dag_shortest", 1_000_000, 90_000_000, -1));
+
+        PerformanceGate.write(file, samples);
+        List<PerformanceGate.Sample> read = PerformanceGate.read(file);
+
+        assertEquals(2, read.size());
+        assertEquals("dag_shortest", read.get(1).engine);
+        assertEquals(1_000_000, read.get(1).n);
+        assertEquals(4_000_000, read.get(1).m);
+        assertEquals(90_000_000, read.get(1).medianNanos);
+        assertEquals(-1, read.get(1).allocatedBytes);
+        assertEquals(samples.get(0).getThroughput(), read.get(0).getThroughput(), 0.001);
+    }
+
+    private static PerformanceGate.Sample sample(String engine, int n, long nanos, long allocated) {
+        return new PerformanceGate.Sample(engine, n, 4L * n, nanos, allocated);
+    }
+}
@@ -0,0 +1,134 @@
+package cache;
+
+import graph.shard.ShardedPipeline;
+import io.GraphLoader;
+import model.CsrGraph;
+import model.EdgeData;
+import model.GraphData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the content-addressed analysis cache.
+ */
+public class AnalysisCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        // Cycle 0 <-> 1 feeding 2 -> 3, plus a separate shard 4 -> 5
+        CsrGraph graph = graph(new EdgeData(0, 1, 1), new EdgeData(1, 0, 2), new EdgeData(1, 2, 3),
+                new EdgeData(2, 3, 4), new EdgeData(4, 5, 5));
+        ShardedPipeline.Result expected = new ShardedPipeline().run(graph, 0);
+        AnalysisCache cache = new AnalysisCache(dir, 1 << 20);
+        String key = AnalysisCache.key(graph, 0, null);
+
+        assertNull(cache.get(key));
+        cache.put(key, expected);
+        ShardedPipeline.Result cached = cache.get(key);
+
+        assertNotNull(cached);
+        assertEquals(1, cache.getMetrics().getCounter("hits"));
+        assertEquals(expected.getPartition().getShardCount(), cached.getPartition().getShardCount());
+        assertEquals(expected.getSccs().toLists(), cached.getSccs().toLists());
+        assertArrayEquals(expected.getSccs().getComponentOf(), cached.getSccs().getComponentOf());
+        assertEquals(expected.getCondensation(), cached.getCondensation());
+        assertEquals(expected.getComponentOrder(), cached.getComponentOrder());
+        assertEquals(expected.getVertexOrder(), cached.getVertexOrder());
+        assertArrayEquals(expected.getShortestDistances(), cached.getShortestDistances());
+        // The source's shard is cyclic, so there is no critical path to store
+        assertNull(expected.getCriticalPath());
+        assertNull(cached.getCriticalPath());
+    }
+
+    @Test
+    public void testRoundTripKeepsCriticalPath() throws IOException {
+        // Acyclic shard 0 -> 1 -> 2 with shortcut 0 -> 2, plus a cycle 3 <-> 4
+        CsrGraph graph = graph(new EdgeData(0, 1, 2), new EdgeData(1, 2, 3), new EdgeData(0, 2, 1),
+                new EdgeData(3, 4, 1), new EdgeData(4, 3, 1));
+        ShardedPipeline.Result expected = new ShardedPipeline().run(graph, 0);
+        AnalysisCache cache = new AnalysisCache(dir, 1 << 20);
+        String key = AnalysisCache.key(graph, 0, null);
+
+        cache.put(key, expected);
+        ShardedPipeline.Result cached = cache.get(key);
+
+        assertEquals(List.of(0, 1, 2), cached.getCriticalPath().getPath());
+        assertEquals(expected.getCriticalPath().getLength(), cached.getCriticalPath().getLength(), 0.001);
+    }
+
+    @Test
+    public void testKeyDependsOnContentAndSource() {
+        CsrGraph graph = graph(new EdgeData(0, 1, 1), new EdgeData(1, 2, 2));
+        CsrGraph reweighted = graph(new EdgeData(0, 1, 1), new EdgeData(1, 2, 2.5));
+
+        String key = AnalysisCache.key(graph, 0, null);
+        assertEquals(key, AnalysisCache.key(graph(new EdgeData(0, 1, 1), new EdgeData(1, 2, 2)), 0, null));
+        assertNotEquals(key, AnalysisCache.key(reweighted, 0, null));
+        assertNotEquals(key, AnalysisCache.key(graph, 1, null));
+        assertNotEquals(key, AnalysisCache.key(graph, 0, new double[]{1, 1, 1}));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() throws IOException {
+        // Three single-edge graphs whose entries do not all fit the budget
+        AnalysisCache cache = new AnalysisCache(dir, Long.MAX_VALUE);
+        CsrGraph[] graphs = new CsrGraph[3];
+        String[] keys = new String[3];
+        for (int i = 0; i < 3; i++) {
+            graphs[i] = graph(new EdgeData(0, 1, i + 1));
+            keys[i] = AnalysisCache.key(graphs[i], 0, null);
+        }
+        cache.put(keys[0], new ShardedPipeline().run(graphs[0], 0));
+        cache.put(keys[1], new ShardedPipeline().run(graphs[1], 0));
+        long entrySize = Files.size(dir.resolve(keys[0] + ".bin"));
+        long now = System.currentTimeMillis();
+        Files.setLastModifiedTime(dir.resolve(keys[0] + ".bin"), FileTime.fromMillis(now - 3_000));
+        Files.setLastModifiedTime(dir.resolve(keys[1] + ".bin"), FileTime.fromMillis(now - 2_000));
+
+        // Using entry 0 makes entry 1 the least recently used
+        AnalysisCache bounded = new AnalysisCache(dir, 2 * entrySize);
+        assertNotNull(bounded.get(keys[0]));
+        bounded.put(keys[2], new ShardedPipeline().run(graphs[2], 0));
+
+        assertEquals(1, bounded.getMetrics().getCounter("evictions"));
+        assertNotNull(bounded.get(keys[0]));
+        assertNull(bounded.get(keys[1]));
+        assertNotNull(bounded.get(keys[2]));
+    }
+
+    @Test
+    public void testCorruptEntryIsAMiss() throws IOException {
+        CsrGraph graph = graph(new EdgeData(0, 1, 1));
+        AnalysisCache cache = new AnalysisCache(dir, 1 << 20);
+        String key = AnalysisCache.key(graph, 0, null);
+        cache.put(key, new ShardedPipeline().run(graph, 0));
+        Path entry = dir.resolve(key + ".bin");
+        byte[] bytes = Files.readAllBytes(entry);
+        Files.write(entry, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertNull(cache.get(key));
+        assertEquals(1, cache.getMetrics().getCounter("corrupt"));
+        assertFalse(Files.exists(entry));
+    }
+
+    private static CsrGraph graph(EdgeData... edges) {
+        int n = 0;
+        for (EdgeData edge : edges) {
+            n = Math.max(n, Math.max(edge.getU(), edge.getV()) + 1);
+        }
+        List<EdgeData> list = Arrays.asList(edges);
+        return GraphLoader.createCsrGraph(new GraphData(true, n, list, 0, "edge"));
+    }
+}
@@ -0,0 +1,85 @@
+package graph.dagsp;
+
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SCC-aware shortest paths on cyclic graphs.
+ */
+public class CondensationShortestPathTest {
+
+    @Test
+    public void testCycleInsideComponent() {
+        // 0 -> 1 (weight 1), cycle 1 -> 2 (weight 1), 2 -> 1 (weight 1), 1 -> 3 (weight 10), 2 -> 3 (weight 2)
+        // Shortest to 3: 0 -> 1 -> 2 -> 3 = 4
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{2, 1.0}, new double[]{3, 10.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1.0}, new double[]{3, 2.0})));
+        graph.add(new ArrayList<>());
+
+        double[] dist = solve(graph, 0);
+
+        assertArrayEquals(new double[]{0.0, 1.0, 2.0, 4.0}, dist, 0.001);
+    }
+
+    @Test
+    public void testSourceInsideComponent() {
+        // Cycle 0 -> 1 (weight 4), 1 -> 2 (weight 4), 2 -> 0 (weight 1); source 1
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 4.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{2, 4.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{0, 1.0})));
+
+        double[] dist = solve(graph, 1);
+
+        assertArrayEquals(new double[]{5.0, 0.0, 4.0}, dist, 0.001);
+    }
+
+    @Test
+    public void testUnreachableUpstreamComponent() {
+        // 0 <-> 1 cycle feeding 2; source 2 cannot reach the cycle
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1.0}, new double[]{2, 1.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{0, 1.0})));
+        graph.add(new ArrayList<>());
+
+        double[] dist = solve(graph, 2);
+
+        assertEquals(Double.POSITIVE_INFINITY, dist[0]);
+        assertEquals(Double.POSITIVE_INFINITY, dist[1]);
+        assertEquals(0.0, dist[2], 0.001);
+    }
+
+    @Test
+    public void testNegativeWeightInsideComponentRejected() {
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, -1.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{0, 2.0})));
+
+        assertThrows(IllegalArgumentException.class, () -> solve(graph, 0));
+    }
+
+    private static double[] solve(List<List<double[]>> graph, int source) {
+        List<List<Integer>> unweighted = new ArrayList<>();
+        for (List<double[]> edges : graph) {
+            List<Integer> targets = new ArrayList<>();
+            for (double[] edge : edges) {
+                targets.add((int) edge[0]);
+            }
+            unweighted.add(targets);
+        }
+        TarjanSCC tarjan = new TarjanSCC();
+        List<List<Integer>> sccs = tarjan.findSCCs(unweighted);
+        List<Integer> componentOrder = new TopologicalSort()
+                .topologicalSort(tarjan.buildCondensationGraph(unweighted, sccs));
+        return new CondensationShortestPath().shortestPaths(graph, sccs, componentOrder, source);
+    }
+}
@@ -0,0 +1,165 @@
+package graph.dagsp;
+
+import graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for chain-contracted DAG paths.
+ */
+public class ContractedDagTest {
+
+    @Test
+    public void testContractsSeriesChain() {
+        // 0 -> 1 (1) -> 2 (2) -> 3 (3) plus shortcut 0 -> 3 (10): chain 1, 2 becomes one edge of weight 6
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(List.of(new double[]{1, 1}, new double[]{3, 10}));
+        graph.add(List.<double[]>of(new double[]{2, 2}));
+        graph.add(List.<double[]>of(new double[]{3, 3}));
+        graph.add(List.of());
+        ContractedDag contracted = ContractedDag.from(graph, Arrays.asList(0, 1, 2, 3));
+
+        assertEquals(2, contracted.getContractedVertexCount());
+        assertEquals(2, contracted.getContractedEdgeCount());
+        assertEquals(1, contracted.getChainCount());
+
+        DAGShortestPath dagsp = new DAGShortestPath();
+        ContractedDag.Distances shortest = dagsp.shortestPaths(contracted, 0);
+        assertArrayEquals(new double[]{0, 1, 3, 6}, shortest.toArray(), 0.001);
+        assertEquals(Arrays.asList(0, 1, 2, 3), shortest.getPath(3));
+        assertEquals(Arrays.asList(0, 1, 2), shortest.getPath(2));
+        assertEquals(2, dagsp.getMetrics().getCounter("relaxations"));
+
+        ContractedDag.Distances longest = dagsp.longestPaths(contracted, 0);
+        assertEquals(10.0, longest.get(3), 0.001);
+        assertEquals(Arrays.asList(0, 3), longest.getPath(3));
+    }
+
+    @Test
+    public void testSourceInsideChain() {
+        // 0 -> 1 -> 2 -> 3 -> 4 with 0 -> 4; source 2 reaches only 3 and 4
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(List.of(new double[]{1, 1}, new double[]{4, 1}));
+        graph.add(List.<double[]>of(new double[]{2, 1}));
+        graph.add(List.<double[]>of(new double[]{3, 2}));
+        graph.add(List.<double[]>of(new double[]{4, 3}));
+        graph.add(List.of());
+        ContractedDag contracted = ContractedDag.from(graph, Arrays.asList(0, 1, 2, 3, 4));
+
+        ContractedDag.Distances shortest = new DAGShortestPath().shortestPaths(contracted, 2);
+
+        double inf = Double.POSITIVE_INFINITY;
+        assertArrayEquals(new double[]{inf, inf, 0, 2, 5}, shortest.toArray(), 0.001);
+        assertEquals(Arrays.asList(2, 3, 4), shortest.getPath(4));
+        assertEquals(List.of(2), shortest.getPath(2));
+        assertEquals(List.of(), shortest.getPath(1));
+
+        DAGShortestPath.CriticalPathResult critical = new DAGShortestPath().findCriticalPath(contracted, 2);
+        assertEquals(5.0, critical.getLength(), 0.001);
+        assertEquals(Arrays.asList(2, 3, 4), critical.getPath());
+    }
+
+    @Test
+    public void testMatchesUncontractedSweeps() {
+        // Random DAG whose edges are subdivided into chains of 0..5 extra vertices
+        List<List<double[]>> graph = subdividedDag(300, 3, 5, 17);
+        int n = graph.size();
+        List<Integer> order = new TopologicalSort().topologicalSort(toStructure(graph));
+        ContractedDag contracted = ContractedDag.from(graph, order);
+        assertTrue(contracted.getContractedVertexCount() < n / 2);
+
+        DAGShortestPath dagsp = new DAGShortestPath();
+        Random random = new Random(3);
+        for (int trial = 0; trial < 10; trial++) {
+            int source = order.get(random.nextInt(n / 4));
+            double[] shortest = dagsp.shortestPaths(graph, order, source);
+            double[] longest = dagsp.longestPaths(graph, order, source);
+            ContractedDag.Distances contractedShortest = dagsp.shortestPaths(contracted, source);
+            ContractedDag.Distances contractedLongest = dagsp.longestPaths(contracted, source);
+
+            assertArrayEquals(shortest, contractedShortest.toArray(), 1e-9);
+            assertArrayEquals(longest, contractedLongest.toArray(), 1e-9);
+            for (int v = 0; v < n; v++) {
+                List<Integer> path = contractedShortest.getPath(v);
+                if (shortest[v] == Double.POSITIVE_INFINITY) {
+                    assertTrue(path.isEmpty());
+                } else {
+                    assertEquals(source, path.get(0));
+                    assertEquals(shortest[v], pathLength(graph, path, false), 1e-9);
+                }
+            }
+            DAGShortestPath.CriticalPathResult expected = dagsp.findCriticalPath(graph, order, source);
+            DAGShortestPath.CriticalPathResult actual = dagsp.findCriticalPath(contracted, source);
+            assertEquals(expected.getLength(), actual.getLength(), 1e-9);
+            assertEquals(actual.getLength(), pathLength(graph, actual.getPath(), true), 1e-9);
+        }
+    }
+
+    @Test
+    public void testRejectsCycles() {
+        // 0 -> 1 -> 2 -> 1 is a cycle of chain vertices 1 and 2 behind junction 0
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(List.<double[]>of(new double[]{1, 1}));
+        graph.add(List.<double[]>of(new double[]{2, 1}));
+        graph.add(List.<double[]>of(new double[]{1, 1}));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ContractedDag.from(graph, Arrays.asList(0, 1, 2)));
+    }
+
+    private static List<List<double[]>> subdividedDag(int n, int degree, int maxChain, long seed) {
+        Random random = new Random(seed);
+        List<List<double[]>> graph = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            graph.add(new ArrayList<>());
+        }
+        for (int u = 0; u + 1 < n; u++) {
+            for (int i = 0; i < degree; i++) {
+                int v = u + 1 + random.nextInt(Math.min(20, n - u - 1));
+                int previous = u;
+                for (int c = random.nextInt(maxChain + 1); c > 0; c--) {
+                    graph.add(new ArrayList<>());
+                    int middle = graph.size() - 1;
+                    graph.get(previous).add(new double[]{middle, 1 + random.nextInt(9)});
+                    previous = middle;
+                }
+                graph.get(previous).add(new double[]{v, 1 + random.nextInt(9)});
+            }
+        }
+        return graph;
+    }
+
+    private static List<List<Integer>> toStructure(List<List<double[]>> graph) {
+        List<List<Integer>> structure = new ArrayList<>();
+        for (List<double[]> edges : graph) {
+            List<Integer> targets = new ArrayList<>();
+            for (double[] edge : edges) {
+                targets.add((int) edge[0]);
+            }
+            structure.add(targets);
+        }
+        return structure;
+    }
+
+    // Parallel edges: the lightest for shortest paths, the heaviest for longest
+    private static double pathLength(List<List<double[]>> graph, List<Integer> path, boolean longest) {
+        double length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            double best = Double.NaN;
+            for (double[] edge : graph.get(path.get(i - 1))) {
+                if ((int) edge[0] == path.get(i)) {
+                    best = Double.isNaN(best) ? edge[1] : longest ? Math.max(best, edge[1]) : Math.min(best, edge[1]);
+                }
+            }
+            assertFalse(Double.isNaN(best), "missing edge " + path.get(i - 1) + " -> " + path.get(i));
+            length += best;
+        }
+        return length;
+    }
+}
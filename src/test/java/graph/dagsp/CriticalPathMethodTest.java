@@ -0,0 +1,82 @@
+package graph.dagsp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Critical Path Method engine.
+ */
+public class CriticalPathMethodTest {
+
+    @Test
+    public void testEarliestLatestAndSlack() {
+        // DAG: 0 -> 1 (weight 2), 1 -> 3 (weight 4), 0 -> 2 (weight 3), 2 -> 3 (weight 5)
+        // Critical path: 0 -> 2 -> 3 = 8, vertex 1 has slack 2
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 2.0}, new double[]{2, 3.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 4.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 5.0})));
+        graph.add(new ArrayList<>());
+
+        CriticalPathMethod cpm = new CriticalPathMethod();
+        CriticalPathMethod.ScheduleResult result = cpm.analyze(graph, Arrays.asList(0, 1, 2, 3));
+
+        assertEquals(8.0, result.getMakespan(), 0.001);
+        assertArrayEquals(new double[]{0.0, 2.0, 3.0, 8.0}, result.getEarliestStart(), 0.001);
+        assertArrayEquals(new double[]{0.0, 4.0, 3.0, 8.0}, result.getLatestStart(), 0.001);
+        assertEquals(2.0, result.getSlack()[1], 0.001);
+        assertTrue(result.isCritical(0));
+        assertTrue(result.isCritical(2));
+        assertFalse(result.isCritical(1));
+    }
+
+    @Test
+    public void testCriticalEdges() {
+        // Two equally long branches: 0 -> 1 -> 3 and 0 -> 2 -> 3, all weights 1
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1.0}, new double[]{2, 1.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 1.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 1.0})));
+        graph.add(new ArrayList<>());
+
+        CriticalPathMethod cpm = new CriticalPathMethod();
+        CriticalPathMethod.ScheduleResult result = cpm.analyze(graph, Arrays.asList(0, 2, 1, 3));
+
+        assertEquals(4, result.getCriticalEdgeCount());
+        for (int v = 0; v < 4; v++) {
+            assertTrue(result.isCritical(v));
+        }
+    }
+
+    @Test
+    public void testIndependentTaskHasSlack() {
+        // 0 -> 1 (weight 10), vertex 2 is isolated and can float over the whole project
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 10.0})));
+        graph.add(new ArrayList<>());
+        graph.add(new ArrayList<>());
+
+        CriticalPathMethod cpm = new CriticalPathMethod();
+        CriticalPathMethod.ScheduleResult result = cpm.analyze(graph, Arrays.asList(2, 0, 1));
+
+        assertEquals(10.0, result.getSlack()[2], 0.001);
+        assertEquals(1, result.getCriticalEdgeCount());
+        assertEquals(0, result.getCriticalEdgeSources()[0]);
+        assertEquals(1, result.getCriticalEdgeTargets()[0]);
+    }
+
+    @Test
+    public void testIncompleteOrderRejected() {
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>());
+        graph.add(new ArrayList<>());
+
+        CriticalPathMethod cpm = new CriticalPathMethod();
+        assertThrows(IllegalArgumentException.class, () -> cpm.analyze(graph, List.of(0)));
+    }
+}
@@ -0,0 +1,86 @@
+package graph.dagsp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for point-to-point DAG path queries.
+ */
+public class DAGPathQueryTest {
+
+    @Test
+    public void testPointToPointDistances() {
+        // DAG: 0 -> 1 (weight 2), 1 -> 3 (weight 4), 0 -> 2 (weight 3), 2 -> 3 (weight 5)
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 2.0}, new double[]{2, 3.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 4.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 5.0})));
+        graph.add(new ArrayList<>());
+
+        DAGPathQuery query = new DAGPathQuery(graph, Arrays.asList(0, 1, 2, 3));
+
+        assertEquals(6.0, query.shortestDistance(0, 3), 0.001);
+        assertEquals(8.0, query.longestDistance(0, 3), 0.001);
+        assertEquals(Arrays.asList(0, 1, 3), query.shortestPath(0, 3));
+        assertEquals(Arrays.asList(0, 2, 3), query.longestPath(0, 3));
+        assertEquals(Double.POSITIVE_INFINITY, query.shortestDistance(1, 2));
+        assertEquals(Double.POSITIVE_INFINITY, query.shortestDistance(3, 0));
+        assertTrue(query.shortestPath(3, 0).isEmpty());
+    }
+
+    @Test
+    public void testRepeatedQueriesMatchFullSweep() {
+        // Random DAG with edges from lower to higher ids
+        Random random = new Random(3);
+        int n = 200;
+        List<List<double[]>> graph = new ArrayList<>();
+        List<Integer> topoOrder = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            List<double[]> edges = new ArrayList<>();
+            for (int i = 0; i < 3 && u + 1 < n; i++) {
+                edges.add(new double[]{u + 1 + random.nextInt(Math.min(20, n - u - 1)), random.nextInt(9) + 1});
+            }
+            graph.add(edges);
+            topoOrder.add(u);
+        }
+
+        DAGShortestPath dagsp = new DAGShortestPath();
+        DAGPathQuery query = new DAGPathQuery(graph, topoOrder);
+        for (int q = 0; q < 100; q++) {
+            int source = random.nextInt(n);
+            int target = random.nextInt(n);
+            boolean prune = q % 2 == 0;
+            assertEquals(dagsp.shortestPaths(graph, topoOrder, source)[target],
+                    query.shortestDistance(source, target, prune), 1e-9);
+            assertEquals(dagsp.longestPaths(graph, topoOrder, source)[target],
+                    query.longestDistance(source, target, prune), 1e-9);
+        }
+    }
+
+    @Test
+    public void testPruningSkipsDeadEnds() {
+        // 0 -> 1 -> 3 is the only route to 3; 0 -> 2 -> 4 -> 5 cannot reach it
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1.0}, new double[]{2, 1.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 1.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{4, 1.0})));
+        graph.add(new ArrayList<>());
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{5, 1.0})));
+        graph.add(new ArrayList<>());
+        List<Integer> topoOrder = Arrays.asList(0, 2, 4, 1, 3, 5);
+
+        DAGPathQuery query = new DAGPathQuery(graph, topoOrder);
+        query.shortestDistance(0, 3, false);
+        long unpruned = query.getMetrics().getCounter("relaxations");
+        assertEquals(2.0, query.shortestDistance(0, 3, true), 0.001);
+        long pruned = query.getMetrics().getCounter("relaxations");
+
+        assertTrue(pruned < unpruned);
+    }
+}
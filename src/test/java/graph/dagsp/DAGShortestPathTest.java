@@ -1,5 +1,6 @@
 package graph.dagsp;
 
+import metrics.NoOpMetrics;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -82,4 +83,100 @@ public class DAGShortestPathTest {
         assertEquals(1.0, dist[1], 0.001);
         assertEquals(Double.POSITIVE_INFINITY, dist[2]);
     }
+
+    @Test
+    public void testCompactEncodingsMatchDoubleBaseline() {
+        // DAG: 0 -> 1 (weight 2.5), 1 -> 3 (weight 4.25), 0 -> 2 (weight 3.125), 2 -> 3 (weight 5.5)
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 2.5}, new double[]{2, 3.125})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 4.25})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 5.5})));
+        graph.add(new ArrayList<>());
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2, 3);
+
+        DAGShortestPath dagsp = new DAGShortestPath();
+        double[] shortest = dagsp.shortestPaths(graph, topoOrder, 0);
+        double[] longest = dagsp.longestPaths(graph, topoOrder, 0);
+
+        for (CompactWeightedGraph compact : Arrays.asList(
+                CompactWeightedGraph.from(graph, CompactWeightedGraph.WeightEncoding.DOUBLE),
+                CompactWeightedGraph.from(graph, CompactWeightedGraph.WeightEncoding.FLOAT32),
+                CompactWeightedGraph.fixedPoint(graph, 1000.0))) {
+            assertArrayEquals(shortest, dagsp.shortestPaths(compact, topoOrder, 0), 0.001);
+            assertArrayEquals(longest, dagsp.longestPaths(compact, topoOrder, 0), 0.001);
+        }
+    }
+
+    @Test
+    public void testUnitWeightsCountHops() {
+        // 0 -> 1 -> 2 -> 3 and shortcut 0 -> 3
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 9.0}, new double[]{3, 9.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{2, 9.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 9.0})));
+        graph.add(new ArrayList<>());
+
+        CompactWeightedGraph compact = CompactWeightedGraph.from(graph, CompactWeightedGraph.WeightEncoding.UNIT);
+        DAGShortestPath dagsp = new DAGShortestPath();
+
+        assertEquals(1.0, dagsp.shortestPaths(compact, Arrays.asList(0, 1, 2, 3), 0)[3], 0.001);
+        assertEquals(3.0, dagsp.longestPaths(compact, Arrays.asList(0, 1, 2, 3), 0)[3], 0.001);
+        assertEquals(Double.POSITIVE_INFINITY, dagsp.shortestPaths(compact, Arrays.asList(0, 1, 2, 3), 1)[0]);
+    }
+
+    @Test
+    public void testFixedPointOverflowRejected() {
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1e9})));
+        graph.add(new ArrayList<>());
+
+        assertThrows(IllegalArgumentException.class, () -> CompactWeightedGraph.fixedPoint(graph, 1000.0));
+    }
+
+    @Test
+    public void testWorkspaceCriticalPathMatchesInstanceApi() {
+        // 0 -> 1 (1), 0 -> 2 (4), 1 -> 3 (5), 2 -> 3 (1)
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1.0}, new double[]{2, 4.0})));
+        graph.add(new ArrayList<>(List.<double[]>of(new double[]{3, 5.0})));
+        graph.add(new ArrayList<>(List.<double[]>of(new double[]{3, 1.0})));
+        graph.add(new ArrayList<>());
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2, 3);
+
+        DAGShortestPath.Workspace workspace = new DAGShortestPath.Workspace();
+        DAGShortestPath.CriticalPathResult first = DAGShortestPath.findCriticalPath(
+                graph, topoOrder, 0, workspace, NoOpMetrics.INSTANCE);
+        DAGShortestPath.CriticalPathResult second = DAGShortestPath.findCriticalPath(
+                graph, topoOrder, 0, workspace, NoOpMetrics.INSTANCE);
+
+        assertEquals(6.0, first.getLength(), 0.001);
+        assertEquals(Arrays.asList(0, 1, 3), first.getPath());
+        assertEquals(first.getPath(), second.getPath());
+        assertEquals(first.getPath(), new DAGShortestPath().findCriticalPath(graph, topoOrder, 0).getPath());
+
+        double[] dist = new double[4];
+        DAGShortestPath.shortestPaths(graph, topoOrder, 0, dist, NoOpMetrics.INSTANCE);
+        assertEquals(5.0, dist[3], 0.001);
+    }
+
+    @Test
+    public void testRejectsOrderThatIsNotTopological() {
+        // 0 -> 1 -> 2 -> 1 (cycle 1 <-> 2), 2 -> 3; the order lists the cycle's members in a row
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(List.<double[]>of(new double[]{1, 1.0})));
+        graph.add(new ArrayList<>(List.<double[]>of(new double[]{2, 2.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 3.0}, new double[]{3, 4.0})));
+        graph.add(new ArrayList<>());
+        List<Integer> order = Arrays.asList(0, 1, 2, 3);
+        DAGShortestPath dagsp = new DAGShortestPath();
+
+        assertThrows(IllegalArgumentException.class, () -> dagsp.findCriticalPath(graph, order, 0));
+        assertThrows(IllegalArgumentException.class, () -> DAGShortestPath.findCriticalPath(
+                graph, order, 0, new DAGShortestPath.Workspace(), NoOpMetrics.INSTANCE));
+        assertThrows(IllegalArgumentException.class,
+                () -> dagsp.reconstructPath(graph, order, 0, 3, Semiring.MAX_PLUS));
+
+        // Starting behind the cycle only relaxes forward edges
+        assertEquals(Arrays.asList(3), dagsp.findCriticalPath(graph, order, 3).getPath());
+    }
 }
@@ -0,0 +1,118 @@
+package graph.dagsp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for K longest paths enumeration.
+ */
+public class KLongestPathsTest {
+
+    @Test
+    public void testPathsInOrder() {
+        // DAG: 0 -> 1 (weight 2), 1 -> 3 (weight 4), 0 -> 2 (weight 3), 2 -> 3 (weight 5), 0 -> 3 (weight 1)
+        // Paths to sink 3: 0-2-3 = 8, 0-1-3 = 6, 0-3 = 1
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(
+                new double[]{1, 2.0}, new double[]{2, 3.0}, new double[]{3, 1.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 4.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 5.0})));
+        graph.add(new ArrayList<>());
+
+        KLongestPaths kPaths = new KLongestPaths();
+        KLongestPaths.PathSet paths =
+                kPaths.findKLongestPaths(graph, Arrays.asList(0, 1, 2, 3), 0, 10);
+
+        assertEquals(3, paths.size());
+        assertEquals(8.0, paths.get(0).getLength(), 0.001);
+        assertEquals(Arrays.asList(0, 2, 3), paths.get(0).getPath());
+        assertEquals(6.0, paths.get(1).getLength(), 0.001);
+        assertEquals(Arrays.asList(0, 1, 3), paths.get(1).getPath());
+        assertEquals(1.0, paths.get(2).getLength(), 0.001);
+        assertEquals(Arrays.asList(0, 3), paths.get(2).getPath());
+    }
+
+    @Test
+    public void testTargetRestriction() {
+        // 0 -> 1 (weight 1), 1 -> 2 (weight 1), 0 -> 2 (weight 5), 2 -> 3 (weight 100)
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1.0}, new double[]{2, 5.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{2, 1.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{3, 100.0})));
+        graph.add(new ArrayList<>());
+
+        KLongestPaths kPaths = new KLongestPaths();
+        KLongestPaths.PathSet paths =
+                kPaths.findKLongestPaths(graph, Arrays.asList(0, 1, 2, 3), 0, 2, 5);
+
+        assertEquals(2, paths.size());
+        assertEquals(Arrays.asList(0, 2), paths.get(0).getPath());
+        assertEquals(Arrays.asList(0, 1, 2), paths.get(1).getPath());
+        assertTrue(kPaths.findKLongestPaths(graph, Arrays.asList(0, 1, 2, 3), 3, 0, 5).isEmpty());
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        // Random DAG with edges only from lower to higher vertex ids
+        Random random = new Random(7);
+        int n = 12;
+        List<List<double[]>> graph = new ArrayList<>();
+        List<Integer> topoOrder = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            graph.add(new ArrayList<>());
+            topoOrder.add(i);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (random.nextDouble() < 0.35) {
+                    graph.get(i).add(new double[]{j, random.nextInt(10) + 1});
+                }
+            }
+        }
+
+        List<Double> expected = new ArrayList<>();
+        enumerateAll(graph, 0, 0.0, expected);
+        expected.sort(Collections.reverseOrder());
+
+        KLongestPaths kPaths = new KLongestPaths();
+        KLongestPaths.PathSet paths =
+                kPaths.findKLongestPaths(graph, topoOrder, 0, expected.size() + 5);
+
+        assertEquals(expected.size(), paths.size());
+        for (int i = 0; i < expected.size(); i++) {
+            DAGShortestPath.CriticalPathResult result = paths.get(i);
+            assertEquals(expected.get(i), result.getLength(), 0.001);
+            assertEquals(result.getLength(), pathLength(graph, result.getPath()), 0.001);
+        }
+    }
+
+    private static void enumerateAll(List<List<double[]>> graph, int u, double length, List<Double> out) {
+        if (graph.get(u).isEmpty()) {
+            out.add(length);
+            return;
+        }
+        for (double[] edge : graph.get(u)) {
+            enumerateAll(graph, (int) edge[0], length + edge[1], out);
+        }
+    }
+
+    private static double pathLength(List<List<double[]>> graph, List<Integer> path) {
+        double length = 0.0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            for (double[] edge : graph.get(path.get(i))) {
+                if ((int) edge[0] == path.get(i + 1)) {
+                    length += edge[1];
+                    break;
+                }
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,153 @@
+package graph.dagsp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for resource-constrained list scheduling.
+ */
+public class ListSchedulerTest {
+
+    @Test
+    public void testChainOnOneResource() {
+        // Chain 0 (2) -> 1 (3) -> 2 (1): starts are prefix sums of the durations
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(List.of(1));
+        graph.add(List.of(2));
+        graph.add(List.of());
+
+        ListScheduler.Schedule schedule = new ListScheduler()
+                .schedule(graph, new double[]{2, 3, 1}, Arrays.asList(0, 1, 2), 1);
+
+        assertArrayEquals(new double[]{0, 2, 5}, schedule.getStartTimes(), 0.001);
+        assertEquals(6.0, schedule.getMakespan(), 0.001);
+        assertArrayEquals(new double[]{6, 4, 1}, schedule.getBottomLevels(), 0.001);
+        assertEquals(1.0, schedule.getUtilization(), 0.001);
+    }
+
+    @Test
+    public void testHighestBottomLevelStartsFirst() {
+        // 0 (1) fans out to 1 (2), 2 (1) and 3 (3) on two crews: 3 and 1 start at 1, 2 waits for 1
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(List.of(1, 2, 3));
+        graph.add(List.of());
+        graph.add(List.of());
+        graph.add(List.of());
+
+        ListScheduler scheduler = new ListScheduler();
+        ListScheduler.Schedule schedule = scheduler.schedule(graph, new double[]{1, 2, 1, 3}, Arrays.asList(0, 1, 2, 3), 2);
+
+        assertArrayEquals(new double[]{0, 1, 3, 1}, schedule.getStartTimes(), 0.001);
+        assertEquals(4.0, schedule.getMakespan(), 0.001);
+        assertEquals(4.0, schedule.getCriticalPathLength(), 0.001);
+        assertNotEquals(schedule.getResources()[1], schedule.getResources()[3]);
+        assertEquals(schedule.getResources()[1], schedule.getResources()[2]);
+        assertEquals(4, scheduler.getMetrics().getCounter("completion_events"));
+    }
+
+    @Test
+    public void testUnlimitedResourcesReachCriticalPath() {
+        List<List<Integer>> graph = randomDag(500, 3, 11);
+        double[] durations = randomDurations(500, 12);
+        List<Integer> order = identity(500);
+
+        ListScheduler.Schedule schedule = new ListScheduler().schedule(graph, durations, order, 500);
+
+        assertEquals(schedule.getCriticalPathLength(), schedule.getMakespan(), 0.001);
+    }
+
+    @Test
+    public void testScheduleIsFeasible() {
+        // Random DAG with some zero-duration tasks on 4 crews
+        int n = 2_000;
+        List<List<Integer>> graph = randomDag(n, 4, 3);
+        double[] durations = randomDurations(n, 5);
+        for (int v = 0; v < n; v += 7) {
+            durations[v] = 0;
+        }
+        int crews = 4;
+
+        ListScheduler.Schedule schedule = new ListScheduler().schedule(graph, durations, identity(n), crews);
+
+        for (int u = 0; u < n; u++) {
+            for (int v : graph.get(u)) {
+                assertTrue(schedule.getStartTime(v) >= schedule.getFinishTime(u) - 1e-9);
+            }
+        }
+        // Tasks sharing a crew do not overlap
+        List<List<Integer>> byCrew = new ArrayList<>();
+        for (int r = 0; r < crews; r++) {
+            byCrew.add(new ArrayList<>());
+        }
+        for (int v = 0; v < n; v++) {
+            byCrew.get(schedule.getResources()[v]).add(v);
+        }
+        for (List<Integer> tasks : byCrew) {
+            // A zero-duration task may share its start instant with the next task on the crew
+            tasks.sort((a, b) -> schedule.getStartTime(a) != schedule.getStartTime(b)
+                    ? Double.compare(schedule.getStartTime(a), schedule.getStartTime(b))
+                    : Double.compare(schedule.getFinishTime(a), schedule.getFinishTime(b)));
+            for (int i = 1; i < tasks.size(); i++) {
+                assertTrue(schedule.getStartTime(tasks.get(i)) >= schedule.getFinishTime(tasks.get(i - 1)) - 1e-9);
+            }
+        }
+        double work = Arrays.stream(durations).sum();
+        assertTrue(schedule.getMakespan() >= Math.max(schedule.getCriticalPathLength(), work / crews) - 1e-9);
+        assertTrue(schedule.getUtilization() <= 1.0 + 1e-9);
+    }
+
+    @Test
+    public void testRejectsInvalidInput() {
+        // 0 -> 1 -> 0 is a cycle
+        List<List<Integer>> cyclic = new ArrayList<>();
+        cyclic.add(List.of(1));
+        cyclic.add(List.of(0));
+        ListScheduler scheduler = new ListScheduler();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduler.schedule(cyclic, new double[]{1, 1}, Arrays.asList(0, 1), 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduler.schedule(randomDag(3, 1, 1), new double[]{1, 1, 1}, identity(3), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduler.schedule(randomDag(3, 1, 1), new double[]{1, -1, 1}, identity(3), 1));
+    }
+
+    private static List<List<Integer>> randomDag(int n, int degree, long seed) {
+        Random random = new Random(seed);
+        List<List<Integer>> graph = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            List<Integer> targets = new ArrayList<>();
+            for (int i = 0; i < degree && u + 1 < n; i++) {
+                int v = u + 1 + random.nextInt(Math.min(50, n - u - 1));
+                if (!targets.contains(v)) {
+                    targets.add(v);
+                }
+            }
+            graph.add(targets);
+        }
+        return graph;
+    }
+
+    private static double[] randomDurations(int n, long seed) {
+        Random random = new Random(seed);
+        double[] durations = new double[n];
+        for (int v = 0; v < n; v++) {
+            durations[v] = 1 + random.nextInt(10);
+        }
+        return durations;
+    }
+
+    private static List<Integer> identity(int n) {
+        List<Integer> order = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            order.add(i);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,111 @@
+package graph.dagsp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Monte Carlo schedule risk analysis.
+ */
+public class MonteCarloCriticalPathTest {
+
+    @Test
+    public void testFixedDurationsMatchCpm() {
+        // 0 -> 1 (3), 0 -> 2 (1), 1 -> 3 (2), 2 -> 3 (1): critical path 0 -> 1 -> 3, makespan 5
+        List<List<double[]>> graph = diamond(3, 1, 2, 1);
+        MonteCarloCriticalPath.Durations fixed = MonteCarloCriticalPath.Durations.around(graph, 1.0, 1.0);
+
+        MonteCarloCriticalPath.Result result = new MonteCarloCriticalPath()
+                .simulate(graph, List.of(0, 1, 2, 3), fixed, 100, 7);
+
+        assertEquals(100, result.getSampleCount());
+        assertEquals(5.0, result.getPercentile(0), 0.001);
+        assertEquals(5.0, result.getPercentile(100), 0.001);
+        assertEquals(0.0, result.getStandardDeviation(), 0.001);
+        assertArrayEquals(new double[]{1, 1, 0, 1}, result.getVertexCriticality(), 0.001);
+        assertArrayEquals(new double[]{1, 0, 1, 0}, result.getEdgeCriticality(), 0.001);
+    }
+
+    @Test
+    public void testParallelUniformBranches() {
+        // 0 -> 1 and 0 -> 2 take U[0, 1), then both join 3 at no cost: makespan is the max of two uniforms
+        List<List<double[]>> graph = diamond(1, 1, 0, 0);
+        MonteCarloCriticalPath.Durations durations = MonteCarloCriticalPath.Durations.uniform(
+                new double[]{0, 0, 0, 0}, new double[]{1, 1, 0, 0});
+
+        MonteCarloCriticalPath simulator = new MonteCarloCriticalPath();
+        MonteCarloCriticalPath.Result result = simulator.simulate(graph, List.of(0, 1, 2, 3), durations, 20_000, 42);
+
+        // P(max <= x) = x^2, so the median is sqrt(0.5) and P90 is sqrt(0.9)
+        assertEquals(Math.sqrt(0.5), result.getPercentile(50), 0.02);
+        assertEquals(Math.sqrt(0.9), result.getPercentile(90), 0.02);
+        assertEquals(2.0 / 3.0, result.getMean(), 0.01);
+        double[] criticality = result.getVertexCriticality();
+        assertEquals(1.0, criticality[0], 0.001);
+        assertEquals(0.5, criticality[1], 0.02);
+        assertEquals(0.5, criticality[2], 0.02);
+        assertEquals(1.0, criticality[1] + criticality[2], 0.001);
+        assertEquals(20_000L * 4, simulator.getMetrics().getCounter("relaxations"));
+    }
+
+    @Test
+    public void testTriangularMean() {
+        // Single edge 0 -> 1 with min 1, mode 2, max 6: mean (1 + 2 + 6) / 3
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(List.<double[]>of(new double[]{1, 2}));
+        graph.add(List.of());
+        MonteCarloCriticalPath.Durations durations = MonteCarloCriticalPath.Durations.triangular(
+                new double[]{1}, new double[]{2}, new double[]{6});
+
+        MonteCarloCriticalPath.Result result = new MonteCarloCriticalPath()
+                .simulate(graph, List.of(0, 1), durations, 50_000, 1);
+
+        assertEquals(3.0, result.getMean(), 0.03);
+        assertTrue(result.getPercentile(0) >= 1.0);
+        assertTrue(result.getPercentile(100) <= 6.0);
+    }
+
+    @Test
+    public void testResultsDoNotDependOnThreadCount() {
+        List<List<double[]>> graph = diamond(3, 1, 2, 1);
+        MonteCarloCriticalPath.Durations durations = MonteCarloCriticalPath.Durations.around(graph, 0.5, 3.0);
+        List<Integer> order = List.of(0, 1, 2, 3);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool quad = new ForkJoinPool(4);
+        try {
+            MonteCarloCriticalPath.Result a = new MonteCarloCriticalPath(single).simulate(graph, order, durations, 1_000, 9);
+            MonteCarloCriticalPath.Result b = new MonteCarloCriticalPath(quad).simulate(graph, order, durations, 1_000, 9);
+
+            assertArrayEquals(a.getMakespans(), b.getMakespans());
+            assertArrayEquals(a.getEdgeCriticality(), b.getEdgeCriticality());
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectsMismatchedDurations() {
+        List<List<double[]>> graph = diamond(3, 1, 2, 1);
+        MonteCarloCriticalPath.Durations durations = MonteCarloCriticalPath.Durations.uniform(
+                new double[]{0}, new double[]{1});
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new MonteCarloCriticalPath().simulate(graph, List.of(0, 1, 2, 3), durations, 10, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> MonteCarloCriticalPath.Durations.triangular(new double[]{2}, new double[]{1}, new double[]{3}));
+    }
+
+    private static List<List<double[]>> diamond(double w01, double w02, double w13, double w23) {
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(List.of(new double[]{1, w01}, new double[]{2, w02}));
+        graph.add(List.<double[]>of(new double[]{3, w13}));
+        graph.add(List.<double[]>of(new double[]{3, w23}));
+        graph.add(List.of());
+        return graph;
+    }
+}
@@ -0,0 +1,107 @@
+package graph.dagsp;
+
+import app.DatasetGenerator;
+import io.GraphLoader;
+import model.GraphData;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for node-weighted DAG paths.
+ */
+public class NodeWeightedGraphTest {
+
+    @Test
+    public void testCriticalPathAddsVertexWeightsOnEntry() {
+        // Tasks 0 (2) -> 1 (5) -> 3 (1), 0 -> 2 (3) -> 3
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(List.of(1, 2));
+        graph.add(List.of(3));
+        graph.add(List.of(3));
+        graph.add(List.of());
+        double[] durations = {2, 5, 3, 1};
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2, 3);
+        NodeWeightedGraph nodeWeighted = NodeWeightedGraph.from(graph, durations);
+
+        DAGShortestPath dagsp = new DAGShortestPath();
+        DAGShortestPath.CriticalPathResult critical = dagsp.findCriticalPath(nodeWeighted, topoOrder, 0);
+        double[] shortest = dagsp.shortestPaths(nodeWeighted, topoOrder, 0);
+
+        assertEquals(8.0, critical.getLength(), 0.001);
+        assertEquals(Arrays.asList(0, 1, 3), critical.getPath());
+        assertEquals(2.0, shortest[0], 0.001);
+        assertEquals(6.0, shortest[3], 0.001);
+        assertEquals(4 * 4 + 4 * 8, nodeWeighted.getEdgeBytes());
+    }
+
+    @Test
+    public void testCriticalPathRejectsCyclicOrder() {
+        // Tasks 0 -> 1 <-> 2: the order 0, 1, 2 has the backward edge 2 -> 1
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(List.of(1));
+        graph.add(List.of(2));
+        graph.add(List.of(1));
+        NodeWeightedGraph nodeWeighted = NodeWeightedGraph.from(graph, new double[]{1, 1, 1});
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new DAGShortestPath().findCriticalPath(nodeWeighted, Arrays.asList(0, 1, 2), 0));
+    }
+
+    @Test
+    public void testMatchesDurationsCopiedOntoEdges() {
+        // Same graph with each duration copied onto the edges entering its vertex
+        List<List<Integer>> graph = new ArrayList<>();
+        List<List<double[]>> copied = new ArrayList<>();
+        int n = 200;
+        double[] durations = new double[n];
+        for (int u = 0; u < n; u++) {
+            durations[u] = 1 + (u * 7) % 11;
+            graph.add(new ArrayList<>());
+            copied.add(new ArrayList<>());
+        }
+        for (int u = 0; u < n; u++) {
+            for (int v = u + 1; v < Math.min(n, u + 4); v++) {
+                graph.get(u).add(v);
+                copied.get(u).add(new double[]{v, durations[v]});
+            }
+        }
+        List<Integer> topoOrder = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            topoOrder.add(v);
+        }
+
+        DAGShortestPath dagsp = new DAGShortestPath();
+        double[] node = dagsp.longestPaths(NodeWeightedGraph.from(graph, durations), topoOrder, 0);
+        double[] edge = dagsp.longestPaths(copied, topoOrder, 0);
+        for (int v = 0; v < n; v++) {
+            assertEquals(edge[v] + durations[0], node[v], 0.001);
+        }
+    }
+
+    @Test
+    public void testNodeWeightsRoundTripThroughJson() throws Exception {
+        GraphData generated = DatasetGenerator.generateNodeWeightedDataset(10, 0.3, false, false, 0);
+        File file = File.createTempFile("node_weighted", ".json");
+        file.deleteOnExit();
+        GraphLoader.saveGraph(generated, file.getPath());
+
+        GraphData loaded = GraphLoader.loadGraph(file.getPath());
+
+        assertTrue(loaded.isNodeWeighted());
+        assertArrayEquals(generated.getNodeWeights(), GraphLoader.createNodeWeights(loaded), 0.0);
+    }
+
+    @Test
+    public void testMissingNodeWeightsRejected() {
+        GraphData graphData = new GraphData(true, 3, new ArrayList<>(), 0, "node");
+        graphData.setNodeWeights(new double[]{1.0});
+
+        assertThrows(IllegalArgumentException.class, () -> GraphLoader.createNodeWeights(graphData));
+    }
+}
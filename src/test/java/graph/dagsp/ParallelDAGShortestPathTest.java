@@ -0,0 +1,134 @@
+package graph.dagsp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the wavefront-parallel DAG path engine.
+ */
+public class ParallelDAGShortestPathTest {
+
+    @Test
+    public void testParallelMatchesSequentialSimple() {
+        // DAG: 0 -> 1 (weight 5), 1 -> 2 (weight 3), 0 -> 2 (weight 10)
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 5.0}, new double[]{2, 10.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{2, 3.0})));
+        graph.add(new ArrayList<>());
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2);
+
+        ParallelDAGShortestPath engine = new ParallelDAGShortestPath();
+        double[] shortest = engine.shortestPaths(graph, topoOrder, 0, ParallelDAGShortestPath.Mode.PARALLEL);
+        double[] longest = engine.longestPaths(graph, topoOrder, 0, ParallelDAGShortestPath.Mode.PARALLEL);
+
+        assertArrayEquals(new double[]{0.0, 5.0, 8.0}, shortest, 0.001);
+        assertArrayEquals(new double[]{0.0, 5.0, 10.0}, longest, 0.001);
+    }
+
+    @Test
+    public void testSourceInMiddleOfOrder() {
+        // 0 -> 1 (weight 1), 1 -> 2 (weight 2), 0 -> 2 (weight 7): vertex 0 is not reachable from 1
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1.0}, new double[]{2, 7.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{2, 2.0})));
+        graph.add(new ArrayList<>());
+
+        ParallelDAGShortestPath engine = new ParallelDAGShortestPath();
+        double[] dist = engine.shortestPaths(graph, Arrays.asList(0, 1, 2), 1,
+                ParallelDAGShortestPath.Mode.PARALLEL);
+
+        assertEquals(Double.POSITIVE_INFINITY, dist[0]);
+        assertEquals(0.0, dist[1], 0.001);
+        assertEquals(2.0, dist[2], 0.001);
+    }
+
+    @Test
+    public void testRandomWideDagAgainstSequential() {
+        // Wide random DAG: edges point from lower to higher ids
+        Random random = new Random(11);
+        int n = 20_000;
+        List<List<double[]>> graph = new ArrayList<>();
+        List<Integer> topoOrder = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            List<double[]> edges = new ArrayList<>();
+            for (int i = 0; i < 3 && u + 1 < n; i++) {
+                int v = u + 1 + random.nextInt(Math.min(n - u - 1, 5_000));
+                edges.add(new double[]{v, random.nextInt(20) + 1});
+            }
+            graph.add(edges);
+            topoOrder.add(u);
+        }
+
+        DAGShortestPath dagsp = new DAGShortestPath();
+        ParallelDAGShortestPath engine = new ParallelDAGShortestPath(new ForkJoinPool(4));
+        for (int source : new int[]{0, 137}) {
+            assertArrayEquals(dagsp.shortestPaths(graph, topoOrder, source),
+                    engine.shortestPaths(graph, topoOrder, source, ParallelDAGShortestPath.Mode.PARALLEL), 1e-9);
+            assertArrayEquals(dagsp.longestPaths(graph, topoOrder, source),
+                    engine.longestPaths(graph, topoOrder, source, ParallelDAGShortestPath.Mode.PARALLEL), 1e-9);
+        }
+        assertEquals(dagsp.getMetrics().getCounter("relaxations"), engine.getMetrics().getCounter("relaxations"));
+    }
+
+    @Test
+    public void testEditsBetweenCallsAreSeen() {
+        // 0 -> 1 (weight 1), 1 -> 2 (weight 5); the same lists are edited between calls
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{2, 5.0})));
+        graph.add(new ArrayList<>());
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2);
+        ParallelDAGShortestPath engine = new ParallelDAGShortestPath();
+
+        assertArrayEquals(new double[]{0.0, 1.0, 6.0},
+                engine.shortestPaths(graph, topoOrder, 0, ParallelDAGShortestPath.Mode.PARALLEL), 0.001);
+
+        graph.get(1).get(0)[1] = 0.5;
+        assertArrayEquals(new double[]{0.0, 1.0, 1.5},
+                engine.shortestPaths(graph, topoOrder, 0, ParallelDAGShortestPath.Mode.PARALLEL), 0.001);
+
+        graph.get(0).add(new double[]{2, 0.25});
+        assertArrayEquals(new double[]{0.0, 1.0, 0.25},
+                engine.shortestPaths(graph, topoOrder, 0, ParallelDAGShortestPath.Mode.PARALLEL), 0.001);
+    }
+
+    @Test
+    public void testPreparedPlanIsReusedAndIsASnapshot() {
+        // 0 -> 1 (weight 2), 0 -> 2 (weight 1), 2 -> 1 (weight 4)
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 2.0}, new double[]{2, 1.0})));
+        graph.add(new ArrayList<>());
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 4.0})));
+        ParallelDAGShortestPath.Plan plan = ParallelDAGShortestPath.prepare(graph, Arrays.asList(0, 2, 1));
+        ParallelDAGShortestPath engine = new ParallelDAGShortestPath();
+
+        assertEquals(3, plan.getLevelCount());
+        assertArrayEquals(new double[]{0.0, 2.0, 1.0}, engine.shortestPaths(plan, 0), 0.001);
+        assertArrayEquals(new double[]{0.0, 5.0, 1.0}, engine.longestPaths(plan, 0), 0.001);
+        assertEquals(1, engine.getMetrics().getCounter("parallel_runs"));
+
+        // The plan copied the weights when it was prepared
+        graph.get(0).get(0)[1] = 100.0;
+        assertArrayEquals(new double[]{0.0, 5.0, 1.0}, engine.longestPaths(plan, 0), 0.001);
+    }
+
+    @Test
+    public void testAutoFallsBackToSequentialForSmallGraphs() {
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1.0})));
+        graph.add(new ArrayList<>());
+
+        ParallelDAGShortestPath engine = new ParallelDAGShortestPath();
+        engine.shortestPaths(graph, Arrays.asList(0, 1), 0);
+
+        assertEquals(1, engine.getMetrics().getCounter("sequential_runs"));
+        assertTrue(engine.getMetrics().getElapsedTime() > 0);
+    }
+}
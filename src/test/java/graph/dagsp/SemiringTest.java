@@ -0,0 +1,170 @@
+package graph.dagsp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for semiring DAG dynamic programming.
+ */
+public class SemiringTest {
+
+    @Test
+    public void testCountsPaths() {
+        // Two diamonds in series: 0 -> {1, 2} -> 3 -> {4, 5} -> 6 has 4 paths from 0 to 6
+        List<List<double[]>> graph = doubleDiamond(1, 1, 1, 1);
+        List<Integer> order = Arrays.asList(0, 1, 2, 3, 4, 5, 6);
+
+        double[] counts = new DAGShortestPath().solve(graph, order, 0, Semiring.COUNT);
+
+        assertArrayEquals(new double[]{1, 1, 1, 2, 2, 2, 4}, counts, 0.001);
+    }
+
+    @Test
+    public void testWidestAndMostReliablePaths() {
+        // Upper branch 0 -> 1 -> 3 has weights 0.9, 0.5; lower 0 -> 2 -> 3 has 0.6, 0.7
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(List.of(new double[]{1, 0.9}, new double[]{2, 0.6}));
+        graph.add(List.<double[]>of(new double[]{3, 0.5}));
+        graph.add(List.<double[]>of(new double[]{3, 0.7}));
+        graph.add(List.of());
+        List<Integer> order = Arrays.asList(0, 1, 2, 3);
+        DAGShortestPath dagsp = new DAGShortestPath();
+
+        // Bottleneck: min(0.9, 0.5) = 0.5 against min(0.6, 0.7) = 0.6
+        double[] width = dagsp.solve(graph, order, 0, Semiring.BOTTLENECK);
+        assertEquals(Double.POSITIVE_INFINITY, width[0]);
+        assertEquals(0.6, width[3], 0.001);
+        assertEquals(Arrays.asList(0, 2, 3), dagsp.reconstructPath(graph, order, 0, 3, Semiring.BOTTLENECK));
+
+        // Reliability: 0.9 * 0.5 = 0.45 against 0.6 * 0.7 = 0.42
+        double[] reliability = dagsp.solve(graph, order, 0, Semiring.RELIABILITY);
+        assertEquals(0.45, reliability[3], 0.001);
+        assertEquals(Arrays.asList(0, 1, 3), dagsp.reconstructPath(graph, order, 0, 3, Semiring.RELIABILITY));
+    }
+
+    @Test
+    public void testSpecializedKernelsMatchGenericLoop() {
+        List<List<double[]>> graph = randomDag(500, 4, 9);
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            order.add(i);
+        }
+        for (Semiring semiring : new Semiring[]{Semiring.MIN_PLUS, Semiring.MAX_PLUS, Semiring.COUNT,
+                Semiring.BOTTLENECK, Semiring.RELIABILITY}) {
+            Semiring generic = new Delegating(semiring);
+            double[] expected = new double[500];
+            double[] actual = new double[500];
+            int[] expectedParent = semiring.isSelective() ? new int[500] : null;
+            int[] actualParent = semiring.isSelective() ? new int[500] : null;
+
+            long genericRelaxations = generic.solve(graph, order, 3, expected, expectedParent);
+            long relaxations = semiring.solve(graph, order, 3, actual, actualParent);
+
+            assertArrayEquals(expected, actual, 1e-9, semiring.toString());
+            assertArrayEquals(expectedParent, actualParent, semiring.toString());
+            assertEquals(genericRelaxations, relaxations);
+        }
+    }
+
+    @Test
+    public void testReconstructPathUsesSelectedOrder() {
+        // 0 -> 1 (1), 0 -> 2 (5), 1 -> 3 (1), 2 -> 3 (1), 3 -> 4 (1)
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(List.of(new double[]{1, 1}, new double[]{2, 5}));
+        graph.add(List.<double[]>of(new double[]{3, 1}));
+        graph.add(List.<double[]>of(new double[]{3, 1}));
+        graph.add(List.<double[]>of(new double[]{4, 1}));
+        graph.add(List.of());
+        List<Integer> order = Arrays.asList(0, 1, 2, 3, 4);
+        DAGShortestPath dagsp = new DAGShortestPath();
+
+        double[] shortest = dagsp.shortestPaths(graph, order, 0);
+        double[] longest = dagsp.longestPaths(graph, order, 0);
+
+        assertEquals(Arrays.asList(0, 1, 3, 4), dagsp.reconstructPath(graph, order, 0, 4, shortest, false));
+        assertEquals(Arrays.asList(0, 2, 3, 4), dagsp.reconstructPath(graph, order, 0, 4, longest, true));
+        assertEquals(List.of(), dagsp.reconstructPath(graph, order, 1, 2, Semiring.MIN_PLUS));
+    }
+
+    @Test
+    public void testCountHasNoPredecessors() {
+        List<List<double[]>> graph = doubleDiamond(1, 1, 1, 1);
+        List<Integer> order = Arrays.asList(0, 1, 2, 3, 4, 5, 6);
+
+        assertFalse(Semiring.COUNT.isSelective());
+        assertThrows(IllegalArgumentException.class,
+                () -> Semiring.COUNT.solve(graph, order, 0, new double[7], new int[7]));
+    }
+
+    // Same operators without the specialized sweep
+    private static final class Delegating extends Semiring {
+        private final Semiring base;
+
+        Delegating(Semiring base) {
+            super("generic " + base);
+            this.base = base;
+        }
+
+        @Override
+        public double zero() {
+            return base.zero();
+        }
+
+        @Override
+        public double one() {
+            return base.one();
+        }
+
+        @Override
+        public double plus(double a, double b) {
+            return base.plus(a, b);
+        }
+
+        @Override
+        public double times(double a, double b) {
+            return base.times(a, b);
+        }
+
+        @Override
+        public double edgeValue(double weight) {
+            return base.edgeValue(weight);
+        }
+
+        @Override
+        public boolean isSelective() {
+            return base.isSelective();
+        }
+    }
+
+    private static List<List<double[]>> doubleDiamond(double a, double b, double c, double d) {
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(List.of(new double[]{1, a}, new double[]{2, b}));
+        graph.add(List.<double[]>of(new double[]{3, 1}));
+        graph.add(List.<double[]>of(new double[]{3, 1}));
+        graph.add(List.of(new double[]{4, c}, new double[]{5, d}));
+        graph.add(List.<double[]>of(new double[]{6, 1}));
+        graph.add(List.<double[]>of(new double[]{6, 1}));
+        graph.add(List.of());
+        return graph;
+    }
+
+    // Weights in (0, 1] so reliability products stay meaningful
+    private static List<List<double[]>> randomDag(int n, int degree, long seed) {
+        Random random = new Random(seed);
+        List<List<double[]>> graph = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            List<double[]> edges = new ArrayList<>();
+            for (int i = 0; i < degree && u + 1 < n; i++) {
+                edges.add(new double[]{u + 1 + random.nextInt(Math.min(30, n - u - 1)), 0.05 + 0.95 * random.nextDouble()});
+            }
+            graph.add(edges);
+        }
+        return graph;
+    }
+}
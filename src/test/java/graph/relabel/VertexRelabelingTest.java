@@ -0,0 +1,81 @@
+package graph.relabel;
+
+import graph.dagsp.DAGShortestPath;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for vertex relabeling.
+ */
+public class VertexRelabelingTest {
+
+    @Test
+    public void testTopologicalRelabelPreservesDistances() {
+        // DAG with arbitrary ids: 3 -> 0 (weight 2), 0 -> 2 (weight 3), 3 -> 2 (weight 9), 2 -> 1 (weight 1)
+        List<List<double[]>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{2, 3.0})));
+        graph.add(new ArrayList<>());
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{1, 1.0})));
+        graph.add(new ArrayList<>(Arrays.asList(new double[]{0, 2.0}, new double[]{2, 9.0})));
+        List<Integer> topoOrder = Arrays.asList(3, 0, 2, 1);
+
+        VertexRelabeling relabeling = VertexRelabeling.fromOrder(topoOrder);
+        List<List<double[]>> relabeled = relabeling.applyWeighted(graph);
+        DAGShortestPath dagsp = new DAGShortestPath();
+        double[] dist = relabeling.restore(
+                dagsp.shortestPaths(relabeled, Arrays.asList(0, 1, 2, 3), relabeling.toNew(3)));
+
+        assertArrayEquals(dagsp.shortestPaths(graph, topoOrder, 3), dist, 0.001);
+        assertEquals(0, relabeling.toNew(3));
+        assertEquals(1, relabeling.toOld(3));
+    }
+
+    @Test
+    public void testComponentsMapBack() {
+        // Two cycles: 0 <-> 1 and 2 <-> 3, with edge 0 -> 2
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(List.of(1, 2)));
+        graph.add(new ArrayList<>(List.of(0)));
+        graph.add(new ArrayList<>(List.of(3)));
+        graph.add(new ArrayList<>(List.of(2)));
+
+        for (VertexRelabeling relabeling : Arrays.asList(
+                VertexRelabeling.cuthillMcKee(graph), VertexRelabeling.byDegree(graph))) {
+            List<List<Integer>> sccs = relabeling.restoreComponents(
+                    new TarjanSCC().findSCCs(relabeling.apply(graph)));
+            Set<Set<Integer>> components = new HashSet<>();
+            for (List<Integer> scc : sccs) {
+                components.add(new HashSet<>(scc));
+            }
+            assertEquals(Set.of(Set.of(0, 1), Set.of(2, 3)), components);
+        }
+    }
+
+    @Test
+    public void testDegreeOrder() {
+        // Vertex 2 has the highest out-degree, vertex 1 the lowest
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(new ArrayList<>(List.of(1)));
+        graph.add(new ArrayList<>());
+        graph.add(new ArrayList<>(List.of(0, 1)));
+
+        VertexRelabeling relabeling = VertexRelabeling.byDegree(graph);
+
+        assertEquals(2, relabeling.toOld(0));
+        assertEquals(0, relabeling.toOld(1));
+        assertEquals(1, relabeling.toOld(2));
+    }
+
+    @Test
+    public void testInvalidOrderRejected() {
+        assertThrows(IllegalArgumentException.class, () -> VertexRelabeling.fromOrder(Arrays.asList(0, 0)));
+    }
+}
@@ -0,0 +1,102 @@
+package graph.scc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static graph.scc.SCCTestSupport.asSets;
+import static graph.scc.SCCTestSupport.randomGraph;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Kosaraju's SCC algorithm and the SCC engine selector.
+ */
+public class KosarajuSCCTest {
+
+    @Test
+    public void testMultipleSCCsInTopologicalOrder() {
+        // {0, 1} -> {2, 3, 4} -> 5, with 0 <-> 1 and 2 -> 3 -> 4 -> 2
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(List.of(1));
+        graph.add(List.of(0, 2));
+        graph.add(List.of(3));
+        graph.add(List.of(4));
+        graph.add(List.of(2, 5));
+        graph.add(List.of());
+
+        List<List<Integer>> sccs = new KosarajuSCC().findSCCs(graph);
+
+        assertEquals(3, sccs.size());
+        assertEquals(Set.of(0, 1), new HashSet<>(sccs.get(0)));
+        assertEquals(Set.of(2, 3, 4), new HashSet<>(sccs.get(1)));
+        assertEquals(List.of(5), sccs.get(2));
+    }
+
+    @Test
+    public void testLongPathDoesNotOverflowStack() {
+        // 0 -> 1 -> ... -> n-1 -> 0: one SCC far deeper than a recursive DFS can follow
+        int n = 200_000;
+        List<List<Integer>> graph = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            graph.add(List.of((v + 1) % n));
+        }
+
+        List<List<Integer>> sccs = new KosarajuSCC().findSCCs(graph);
+
+        assertEquals(1, sccs.size());
+        assertEquals(n, sccs.get(0).size());
+    }
+
+    @Test
+    public void testAllEnginesAgreeWithTarjan() {
+        List<List<Integer>> graph = randomGraph(2_000, 3, 11);
+        List<List<Integer>> transpose = KosarajuSCC.transpose(graph);
+        Set<Set<Integer>> expected = asSets(new TarjanSCC().findSCCs(graph));
+
+        SCCSelector selector = new SCCSelector();
+        for (SCCSelector.Engine engine : SCCSelector.Engine.values()) {
+            assertEquals(expected, asSets(selector.run(engine, graph, transpose)), engine.name());
+        }
+    }
+
+    @Test
+    public void testSelectorRecordsShapeAndChoice() {
+        // Small graph: Tarjan
+        List<List<Integer>> small = randomGraph(100, 2, 3);
+        SCCSelector selector = new SCCSelector();
+        selector.findSCCs(small, KosarajuSCC.transpose(small));
+        assertEquals(1, selector.getMetrics().getCounter("engine_tarjan"));
+        assertEquals(100, selector.getMetrics().getCounter("n"));
+        assertEquals(200, selector.getMetrics().getCounter("m"));
+
+        // Large graph on a single worker: Kosaraju
+        List<List<Integer>> large = randomGraph(50_000, 2, 3);
+        SCCSelector sequential = new SCCSelector(new ForkJoinPool(1));
+        assertEquals(SCCSelector.Engine.KOSARAJU, sequential.select(large, KosarajuSCC.transpose(large)));
+    }
+
+    @Test
+    public void testChainAtTarjanThresholdOnPoolThread() throws Exception {
+        // 0 -> 1 -> ... -> n-1, as deep as Tarjan is ever given, searched on a pool worker's default stack
+        int n = SCCSelector.TARJAN_MAX_VERTICES;
+        List<List<Integer>> graph = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            graph.add(v + 1 < n ? List.of(v + 1) : List.of());
+        }
+        List<List<Integer>> transpose = KosarajuSCC.transpose(graph);
+        SCCSelector selector = new SCCSelector();
+
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            SCCResult sccs = pool.submit(() -> selector.findComponents(graph, transpose)).get();
+            assertEquals(n, sccs.getComponentCount());
+            assertEquals(1, selector.getMetrics().getCounter("engine_tarjan"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
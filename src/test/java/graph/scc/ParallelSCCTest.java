@@ -0,0 +1,58 @@
+package graph.scc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static graph.scc.SCCTestSupport.asSets;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the parallel Forward-Backward SCC algorithm.
+ */
+public class ParallelSCCTest {
+
+    @Test
+    public void testTrimmingRemovesTrivialComponents() {
+        // 0 -> 1 <-> 2 -> 3: 0 and 3 are trimmed, {1, 2} is found by the small-set fallback
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(List.of(1));
+        graph.add(List.of(2));
+        graph.add(List.of(1, 3));
+        graph.add(List.of());
+
+        ParallelSCC parallel = new ParallelSCC();
+        List<List<Integer>> sccs = parallel.findSCCs(graph, KosarajuSCC.transpose(graph));
+
+        assertEquals(3, sccs.size());
+        assertTrue(asSets(sccs).contains(Set.of(1, 2)));
+        assertEquals(2, parallel.getMetrics().getCounter("trimmed"));
+    }
+
+    @Test
+    public void testLargeGraphMatchesKosaraju() {
+        // Big enough for several forward-backward splits before the sequential fallback
+        Random random = new Random(7);
+        int n = 60_000;
+        List<List<Integer>> graph = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            List<Integer> neighbors = new ArrayList<>();
+            int degree = 1 + random.nextInt(3);
+            for (int i = 0; i < degree; i++) {
+                neighbors.add(random.nextInt(n));
+            }
+            graph.add(neighbors);
+        }
+        List<List<Integer>> transpose = KosarajuSCC.transpose(graph);
+
+        ParallelSCC parallel = new ParallelSCC(new ForkJoinPool(4));
+        Set<Set<Integer>> actual = asSets(parallel.findSCCs(graph, transpose));
+
+        assertEquals(asSets(new KosarajuSCC().findSCCs(graph, transpose)), actual);
+        assertTrue(parallel.getMetrics().getCounter("pivots") > 0);
+    }
+}
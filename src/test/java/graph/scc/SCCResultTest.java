@@ -0,0 +1,73 @@
+package graph.scc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static graph.scc.SCCTestSupport.asSets;
+import static graph.scc.SCCTestSupport.randomGraph;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the compact SCC result.
+ */
+public class SCCResultTest {
+
+    @Test
+    public void testListRoundTrip() {
+        // Components {2, 0}, {1}, {4, 3}
+        List<List<Integer>> sccs = List.of(List.of(2, 0), List.of(1), List.of(4, 3));
+
+        SCCResult result = SCCResult.fromLists(sccs, 5);
+
+        assertEquals(3, result.getComponentCount());
+        assertEquals(5, result.getVertexCount());
+        assertEquals(0, result.getComponentOf(2));
+        assertEquals(1, result.getComponentOf(1));
+        assertEquals(2, result.getComponentOf(3));
+        assertEquals(2, result.getSize(0));
+        assertEquals(List.of(4, 3), result.getComponent(2));
+        assertEquals(sccs, result.toLists());
+    }
+
+    @Test
+    public void testFromComponentIds() {
+        // Vertices 0..5 labelled with components 1, 0, 1, 2, 0, 1
+        SCCResult result = SCCResult.fromComponentIds(new int[]{1, 0, 1, 2, 0, 1}, 3);
+
+        assertEquals(List.of(1, 4), result.getComponent(0));
+        assertEquals(List.of(0, 2, 5), result.getComponent(1));
+        assertEquals(List.of(3), result.getComponent(2));
+        assertArrayEquals(new int[]{0, 2, 5, 6}, result.getOffsets());
+    }
+
+    @Test
+    public void testEnginesAgreeWithListForm() {
+        // Random sparse graph with cycles
+        List<List<Integer>> graph = randomGraph(300, 2, 11);
+        List<List<Integer>> transpose = KosarajuSCC.transpose(graph);
+
+        SCCResult tarjan = new TarjanSCC().findComponents(graph);
+        SCCResult kosaraju = new KosarajuSCC().findComponents(graph, transpose);
+
+        assertEquals(new TarjanSCC().findSCCs(graph), tarjan.toLists());
+        assertEquals(asSets(tarjan.toLists()), asSets(kosaraju.toLists()));
+        for (int v = 0; v < graph.size(); v++) {
+            int c = tarjan.getComponentOf(v);
+            assertTrue(tarjan.getComponent(c).contains(v));
+        }
+    }
+
+    @Test
+    public void testCondensationFromCompactResult() {
+        // Random sparse graph; both condensation entry points must build the same DAG
+        List<List<Integer>> graph = randomGraph(200, 3, 5);
+        TarjanSCC tarjan = new TarjanSCC();
+        List<List<Integer>> sccs = tarjan.findSCCs(graph);
+
+        List<List<Integer>> fromLists = tarjan.buildCondensationGraph(graph, sccs);
+        List<List<Integer>> fromCompact = tarjan.buildCondensationGraph(graph, SCCResult.fromLists(sccs, graph.size()));
+
+        assertEquals(fromLists, fromCompact);
+    }
+}
@@ -0,0 +1,44 @@
+package graph.scc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Graph generators and comparisons shared by the SCC engine tests. Public so the
+ * sharded pipeline tests can compare their components the same way.
+ */
+public final class SCCTestSupport {
+
+    private SCCTestSupport() {
+    }
+
+    /**
+     * Random digraph with exactly {@code degree} out-edges per vertex (self-loops and duplicates allowed).
+     */
+    public static List<List<Integer>> randomGraph(int n, int degree, long seed) {
+        Random random = new Random(seed);
+        List<List<Integer>> graph = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            List<Integer> neighbors = new ArrayList<>();
+            for (int k = 0; k < degree; k++) {
+                neighbors.add(random.nextInt(n));
+            }
+            graph.add(neighbors);
+        }
+        return graph;
+    }
+
+    /**
+     * Components as sets, so engines that order components or members differently compare equal.
+     */
+    public static Set<Set<Integer>> asSets(List<List<Integer>> sccs) {
+        Set<Set<Integer>> sets = new HashSet<>();
+        for (List<Integer> scc : sccs) {
+            sets.add(new HashSet<>(scc));
+        }
+        return sets;
+    }
+}
@@ -1,9 +1,13 @@
 package graph.scc;
 
+import metrics.NoOpMetrics;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -93,4 +97,52 @@ public class TarjanSCCTest {
         // Component 0 (vertices 0,1) should have no outgoing edges (or edges to component 1)
         // Component 1 (vertex 2) should have no outgoing edges
     }
+
+    @Test
+    public void testLongPathDoesNotOverflowStack() {
+        // 0 -> 1 -> ... -> n-1 -> 0: one SCC far deeper than a recursive DFS can follow
+        int n = 200_000;
+        List<List<Integer>> graph = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            graph.add(List.of((v + 1) % n));
+        }
+
+        SCCResult sccs = new TarjanSCC().findComponents(graph);
+
+        assertEquals(1, sccs.getComponentCount());
+        assertEquals(n, sccs.getSize(0));
+    }
+
+    @Test
+    public void testSharedGraphAcrossThreads() throws Exception {
+        // Ring of 3-cycles: {0,1,2} -> {3,4,5} -> ... searched by several threads at once
+        int groups = 500;
+        List<List<Integer>> graph = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            int base = 3 * g;
+            graph.add(new ArrayList<>(List.of(base + 1)));
+            graph.add(new ArrayList<>(List.of(base + 2)));
+            graph.add(new ArrayList<>(g + 1 < groups ? List.of(base, base + 3) : List.of(base)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    int count = 0;
+                    for (int run = 0; run < 20; run++) {
+                        count = TarjanSCC.findSCCs(graph, TarjanSCC.Workspace.forCurrentThread(),
+                                NoOpMetrics.INSTANCE).size();
+                    }
+                    return count;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(groups, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package graph.shard;
+
+import graph.scc.TarjanSCC;
+import io.CsrGraphBuilder;
+import model.CsrGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ancestor and descendant cone queries.
+ */
+public class ConeQueryTest {
+
+    @Test
+    public void testDescendantsAndAncestors() {
+        // 0 -> 1 -> 2 -> 3, cycle 2 -> 4 -> 2, side branch 5 -> 1, 6 isolated
+        int[] from = {0, 1, 2, 2, 4, 5};
+        int[] to = {1, 2, 3, 4, 2, 1};
+        CsrGraph graph = CsrGraphBuilder.build(7, from, to, new double[6], 6, 1);
+        ConeQuery query = new ConeQuery();
+
+        ConeQuery.Cone downstream = query.descendants(graph, 1);
+        assertArrayEquals(new int[]{1, 2, 3, 4}, downstream.getMembers());
+        assertEquals(4, downstream.getSize());
+        assertFalse(downstream.contains(0));
+
+        ConeQuery.Cone upstream = query.ancestors(graph, 4);
+        assertArrayEquals(new int[]{0, 1, 2, 4, 5}, upstream.getMembers());
+        assertEquals(3, upstream.getLocalId(4));
+        assertEquals(-1, upstream.getLocalId(3));
+
+        // Several seeds: the union of their cones, here the whole graph
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6}, query.ancestors(graph, 3, 6).getMembers());
+    }
+
+    @Test
+    public void testStrategiesMatchBreadthFirstSearch() {
+        // Random sparse graph with cycles, large enough to split levels into several tasks
+        int n = 100_000;
+        int m = 300_000;
+        Random random = new Random(11);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = random.nextInt(n);
+            to[i] = random.nextInt(n);
+        }
+        CsrGraph graph = CsrGraphBuilder.build(n, from, to, new double[m], m, 1);
+        int[] seeds = {17, 4_242, 99_999};
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ConeQuery query = new ConeQuery(pool);
+            for (ConeQuery.Direction direction : ConeQuery.Direction.values()) {
+                boolean forward = direction == ConeQuery.Direction.DESCENDANTS;
+                int[] expected = reachable(n,
+                        forward ? graph.getOutOffsets() : graph.getInOffsets(),
+                        forward ? graph.getTargets() : graph.getSources(), seeds);
+                for (ConeQuery.Strategy strategy : ConeQuery.Strategy.values()) {
+                    ConeQuery.Cone cone = query.cone(graph, seeds, direction, strategy);
+                    assertArrayEquals(expected, cone.getMembers(), direction + " " + strategy);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testAutoSwitchesToBottomUpOnLargeFrontiers() {
+        // Every vertex has 16 random successors: the frontier explodes after a couple of levels
+        int n = 50_000;
+        int m = 16 * n;
+        Random random = new Random(5);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = i / 16;
+            to[i] = random.nextInt(n);
+        }
+        CsrGraph graph = CsrGraphBuilder.build(n, from, to, new double[m], m, 1);
+        ConeQuery query = new ConeQuery();
+
+        ConeQuery.Cone auto = query.descendants(graph, 0);
+        long autoScanned = query.getMetrics().getCounter("edges_scanned");
+        assertTrue(query.getMetrics().getCounter("bottom_up_levels") > 0);
+        query.cone(graph, new int[]{0}, ConeQuery.Direction.DESCENDANTS, ConeQuery.Strategy.TOP_DOWN);
+        long topDownScanned = query.getMetrics().getCounter("edges_scanned");
+
+        assertEquals(n, auto.getSize());
+        assertTrue(autoScanned < topDownScanned);
+    }
+
+    @Test
+    public void testSubgraphIsInducedInLocalIds() {
+        // 0 -> 1 (1), 1 -> 2 (2), 2 -> 1 (3), 2 -> 3 (4), 4 -> 2 (5); descendants of 1 are {1, 2, 3}
+        int[] from = {0, 1, 2, 2, 4};
+        int[] to = {1, 2, 1, 3, 2};
+        double[] weights = {1, 2, 3, 4, 5};
+        CsrGraph graph = CsrGraphBuilder.build(5, from, to, weights, 5, 1);
+
+        CsrGraph sub = new ConeQuery().descendants(graph, 1).toSubgraph();
+
+        assertEquals(3, sub.getVertexCount());
+        assertEquals(List.of(List.of(1), List.of(0, 2), List.of()), sub.toAdjacencyList());
+        assertEquals(List.of(List.of(1), List.of(0), List.of(1)), sub.toReverseAdjacencyList());
+        assertArrayEquals(new double[]{2, 3, 4}, sub.getWeights(), 0.001);
+        assertEquals(2, new TarjanSCC().findSCCs(sub.toAdjacencyList()).size());
+    }
+
+    @Test
+    public void testRejectsInvalidSeed() {
+        CsrGraph graph = CsrGraphBuilder.build(2, new int[]{0}, new int[]{1}, new double[]{1}, 1, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> new ConeQuery().descendants(graph, 2));
+    }
+
+    private static int[] reachable(int n, int[] offsets, int[] adjacent, int[] seeds) {
+        boolean[] seen = new boolean[n];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int s : seeds) {
+            seen[s] = true;
+            queue.add(s);
+        }
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (!seen[adjacent[e]]) {
+                    seen[adjacent[e]] = true;
+                    queue.add(adjacent[e]);
+                }
+            }
+        }
+        return IntStream.range(0, n).filter(v -> seen[v]).toArray();
+    }
+}
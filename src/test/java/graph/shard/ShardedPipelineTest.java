@@ -0,0 +1,142 @@
+package graph.shard;
+
+import graph.scc.TarjanSCC;
+import io.CsrGraphBuilder;
+import model.CsrGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static graph.scc.SCCTestSupport.asSets;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for weak-component sharding and the per-shard pipeline.
+ */
+public class ShardedPipelineTest {
+
+    @Test
+    public void testDeepChainOnPoolThreads() {
+        // 0 -> 1 -> ... -> n-1: shards run on pool workers, so no stage may recurse per vertex.
+        // 7,000 vertices go to Tarjan, 50,000 to Kosaraju
+        for (int n : new int[]{7_000, 50_000}) {
+            int[] from = new int[n - 1];
+            int[] to = new int[n - 1];
+            double[] weights = new double[n - 1];
+            for (int v = 0; v + 1 < n; v++) {
+                from[v] = v;
+                to[v] = v + 1;
+                weights[v] = 1;
+            }
+            CsrGraph graph = CsrGraphBuilder.build(n, from, to, weights, n - 1, 1);
+
+            ShardedPipeline.Result result = new ShardedPipeline().run(graph, 0);
+
+            assertEquals(n, result.getSccs().getComponentCount());
+            assertEquals(n - 1, result.getShortestDistances()[n - 1], 0.001);
+            assertEquals(n - 1, result.getCriticalPath().getLength(), 0.001);
+            assertEquals(n, result.getCriticalPath().getPath().size());
+        }
+    }
+
+    @Test
+    public void testPartitionSeparatesDistricts() {
+        // District A: 0 -> 1 -> 2; district B: 4 -> 3 (only weakly connected); 5 isolated
+        CsrGraph graph = CsrGraphBuilder.build(6,
+                new int[]{0, 1, 4}, new int[]{1, 2, 3}, new double[]{1, 1, 1}, 3, 1);
+
+        WeakComponents.Partition partition = new WeakComponents().partition(graph);
+
+        assertEquals(3, partition.getShardCount());
+        assertEquals(0, partition.getShardOf(2));
+        assertEquals(1, partition.getShardOf(4));
+        assertEquals(2, partition.getShardOf(5));
+        assertEquals(1, partition.getLocalId(4));
+        assertEquals(4, partition.getGlobalId(1, 1));
+        assertEquals(3, partition.getLargestShardSize());
+    }
+
+    @Test
+    public void testMergedResultMatchesWholeGraph() {
+        // District A: 0 -> 1 -> 2 and 0 -> 2 (source 0); district B: cycle 3 -> 4 -> 5 -> 3
+        int[] from = {0, 1, 0, 3, 4, 5};
+        int[] to = {1, 2, 2, 4, 5, 3};
+        double[] weights = {2, 3, 1, 1, 1, 1};
+        CsrGraph graph = CsrGraphBuilder.build(6, from, to, weights, from.length, 1);
+
+        ShardedPipeline.Result result = new ShardedPipeline().run(graph, 0);
+
+        assertEquals(2, result.getPartition().getShardCount());
+        assertEquals(asSets(new TarjanSCC().findSCCs(graph.toAdjacencyList())), asSets(result.getSccs().toLists()));
+        assertEquals(1.0, result.getShortestDistances()[2], 0.001);
+        assertEquals(Double.POSITIVE_INFINITY, result.getShortestDistances()[4]);
+        assertEquals(List.of(0, 1, 2), result.getCriticalPath().getPath());
+        assertEquals(5.0, result.getCriticalPath().getLength(), 0.001);
+
+        // Engine counters are merged over both shards; path counters come from the source's shard
+        long engineRuns = result.getSccMetrics().getCounters().entrySet().stream()
+                .filter(counter -> counter.getKey().startsWith("engine_") && !counter.getKey().endsWith("_ns"))
+                .mapToLong(Map.Entry::getValue).sum();
+        assertEquals(2, engineRuns);
+        assertNotNull(result.getTopoMetrics());
+        assertTrue(result.getPathMetrics().getElapsedTime() > 0);
+    }
+
+    @Test
+    public void testComponentOrderIsTopologicalAcrossShards() {
+        // Many random districts, processed on several workers
+        Random random = new Random(3);
+        int districts = 200;
+        int size = 50;
+        int n = districts * size;
+        List<Integer> fromList = new ArrayList<>();
+        List<Integer> toList = new ArrayList<>();
+        for (int d = 0; d < districts; d++) {
+            for (int i = 0; i < 2 * size; i++) {
+                fromList.add(d * size + random.nextInt(size));
+                toList.add(d * size + random.nextInt(size));
+            }
+        }
+        int m = fromList.size();
+        int[] from = fromList.stream().mapToInt(Integer::intValue).toArray();
+        int[] to = toList.stream().mapToInt(Integer::intValue).toArray();
+        CsrGraph graph = CsrGraphBuilder.build(n, from, to, new double[m], m, 1);
+
+        ShardedPipeline.Result result = new ShardedPipeline(new ForkJoinPool(4)).run(graph, 0);
+
+        assertEquals(asSets(new TarjanSCC().findSCCs(graph.toAdjacencyList())), asSets(result.getSccs().toLists()));
+        int[] position = new int[result.getSccs().getComponentCount()];
+        List<Integer> order = result.getComponentOrder();
+        for (int i = 0; i < order.size(); i++) {
+            position[order.get(i)] = i;
+        }
+        List<List<Integer>> condensation = result.getCondensation();
+        for (int c = 0; c < condensation.size(); c++) {
+            for (int d : condensation.get(c)) {
+                assertTrue(position[c] < position[d]);
+            }
+        }
+        assertEquals(n, result.getVertexOrder().size());
+    }
+
+    @Test
+    public void testNodeWeightsThroughCycle() {
+        // 0 (1) -> 1 (2) <-> 2 (4) -> 3 (8); edge weights are ignored in the node model
+        int[] from = {0, 1, 2, 2};
+        int[] to = {1, 2, 1, 3};
+        CsrGraph graph = CsrGraphBuilder.build(4, from, to, new double[]{100, 100, 100, 100}, 4, 1);
+
+        ShardedPipeline.Result result = new ShardedPipeline().run(graph, 0, new double[]{1, 2, 4, 8});
+
+        assertEquals(1.0, result.getShortestDistances()[0], 0.001);
+        assertEquals(3.0, result.getShortestDistances()[1], 0.001);
+        assertEquals(7.0, result.getShortestDistances()[2], 0.001);
+        assertEquals(15.0, result.getShortestDistances()[3], 0.001);
+        // The derived order inside the cycle is not topological: no critical path is reported
+        assertNull(result.getCriticalPath());
+    }
+}
@@ -0,0 +1,60 @@
+package graph.topo;
+
+import metrics.NoOpMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Kahn's topological sort.
+ */
+public class TopologicalSortTest {
+
+    @Test
+    public void testOrderRespectsEdges() {
+        // 0 -> 2, 1 -> 2, 2 -> 3
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(List.of(2));
+        graph.add(List.of(2));
+        graph.add(List.of(3));
+        graph.add(List.of());
+
+        TopologicalSort topo = new TopologicalSort();
+
+        assertEquals(List.of(0, 1, 2, 3), topo.topologicalSort(graph));
+        assertEquals(4, topo.getMetrics().getCounter("pops"));
+    }
+
+    @Test
+    public void testCycleReturnsNull() {
+        // 0 -> 1 -> 0
+        List<List<Integer>> graph = new ArrayList<>();
+        graph.add(List.of(1));
+        graph.add(List.of(0));
+
+        assertNull(new TopologicalSort().topologicalSort(graph));
+    }
+
+    @Test
+    public void testWorkspaceReusedAcrossGraphSizes() {
+        // Large chain first, then a smaller graph: the grown workspace is reused as-is
+        List<List<Integer>> chain = new ArrayList<>();
+        for (int v = 0; v < 1_000; v++) {
+            chain.add(v + 1 < 1_000 ? List.of(v + 1) : List.of());
+        }
+        List<List<Integer>> small = new ArrayList<>();
+        small.add(List.of());
+        small.add(List.of(0));
+
+        TopologicalSort.Workspace workspace = TopologicalSort.Workspace.forCurrentThread();
+        int[] order = new int[1_000];
+        assertEquals(1_000, TopologicalSort.topologicalSort(chain, order, workspace, NoOpMetrics.INSTANCE));
+        assertEquals(999, order[999]);
+        assertEquals(2, TopologicalSort.topologicalSort(small, order, workspace, NoOpMetrics.INSTANCE));
+        assertEquals(1, order[0]);
+        assertEquals(0, order[1]);
+    }
+}
@@ -0,0 +1,161 @@
+package graph.topo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for transitive reduction of DAGs.
+ */
+public class TransitiveReductionTest {
+
+    @Test
+    public void testDropsShortcutEdges() {
+        // 0 -> 1 -> 2 -> 3 with shortcuts 0 -> 2, 0 -> 3 and 1 -> 3; 0 -> 4 is the only way to 4
+        List<List<Integer>> dag = new ArrayList<>();
+        dag.add(Arrays.asList(3, 2, 1, 4));
+        dag.add(Arrays.asList(3, 2));
+        dag.add(List.of(3));
+        dag.add(List.of());
+        dag.add(List.of());
+
+        for (TransitiveReduction.Method method : new TransitiveReduction.Method[]{
+                TransitiveReduction.Method.BITSET, TransitiveReduction.Method.CHAINS}) {
+            TransitiveReduction reduction = new TransitiveReduction();
+            TransitiveReduction.Result result = reduction.reduce(dag, Arrays.asList(0, 1, 2, 3, 4), method);
+
+            assertEquals(List.of(1, 4), result.getGraph().get(0));
+            assertEquals(List.of(2), result.getGraph().get(1));
+            assertEquals(List.of(3), result.getGraph().get(2));
+            assertEquals(7, result.getInputEdgeCount());
+            assertEquals(3, result.getRemovedEdgeCount());
+            assertEquals(3, reduction.getMetrics().getCounter("edges_removed"));
+            assertEquals(method, result.getMethod());
+        }
+    }
+
+    @Test
+    public void testMatchesBruteForceOnRandomDags() {
+        for (long seed = 1; seed <= 5; seed++) {
+            List<List<Integer>> dag = randomDag(300, 6, 40, seed);
+            List<Integer> order = new TopologicalSort().topologicalSort(dag);
+            List<List<Integer>> expected = bruteForce(dag);
+
+            TransitiveReduction.Result bitsets = new TransitiveReduction()
+                    .reduce(dag, order, TransitiveReduction.Method.BITSET);
+            TransitiveReduction.Result chains = new TransitiveReduction()
+                    .reduce(dag, order, TransitiveReduction.Method.CHAINS);
+            // A budget smaller than one row per live vertex leaves one chain per block
+            TransitiveReduction blocked = new TransitiveReduction(Integer.BYTES);
+            TransitiveReduction.Result chainBlocks = blocked.reduce(dag, order, TransitiveReduction.Method.CHAINS);
+
+            assertEquals(expected, sorted(bitsets.getGraph()));
+            assertEquals(expected, sorted(chains.getGraph()));
+            assertEquals(expected, sorted(chainBlocks.getGraph()));
+            assertTrue(blocked.getMetrics().getCounter("chain_blocks") > 1);
+            assertEquals(closure(dag), closure(bitsets.getGraph()));
+        }
+    }
+
+    @Test
+    public void testParallelEdgesCollapse() {
+        // 0 -> 1 listed twice
+        List<List<Integer>> dag = new ArrayList<>();
+        dag.add(Arrays.asList(1, 1));
+        dag.add(List.of());
+
+        TransitiveReduction.Result result = new TransitiveReduction().reduce(dag);
+
+        assertEquals(List.of(1), result.getGraph().get(0));
+        assertEquals(1, result.getRemovedEdgeCount());
+        assertEquals(TransitiveReduction.Method.BITSET, result.getMethod());
+    }
+
+    @Test
+    public void testRejectsCyclesAndBadOrders() {
+        // 0 -> 1 -> 0
+        List<List<Integer>> cyclic = new ArrayList<>();
+        cyclic.add(List.of(1));
+        cyclic.add(List.of(0));
+        List<List<Integer>> dag = new ArrayList<>();
+        dag.add(List.of(1));
+        dag.add(List.of());
+        TransitiveReduction reduction = new TransitiveReduction();
+
+        assertThrows(IllegalArgumentException.class, () -> reduction.reduce(cyclic));
+        assertThrows(IllegalArgumentException.class,
+                () -> reduction.reduce(dag, Arrays.asList(1, 0), TransitiveReduction.Method.AUTO));
+    }
+
+    private static List<List<Integer>> randomDag(int n, int degree, int window, long seed) {
+        Random random = new Random(seed);
+        List<List<Integer>> dag = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            List<Integer> targets = new ArrayList<>();
+            for (int i = 0; i < degree && u + 1 < n; i++) {
+                int v = u + 1 + random.nextInt(Math.min(window, n - u - 1));
+                if (!targets.contains(v)) {
+                    targets.add(v);
+                }
+            }
+            dag.add(targets);
+        }
+        return dag;
+    }
+
+    // Edge u -> v is kept iff no other successor of u reaches v
+    private static List<List<Integer>> bruteForce(List<List<Integer>> dag) {
+        List<BitSet> reach = closure(dag);
+        List<List<Integer>> reduced = new ArrayList<>();
+        for (int u = 0; u < dag.size(); u++) {
+            List<Integer> kept = new ArrayList<>();
+            for (int v : dag.get(u)) {
+                boolean implied = false;
+                for (int w : dag.get(u)) {
+                    if (w != v && reach.get(w).get(v)) {
+                        implied = true;
+                    }
+                }
+                if (!implied) {
+                    kept.add(v);
+                }
+            }
+            kept.sort(null);
+            reduced.add(kept);
+        }
+        return reduced;
+    }
+
+    private static List<BitSet> closure(List<List<Integer>> dag) {
+        List<BitSet> reach = new ArrayList<>();
+        for (int u = 0; u < dag.size(); u++) {
+            BitSet seen = new BitSet();
+            List<Integer> stack = new ArrayList<>(dag.get(u));
+            while (!stack.isEmpty()) {
+                int v = stack.remove(stack.size() - 1);
+                if (!seen.get(v)) {
+                    seen.set(v);
+                    stack.addAll(dag.get(v));
+                }
+            }
+            reach.add(seen);
+        }
+        return reach;
+    }
+
+    private static List<List<Integer>> sorted(List<List<Integer>> graph) {
+        List<List<Integer>> copy = new ArrayList<>();
+        for (List<Integer> targets : graph) {
+            List<Integer> list = new ArrayList<>(targets);
+            list.sort(null);
+            copy.add(list);
+        }
+        return copy;
+    }
+}
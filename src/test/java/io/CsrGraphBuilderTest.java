@@ -0,0 +1,85 @@
+package io;
+
+import model.CsrGraph;
+import model.EdgeData;
+import model.GraphData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the parallel CSR builder.
+ */
+public class CsrGraphBuilderTest {
+
+    @Test
+    public void testForwardAndReverseIndex() {
+        // 0 -> 1 (weight 3), 0 -> 2 (weight 1), 2 -> 1 (weight 4)
+        List<EdgeData> edges = Arrays.asList(
+                new EdgeData(0, 1, 3.0), new EdgeData(0, 2, 1.0), new EdgeData(2, 1, 4.0));
+        CsrGraph csr = GraphLoader.createCsrGraph(new GraphData(true, 3, edges, 0, "edge"));
+
+        assertEquals(3, csr.getEdgeCount());
+        assertEquals(2, csr.outDegree(0));
+        assertEquals(2, csr.inDegree(1));
+        assertEquals(List.of(List.of(1, 2), List.of(), List.of(1)), csr.toAdjacencyList());
+        assertEquals(List.of(List.of(), List.of(0, 2), List.of(0)), csr.toReverseAdjacencyList());
+        assertEquals(4.0, csr.toWeightedAdjacencyList().get(2).get(0)[1], 0.001);
+    }
+
+    @Test
+    public void testParallelBuildMatchesSequentialLists() {
+        // Enough edges for several chunks; edge order inside each vertex must be preserved
+        Random random = new Random(5);
+        int n = 5_000;
+        int m = 400_000;
+        List<EdgeData> edges = new ArrayList<>(m);
+        for (int i = 0; i < m; i++) {
+            edges.add(new EdgeData(random.nextInt(n), random.nextInt(n), random.nextInt(100)));
+        }
+        GraphData graphData = new GraphData(true, n, edges, 0, "edge");
+
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] weights = new double[m];
+        for (int i = 0; i < m; i++) {
+            from[i] = edges.get(i).getU();
+            to[i] = edges.get(i).getV();
+            weights[i] = edges.get(i).getW();
+        }
+        CsrGraph csr = CsrGraphBuilder.build(n, from, to, weights, m, 4);
+
+        assertEquals(GraphLoader.createAdjacencyList(graphData), csr.toAdjacencyList());
+        List<List<double[]>> expected = GraphLoader.createAdjacencyListDouble(graphData);
+        List<List<double[]>> actual = csr.toWeightedAdjacencyList();
+        for (int u = 0; u < n; u++) {
+            assertEquals(expected.get(u).size(), actual.get(u).size());
+            for (int i = 0; i < expected.get(u).size(); i++) {
+                assertArrayEquals(expected.get(u).get(i), actual.get(u).get(i), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testNodeWeightedGraphHasNoEdgeWeights() {
+        List<EdgeData> edges = Arrays.asList(new EdgeData(0, 1, 0.0), new EdgeData(1, 2, 0.0));
+        CsrGraph csr = GraphLoader.createCsrGraph(new GraphData(true, 3, edges, 0, "node"));
+
+        assertFalse(csr.hasEdgeWeights());
+        assertNull(csr.getWeights());
+        assertNull(csr.getInWeights());
+        assertEquals(List.of(List.of(1), List.of(2), List.of()), csr.toAdjacencyList());
+        assertEquals(0.0, csr.toWeightedAdjacencyList().get(0).get(0)[1], 0.0);
+    }
+
+    @Test
+    public void testEndpointOutOfRangeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CsrGraphBuilder.build(2, new int[]{0}, new int[]{5}, null, 1, 1));
+    }
+}
@@ -0,0 +1,153 @@
+package io;
+
+import model.CsrGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the parallel edge-list parser.
+ */
+public class EdgeListParserTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testCsvWithHeaderAndComments() throws IOException {
+        // 0 -> 1 (2.5), 1 -> 2 (-1e2), 2 -> 0 (3)
+        Path file = write("edges.csv", "u,v,w\n# comment\n0,1,2.5\n\n1, 2, -1e2\r\n2,0,3\n");
+
+        EdgeListParser.EdgeList edges = new EdgeListParser().parse(file);
+
+        assertEquals(3, edges.getVertexCount());
+        assertEquals(3, edges.getEdgeCount());
+        assertArrayEquals(new int[]{0, 1, 2}, edges.getFrom());
+        assertArrayEquals(new int[]{1, 2, 0}, edges.getTo());
+        assertArrayEquals(new double[]{2.5, -100.0, 3.0}, edges.getWeights(), 0.001);
+    }
+
+    @Test
+    public void testTsvWithoutWeights() throws IOException {
+        // 0 -> 3, 3 -> 1, no weight column; tabs and spaces both separate fields
+        Path file = write("edges.tsv", "0\t3\n3   1\n");
+
+        EdgeListParser.EdgeList edges = new EdgeListParser().parse(file);
+
+        assertEquals(4, edges.getVertexCount());
+        assertNull(edges.getWeights());
+        CsrGraph csr = edges.toCsrGraph();
+        assertEquals(List.of(List.of(3), List.of(), List.of(), List.of(1)), csr.toAdjacencyList());
+    }
+
+    @Test
+    public void testNdjsonKeysAndExtraFields() throws IOException {
+        // Same edge spelled three ways; unknown keys are skipped
+        Path file = write("edges.ndjson",
+                "{\"u\": 0, \"v\": 1, \"w\": 1.5}\n"
+                        + "{\"label\": \"a,b}\", \"from\": 1, \"to\": 2, \"weight\": 2}\n"
+                        + "{\"target\":0,\"source\":2,\"active\":true}\n");
+
+        EdgeListParser.EdgeList edges = new EdgeListParser().parse(file);
+
+        assertArrayEquals(new int[]{0, 1, 2}, edges.getFrom());
+        assertArrayEquals(new int[]{1, 2, 0}, edges.getTo());
+        assertArrayEquals(new double[]{1.5, 2.0, 0.0}, edges.getWeights(), 0.001);
+    }
+
+    @Test
+    public void testChunkedParseMatchesSingleChunk() throws IOException {
+        // Random weighted edges; tiny chunks force many line-aligned splits
+        Random random = new Random(3);
+        StringBuilder text = new StringBuilder();
+        int m = 20_000;
+        double[] expected = new double[m];
+        for (int i = 0; i < m; i++) {
+            expected[i] = random.nextDouble() * 100.0;
+            text.append(random.nextInt(1000)).append(' ').append(random.nextInt(1000))
+                    .append(' ').append(expected[i]).append('\n');
+        }
+        Path file = write("edges.txt", text.toString());
+
+        EdgeListParser.EdgeList single = new EdgeListParser(1).parse(file);
+        EdgeListParser chunked = new EdgeListParser(4, 997);
+        EdgeListParser.EdgeList parallel = chunked.parse(file);
+
+        assertEquals(m, parallel.getEdgeCount());
+        assertTrue(chunked.getMetrics().getCounter("chunks") > 1);
+        assertArrayEquals(single.getFrom(), parallel.getFrom());
+        assertArrayEquals(single.getTo(), parallel.getTo());
+        assertArrayEquals(expected, parallel.getWeights()); // bit-exact with Double.toString output
+    }
+
+    @Test
+    public void testSparseLongIdsAreRemapped() throws IOException {
+        // 10^12 -> -7 -> 10^12 + 1 -> 10^12; three distinct vertices across many chunks
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            text.append("1000000000000 -7\n-7 1000000000001\n1000000000001 1000000000000\n");
+        }
+        Path file = write("sparse.txt", text.toString());
+
+        EdgeListParser.EdgeList edges = new EdgeListParser(4, 512)
+                .parse(file, EdgeListParser.Format.TSV, EdgeListParser.IdType.LONG);
+
+        assertEquals(3, edges.getVertexCount());
+        assertEquals(6_000, edges.getEdgeCount());
+        VertexIds ids = edges.getIds();
+        assertEquals(1_000_000_000_000L, ids.getLongId(edges.getFrom()[0]));
+        assertEquals(-7, ids.getLongId(edges.getTo()[0]));
+        assertEquals(List.of(List.of(1), List.of(2), List.of(0)),
+                dedupe(edges.toCsrGraph().toAdjacencyList()));
+    }
+
+    @Test
+    public void testStringIdsWithHeader() throws IOException {
+        // build -> test -> deploy, build -> deploy
+        Path file = write("tasks.csv", "source,target,weight\nbuild,test,2\n\"test\",deploy,1\nbuild,deploy,5\n");
+
+        EdgeListParser parser = new EdgeListParser();
+        EdgeListParser.EdgeList edges = parser.parse(file, EdgeListParser.Format.CSV, EdgeListParser.IdType.STRING);
+
+        VertexIds ids = edges.getIds();
+        assertEquals(3, edges.getVertexCount());
+        assertEquals("build", ids.getLabel(0));
+        assertEquals("deploy", ids.getLabel(2));
+        assertArrayEquals(new int[]{0, 1, 0}, edges.getFrom());
+        assertArrayEquals(new int[]{1, 2, 2}, edges.getTo());
+        assertEquals(3, parser.getMetrics().getCounter("distinct_ids"));
+    }
+
+    @Test
+    public void testMalformedLineReportsOffset() throws IOException {
+        Path file = write("edges.csv", "0,1\n2,x\n");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> new EdgeListParser().parse(file));
+        assertTrue(error.getMessage().contains("byte 6"));
+    }
+
+    private static List<List<Integer>> dedupe(List<List<Integer>> graph) {
+        List<List<Integer>> result = new ArrayList<>();
+        for (List<Integer> neighbors : graph) {
+            result.add(new ArrayList<>(new LinkedHashSet<>(neighbors)));
+        }
+        return result;
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
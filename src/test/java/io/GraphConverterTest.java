@@ -0,0 +1,64 @@
+package io;
+
+import model.GraphData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for edge-list conversion to the JSON format.
+ */
+public class GraphConverterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testStringIdsAreWrittenAsLabels() throws IOException {
+        // a -> b (1), b -> c (2); the source is given in the file's ids
+        Path input = write("edges.csv", "a,b,1\nb,c,2\n");
+        Path output = dir.resolve("graph.json");
+
+        GraphConverter.convertEdgeListToNew(input.toString(), output.toString(), "b", EdgeListParser.IdType.STRING);
+
+        GraphData graph = GraphConverter.loadGraphNew(output.toString());
+        assertEquals(3, graph.getN());
+        assertEquals("b", graph.getLabel(graph.getSource()));
+        assertEquals("a", graph.getLabel(graph.getEdges().get(0).getU()));
+        assertEquals("c", graph.getLabel(graph.getEdges().get(1).getV()));
+    }
+
+    @Test
+    public void testDenseIdsHaveNoLabels() throws IOException {
+        Path input = write("edges.csv", "0,2,1\n");
+        Path output = dir.resolve("graph.json");
+
+        GraphConverter.convertEdgeListToNew(input.toString(), output.toString(), 2);
+
+        GraphData graph = GraphConverter.loadGraphNew(output.toString());
+        assertNull(graph.getLabels());
+        assertEquals(2, graph.getSource());
+        assertEquals("2", graph.getLabel(2));
+    }
+
+    @Test
+    public void testUnknownSourceRejected() throws IOException {
+        Path input = write("edges.csv", "10,20\n");
+        String output = dir.resolve("graph.json").toString();
+
+        assertThrows(IllegalArgumentException.class, () -> GraphConverter.convertEdgeListToNew(
+                input.toString(), output, "30", EdgeListParser.IdType.LONG));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
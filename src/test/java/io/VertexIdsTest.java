@@ -0,0 +1,83 @@
+package io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the dense id maps and the reverse mapping.
+ */
+public class VertexIdsTest {
+
+    @Test
+    public void testLongIdsInFirstAppearanceOrder() {
+        // Sparse 64-bit ids, one repeated
+        LongIdMap map = new LongIdMap(2);
+        assertEquals(0, map.getOrAdd(9_000_000_000_000L));
+        assertEquals(1, map.getOrAdd(-5));
+        assertEquals(0, map.getOrAdd(9_000_000_000_000L));
+        assertEquals(2, map.getOrAdd(0));
+
+        assertEquals(3, map.size());
+        assertEquals(-5, map.getKey(1));
+        assertEquals(-1, map.get(42));
+    }
+
+    @Test
+    public void testLongMapMatchesHashMapThroughResizes() {
+        // Random keys from a small range force repeats and several rehashes
+        Random random = new Random(9);
+        LongIdMap map = new LongIdMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(20_000) * 1_000_003L;
+            int id = map.getOrAdd(key);
+            assertEquals(expected.computeIfAbsent(key, k -> expected.size()), id);
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getKey(), map.getKey(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void testStringIdsFromByteRanges() {
+        // The same name looked up from a byte range and from a String
+        StringIdMap map = new StringIdMap(1);
+        byte[] line = "compile,test,tâche".getBytes(StandardCharsets.UTF_8);
+        assertEquals(0, map.getOrAdd(line, 0, 7));
+        assertEquals(1, map.getOrAdd(line, 8, 4));
+        assertEquals(2, map.getOrAdd("tâche"));
+        assertEquals(0, map.getOrAdd("compile"));
+
+        assertEquals("tâche", map.getKey(2));
+        assertEquals(1, map.get("test"));
+        assertEquals(-1, map.get("deploy"));
+
+        StringIdMap other = new StringIdMap();
+        assertEquals(0, other.getOrAdd(map, 1));
+        assertEquals("test", other.getKey(0));
+    }
+
+    @Test
+    public void testReverseMapping() {
+        LongIdMap longs = new LongIdMap();
+        longs.getOrAdd(1L << 40);
+        VertexIds numeric = VertexIds.of(longs);
+        assertTrue(numeric.isNumeric());
+        assertEquals(String.valueOf(1L << 40), numeric.getLabel(0));
+        assertEquals(0, numeric.indexOf(String.valueOf(1L << 40)));
+        assertEquals(-1, numeric.indexOf("build"));
+
+        StringIdMap strings = new StringIdMap();
+        strings.getOrAdd("build");
+        VertexIds names = VertexIds.of(strings);
+        assertEquals(0, names.indexOf("build"));
+        assertThrows(IllegalStateException.class, () -> names.getLongId(0));
+    }
+}
@@ -0,0 +1,67 @@
+package metrics;
+
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Flight Recorder phase events.
+ */
+public class PhaseEventTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testPhasesAreRecorded() throws IOException {
+        // Cycle 0 <-> 1 feeding 2 -> 3
+        List<List<Integer>> graph = List.of(List.of(1), List.of(0, 2), List.of(3), List.of());
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(PhaseEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+            TarjanSCC tarjan = new TarjanSCC();
+            tarjan.findComponents(graph);
+            new TopologicalSort().topologicalSort(List.of(List.of(1), List.of()));
+            recording.stop();
+            Path file = dir.resolve("phases.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        List<RecordedEvent> phases = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(PhaseEvent.NAME)) {
+                phases.add(event);
+            }
+        }
+        assertEquals(2, phases.size());
+        RecordedEvent scc = phases.get(0);
+        assertEquals("findSCCs", scc.getString("phase"));
+        assertEquals("TarjanSCC", scc.getString("engine"));
+        assertEquals(4, scc.getLong("vertices"));
+        assertEquals(4, scc.getLong("edges"));
+        assertTrue(scc.getString("counters").contains("edge_explorations=4"));
+        assertEquals("topologicalSort", phases.get(1).getString("phase"));
+        assertEquals("pops=2, pushes=2", phases.get(1).getString("counters"));
+    }
+
+    @Test
+    public void testFinishWithoutRecordingIsHarmless() {
+        PhaseEvent event = PhaseEvent.begin("findSCCs", "TarjanSCC");
+        event.finish(List.of(List.of(0)), new SimpleMetrics());
+        PhaseEvent.begin("resultWrite", "Main").finish(1, 0, null);
+    }
+}
@@ -0,0 +1,114 @@
+package model;
+
+import graph.scc.SCCResult;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the gap-encoded adjacency and its cursor consumers.
+ */
+public class CompressedGraphTest {
+
+    @Test
+    public void testCursorReturnsSortedNeighbors() {
+        // 0 -> {300, 2, 1, 2}, 1 -> {}, 2 -> {0}, plus far ids that need multi-byte varints
+        List<List<Integer>> graph = new ArrayList<>();
+        for (int i = 0; i < 301; i++) {
+            graph.add(new ArrayList<>());
+        }
+        graph.get(0).addAll(List.of(300, 2, 1, 2));
+        graph.get(2).add(0);
+        graph.get(300).add(0);
+
+        CompressedGraph compressed = CompressedGraph.from(graph);
+
+        assertEquals(301, compressed.getVertexCount());
+        assertEquals(6, compressed.getEdgeCount());
+        assertEquals(List.of(1, 2, 2, 300), neighbors(compressed, 0));
+        assertEquals(List.of(), neighbors(compressed, 1));
+        assertEquals(List.of(0), neighbors(compressed, 2));
+        assertEquals(List.of(0), neighbors(compressed, 300));
+    }
+
+    @Test
+    public void testFromCsrMatchesFromLists() {
+        // 0 -> 2, 0 -> 1, 1 -> 2, 2 -> 0
+        CsrGraph csr = new CsrGraph(3, new int[]{0, 2, 3, 4}, new int[]{2, 1, 2, 0}, new double[4],
+                new int[]{0, 1, 2, 4}, new int[]{2, 0, 0, 1}, new double[4]);
+
+        CompressedGraph fromCsr = CompressedGraph.from(csr);
+        CompressedGraph fromLists = CompressedGraph.from(csr.toAdjacencyList());
+
+        for (int u = 0; u < 3; u++) {
+            assertEquals(neighbors(fromLists, u), neighbors(fromCsr, u));
+        }
+        assertEquals(fromLists.getByteCount(), fromCsr.getByteCount());
+        assertEquals(8.0, fromCsr.getBitsPerEdge(), 0.001);
+    }
+
+    @Test
+    public void testTarjanMatchesListGraph() {
+        // Cycle 0 -> 1 -> 2 -> 0 feeding 3 -> 4 -> 3, plus isolated 5
+        List<List<Integer>> graph = List.of(
+                List.of(1), List.of(2), List.of(0, 3), List.of(4), List.of(3), List.of());
+
+        SCCResult expected = new TarjanSCC().findComponents(graph);
+        TarjanSCC tarjan = new TarjanSCC();
+        SCCResult actual = tarjan.findComponents(CompressedGraph.from(graph));
+
+        assertEquals(expected.toLists(), actual.toLists());
+        assertArrayEquals(expected.getComponentOf(), actual.getComponentOf());
+        assertEquals(6, tarjan.getMetrics().getCounter("edge_explorations"));
+    }
+
+    @Test
+    public void testTarjanOnDeepChainNeedsNoLargeStack() {
+        // 0 -> 1 -> ... -> n-1 -> 0: one component, deeper than the default thread stack allows recursively
+        int n = 200_000;
+        List<List<Integer>> graph = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            graph.add(List.of((i + 1) % n));
+        }
+
+        SCCResult result = new TarjanSCC().findComponents(CompressedGraph.from(graph));
+
+        assertEquals(1, result.getComponentCount());
+        assertEquals(n, result.getSize(0));
+    }
+
+    @Test
+    public void testTopologicalSortThroughCursor() {
+        // 0 -> 2, 1 -> 2, 2 -> 3; then a cycle 0 -> 1 -> 0
+        List<List<Integer>> dag = List.of(List.of(2), List.of(2), List.of(3), List.of());
+        List<List<Integer>> cyclic = List.of(List.of(1), List.of(0));
+        TopologicalSort topo = new TopologicalSort();
+
+        assertEquals(List.of(0, 1, 2, 3), topo.topologicalSort(CompressedGraph.from(dag)));
+        assertEquals(topo.topologicalSort(dag), topo.topologicalSort(AdjacencyGraph.of(dag)));
+        assertNull(topo.topologicalSort(CompressedGraph.from(cyclic)));
+    }
+
+    @Test
+    public void testRejectsOutOfRangeNeighbor() {
+        List<List<Integer>> graph = Arrays.asList(List.of(1), List.of(2));
+
+        assertThrows(IllegalArgumentException.class, () -> CompressedGraph.from(graph));
+    }
+
+    private static List<Integer> neighbors(AdjacencyGraph graph, int u) {
+        NeighborCursor cursor = graph.newCursor();
+        cursor.reset(u);
+        List<Integer> result = new ArrayList<>();
+        while (cursor.hasNext()) {
+            result.add(cursor.next());
+        }
+        return result;
+    }
+}